@@ -22,7 +22,7 @@ public class App {
         // Використання SwingUtilities.invokeLater гарантує, що створення вікна
         // відбудеться в потоці обробки подій, а не в головному потоці.
         SwingUtilities.invokeLater(() -> {
-            // Створення головного вікна
+            // Створення головного вікна (дані завантажуються у фоні, вікно не чекає на них)
             MainFrame frame = new MainFrame();
 
             // Відображення вікна на екрані
@@ -0,0 +1,409 @@
+package com.example.control;
+
+import com.example.entity.Client;
+import com.example.entity.Photo;
+import com.example.entity.Photographer;
+import com.example.model.Order;
+import com.example.util.CompactId;
+import com.example.util.OrderStatus;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Сховище знімка в одному двійковому файлі {@code studio.bin}.
+ * <p>
+ * Структура файлу (порядок байтів little-endian):
+ * <ul>
+ * <li>заголовок: сигнатура {@code PSTB}, версія формату, кількість рядків,
+ * клієнтів, фотографів, замовлень і фотографій та CRC32C заголовка —
+ * завантажувач одразу створює колекції потрібного розміру;</li>
+ * <li>блоки {@code [тип, довжина, дані, CRC32C]}: таблиця рядків, клієнти,
+ * фотографи, замовлення, фотографії.</li>
+ * </ul>
+ * Усі тексти (імена, телефони, назви послуг, шляхи) зберігаються один раз
+ * у таблиці рядків з префіксом довжини, записи сутностей посилаються на них
+ * за номером. ID у форматі UUID записуються як два long (128 біт), дати — як
+ * секунди епохи та наносекунди, суми — як ціле число копійок. Замовлення
+ * посилаються на клієнта, фотографа та замовлення фото за порядковим номером,
+ * тому завантаження — це послідовне читання без розбору тексту та без пошуку в індексах.
+ */
+class BinaryStorage extends SnapshotStorage {
+
+    /** Назва файлу знімка в директорії даних. */
+    static final String FILE_NAME = "studio.bin";
+
+    /** Сигнатура файлу ("PSTB"). */
+    private static final int MAGIC = 0x50_53_54_42;
+
+    /**
+     * Поточна версія формату (2 — фото з розміром і хешем вмісту, 3 — і з назвою з фотоапарата;
+     * попередні версії читаються без цих полів).
+     */
+    static final int VERSION = 3;
+
+    /** Розмір заголовка (байт). */
+    private static final int HEADER_BYTES = 32;
+
+    // Типи блоків
+    private static final int BLOCK_STRINGS = 1;
+    private static final int BLOCK_CLIENTS = 2;
+    private static final int BLOCK_PHOTOGRAPHERS = 3;
+    private static final int BLOCK_ORDERS = 4;
+    private static final int BLOCK_PHOTOS = 5;
+
+    // Тип ID: UUID (два long) або довільний рядок з таблиці рядків
+    private static final byte ID_UUID = 0;
+    private static final byte ID_TEXT = 1;
+
+    BinaryStorage(DataManager data) {
+        super(data);
+    }
+
+    @Override
+    StorageFormat format() {
+        return StorageFormat.BINARY;
+    }
+
+    @Override
+    boolean exists(Path dir) {
+        return Files.exists(dir.resolve(FILE_NAME));
+    }
+
+    @Override
+    void delete(Path dir) throws IOException {
+        Files.deleteIfExists(dir.resolve(FILE_NAME));
+    }
+
+    // --- Запис ---
+
+    /**
+     * Записує знімок у тимчасовий файл і після fsync атомарно замінює ним {@code studio.bin}.
+     */
+    @Override
+    void write(Path dir, List<Client> clients, List<Photographer> photographers, List<Order> orders)
+            throws IOException {
+        StringTable strings = new StringTable(clients.size() * 3 + photographers.size() * 3 + orders.size() / 2);
+
+        Block clientBlock = new Block(clients.size() * 36 + 64);
+        Map<Client, Integer> clientIndex = new IdentityHashMap<>(clients.size());
+        for (Client c : clients) {
+            clientIndex.put(c, clientIndex.size());
+            writeId(clientBlock, c.getId(), strings);
+            clientBlock.putInt(strings.ref(c.getName()));
+            clientBlock.putInt(strings.ref(c.getPhoneNumber()));
+            clientBlock.putInt(strings.ref(c.getEmail()));
+            clientBlock.put((byte) (c.isRegular() ? 1 : 0));
+        }
+
+        Block photographerBlock = new Block(photographers.size() * 32 + 64);
+        Map<Photographer, Integer> photographerIndex = new IdentityHashMap<>(photographers.size());
+        for (Photographer p : photographers) {
+            photographerIndex.put(p, photographerIndex.size());
+            writeId(photographerBlock, p.getId(), strings);
+            photographerBlock.putInt(strings.ref(p.getName()));
+            photographerBlock.putInt(strings.ref(p.getPhoneNumber()));
+            photographerBlock.putInt(strings.ref(p.getSpecialization()));
+        }
+
+        // Замовлення з клієнтом чи фотографом поза списками пропускаються (як і при читанні CSV)
+        Block orderBlock = new Block(orders.size() * 50 + 64);
+        Block photoBlock = new Block(orders.size() * 8 + 64);
+        int orderCount = 0, photoCount = 0;
+        for (Order o : orders) {
+            Integer ci = clientIndex.get(o.getClient());
+            Integer pi = photographerIndex.get(o.getPhotographer());
+            if (ci == null || pi == null) continue;
+            writeId(orderBlock, o.getId(), strings);
+            orderBlock.putInt(ci);
+            orderBlock.putInt(pi);
+            orderBlock.putInt(strings.ref(o.getSessionType().getName()));
+            LocalDateTime date = o.getOrderDate();
+            orderBlock.putLong(date.toEpochSecond(ZoneOffset.UTC));
+            orderBlock.putInt(date.getNano());
+            orderBlock.put((byte) o.getStatus().ordinal());
+            orderBlock.putLong(Math.round(o.getTotalCost() * 100));
+            if (o.hasPhotos()) for (Photo photo : o.getPhotos()) {
+                photoBlock.putInt(orderCount);
+                writeId(photoBlock, photo.getId(), strings);
+                photoBlock.putInt(strings.ref(photo.getFilePath()));
+                photoBlock.putLong(photo.getSize());
+                photoBlock.putInt(strings.ref(photo.getContentHash()));
+                photoBlock.putInt(strings.ref(photo.getOriginalName()));
+                photoCount++;
+            }
+            orderCount++;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(strings.size()).putInt(clients.size())
+                .putInt(photographers.size()).putInt(orderCount).putInt(photoCount);
+        header.putInt(crc(header.duplicate().flip()));
+        header.flip();
+
+        List<ByteBuffer> parts = new ArrayList<>(16);
+        parts.add(header);
+        strings.encode().frame(BLOCK_STRINGS, parts);
+        clientBlock.frame(BLOCK_CLIENTS, parts);
+        photographerBlock.frame(BLOCK_PHOTOGRAPHERS, parts);
+        orderBlock.frame(BLOCK_ORDERS, parts);
+        photoBlock.frame(BLOCK_PHOTOS, parts);
+        Path target = dir.resolve(FILE_NAME);
+        Path tmp = dir.resolve(FILE_NAME + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            // Заголовок і всі блоки записуються одним векторним записом без копіювання даних
+            ByteBuffer[] vector = parts.toArray(new ByteBuffer[0]);
+            long total = 0;
+            for (ByteBuffer part : vector) total += part.remaining();
+            for (long written = 0; written < total; ) written += ch.write(vector);
+            ch.force(false);
+        }
+        CsvSnapshotWriter.replaceAtomically(tmp, target);
+    }
+
+    /**
+     * Записує ID: канонічний UUID — як два long, будь-який інший — посиланням на таблицю рядків.
+     */
+    private static void writeId(Block b, String id, StringTable strings) {
+        if (CompactId.isCanonical(id)) {
+            b.put(ID_UUID);
+            b.putLong(CompactId.high(id));
+            b.putLong(CompactId.low(id));
+        } else {
+            b.put(ID_TEXT);
+            b.putInt(strings.ref(id));
+        }
+    }
+
+    // --- Читання ---
+
+    /**
+     * Відображає файл у пам'ять і послідовно читає блоки, перевіряючи контрольні суми.
+     */
+    @Override
+    Snapshot read(Path dir) throws IOException {
+        Path file = dir.resolve(FILE_NAME);
+        if (!Files.exists(file)) return new Snapshot();
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size > Integer.MAX_VALUE) throw new IOException("Файл знімка завеликий: " + size + " байт");
+            ByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+            return read(buf);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("Файл знімка обірваний: " + file, e);
+        }
+    }
+
+    /**
+     * Читає знімок з буфера, розташованого на початку файлу.
+     */
+    private Snapshot read(ByteBuffer buf) throws IOException {
+        if (buf.getInt() != MAGIC) throw new IOException("Файл не є двійковим знімком PhotoStudio");
+        int version = buf.getInt();
+        if (version < 1 || version > VERSION) throw new IOException("Непідтримувана версія двійкового знімка: " + version);
+        int stringCount = buf.getInt();
+        int clientCount = buf.getInt();
+        int photographerCount = buf.getInt();
+        int orderCount = buf.getInt();
+        int photoCount = buf.getInt();
+        if (crc(buf.duplicate().flip()) != buf.getInt()) throw new IOException("Пошкоджений заголовок знімка");
+
+        // Таблиця рядків: кожен рядок декодується один раз і спільно використовується записами
+        ByteBuffer b = block(buf, BLOCK_STRINGS);
+        String[] strings = new String[stringCount];
+        byte[] scratch = new byte[256];
+        for (int i = 0; i < stringCount; i++) {
+            int len = b.getInt();
+            if (len > scratch.length) scratch = new byte[Math.max(len, scratch.length * 2)];
+            b.get(scratch, 0, len);
+            strings[i] = new String(scratch, 0, len, StandardCharsets.UTF_8);
+        }
+
+        Snapshot snap = new Snapshot(clientCount, photographerCount, orderCount);
+        b = block(buf, BLOCK_CLIENTS);
+        for (int i = 0; i < clientCount; i++) {
+            String id = readId(b, strings);
+            Client c = new Client(str(strings, b.getInt()), str(strings, b.getInt()), str(strings, b.getInt()), b.get() != 0);
+            c.setId(id);
+            snap.clients.add(c);
+            snap.clientsById.put(id, c);
+        }
+
+        b = block(buf, BLOCK_PHOTOGRAPHERS);
+        for (int i = 0; i < photographerCount; i++) {
+            String id = readId(b, strings);
+            Photographer p = new Photographer(str(strings, b.getInt()), str(strings, b.getInt()), str(strings, b.getInt()));
+            p.setId(id);
+            snap.photographers.add(p);
+            snap.photographersById.put(id, p);
+        }
+
+        b = block(buf, BLOCK_ORDERS);
+        OrderStatus[] statuses = OrderStatus.values();
+        for (int i = 0; i < orderCount; i++) {
+            String id = readId(b, strings);
+            Client c = snap.clients.get(b.getInt());
+            Photographer p = snap.photographers.get(b.getInt());
+            int sessionName = b.getInt();
+            LocalDateTime date = LocalDateTime.ofEpochSecond(b.getLong(), b.getInt(), ZoneOffset.UTC);
+            int status = b.get();
+            if (status < 0 || status >= statuses.length) throw new IOException("Невідомий статус замовлення: " + status);
+            long cents = b.getLong();
+            double cost = cents / 100.0;
+            // Тип сесії відновлюється так само, як з CSV (ціна = вартість замовлення),
+            // але замовлення з однаковою назвою та вартістю мають спільний об'єкт
+            Order o = new Order(c, p, snap.sessionTypes.get(str(strings, sessionName), cost));
+            o.setId(id);
+            o.setOrderDate(date);
+            o.setStatus(statuses[status]);
+            o.setTotalCost(cost);
+            snap.orders.add(o);
+            snap.ordersById.put(id, o);
+        }
+
+        b = block(buf, BLOCK_PHOTOS);
+        for (int i = 0; i < photoCount; i++) {
+            Order o = snap.orders.get(b.getInt());
+            String id = readId(b, strings);
+            Photo photo = new Photo(str(strings, b.getInt()));
+            photo.setId(id);
+            if (version >= 2) photo.setContent(b.getLong(), str(strings, b.getInt()));
+            if (version >= 3) photo.setOriginalName(str(strings, b.getInt()));
+            o.getPhotos().add(photo);
+        }
+        snap.photoCount = photoCount;
+        return snap;
+    }
+
+    /**
+     * Читає наступний блок очікуваного типу та перевіряє його контрольну суму.
+     * @param buf буфер файлу (позиція — на початку блоку).
+     * @param tag очікуваний тип блоку.
+     * @return дані блоку.
+     * @throws IOException якщо тип не збігається або дані пошкоджено.
+     */
+    private static ByteBuffer block(ByteBuffer buf, int tag) throws IOException {
+        int actual = buf.getInt();
+        int len = buf.getInt();
+        if (actual != tag || len < 0) throw new IOException("Неочікуваний блок знімка: " + actual);
+        ByteBuffer data = buf.slice(buf.position(), len).order(ByteOrder.LITTLE_ENDIAN);
+        buf.position(buf.position() + len);
+        if (crc(data.duplicate()) != buf.getInt()) throw new IOException("Пошкоджений блок знімка: " + tag);
+        return data;
+    }
+
+    /** Читає ID, записаний методом {@link #writeId}. */
+    private static String readId(ByteBuffer b, String[] strings) throws IOException {
+        byte kind = b.get();
+        if (kind == ID_UUID) return CompactId.format(b.getLong(), b.getLong());
+        if (kind == ID_TEXT) return str(strings, b.getInt());
+        throw new IOException("Невідомий тип ID: " + kind);
+    }
+
+    /** Повертає рядок з таблиці за посиланням (-1 означає null). */
+    private static String str(String[] strings, int ref) {
+        return ref < 0 ? null : strings[ref];
+    }
+
+    /** Обчислює CRC32C вмісту буфера (позиція буфера зсувається). */
+    private static int crc(ByteBuffer data) {
+        CRC32C crc = new CRC32C();
+        crc.update(data);
+        return (int) crc.getValue();
+    }
+
+    // --- Допоміжні структури запису ---
+
+    /**
+     * Буфер блоку, що розширюється при заповненні.
+     */
+    private static class Block {
+        private ByteBuffer buf;
+
+        Block(int capacity) {
+            buf = ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        private void ensure(int bytes) {
+            if (buf.remaining() >= bytes) return;
+            int capacity = Math.max(buf.capacity() * 2, buf.position() + bytes);
+            ByteBuffer bigger = ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+            bigger.put(buf.flip());
+            buf = bigger;
+        }
+
+        void put(byte v) { ensure(1); buf.put(v); }
+        void putInt(int v) { ensure(4); buf.putInt(v); }
+        void putLong(long v) { ensure(8); buf.putLong(v); }
+        void put(byte[] v) { ensure(v.length); buf.put(v); }
+
+        /**
+         * Обрамлює дані блоку: додає до списку запису тип і довжину, дані та CRC32C.
+         * @param tag тип блоку.
+         * @param parts буфери для векторного запису у файл.
+         */
+        void frame(int tag, List<ByteBuffer> parts) {
+            buf.flip();
+            parts.add(ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putInt(tag).putInt(buf.remaining()).flip());
+            parts.add(buf);
+            parts.add(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(crc(buf.duplicate())).flip());
+        }
+    }
+
+    /**
+     * Таблиця унікальних рядків: кожен текст отримує номер при першому використанні.
+     */
+    private static class StringTable {
+        private final Map<String, Integer> refs;
+        private final List<String> values;
+
+        /** @param expected очікувана кількість унікальних рядків. */
+        StringTable(int expected) {
+            refs = HashMap.newHashMap(expected);
+            values = new ArrayList<>(expected);
+        }
+
+        /** @return номер рядка в таблиці (-1 для null). */
+        int ref(String s) {
+            if (s == null) return -1;
+            Integer ref = refs.get(s);
+            if (ref == null) {
+                ref = values.size();
+                refs.put(s, ref);
+                values.add(s);
+            }
+            return ref;
+        }
+
+        int size() {
+            return values.size();
+        }
+
+        /** Кодує таблицю: для кожного рядка — довжина в байтах та UTF-8. */
+        Block encode() {
+            Block b = new Block(values.size() * 24 + 64);
+            for (String s : values) {
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                b.putInt(bytes.length);
+                b.put(bytes);
+            }
+            return b;
+        }
+    }
+}
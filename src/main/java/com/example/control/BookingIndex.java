@@ -0,0 +1,131 @@
+package com.example.control;
+
+import com.example.model.Order;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Індекс бронювань: для кожного фотографа — впорядковані за часом початку сесії.
+ * <p>
+ * Бронювання займає проміжок {@code [початок, початок + тривалість)}. Для пошуку
+ * перетинів з новим проміжком {@code [s, e)} достатньо переглянути бронювання,
+ * що починаються в {@code (s - максимальна тривалість, e)} — це діапазонний запит
+ * до {@link TreeMap} за O(log n + k) замість перебору всіх замовлень.
+ * <p>
+ * Індекс не синхронізований: його змінює лише {@link DataManager} під своїм блокуванням.
+ */
+class BookingIndex {
+
+    /** Заброньований проміжок часу фотографа. */
+    record Booking(Order order, LocalDateTime start, int minutes) {
+        LocalDateTime end() {
+            return start.plusMinutes(minutes);
+        }
+    }
+
+    /** Розклад одного фотографа. */
+    private static class Timeline {
+        /** Бронювання за часом початку (кілька замовлень можуть починатися одночасно). */
+        final TreeMap<LocalDateTime, List<Booking>> byStart = new TreeMap<>();
+        /** Найбільша тривалість серед бронювань (межа діапазонного запиту). */
+        int maxMinutes;
+    }
+
+    /** Розклади за ID фотографа. */
+    private final Map<String, Timeline> timelines = new HashMap<>();
+
+    /** Поточне бронювання кожного замовлення (для видалення при зміні). */
+    private final Map<Order, Booking> bookings = new HashMap<>();
+
+    /**
+     * Додає або переміщує бронювання замовлення.
+     * @param o замовлення.
+     * @param minutes тривалість сесії (хв).
+     */
+    void put(Order o, int minutes) {
+        remove(o);
+        Booking b = new Booking(o, o.getOrderDate(), minutes);
+        Timeline t = timelines.computeIfAbsent(o.getPhotographer().getId(), k -> new Timeline());
+        t.byStart.computeIfAbsent(b.start(), k -> new ArrayList<>(1)).add(b);
+        t.maxMinutes = Math.max(t.maxMinutes, minutes);
+        bookings.put(o, b);
+    }
+
+    /**
+     * Видаляє бронювання замовлення (якщо воно є).
+     * @param o замовлення.
+     */
+    void remove(Order o) {
+        Booking b = bookings.remove(o);
+        if (b == null) return;
+        Timeline t = timelines.get(o.getPhotographer().getId());
+        if (t == null) return;
+        List<Booking> same = t.byStart.get(b.start());
+        if (same != null && same.remove(b) && same.isEmpty()) t.byStart.remove(b.start());
+    }
+
+    /** Очищує індекс (перед повторним завантаженням даних). */
+    void clear() {
+        timelines.clear();
+        bookings.clear();
+    }
+
+    /**
+     * Знаходить замовлення фотографа, що перетинаються з проміжком {@code [start, start + minutes)}.
+     * @param photographerId ID фотографа.
+     * @param start початок сесії.
+     * @param minutes тривалість сесії (хв).
+     * @param exclude замовлення, яке не враховується (саме нове замовлення), може бути null.
+     * @return список замовлень, що перетинаються (порожній, якщо фотограф вільний).
+     */
+    List<Order> findOverlaps(String photographerId, LocalDateTime start, int minutes, Order exclude) {
+        List<Order> result = new ArrayList<>(0);
+        for (Booking b : between(photographerId, start, start.plusMinutes(minutes))) {
+            if (b.order() != exclude) result.add(b.order());
+        }
+        return result;
+    }
+
+    /**
+     * Повертає бронювання фотографа, що перетинаються з проміжком {@code [start, end)}.
+     * @param photographerId ID фотографа.
+     * @param start початок проміжку.
+     * @param end кінець проміжку.
+     * @return бронювання у порядку часу початку.
+     */
+    List<Booking> between(String photographerId, LocalDateTime start, LocalDateTime end) {
+        Timeline t = timelines.get(photographerId);
+        if (t == null || t.byStart.isEmpty()) return List.of();
+        List<Booking> result = new ArrayList<>(0);
+        for (List<Booking> same : t.byStart.subMap(start.minusMinutes(t.maxMinutes), false, end, false).values()) {
+            for (Booking b : same) {
+                if (b.end().isAfter(start)) result.add(b);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Перевіряє, чи фотограф вільний протягом проміжку {@code [start, start + minutes)}.
+     * @param photographerId ID фотографа.
+     * @param start початок сесії.
+     * @param minutes тривалість сесії (хв).
+     * @return true, якщо жодне бронювання не перетинається з проміжком.
+     */
+    boolean isFree(String photographerId, LocalDateTime start, int minutes) {
+        Timeline t = timelines.get(photographerId);
+        if (t == null) return true;
+        LocalDateTime end = start.plusMinutes(minutes);
+        for (List<Booking> same : t.byStart.subMap(start.minusMinutes(t.maxMinutes), false, end, false).values()) {
+            for (Booking b : same) {
+                if (b.end().isAfter(start)) return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.control;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Журнал змін (write-ahead log) для інкрементального збереження даних.
+ * <p>
+ * Замість перезапису всіх CSV-файлів після кожної зміни, {@link DataManager}
+ * дописує в кінець журналу один компактний запис. Вартість запису — O(1)
+ * незалежно від обсягу історії. При запуску журнал "програється" поверх
+ * останнього знімка (snapshot), а ущільнення (compaction) переносить усі зміни
+ * у новий знімок та очищує журнал.
+ * <p>
+ * Формат запису — рядок CSV з префіксом типу:
+ * <ul>
+ * <li>{@code C,...} — клієнт (рядок як у clients.csv);</li>
+ * <li>{@code P,...} — фотограф (рядок як у photographers.csv);</li>
+ * <li>{@code O,...} — замовлення (рядок як у orders.csv);</li>
+ * <li>{@code F,...} — фотографія (рядок як у photos.csv);</li>
+ * <li>{@code S,orderId,STATUS} — зміна статусу замовлення.</li>
+ * </ul>
+ */
+public class ChangeJournal {
+
+    /** Назва файлу журналу в директорії даних. */
+    public static final String FILE_NAME = "journal.log";
+
+    /** Шлях до файлу журналу. */
+    private final Path file;
+
+    /** Кількість записів, доданих з моменту останнього ущільнення. */
+    private int recordCount;
+
+    /** Відкритий канал для дописування (створюється при першому записі). */
+    private FileChannel channel;
+
+    /**
+     * Створює журнал у вказаній директорії (файл створюється при першому записі).
+     * @param dir директорія даних.
+     */
+    public ChangeJournal(String dir) {
+        this.file = Paths.get(dir, FILE_NAME);
+    }
+
+    /**
+     * Дописує один запис у кінець журналу.
+     * @param record рядок запису без символу нового рядка.
+     * @throws IOException у разі помилки запису.
+     */
+    public void append(String record) throws IOException {
+        appendAll(List.of(record));
+    }
+
+    /**
+     * Дописує пакет записів одним викликом запису та скидає їх на диск (fsync).
+     * Використовується фоновим {@link PersistenceWriter} для групового коміту.
+     * @param records записи без символів нового рядка.
+     * @throws IOException у разі помилки запису.
+     */
+    public void appendAll(Collection<String> records) throws IOException {
+        if (records.isEmpty()) return;
+        StringBuilder sb = new StringBuilder(records.size() * 96);
+        for (String record : records) sb.append(record).append('\n');
+        ByteBuffer buf = StandardCharsets.UTF_8.encode(sb.toString());
+
+        if (channel == null) {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        while (buf.hasRemaining()) channel.write(buf);
+        channel.force(false);
+        recordCount += records.size();
+    }
+
+    /**
+     * Послідовно передає всі записи журналу обробнику (програвання при запуску).
+     * Порожні рядки пропускаються.
+     * @param handler обробник запису.
+     * @return кількість прочитаних записів.
+     * @throws IOException у разі помилки читання.
+     */
+    public int replay(Consumer<String> handler) throws IOException {
+        if (!Files.exists(file)) return 0;
+        int count = 0;
+        try (BufferedReader br = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                if (line.isEmpty()) continue;
+                handler.accept(line);
+                count++;
+            }
+        }
+        recordCount = count;
+        return count;
+    }
+
+    /**
+     * @return true, якщо файл журналу існує (у директорії є незнімковані зміни або їхній слід).
+     */
+    public boolean exists() {
+        return Files.exists(file);
+    }
+
+    /**
+     * Очищує журнал після того, як усі зміни перенесено у знімок.
+     * @throws IOException у разі помилки видалення файлу.
+     */
+    public void truncate() throws IOException {
+        close();
+        Files.deleteIfExists(file);
+        recordCount = 0;
+    }
+
+    /**
+     * Закриває канал запису (журнал можна продовжити після повторного відкриття).
+     * @throws IOException у разі помилки закриття.
+     */
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * Повертає кількість записів з моменту останнього ущільнення.
+     * @return кількість записів.
+     */
+    public int getRecordCount() {
+        return recordCount;
+    }
+}
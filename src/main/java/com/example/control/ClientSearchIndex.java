@@ -0,0 +1,227 @@
+package com.example.control;
+
+import com.example.entity.Client;
+import com.example.util.Contacts;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Префіксний індекс пошуку клієнтів за іменем, телефоном та email.
+ * <p>
+ * Ключі — слова імені в нижньому регістрі, нормалізований телефон
+ * ({@link Contacts#normalizePhone}) та нормалізований email. Основна частина індексу —
+ * відсортований масив ключів з паралельним масивом клієнтів: усі ключі з введеним
+ * префіксом лежать поспіль, тому пошук — бінарний пошук початку діапазону та прохід
+ * до першого ключа без префікса, O(log n + k). Пошук зупиняється, щойно набрано
+ * потрібну кількість результатів.
+ * <p>
+ * Масив будується одним сортуванням поза блокуванням ({@link #prepare}, для великої бази —
+ * у фоні після завантаження) або під час першого пошуку. Клієнти, додані або змінені пізніше,
+ * потрапляють у невеликий {@link TreeMap}-доповнення, а їх старі ключі в масиві перевіряються заново.
+ * Індекс не синхронізований: його змінює лише {@link DataManager} під своїм блокуванням.
+ */
+class ClientSearchIndex {
+
+    /** Ключ пошуку та його власник (для сортування при побудові). */
+    private record Entry(String key, Client client) { }
+
+    /** Відсортовані масиви, підготовлені для встановлення в індекс. */
+    record Prepared(String[] keys, Client[] owners, int clientCount) { }
+
+    /** Відсортовані ключі основної частини індексу. */
+    private String[] keys = new String[0];
+
+    /** Клієнт кожного ключа з {@link #keys}. */
+    private Client[] owners = new Client[0];
+
+    /** Ключі клієнтів, доданих або змінених після побудови масиву. */
+    private final TreeMap<String, List<Client>> delta = new TreeMap<>();
+
+    /** Клієнти, чиї ключі в масиві могли застаріти (перевіряються за поточними ключами). */
+    private final Set<Client> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /** Чи встановлено масиви (до цього додавання не відстежуються — їх врахує встановлення). */
+    private boolean built;
+
+    /** Номер покоління даних: змінюється при очищенні, щоб не встановити застарілу фонову побудову. */
+    private int generation;
+
+    /** Скидає індекс (перед повторним завантаженням даних); він перебудується при наступному пошуку. */
+    void clear() {
+        keys = new String[0];
+        owners = new Client[0];
+        delta.clear();
+        changed.clear();
+        built = false;
+        generation++;
+    }
+
+    /** @return поточне покоління даних (для {@link #install}). */
+    int generation() {
+        return generation;
+    }
+
+    /**
+     * Додає ключі клієнта до індексу.
+     * @param c клієнт.
+     */
+    void add(Client c) {
+        if (!built) return;
+        for (String key : keys(c)) {
+            List<Client> same = delta.computeIfAbsent(key, k -> new ArrayList<>(1));
+            if (!same.contains(c)) same.add(c);
+        }
+    }
+
+    /**
+     * Видаляє ключі клієнта (викликається до зміни його імені чи контактів).
+     * @param c клієнт.
+     */
+    void remove(Client c) {
+        changed.add(c); // Відстежується й до встановлення: фонова побудова могла прочитати старі ключі
+        if (!built) return;
+        for (String key : keys(c)) {
+            List<Client> same = delta.get(key);
+            if (same != null && same.remove(c) && same.isEmpty()) delta.remove(key);
+        }
+    }
+
+    /**
+     * Будує відсортований масив ключів клієнтів. Не змінює індекс, тому може виконуватися
+     * у фоновому потоці над копією списку клієнтів.
+     * @param clients клієнти (копія списку).
+     * @return масиви для {@link #install}.
+     */
+    static Prepared prepare(List<Client> clients) {
+        List<Entry> entries = new ArrayList<>(clients.size() * 4);
+        for (Client c : clients) {
+            for (String key : keys(c)) entries.add(new Entry(key, c));
+        }
+        Entry[] sorted = entries.toArray(new Entry[0]);
+        Arrays.parallelSort(sorted, Comparator.comparing(Entry::key));
+        String[] keys = new String[sorted.length];
+        Client[] owners = new Client[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            keys[i] = sorted[i].key();
+            owners[i] = sorted[i].client();
+        }
+        return new Prepared(keys, owners, clients.size());
+    }
+
+    /**
+     * Встановлює підготовлені масиви. Клієнти, додані після копіювання списку, та змінені
+     * під час побудови додаються до доповнення.
+     * @param prepared результат {@link #prepare}.
+     * @param preparedGeneration покоління даних на момент копіювання списку.
+     * @param clients поточний список клієнтів.
+     * @return false, якщо дані встигли перезавантажитися або індекс уже встановлено.
+     */
+    boolean install(Prepared prepared, int preparedGeneration, List<Client> clients) {
+        if (built || preparedGeneration != generation) return false;
+        keys = prepared.keys();
+        owners = prepared.owners();
+        built = true;
+        for (int i = prepared.clientCount(); i < clients.size(); i++) add(clients.get(i));
+        for (Client c : changed) add(c);
+        return true;
+    }
+
+    /**
+     * Знаходить клієнтів, у яких кожне слово запиту є початком слова імені, телефону або email.
+     * Запит лише з цифр та символів номера ("+38 (099) 11") шукається як один номер телефону.
+     * @param clients усі клієнти (для побудови індексу при першому пошуку).
+     * @param query текст пошуку.
+     * @param limit максимальна кількість результатів.
+     * @return знайдені клієнти (порожній запит — порожній список).
+     */
+    List<Client> search(List<Client> clients, String query, int limit) {
+        List<String> terms = terms(query);
+        if (terms.isEmpty() || limit <= 0) return List.of();
+        if (!built) install(prepare(clients), generation, clients);
+
+        // Кандидати — за першим словом (діапазон ключів), решта слів перевіряється на кожному кандидаті
+        String first = terms.get(0);
+        Set<Client> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Client> result = new ArrayList<>();
+        for (List<Client> same : delta.subMap(first, true, first + Character.MAX_VALUE, false).values()) {
+            for (Client c : same) {
+                if (!seen.add(c) || !matchesAll(c, terms, 1)) continue;
+                result.add(c);
+                if (result.size() >= limit) return result;
+            }
+        }
+        int from = Arrays.binarySearch(keys, first);
+        if (from < 0) from = -from - 1;
+        for (int i = from; i < keys.length && keys[i].startsWith(first); i++) {
+            Client c = owners[i];
+            if (!seen.add(c)) continue;
+            // Для змінених клієнтів ключ масиву міг застаріти — перевіряємо всі слова
+            if (!matchesAll(c, terms, changed.contains(c) ? 0 : 1)) continue;
+            result.add(c);
+            if (result.size() >= limit) return result;
+        }
+        return result;
+    }
+
+    /** Чи кожне слово запиту, починаючи з from, є початком одного з поточних ключів клієнта. */
+    private static boolean matchesAll(Client c, List<String> terms, int from) {
+        if (terms.size() <= from) return true;
+        List<String> keys = keys(c);
+        for (int i = from; i < terms.size(); i++) {
+            String term = terms.get(i);
+            boolean found = false;
+            for (String key : keys) {
+                if (key.startsWith(term)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) return false;
+        }
+        return true;
+    }
+
+    /** Ключі пошуку клієнта: слова імені, телефон (цифри) та email. */
+    private static List<String> keys(Client c) {
+        List<String> keys = new ArrayList<>(4);
+        if (c.getName() != null) words(c.getName().toLowerCase(Locale.ROOT), keys);
+        String phone = Contacts.normalizePhone(c.getPhoneNumber());
+        if (!phone.isEmpty()) keys.add(phone);
+        String email = Contacts.normalizeEmail(c.getEmail());
+        if (!email.isEmpty()) keys.add(email);
+        return keys;
+    }
+
+    /** Розбиває запит на нормалізовані слова. */
+    private static List<String> terms(String query) {
+        if (query == null || query.isBlank()) return List.of();
+        if (query.trim().matches("[+\\d\\s()\\-]+")) {
+            String phone = Contacts.normalizePhone(query);
+            return phone.isEmpty() ? List.of() : List.of(phone);
+        }
+        List<String> terms = new ArrayList<>();
+        words(query.toLowerCase(Locale.ROOT), terms);
+        return terms;
+    }
+
+    /** Додає до списку слова рядка, розділені пробілами (без регулярних виразів — викликається для кожного клієнта). */
+    private static void words(String text, List<String> out) {
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean space = i == text.length() || Character.isWhitespace(text.charAt(i));
+            if (!space && start < 0) start = i;
+            else if (space && start >= 0) {
+                out.add(text.substring(start, i));
+                start = -1;
+            }
+        }
+    }
+}
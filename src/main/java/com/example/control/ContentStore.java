@@ -0,0 +1,219 @@
+package com.example.control;
+
+import com.example.entity.Photo;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Сховище файлів фотографій, адресоване вмістом: файл зберігається один раз під іменем свого
+ * SHA-256 у розгалужених директоріях {@code photos/objects/ab/cd/<хеш>.<розширення>}, а всі фото
+ * з однаковим вмістом (у будь-яких замовленнях) посилаються на нього через {@link Photo#getFilePath()}.
+ * <p>
+ * Індекс хешів будується з записів фотографій (а не обходом директорій): для кожного хешу
+ * зберігається шлях об'єкта, його розмір і кількість посилань. {@link DataManager} перебудовує
+ * індекс після завантаження ({@link #clear()} + {@link #addRef}) і оновлює при прив'язці фото.
+ * Індекс розмірів дозволяє до копіювання відкинути файли, яких у сховищі точно немає —
+ * тоді файл не читається двічі.
+ * <p>
+ * Методи синхронізовані на самому сховищі: його викликають і потоки імпорту, і
+ * {@link DataManager} під своїм блокуванням (сховище ніколи не звертається до DataManager).
+ */
+class ContentStore {
+
+    /** Назва директорії об'єктів у сховищі фотографій. */
+    static final String OBJECTS_DIR = "objects";
+
+    /** Назва директорії тимчасових файлів імпорту (на тій самій ФС, що й об'єкти). */
+    static final String INCOMING_DIR = "incoming";
+
+    /** Запис індексу для одного вмісту. */
+    private static final class Entry {
+        /** Шлях об'єкта у сховищі (відносно директорії даних) або null, якщо файл ще поза сховищем. */
+        String path;
+        long size;
+        /** Кількість фото, що посилаються на цей вміст. */
+        int refs;
+    }
+
+    private final Path base;
+    private final Path root;
+    private final Path objects;
+    private final Path incoming;
+
+    /** Індекс за хешем вмісту. */
+    private final Map<String, Entry> byHash = new HashMap<>();
+
+    /** Кількість об'єктів сховища за розміром (для перевірки перед копіюванням). */
+    private final Map<Long, Integer> sizes = new HashMap<>();
+
+    /** Сума розмірів об'єктів сховища (байт). */
+    private long storedBytes;
+
+    /**
+     * @param dataDir директорія даних (шляхи фото зберігаються відносно неї).
+     * @param root коренева директорія сховища фотографій.
+     */
+    ContentStore(Path dataDir, Path root) {
+        this.base = dataDir.toAbsolutePath().normalize();
+        this.root = root.toAbsolutePath().normalize();
+        this.objects = root.resolve(OBJECTS_DIR).toAbsolutePath().normalize();
+        this.incoming = root.resolve(INCOMING_DIR).toAbsolutePath().normalize();
+    }
+
+    /** Очищує індекс (перед перебудовою після завантаження даних). */
+    synchronized void clear() {
+        byHash.clear();
+        sizes.clear();
+        storedBytes = 0;
+    }
+
+    /**
+     * Враховує посилання фото на його вміст. Фото без хешу (додані до появи імпорту) не враховуються.
+     * @param photo фотографія.
+     */
+    synchronized void addRef(Photo photo) {
+        if (photo.getContentHash() == null) return;
+        Entry e = byHash.computeIfAbsent(photo.getContentHash(), h -> new Entry());
+        e.refs++;
+        if (e.path == null && contains(photo.getFilePath())) register(e, photo.getFilePath(), photo.getSize());
+    }
+
+    /**
+     * Перевіряє, чи може у сховищі бути файл такого розміру (без хибних "ні").
+     * @param size розмір файлу.
+     * @return false, якщо об'єкта такого розміру точно немає.
+     */
+    synchronized boolean mayContain(long size) {
+        return sizes.containsKey(size);
+    }
+
+    /**
+     * @param hash SHA-256 вмісту.
+     * @return шлях об'єкта у сховищі або null, якщо такого вмісту немає.
+     */
+    synchronized String find(String hash) {
+        Entry e = byHash.get(hash);
+        return e != null ? e.path : null;
+    }
+
+    /**
+     * Кладе файл у сховище під його хешем. Якщо такий вміст уже є, повертається наявний об'єкт,
+     * а новий файл не зберігається. Посилання не додається — це робить прив'язка фото.
+     * @param file файл з уже обчисленим хешем.
+     * @param hash SHA-256 вмісту.
+     * @param size розмір файлу.
+     * @param extension розширення для нового об'єкта (без крапки, може бути порожнім).
+     * @param keepSource true — залишити вихідний файл (об'єкт створюється жорстким посиланням
+     *                   або копією), false — перемістити файл у сховище (або видалити, якщо вміст уже є).
+     * @return шлях об'єкта відносно директорії даних.
+     * @throws IOException у разі помилки файлової системи.
+     */
+    synchronized String put(Path file, String hash, long size, String extension, boolean keepSource) throws IOException {
+        Entry e = byHash.computeIfAbsent(hash, h -> new Entry());
+        if (e.path != null) {
+            if (!keepSource) Files.deleteIfExists(file);
+            return e.path;
+        }
+        Path target = objectPath(hash, extension);
+        Files.createDirectories(target.getParent());
+        if (Files.exists(target) && Files.size(target) == size) {
+            // Об'єкт лишився від перерваного імпорту, запис про нього ще не зроблено
+            if (!keepSource) Files.deleteIfExists(file);
+        } else if (keepSource) {
+            Path part = target.resolveSibling(target.getFileName() + ".part");
+            Files.deleteIfExists(part);
+            try {
+                Files.createLink(part, file); // Без копіювання даних, якщо ФС підтримує
+            } catch (IOException | UnsupportedOperationException ex) {
+                Files.copy(file, part, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.move(part, target, StandardCopyOption.ATOMIC_MOVE);
+        } else {
+            Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+        }
+        String path = base.relativize(target).toString();
+        register(e, path, size);
+        return path;
+    }
+
+    /**
+     * Створює тимчасовий файл для копіювання, з якого {@link #put} потім атомарно переміщує об'єкт.
+     * @return шлях до порожнього тимчасового файлу.
+     * @throws IOException якщо файл не вдалося створити.
+     */
+    Path createPart() throws IOException {
+        Files.createDirectories(incoming);
+        return Files.createTempFile(incoming, "ingest-", ".part");
+    }
+
+    /**
+     * @param path шлях фото (відносний до директорії даних або абсолютний).
+     * @return true, якщо файл знаходиться у сховищі об'єктів.
+     */
+    boolean contains(String path) {
+        return resolve(path).startsWith(objects);
+    }
+
+    /**
+     * @param file абсолютний шлях до файлу.
+     * @return true, якщо файл знаходиться у сховищі фотографій (але не обов'язково серед об'єктів).
+     */
+    boolean isManaged(Path file) {
+        return file.startsWith(root) && !file.equals(root);
+    }
+
+    /**
+     * @param path шлях фото (відносний до директорії даних або абсолютний).
+     * @return абсолютний шлях до файлу.
+     */
+    Path resolve(String path) {
+        return base.resolve(path).normalize();
+    }
+
+    /** @return кількість об'єктів у сховищі. */
+    synchronized int objectCount() {
+        int n = 0;
+        for (int c : sizes.values()) n += c;
+        return n;
+    }
+
+    /** @return фактично зайняте об'єктами місце (байт). */
+    synchronized long storedBytes() {
+        return storedBytes;
+    }
+
+    /** @return обсяг усіх фото, що посилаються на об'єкти сховища (байт, без дедуплікації). */
+    synchronized long referencedBytes() {
+        long total = 0;
+        for (Entry e : byHash.values()) if (e.path != null) total += e.size * e.refs;
+        return total;
+    }
+
+    /**
+     * @param hash SHA-256 вмісту.
+     * @return кількість фото, що посилаються на вміст.
+     */
+    synchronized int refCount(String hash) {
+        Entry e = byHash.get(hash);
+        return e != null ? e.refs : 0;
+    }
+
+    private void register(Entry e, String path, long size) {
+        e.path = path;
+        e.size = size;
+        sizes.merge(size, 1, Integer::sum);
+        storedBytes += size;
+    }
+
+    /** Шлях об'єкта: два рівні розгалуження за першими чотирма цифрами хешу. */
+    private Path objectPath(String hash, String extension) {
+        String name = extension.isEmpty() ? hash : hash + "." + extension.toLowerCase(Locale.ROOT);
+        return objects.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(name);
+    }
+}
@@ -0,0 +1,402 @@
+package com.example.control;
+
+import com.example.entity.Client;
+import com.example.entity.Photo;
+import com.example.entity.Photographer;
+import com.example.model.Order;
+import com.example.util.OrderStatus;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Швидкий завантажувач знімка CSV (clients/photographers/orders/photos.csv).
+ * <p>
+ * Кожен файл відображається в пам'ять ({@link MappedByteBuffer}) і ділиться на
+ * фрагменти, вирівняні по межах рядків. Фрагменти розбираються паралельно у
+ * {@link ForkJoinPool}; поля декодуються безпосередньо з байтів (без
+ * {@code readLine()} та {@code String.split}), рядки створюються лише для
+ * текстових полів, а числа, дати, статуси та булеві значення розбираються на місці.
+ * <p>
+ * Залежності між файлами враховано: клієнти та фотографи завантажуються
+ * одночасно, замовлення чекають лише на індекси клієнтів і фотографів,
+ * а фотографії — лише на індекс замовлень.
+ */
+class CsvSnapshotLoader {
+
+    /** Розмір фрагмента файлу за замовчуванням (байт). */
+    static final int DEFAULT_CHUNK_BYTES = 8 << 20;
+
+    /** Пул потоків для розбору фрагментів. */
+    private final ForkJoinPool pool;
+
+    /** Цільовий розмір фрагмента (байт). */
+    private final int chunkBytes;
+
+    /**
+     * Створює завантажувач зі спільним пулом ForkJoin та стандартним розміром фрагмента.
+     */
+    CsvSnapshotLoader() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_BYTES);
+    }
+
+    /**
+     * Створює завантажувач з вказаним пулом та розміром фрагмента.
+     * @param pool пул потоків.
+     * @param chunkBytes цільовий розмір фрагмента (байт).
+     */
+    CsvSnapshotLoader(ForkJoinPool pool, int chunkBytes) {
+        this.pool = pool;
+        this.chunkBytes = Math.max(1, chunkBytes);
+    }
+
+    /**
+     * Завантажує всі чотири файли знімка з директорії.
+     * Відсутні файли вважаються порожніми.
+     * @param dir директорія даних.
+     * @return завантажений знімок.
+     * @throws IOException у разі помилок читання.
+     */
+    Snapshot load(Path dir) throws IOException {
+        Snapshot snap = new Snapshot();
+        try {
+            // 1-2. Клієнти та фотографи — незалежні, завантажуються одночасно
+            CompletableFuture<Void> clients = CompletableFuture.runAsync(() -> {
+                for (List<Client> part : parseFile(dir.resolve("clients.csv"), 5, this::parseClient)) {
+                    for (Client c : part) {
+                        snap.clients.add(c);
+                        snap.clientsById.put(c.getId(), c);
+                    }
+                }
+            }, pool);
+            CompletableFuture<Void> photographers = CompletableFuture.runAsync(() -> {
+                for (List<Photographer> part : parseFile(dir.resolve("photographers.csv"), 4, this::parsePhotographer)) {
+                    for (Photographer p : part) {
+                        snap.photographers.add(p);
+                        snap.photographersById.put(p.getId(), p);
+                    }
+                }
+            }, pool);
+
+            // 3. Замовлення чекають лише на індекси клієнтів та фотографів
+            CompletableFuture<Void> orders = clients.runAfterBothAsync(photographers, () -> {
+                RowParser<Order> parser = (buf, f, scratch) -> parseOrder(buf, f, scratch, snap);
+                for (List<Order> part : parseFile(dir.resolve("orders.csv"), 7, parser)) {
+                    for (Order o : part) {
+                        snap.orders.add(o);
+                        snap.ordersById.put(o.getId(), o);
+                    }
+                }
+            }, pool);
+
+            // 4. Фотографії чекають лише на індекс замовлень; розбір паралельний,
+            // а прив'язка до замовлень — послідовна (зберігає порядок фото)
+            orders.thenRunAsync(() -> {
+                RowParser<Object[]> parser = (buf, f, scratch) -> parsePhoto(buf, f, scratch, snap);
+                for (List<Object[]> part : parseFile(dir.resolve("photos.csv"), 3, parser)) {
+                    for (Object[] pair : part) {
+                        ((Order) pair[0]).getPhotos().add((Photo) pair[1]);
+                        snap.photoCount++;
+                    }
+                }
+            }, pool).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) throw io.getCause();
+            throw e;
+        }
+        return snap;
+    }
+
+    // --- Розбір файлу фрагментами ---
+
+    /**
+     * Розбирач одного рядка CSV, поля якого задано зміщеннями у буфері.
+     * @param <T> тип результату.
+     */
+    @FunctionalInterface
+    interface RowParser<T> {
+        /**
+         * @param buf буфер фрагмента.
+         * @param fields пари зміщень [початок, кінець) для кожного поля.
+         * @param scratch допоміжний масив для декодування рядків.
+         * @return об'єкт або null, якщо рядок треба пропустити.
+         */
+        T parse(ByteBuffer buf, int[] fields, byte[][] scratch);
+    }
+
+    /**
+     * Ділить файл на фрагменти по межах рядків і розбирає їх паралельно.
+     * @param file шлях до файлу.
+     * @param minFields мінімальна кількість полів у коректному рядку.
+     * @param parser розбирач рядка.
+     * @return результати фрагментів у порядку файлу.
+     */
+    private <T> List<List<T>> parseFile(Path file, int minFields, RowParser<T> parser) {
+        if (!Files.exists(file)) return List.of();
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            List<long[]> ranges = splitLines(ch, size);
+            List<ForkJoinTask<List<T>>> tasks = new ArrayList<>(ranges.size());
+            for (long[] r : ranges) {
+                MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, r[0], r[1] - r[0]);
+                tasks.add(ForkJoinTask.adapt(() -> parseChunk(buf, minFields, parser)));
+            }
+            ForkJoinTask.invokeAll(tasks);
+            List<List<T>> result = new ArrayList<>(tasks.size());
+            for (ForkJoinTask<List<T>> t : tasks) result.add(t.join());
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Визначає межі фрагментів так, щоб кожен закінчувався символом нового рядка.
+     * @param ch канал файлу.
+     * @param size розмір файлу.
+     * @return список пар [початок, кінець).
+     * @throws IOException у разі помилки читання.
+     */
+    private List<long[]> splitLines(FileChannel ch, long size) throws IOException {
+        List<long[]> ranges = new ArrayList<>();
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        long start = 0;
+        while (start < size) {
+            long end = Math.min(size, start + chunkBytes);
+            // Дочитуємо до найближчого '\n', щоб рядок не розрізався між фрагментами
+            while (end < size) {
+                probe.clear();
+                int n = ch.read(probe, end);
+                if (n <= 0) { end = size; break; }
+                int nl = -1;
+                for (int i = 0; i < n; i++) {
+                    if (probe.get(i) == '\n') { nl = i; break; }
+                }
+                if (nl >= 0) { end += nl + 1; break; }
+                end += n;
+            }
+            end = Math.min(end, size);
+            ranges.add(new long[]{start, end});
+            start = end;
+        }
+        return ranges;
+    }
+
+    /**
+     * Розбирає один фрагмент: знаходить межі рядків і полів та викликає розбирач.
+     * @param buf відображений фрагмент файлу.
+     * @param minFields мінімальна кількість полів.
+     * @param parser розбирач рядка.
+     * @return розібрані об'єкти у порядку рядків.
+     */
+    private <T> List<T> parseChunk(ByteBuffer buf, int minFields, RowParser<T> parser) {
+        List<T> out = new ArrayList<>(Math.max(16, buf.limit() / 96));
+        int[] fields = new int[2 * 16];
+        byte[][] scratch = {new byte[256]};
+        int limit = buf.limit();
+        int pos = 0;
+        while (pos < limit) {
+            int count = 0;
+            int fieldStart = pos;
+            int i = pos;
+            for (; i < limit; i++) {
+                byte b = buf.get(i);
+                if (b == '\n') break;
+                if (b == ',') {
+                    if (2 * count + 2 > fields.length) fields = Arrays.copyOf(fields, fields.length * 2);
+                    fields[2 * count] = fieldStart;
+                    fields[2 * count + 1] = i;
+                    count++;
+                    fieldStart = i + 1;
+                }
+            }
+            int lineEnd = i;
+            if (lineEnd > pos && buf.get(lineEnd - 1) == '\r') lineEnd--; // Підтримка CRLF
+            if (2 * count + 2 > fields.length) fields = Arrays.copyOf(fields, fields.length * 2);
+            fields[2 * count] = Math.min(fieldStart, lineEnd);
+            fields[2 * count + 1] = lineEnd;
+            count++;
+            if (2 * count + 2 > fields.length) fields = Arrays.copyOf(fields, fields.length * 2);
+            fields[2 * count] = -1; // Кінець полів рядка (для необов'язкових полів, див. has)
+            if (lineEnd > pos && count >= minFields) {
+                T item = parser.parse(buf, fields, scratch);
+                if (item != null) out.add(item);
+            }
+            pos = i + 1;
+        }
+        return out;
+    }
+
+    // --- Розбір рядків окремих файлів ---
+
+    /** Рядок clients.csv: ID, ім'я, телефон, email, статус. */
+    private Client parseClient(ByteBuffer buf, int[] f, byte[][] scratch) {
+        Client c = new Client(str(buf, f, 1, scratch), str(buf, f, 2, scratch), str(buf, f, 3, scratch), bool(buf, f, 4));
+        c.setId(str(buf, f, 0, scratch));
+        return c;
+    }
+
+    /** Рядок photographers.csv: ID, ім'я, телефон, спеціалізація. */
+    private Photographer parsePhotographer(ByteBuffer buf, int[] f, byte[][] scratch) {
+        Photographer p = new Photographer(str(buf, f, 1, scratch), str(buf, f, 2, scratch), str(buf, f, 3, scratch));
+        p.setId(str(buf, f, 0, scratch));
+        return p;
+    }
+
+    /**
+     * Рядок orders.csv: ID, дата, статус, ID клієнта, ID фотографа, тип сесії, вартість.
+     * Замовлення з невідомим клієнтом або фотографом пропускаються.
+     */
+    private Order parseOrder(ByteBuffer buf, int[] f, byte[][] scratch, Snapshot snap) {
+        Client c = snap.clientsById.get(str(buf, f, 3, scratch));
+        Photographer ph = snap.photographersById.get(str(buf, f, 4, scratch));
+        if (c == null || ph == null) return null;
+
+        double cost = decimal(buf, f, 6, scratch);
+        Order o = new Order(c, ph, snap.sessionTypes.get(str(buf, f, 5, scratch), cost));
+        o.setId(str(buf, f, 0, scratch));
+        o.setOrderDate(dateTime(buf, f, 1, scratch));
+        o.setStatus(status(buf, f, 2, scratch));
+        o.setTotalCost(cost);
+        return o;
+    }
+
+    /**
+     * Рядок photos.csv: ID фото, ID замовлення, шлях [, розмір, хеш вмісту [, назва з фотоапарата]].
+     * Повертає пару (замовлення, фото).
+     */
+    private Object[] parsePhoto(ByteBuffer buf, int[] f, byte[][] scratch, Snapshot snap) {
+        Order order = snap.ordersById.get(str(buf, f, 1, scratch));
+        if (order == null) return null;
+        Photo photo = new Photo(str(buf, f, 2, scratch));
+        photo.setId(str(buf, f, 0, scratch));
+        if (has(f, 4)) photo.setContent(Long.parseLong(str(buf, f, 3, scratch)), str(buf, f, 4, scratch));
+        if (has(f, 5)) photo.setOriginalName(str(buf, f, 5, scratch));
+        return new Object[]{order, photo};
+    }
+
+    // --- Декодування полів безпосередньо з байтів ---
+
+    /** Перевіряє, чи рядок містить поле з вказаним номером. */
+    private static boolean has(int[] f, int idx) {
+        for (int i = 0; i <= idx; i++) if (f[2 * i] < 0) return false;
+        return true;
+    }
+
+    /** Декодує текстове поле (UTF-8). */
+    private static String str(ByteBuffer buf, int[] f, int idx, byte[][] scratch) {
+        int from = f[2 * idx], len = f[2 * idx + 1] - from;
+        if (len > scratch[0].length) scratch[0] = new byte[Math.max(len, scratch[0].length * 2)];
+        buf.get(from, scratch[0], 0, len);
+        return new String(scratch[0], 0, len, StandardCharsets.UTF_8);
+    }
+
+    /** Розбирає булеве поле ("true" без урахування регістру, як Boolean.parseBoolean). */
+    private static boolean bool(ByteBuffer buf, int[] f, int idx) {
+        int from = f[2 * idx];
+        if (f[2 * idx + 1] - from != 4) return false;
+        return (buf.get(from) | 0x20) == 't' && (buf.get(from + 1) | 0x20) == 'r'
+                && (buf.get(from + 2) | 0x20) == 'u' && (buf.get(from + 3) | 0x20) == 'e';
+    }
+
+    /** Розбирає статус замовлення, порівнюючи байти з назвами констант. */
+    private static OrderStatus status(ByteBuffer buf, int[] f, int idx, byte[][] scratch) {
+        int from = f[2 * idx], len = f[2 * idx + 1] - from;
+        outer:
+        for (OrderStatus s : OrderStatus.values()) {
+            String name = s.name();
+            if (name.length() != len) continue;
+            for (int i = 0; i < len; i++) {
+                if (buf.get(from + i) != name.charAt(i)) continue outer;
+            }
+            return s;
+        }
+        return OrderStatus.valueOf(str(buf, f, idx, scratch)); // Кидає виключення з назвою
+    }
+
+    /**
+     * Розбирає десяткове число вигляду "1234.50" без створення рядка.
+     * Результат збігається з {@link Double#parseDouble}: точна мантиса ділиться
+     * на точний степінь десяти. Інші формати (експонента тощо) — через parseDouble.
+     */
+    private static double decimal(ByteBuffer buf, int[] f, int idx, byte[][] scratch) {
+        int from = f[2 * idx], to = f[2 * idx + 1];
+        boolean negative = from < to && buf.get(from) == '-';
+        int i = negative ? from + 1 : from;
+        long mantissa = 0;
+        int fractionDigits = 0, digits = 0;
+        boolean dot = false;
+        for (; i < to; i++) {
+            byte b = buf.get(i);
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                if (dot) fractionDigits++;
+            } else if (b == '.' && !dot) {
+                dot = true;
+            } else {
+                break;
+            }
+        }
+        if (i != to || digits == 0 || digits > 15 || fractionDigits > 22) {
+            return Double.parseDouble(str(buf, f, idx, scratch).trim());
+        }
+        double value = mantissa / POW10[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    /** Точні степені десяти, представимі у double. */
+    private static final double[] POW10 = new double[23];
+
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++) POW10[i] = POW10[i - 1] * 10;
+    }
+
+    /**
+     * Розбирає дату у форматі {@link LocalDateTime#toString()}
+     * ("yyyy-MM-ddTHH:mm[:ss[.fffffffff]]") без створення рядка.
+     */
+    private static LocalDateTime dateTime(ByteBuffer buf, int[] f, int idx, byte[][] scratch) {
+        int from = f[2 * idx], len = f[2 * idx + 1] - from;
+        if (len < 16 || buf.get(from + 4) != '-' || buf.get(from + 10) != 'T') {
+            return LocalDateTime.parse(str(buf, f, idx, scratch));
+        }
+        int year = num(buf, from, 4), month = num(buf, from + 5, 2), day = num(buf, from + 8, 2);
+        int hour = num(buf, from + 11, 2), minute = num(buf, from + 14, 2);
+        int second = 0, nano = 0;
+        if (len >= 19) second = num(buf, from + 17, 2);
+        if (len > 20) {
+            int fracLen = len - 20;
+            nano = num(buf, from + 20, fracLen);
+            for (int i = fracLen; i < 9; i++) nano *= 10;
+        }
+        return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+    }
+
+    /** Розбирає невід'ємне ціле з фіксованої кількості цифр. */
+    private static int num(ByteBuffer buf, int from, int len) {
+        int v = 0;
+        for (int i = 0; i < len; i++) {
+            int d = buf.get(from + i) - '0';
+            if (d < 0 || d > 9) throw new NumberFormatException("Некоректна цифра у даті");
+            v = v * 10 + d;
+        }
+        return v;
+    }
+}
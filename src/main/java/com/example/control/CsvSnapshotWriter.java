@@ -0,0 +1,301 @@
+package com.example.control;
+
+import com.example.entity.Client;
+import com.example.entity.Photo;
+import com.example.entity.Photographer;
+import com.example.model.Order;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Швидкий записувач знімка CSV (clients/photographers/orders/photos.csv).
+ * <p>
+ * Рядки кодуються в UTF-8 безпосередньо у багаторазові прямі буфери
+ * ({@link ByteBuffer#allocateDirect}) без створення проміжних рядків: текст,
+ * цілі числа, дати та суми записуються посимвольно. Чотири файли пишуться
+ * одночасно, кожен — у тимчасовий файл, який після fsync атомарно
+ * перейменовується на місце старого. Тому збереження ніколи не залишає
+ * наполовину записаний {@code orders.csv}.
+ * <p>
+ * Формат рядків збігається з тим, що розбирає {@link CsvSnapshotLoader}.
+ */
+class CsvSnapshotWriter {
+
+    /** Розмір буфера запису для одного файлу (байт). */
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    /** Багаторазові буфери: по одному на кожен із чотирьох файлів. */
+    private final ByteBuffer[] buffers = new ByteBuffer[4];
+
+    /**
+     * Записує повний знімок у директорію.
+     * Метод синхронізований, бо буфери використовуються повторно.
+     *
+     * @param dir           директорія даних.
+     * @param clients       список клієнтів.
+     * @param photographers список фотографів.
+     * @param orders        список замовлень (разом із фотографіями).
+     * @throws IOException у разі помилки запису будь-якого файлу.
+     */
+    synchronized void write(Path dir, List<Client> clients, List<Photographer> photographers, List<Order> orders)
+            throws IOException {
+        ExecutorService pool = Executors.newFixedThreadPool(4, r -> {
+            Thread t = new Thread(r, "snapshot-writer");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<?>> files = new ArrayList<>(4);
+            files.add(pool.submit(() -> writeFile(dir, "clients.csv", 0, enc -> {
+                for (Client c : clients) {
+                    enc.str(c.getId()).comma().str(c.getName()).comma().str(c.getPhoneNumber()).comma()
+                            .str(c.getEmail()).comma().str(c.isRegular() ? "true" : "false").endRow();
+                }
+            })));
+            files.add(pool.submit(() -> writeFile(dir, "photographers.csv", 1, enc -> {
+                for (Photographer p : photographers) {
+                    enc.str(p.getId()).comma().str(p.getName()).comma().str(p.getPhoneNumber()).comma()
+                            .str(p.getSpecialization()).endRow();
+                }
+            })));
+            files.add(pool.submit(() -> writeFile(dir, "orders.csv", 2, enc -> {
+                for (Order o : orders) {
+                    enc.str(o.getId()).comma().dateTime(o.getOrderDate()).comma().str(o.getStatus().name()).comma()
+                            .str(o.getClient().getId()).comma().str(o.getPhotographer().getId()).comma()
+                            .str(o.getSessionType().getName()).comma().decimal(o.getTotalCost()).endRow();
+                }
+            })));
+            files.add(pool.submit(() -> writeFile(dir, "photos.csv", 3, enc -> {
+                for (Order o : orders) {
+                    if (!o.hasPhotos()) continue; // Без створення порожніх списків
+                    for (Photo photo : o.getPhotos()) {
+                        enc.str(photo.getId()).comma().str(o.getId()).comma().str(photo.getFilePath());
+                        // Розмір, хеш і назва з фотоапарата — необов'язкові поля (лише для імпортованих фото)
+                        if (photo.getContentHash() != null) {
+                            enc.comma().str(Long.toString(photo.getSize())).comma().str(photo.getContentHash());
+                            if (photo.getOriginalName() != null) enc.comma().str(photo.getOriginalName());
+                        }
+                        enc.endRow();
+                    }
+                }
+            })));
+            for (Future<?> f : files) f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Запис знімка перервано", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) throw io;
+            throw new IOException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Вміст файлу, що записується через кодувальник рядків.
+     */
+    @FunctionalInterface
+    interface Body {
+        void writeTo(RowEncoder enc) throws IOException;
+    }
+
+    /**
+     * Записує один файл: тимчасовий файл, fsync, атомарне перейменування.
+     * @param dir директорія даних.
+     * @param name назва файлу.
+     * @param slot номер багаторазового буфера.
+     * @param body вміст файлу.
+     * @return null (для використання як Callable).
+     * @throws IOException у разі помилки запису.
+     */
+    private Void writeFile(Path dir, String name, int slot, Body body) throws IOException {
+        if (buffers[slot] == null) buffers[slot] = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        ByteBuffer buf = buffers[slot];
+        buf.clear();
+        Path target = dir.resolve(name);
+        Path tmp = dir.resolve(name + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            RowEncoder enc = new RowEncoder(ch, buf);
+            body.writeTo(enc);
+            enc.drain();
+            ch.force(false);
+        }
+        replaceAtomically(tmp, target);
+        return null;
+    }
+
+    /**
+     * Перейменовує повністю записаний тимчасовий файл на місце цільового.
+     * Якщо файлова система не підтримує атомарне перейменування, виконується звичайна заміна.
+     * @param tmp тимчасовий файл.
+     * @param target цільовий файл.
+     * @throws IOException у разі помилки перейменування.
+     */
+    static void replaceAtomically(Path tmp, Path target) throws IOException {
+        try {
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Кодувальник полів CSV безпосередньо у байтовий буфер (UTF-8).
+     * При заповненні буфер скидається у канал файлу.
+     */
+    static class RowEncoder {
+
+        /** Максимальна кількість байтів, яку може зайняти один символ чи число. */
+        private static final int RESERVE = 32;
+
+        private final FileChannel channel;
+        private final ByteBuffer buf;
+
+        RowEncoder(FileChannel channel, ByteBuffer buf) {
+            this.channel = channel;
+            this.buf = buf;
+        }
+
+        /** Гарантує вільне місце в буфері, за потреби скидаючи його у файл. */
+        private void ensure(int bytes) throws IOException {
+            if (buf.remaining() < bytes) drain();
+        }
+
+        /** Скидає вміст буфера у файл. */
+        void drain() throws IOException {
+            buf.flip();
+            while (buf.hasRemaining()) channel.write(buf);
+            buf.clear();
+        }
+
+        /** Записує текст у UTF-8 без створення масиву байтів. */
+        RowEncoder str(String s) throws IOException {
+            if (s == null) s = "null"; // Так само, як рядкова конкатенація у старому форматі
+            int len = s.length();
+            // Запас на найгірший випадок (3 байти на символ) перевіряється один раз на поле
+            if (len <= 1024) ensure(len * 3);
+            for (int i = 0; i < len; i++) {
+                if (len > 1024) ensure(4);
+                char ch = s.charAt(i);
+                if (ch < 0x80) {
+                    buf.put((byte) ch);
+                } else if (ch < 0x800) {
+                    buf.put((byte) (0xC0 | (ch >> 6)));
+                    buf.put((byte) (0x80 | (ch & 0x3F)));
+                } else if (Character.isHighSurrogate(ch) && i + 1 < len && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(ch, s.charAt(++i));
+                    buf.put((byte) (0xF0 | (cp >> 18)));
+                    buf.put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+                    buf.put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+                    buf.put((byte) (0x80 | (cp & 0x3F)));
+                } else if (Character.isSurrogate(ch)) {
+                    buf.put((byte) '?'); // Непарний сурогат, як у стандартному кодувальнику
+                } else {
+                    buf.put((byte) (0xE0 | (ch >> 12)));
+                    buf.put((byte) (0x80 | ((ch >> 6) & 0x3F)));
+                    buf.put((byte) (0x80 | (ch & 0x3F)));
+                }
+            }
+            return this;
+        }
+
+        /** Записує роздільник полів. */
+        RowEncoder comma() throws IOException {
+            ensure(1);
+            buf.put((byte) ',');
+            return this;
+        }
+
+        /** Завершує рядок. */
+        void endRow() throws IOException {
+            ensure(1);
+            buf.put((byte) '\n');
+        }
+
+        /** Записує невід'ємне число з доповненням нулями до мінімальної ширини. */
+        private void digits(long v, int width) {
+            int n = 1;
+            for (long t = v; t >= 10; t /= 10) n++;
+            for (int i = n; i < width; i++) buf.put((byte) '0');
+            int pos = buf.position() + n;
+            for (int i = pos - 1; i >= pos - n; i--) {
+                buf.put(i, (byte) ('0' + v % 10));
+                v /= 10;
+            }
+            buf.position(pos);
+        }
+
+        /**
+         * Записує суму. Суми з не більш ніж двома знаками після коми пишуться
+         * точними цифрами (зворотний розбір дає те саме значення double),
+         * інші — через {@link Double#toString}.
+         */
+        RowEncoder decimal(double d) throws IOException {
+            long cents = Math.round(d * 100);
+            if (Math.abs(d) < 1e13 && cents / 100.0 == d) {
+                ensure(RESERVE);
+                if (cents < 0) {
+                    buf.put((byte) '-');
+                    cents = -cents;
+                }
+                digits(cents / 100, 1);
+                buf.put((byte) '.');
+                long fraction = cents % 100;
+                if (fraction % 10 == 0) {
+                    digits(fraction / 10, 1);
+                } else {
+                    digits(fraction, 2);
+                }
+                return this;
+            }
+            return str(Double.toString(d));
+        }
+
+        /** Записує дату у форматі {@link LocalDateTime#toString()}. */
+        RowEncoder dateTime(LocalDateTime t) throws IOException {
+            int year = t.getYear();
+            if (year < 0 || year > 9999) return str(t.toString());
+            ensure(RESERVE);
+            digits(year, 4);
+            buf.put((byte) '-');
+            digits(t.getMonthValue(), 2);
+            buf.put((byte) '-');
+            digits(t.getDayOfMonth(), 2);
+            buf.put((byte) 'T');
+            digits(t.getHour(), 2);
+            buf.put((byte) ':');
+            digits(t.getMinute(), 2);
+            int second = t.getSecond(), nano = t.getNano();
+            if (second > 0 || nano > 0) {
+                buf.put((byte) ':');
+                digits(second, 2);
+                if (nano > 0) {
+                    buf.put((byte) '.');
+                    if (nano % 1_000_000 == 0) {
+                        digits(nano / 1_000_000, 3);
+                    } else if (nano % 1000 == 0) {
+                        digits(nano / 1000, 6);
+                    } else {
+                        digits(nano, 9);
+                    }
+                }
+            }
+            return this;
+        }
+    }
+}
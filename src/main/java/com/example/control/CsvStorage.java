@@ -0,0 +1,56 @@
+package com.example.control;
+
+import com.example.entity.Client;
+import com.example.entity.Photographer;
+import com.example.model.Order;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Сховище знімка у CSV-файлах (clients/photographers/orders/photos.csv).
+ * Запис — через {@link CsvSnapshotWriter}, читання — через {@link CsvSnapshotLoader}.
+ */
+class CsvStorage extends SnapshotStorage {
+
+    /** Назви файлів знімка. */
+    static final String[] FILE_NAMES = {"clients.csv", "photographers.csv", "orders.csv", "photos.csv"};
+
+    /** Записувач з багаторазовими буферами. */
+    private final CsvSnapshotWriter writer = new CsvSnapshotWriter();
+
+    CsvStorage(DataManager data) {
+        super(data);
+    }
+
+    @Override
+    StorageFormat format() {
+        return StorageFormat.CSV;
+    }
+
+    @Override
+    void write(Path dir, List<Client> clients, List<Photographer> photographers, List<Order> orders)
+            throws IOException {
+        writer.write(dir, clients, photographers, orders);
+    }
+
+    @Override
+    Snapshot read(Path dir) throws IOException {
+        return new CsvSnapshotLoader().load(dir);
+    }
+
+    @Override
+    boolean exists(Path dir) {
+        for (String name : FILE_NAMES) {
+            if (Files.exists(dir.resolve(name))) return true;
+        }
+        return false;
+    }
+
+    @Override
+    void delete(Path dir) throws IOException {
+        for (String name : FILE_NAMES) Files.deleteIfExists(dir.resolve(name));
+    }
+}
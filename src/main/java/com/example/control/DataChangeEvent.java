@@ -0,0 +1,60 @@
+package com.example.control;
+
+/**
+ * Подія зміни даних: яка сутність змінилася, як саме, та значення до і після зміни.
+ */
+public class DataChangeEvent {
+
+    /** Вид зміни (визначає тип сутності та значень). */
+    public enum Type {
+        /** Додано клієнта (сутність — Client). */
+        CLIENT_ADDED,
+        /** Змінено контакти клієнта (значення — рядок "телефон,email"). */
+        CLIENT_CONTACTS_CHANGED,
+        /** Змінено статус "постійний" клієнта (значення — Boolean). */
+        CLIENT_REGULAR_CHANGED,
+        /** Додано фотографа (сутність — Photographer). */
+        PHOTOGRAPHER_ADDED,
+        /** Додано замовлення (сутність — Order). */
+        ORDER_ADDED,
+        /** Змінено статус замовлення (значення — OrderStatus). */
+        ORDER_STATUS_CHANGED,
+        /** Змінено вартість замовлення (значення — Double). */
+        ORDER_COST_CHANGED,
+        /** До замовлення додано фотографії (сутність — Order, нове значення — кількість доданих фото). */
+        PHOTOS_ADDED,
+        /** Завершено етап завантаження (сутність — {@link LoadPhase}, нове значення — кількість записів). */
+        LOAD_PHASE_FINISHED,
+        /** Дані повністю замінено (завантаження знімка); сутність і значення — null. */
+        RELOADED
+    }
+
+    private final Type type;
+    private final Object entity;
+    private final Object oldValue;
+    private final Object newValue;
+
+    /**
+     * Конструктор події.
+     * @param type вид зміни.
+     * @param entity змінена сутність.
+     * @param oldValue значення до зміни (null для додавання).
+     * @param newValue значення після зміни.
+     */
+    public DataChangeEvent(Type type, Object entity, Object oldValue, Object newValue) {
+        this.type = type;
+        this.entity = entity;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+    }
+
+    public Type getType() { return type; }
+    public Object getEntity() { return entity; }
+    public Object getOldValue() { return oldValue; }
+    public Object getNewValue() { return newValue; }
+
+    @Override
+    public String toString() {
+        return type + ": " + entity + " (" + oldValue + " -> " + newValue + ")";
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.control;
+
+/**
+ * Слухач змін даних {@link DataManager}.
+ * Дозволяє індексам, лічильникам та представленням UI оновлюватися інкрементно
+ * замість повного перечитування списків.
+ */
+@FunctionalInterface
+public interface DataChangeListener {
+
+    /**
+     * Викликається після застосування зміни в потоці, що її виконав,
+     * під блокуванням {@link DataManager}. Обробник має бути коротким;
+     * оновлення Swing слід передавати через {@code SwingUtilities.invokeLater}.
+     * @param event опис зміни.
+     */
+    void dataChanged(DataChangeEvent event);
+}
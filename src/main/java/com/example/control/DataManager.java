@@ -1,26 +1,41 @@
 package com.example.control;
 
 import com.example.entity.Client;
+import com.example.entity.Payment;
 import com.example.entity.Photo;
 import com.example.entity.Photographer;
 import com.example.model.Order;
 import com.example.service.InventoryItem;
+import com.example.service.LoyaltyPolicy;
+import com.example.service.FreeSlotGrid;
 import com.example.service.Persistable;
+import com.example.service.Schedule;
 import com.example.service.SessionType;
+import com.example.util.Contacts;
 import com.example.util.OrderStatus;
 
 import java.io.*;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Центральний контролер для управління всіма даними системи (патерн Singleton/Service).
  * Відповідає за зберігання списків сутностей у пам'яті, їх обробку (пошук, фільтрація),
- * а також за персистентність (збереження та завантаження з файлів CSV).
+ * а також за персистентність (знімок у CSV або двійковому форматі та журнал змін).
  */
 public class DataManager implements Persistable, Serializable {
 
@@ -31,37 +46,204 @@ public class DataManager implements Persistable, Serializable {
     private List<SessionType> sessionTypes = new ArrayList<>(); // Довідник типів послуг
     private List<InventoryItem> inventory = new ArrayList<>();
 
-    // Шлях до кореневої папки для зберігання файлів
+    // Індекси за первинним ключем (ID -> об'єкт) для пошуку за O(1) без зберігання рядків ID.
+    // Оновлюються разом зі списками в методах add* та під час завантаження.
+    private IdTable<Client> clientsById = new IdTable<>();
+    private IdTable<Photographer> photographersById = new IdTable<>();
+    private IdTable<Order> ordersById = new IdTable<>();
+
+    // Фото за ID лише на час програвання журналу: записи 'F' шукають фото за O(1), а не проходом
+    // по списку замовлення. Замовлення індексуються при першому записі 'F' для них.
+    private transient IdTable<Photo> replayPhotos;
+    private transient Map<Order, Boolean> replayIndexedOrders;
+
+    // Унікальні ключі клієнтів: нормалізований телефон та email у нижньому регістрі
+    private Map<String, Client> clientsByPhone = new HashMap<>();
+    private Map<String, Client> clientsByEmail = new HashMap<>();
+
+    // Бронювання фотографів, впорядковані за часом (перевірка зайнятості за O(log n))
+    private final transient BookingIndex bookings = new BookingIndex();
+
+    // Виручка за датою замовлення (суми за період за O(log n))
+    private final transient RevenueIndex revenue = new RevenueIndex();
+
+    // Лічильники для дашборду (замовлення за статусом, клієнти, популярні сесії) за O(1)
+    private final transient StudioStatistics stats = new StudioStatistics();
+
+    // Колонкове дзеркало замовлень (примітивні масиви) для аналітичних проходів звітів
+    private final transient OrderColumns columns = new OrderColumns();
+
+    // Лічильники оплачених замовлень і витрат клієнтів для перевірки статусу постійного клієнта за O(1)
+    private final transient LoyaltyTracker loyalty = new LoyaltyTracker();
+
+    // Чинне правило лояльності (початкове — із системних властивостей)
+    private transient LoyaltyPolicy loyaltyPolicy = LoyaltyPolicy.fromSystemProperties();
+
+    // Кешовані впорядковані перестановки замовлень для представлень таблиці
+    private final transient OrderViewIndex orderViews = new OrderViewIndex();
+
+    // Префіксний пошук клієнтів за іменем, телефоном та email
+    private final transient ClientSearchIndex clientSearch = new ClientSearchIndex();
+
+    // Спільні типи сесій замовлень, відновлених зі знімка та журналу
+    private transient SessionTypePool sessionTypePool = new SessionTypePool();
+
+    // Префіксний пошук замовлень за скороченим ID
+    private final transient OrderIdIndex orderIds = new OrderIdIndex();
+
+    // Кількість записів, починаючи з якої індекси пошуку будуються у фоні одразу після завантаження
+    private static final int SEARCH_WARMUP_THRESHOLD = 10_000;
+
+    /** Мінімальна довжина скороченого ID замовлення для відображення. */
+    public static final int SHORT_ID_MIN_LENGTH = 6;
+
+    // Слухачі змін даних (UI, похідні структури); копія при записі — додавання рідкісне
+    private final transient List<DataChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    // Робочі години студії для пошуку вільних слотів
+    public static final LocalTime WORK_DAY_START = LocalTime.of(9, 0);
+    public static final LocalTime WORK_DAY_END = LocalTime.of(21, 0);
+
+    // Шлях до кореневої папки для зберігання файлів (за замовчуванням)
     private static final String DIR = ".";
 
+    // Кількість записів журналу, після якої при запуску виконується ущільнення
+    private static final int COMPACT_THRESHOLD = 10_000;
+
+    // Директорія даних цього екземпляра
+    private final String dataDir;
+
+    // Журнал змін: кожна модифікація дописує один запис замість перезапису всіх файлів
+    private final transient ChangeJournal journal;
+
+    // Режим журналу (true) або повного перезапису CSV після кожної зміни (false)
+    private boolean journalMode = true;
+
+    // Затримка накопичення сплеску змін перед записом на диск (мс)
+    private static final long WRITE_DEBOUNCE_MILLIS = 100;
+
+    // Фоновий записувач: усі зміни пишуться на диск поза потоком Swing пакетами
+    private final transient PersistenceWriter writer;
+
+    // Хук завершення JVM: скидає незаписані зміни, якщо close() не викликали (знімається в close())
+    private final transient Thread shutdownHook = new Thread(this::closeQuietly, "persistence-shutdown");
+
+    // Чи вже закрито менеджер (повторний close() нічого не робить)
+    private final transient AtomicBoolean closed = new AtomicBoolean();
+
+    // Журнал платежів (сегменти з індексом замовлень і денними підсумками) — джерело для звірки каси
+    private final transient PaymentLedger payments;
+
+    // Сховище файлів фото за вмістом (індекс хешів і лічильники посилань будуються з записів фото)
+    private final transient ContentStore content;
+
+    // Системна властивість з форматом знімка для нової директорії даних ("csv" або "binary")
+    public static final String STORAGE_PROPERTY = "photostudio.storage";
+
+    // Сховища повного знімка: CSV (імпорт/експорт) та двійкове (швидкий запуск)
+    private final transient SnapshotStorage csvStorage = new CsvStorage(this);
+    private final transient SnapshotStorage binaryStorage = new BinaryStorage(this);
+
+    // Сховище, у яке пишеться знімок директорії даних
+    private transient volatile SnapshotStorage storage;
+
     /**
      * Конструктор.
      * При ініціалізації намагається завантажити дані з файлів.
      * Якщо файли відсутні, створює базові тестові дані.
      */
     public DataManager() {
+        this(DIR);
+    }
+
+    /**
+     * Конструктор з вказаною директорією даних.
+     * Завантажує останній знімок та програє поверх нього журнал змін.
+     * Формат знімка визначається за наявними файлами (двійковий має пріоритет);
+     * для порожньої директорії — за властивістю {@link #STORAGE_PROPERTY} (CSV за замовчуванням).
+     * @param dataDir директорія, де зберігаються файли знімка та журнал.
+     * @throws UncheckedIOException якщо наявні файли даних не вдалося прочитати.
+     */
+    public DataManager(String dataDir) {
+        this(dataDir, true);
+    }
+
+    /**
+     * Конструктор з можливістю відкласти завантаження даних.
+     * Використовується при запуску програми: вікно показується одразу,
+     * а {@link #load()} виконується у фоновому потоці.
+     * @param dataDir директорія, де зберігаються файли знімка та журнал.
+     * @param loadNow true — завантажити дані одразу (як {@link #DataManager(String)}).
+     * @throws UncheckedIOException якщо дані завантажуються одразу, а наявні файли не вдалося прочитати.
+     */
+    public DataManager(String dataDir, boolean loadNow) {
+        this.dataDir = dataDir;
+        initSessionTypes(); // Довідник потрібен до завантаження: з нього беруться тривалості сесій
+        this.storage = detectStorage(Paths.get(dataDir));
+        if (!storage.exists(Paths.get(dataDir))
+                && "binary".equalsIgnoreCase(System.getProperty(STORAGE_PROPERTY))) {
+            this.storage = binaryStorage;
+        }
+        this.journal = new ChangeJournal(dataDir);
+        this.writer = new PersistenceWriter(journal, () -> captureSnapshot(Paths.get(dataDir), storage), this, WRITE_DEBOUNCE_MILLIS);
+        this.payments = new PaymentLedger(dataDir);
+        this.content = new ContentStore(Paths.get(dataDir), Paths.get(dataDir, PhotoIngestService.DIR_NAME));
+        // Незаписані зміни скидаються на диск і при закритті вікна хрестиком
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+        if (!loadNow) return;
+        try {
+            load();
+        } catch (IOException e) {
+            closeQuietly();
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Завантажує знімок і журнал директорії даних (за потреби — з ущільненням журналу).
+     * Якщо файлів немає, створює базові довідники. Про завершення кожного етапу
+     * сповіщає слухачів подією {@link DataChangeEvent.Type#LOAD_PHASE_FINISHED}.
+     * @throws IOException якщо наявні файли знімка або журналу не вдалося прочитати: тоді дані
+     *                     в пам'яті неповні, і зберігати їх поверх файлів не можна.
+     */
+    public void load() throws IOException {
         try {
-            loadDataFromFile(DIR);
+            loadDataFromFile(dataDir);
+            if (journal.getRecordCount() > COMPACT_THRESHOLD) compact(dataDir);
         } catch (IOException e) {
+            if (hasDataFiles()) throw e;
             System.out.println("Дані не знайдено. Створення базових довідників...");
             initBaseData();
         }
     }
 
+    /** @return true, якщо в директорії даних є файли знімка (будь-якого формату) або журнал. */
+    private boolean hasDataFiles() {
+        Path dir = Paths.get(dataDir);
+        return csvStorage.exists(dir) || binaryStorage.exists(dir) || journal.exists();
+    }
+
     /**
      * Ініціалізує систему початковими даними (типи сесій, фотографи),
      * якщо файли даних порожні або відсутні.
      */
     private void initBaseData() {
-        if (sessionTypes.isEmpty()) {
-            sessionTypes.add(new SessionType("Портрет", 1000));
-            sessionTypes.add(new SessionType("Весілля", 5000));
-            sessionTypes.add(new SessionType("Сімейна", 1500));
-        }
+        initSessionTypes();
         if (photographers.isEmpty()) {
-            photographers.add(new Photographer("Олег Вінник", "0991112233", "Весілля"));
-            photographers.add(new Photographer("Даша Астаф'єва", "0995556677", "Портрет"));
-            photographers.add(new Photographer("Денис Голоборотько", "0975556677", "Сімейна"));
+            addPhotographer(new Photographer("Олег Вінник", "0991112233", "Весілля"));
+            addPhotographer(new Photographer("Даша Астаф'єва", "0995556677", "Портрет"));
+            addPhotographer(new Photographer("Денис Голоборотько", "0975556677", "Сімейна"));
+        }
+    }
+
+    /**
+     * Заповнює довідник типів фотосесій (назва, ціна, тривалість у хвилинах).
+     */
+    private void initSessionTypes() {
+        if (sessionTypes.isEmpty()) {
+            sessionTypes.add(new SessionType("Портрет", 1000, 60));
+            sessionTypes.add(new SessionType("Весілля", 5000, 480));
+            sessionTypes.add(new SessionType("Сімейна", 1500, 90));
         }
     }
 
@@ -69,14 +251,87 @@ public class DataManager implements Persistable, Serializable {
 
     /**
      * Знаходить клієнта за номером телефону.
+     * Номер нормалізується ({@link Contacts#normalizePhone}), тому "099..." та "+38099..."
+     * вважаються одним номером. Пошук виконується за O(1) через індекс.
      * @param phone номер телефону для пошуку.
      * @return знайдений об'єкт Client або null, якщо не знайдено.
      */
-    public Client findClientByPhone(String phone) {
-        return clients.stream()
-                .filter(c -> c.getPhoneNumber().equals(phone))
-                .findFirst()
-                .orElse(null);
+    public synchronized Client findClientByPhone(String phone) {
+        String key = Contacts.normalizePhone(phone);
+        return key.isEmpty() ? null : clientsByPhone.get(key);
+    }
+
+    /**
+     * Знаходить клієнта за адресою електронної пошти (без урахування регістру).
+     * @param email адреса для пошуку.
+     * @return знайдений об'єкт Client або null, якщо не знайдено.
+     */
+    public synchronized Client findClientByEmail(String email) {
+        String key = Contacts.normalizeEmail(email);
+        return key.isEmpty() ? null : clientsByEmail.get(key);
+    }
+
+    /**
+     * Знаходить клієнта за унікальним ідентифікатором (O(1) через хеш-індекс).
+     * @param id ID клієнта.
+     * @return знайдений об'єкт Client або null, якщо не знайдено.
+     */
+    public synchronized Client findClientById(String id) {
+        return clientsById.get(id);
+    }
+
+    /**
+     * Пошук клієнтів за мірою введення: кожне слово запиту має бути початком слова імені,
+     * номера телефону (у будь-якому форматі) або email. Виконується діапазонним запитом
+     * до префіксного індексу, тому не залежить від загальної кількості клієнтів.
+     * @param query текст пошуку.
+     * @param limit максимальна кількість результатів.
+     * @return знайдені клієнти (порожній запит — порожній список).
+     */
+    public synchronized List<Client> searchClients(String query, int limit) {
+        return clientSearch.search(clients, query, limit);
+    }
+
+    /**
+     * Знаходить фотографа за унікальним ідентифікатором (O(1) через хеш-індекс).
+     * @param id ID фотографа.
+     * @return знайдений об'єкт Photographer або null, якщо не знайдено.
+     */
+    public synchronized Photographer findPhotographerById(String id) {
+        return photographersById.get(id);
+    }
+
+    /**
+     * Знаходить замовлення за унікальним ідентифікатором (O(1) через хеш-індекс).
+     * @param id повний ID замовлення.
+     * @return знайдений об'єкт Order або null, якщо не знайдено.
+     */
+    public synchronized Order findOrderById(String id) {
+        return ordersById.get(id);
+    }
+
+    /**
+     * Знаходить замовлення за початком ID (скороченим ID з таблиць і звітів), O(log n + k).
+     * Один елемент у результаті означає однозначний збіг; кілька — неоднозначний префікс.
+     * @param prefix початок ID (регістр не враховується).
+     * @param limit максимальна кількість кандидатів.
+     * @return знайдені замовлення в порядку ID (порожній префікс — порожній список).
+     */
+    public synchronized List<Order> findOrdersByIdPrefix(String prefix, int limit) {
+        return orderIds.find(orders, prefix, limit);
+    }
+
+    /**
+     * Повертає найкоротший початок ID, за яким замовлення знаходиться однозначно,
+     * але не коротший за {@link #SHORT_ID_MIN_LENGTH} символів.
+     * Префікс може подовжитися, якщо пізніше з'явиться замовлення зі схожим ID.
+     * @param o замовлення.
+     * @return скорочений ID.
+     */
+    public synchronized String getShortOrderId(Order o) {
+        String id = o.getId();
+        int length = Math.max(SHORT_ID_MIN_LENGTH, orderIds.uniquePrefixLength(orders, id));
+        return id.substring(0, Math.min(id.length(), length));
     }
 
     // --- Методи додавання даних ---
@@ -85,41 +340,429 @@ public class DataManager implements Persistable, Serializable {
      * Додає нового клієнта до списку та зберігає зміни.
      * @param c об'єкт клієнта.
      */
-    public void addClient(Client c) {
-        clients.add(c);
-        saveAllQuietly();
+    public synchronized void addClient(Client c) {
+        registerClient(c);
+        persist("C," + clientRow(c));
+        fire(DataChangeEvent.Type.CLIENT_ADDED, c, null, c);
     }
 
     /**
      * Додає нове замовлення до списку та зберігає зміни.
+     * Замовлення, що перетинається з іншими сесіями того ж фотографа, все одно
+     * додається (як і раніше), але перетини повертаються та логуються.
+     * Щоб відхилити подвійне бронювання, перевірте {@link #findBookingConflicts} заздалегідь.
      * @param o об'єкт замовлення.
+     * @return замовлення, з якими перетинається нове (порожній список, якщо перетинів немає).
      */
-    public void addOrder(Order o) {
-        orders.add(o);
-        saveAllQuietly();
+    public synchronized List<Order> addOrder(Order o) {
+        List<Order> conflicts = bookings.findOverlaps(o.getPhotographer().getId(), o.getOrderDate(),
+                durationOf(o.getSessionType()), o);
+        registerOrder(o);
+        persist("O," + orderRow(o));
+        if (o.hasPhotos()) for (Photo photo : o.getPhotos()) persist("F," + photoRow(photo, o));
+        fire(DataChangeEvent.Type.ORDER_ADDED, o, null, o);
+        if (!conflicts.isEmpty()) {
+            System.out.println("Увага: замовлення " + o.getId() + " перетинається з " + conflicts.size()
+                    + " іншими замовленнями фотографа " + o.getPhotographer().getName());
+        }
+        return conflicts;
+    }
+
+    /**
+     * Змінює вартість замовлення з оновленням індексу виручки та фіксує зміну у сховищі.
+     * Пряма зміна через {@link Order#setTotalCost} залишила б суми звітів застарілими.
+     * @param o замовлення.
+     * @param totalCost нова вартість (грн).
+     */
+    public synchronized void repriceOrder(Order o, double totalCost) {
+        double old = o.getTotalCost();
+        revenue.remove(o.getOrderDate(), cents(old));
+        loyalty.remove(o);
+        o.setTotalCost(totalCost);
+        loyalty.add(o);
+        columns.update(o);
+        orderViews.invalidate(OrderSortKey.PRICE);
+        revenue.add(o.getOrderDate(), cents(totalCost));
+        persist("O," + orderRow(o));
+        fire(DataChangeEvent.Type.ORDER_COST_CHANGED, o, old, totalCost);
+    }
+
+    /**
+     * Переводить замовлення в наступний статус життєвого циклу
+     * (NEW → IN_PROGRESS → COMPLETED → PAID, див. {@link OrderStatus#canTransitionTo}),
+     * фіксує зміну у сховищі та сповіщає слухачів.
+     * @param orderId повний ID замовлення.
+     * @param status новий статус.
+     * @return замовлення після зміни.
+     * @throws IllegalArgumentException якщо замовлення не знайдено.
+     * @throws IllegalStateException якщо перехід суперечить життєвому циклу.
+     */
+    public synchronized Order transition(String orderId, OrderStatus status) {
+        Order o = ordersById.get(orderId);
+        if (o == null) throw new IllegalArgumentException("Замовлення не знайдено: " + orderId);
+        if (!o.getStatus().canTransitionTo(status)) {
+            throw new IllegalStateException("Недопустимий перехід статусу замовлення " + orderId
+                    + ": " + o.getStatus() + " -> " + status);
+        }
+        applyStatus(o, status);
+        return o;
+    }
+
+    /**
+     * Змінює статус замовлення без перевірки життєвого циклу (виправлення помилок вводу)
+     * та фіксує зміну у сховищі. Для звичайних змін використовуйте {@link #transition}.
+     * Пряма зміна через {@link Order#setStatus} не буде збережена до повного знімка
+     * і не потрапить у лічильники статистики.
+     * @param o замовлення.
+     * @param status новий статус.
+     */
+    public synchronized void setOrderStatus(Order o, OrderStatus status) {
+        if (o.getStatus() != status) applyStatus(o, status);
+    }
+
+    /**
+     * Застосовує новий статус: лічильники, журнал та подія для слухачів.
+     * Оплата замовлення одразу перевіряє поріг постійного клієнта ({@link #checkAndUpgradeClient}).
+     */
+    private void applyStatus(Order o, OrderStatus status) {
+        OrderStatus old = o.getStatus();
+        stats.orderStatusChanged(old, status);
+        orderViews.invalidate(OrderSortKey.STATUS);
+        loyalty.remove(o);
+        o.setStatus(status);
+        loyalty.add(o);
+        columns.update(o);
+        persist("S," + o.getId() + "," + status);
+        fire(DataChangeEvent.Type.ORDER_STATUS_CHANGED, o, old, status);
+        if (status == OrderStatus.PAID) checkAndUpgradeClient(o.getClient());
+    }
+
+    // --- Сповіщення про зміни ---
+
+    /**
+     * Реєструє слухача змін даних.
+     * @param listener слухач.
+     */
+    public void addDataChangeListener(DataChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Видаляє слухача змін даних.
+     * @param listener слухач.
+     */
+    public void removeDataChangeListener(DataChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Розсилає подію всім слухачам. Помилка одного слухача не зриває зміну даних.
+     */
+    private void fire(DataChangeEvent.Type type, Object entity, Object oldValue, Object newValue) {
+        if (listeners.isEmpty()) return;
+        DataChangeEvent event = new DataChangeEvent(type, entity, oldValue, newValue);
+        for (DataChangeListener l : listeners) {
+            try {
+                l.dataChanged(event);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
     }
 
     /**
      * Додає нового фотографа до системи.
      * @param p об'єкт фотографа.
      */
-    public void addPhotographer(Photographer p) {
+    public synchronized void addPhotographer(Photographer p) {
+        registerPhotographer(p);
+        persist("P," + photographerRow(p));
+        fire(DataChangeEvent.Type.PHOTOGRAPHER_ADDED, p, null, p);
+    }
+
+    // --- Реєстрація сутностей у списках та індексах (без збереження) ---
+
+    /**
+     * Додає клієнта до списку та індексу за ID.
+     * Використовується як методами add*, так і завантажувачем даних.
+     * @param c об'єкт клієнта.
+     */
+    private void registerClient(Client c) {
+        clients.add(c);
+        clientsById.put(c.getId(), c);
+        indexContacts(c);
+        clientSearch.add(c);
+        stats.clientAdded(c);
+    }
+
+    /**
+     * Змінює телефон та email клієнта з одночасним оновленням індексів унікальних ключів.
+     * Зміна контактів напряму через сеттери Client залишила б індекси застарілими.
+     * @param c клієнт, що вже є в системі.
+     * @param phone новий номер телефону.
+     * @param email нова адреса електронної пошти.
+     */
+    public synchronized void updateClientContacts(Client c, String phone, String email) {
+        String old = c.getPhoneNumber() + "," + c.getEmail();
+        unindexContacts(c);
+        clientSearch.remove(c);
+        c.setPhoneNumber(phone);
+        c.setEmail(email);
+        indexContacts(c);
+        clientSearch.add(c);
+        persist("C," + clientRow(c));
+        fire(DataChangeEvent.Type.CLIENT_CONTACTS_CHANGED, c, old, phone + "," + email);
+    }
+
+    /**
+     * Додає нормалізовані телефон та email клієнта до індексів.
+     * Якщо ключ вже зайнятий, зберігається перший зареєстрований клієнт
+     * (так само, як раніше повертав лінійний пошук).
+     * @param c об'єкт клієнта.
+     */
+    private void indexContacts(Client c) {
+        String phone = Contacts.normalizePhone(c.getPhoneNumber());
+        if (!phone.isEmpty()) clientsByPhone.putIfAbsent(phone, c);
+        String email = Contacts.normalizeEmail(c.getEmail());
+        if (!email.isEmpty()) clientsByEmail.putIfAbsent(email, c);
+    }
+
+    /**
+     * Видаляє ключі клієнта з індексів (лише якщо вони вказують саме на нього).
+     * @param c об'єкт клієнта.
+     */
+    private void unindexContacts(Client c) {
+        clientsByPhone.remove(Contacts.normalizePhone(c.getPhoneNumber()), c);
+        clientsByEmail.remove(Contacts.normalizeEmail(c.getEmail()), c);
+    }
+
+    /**
+     * Додає фотографа до списку та індексу за ID.
+     * @param p об'єкт фотографа.
+     */
+    private void registerPhotographer(Photographer p) {
         photographers.add(p);
-        saveAllQuietly();
+        photographersById.put(p.getId(), p);
+    }
+
+    /**
+     * Додає замовлення до списку та індексу за ID.
+     * @param o об'єкт замовлення.
+     */
+    private void registerOrder(Order o) {
+        orders.add(o);
+        ordersById.put(o.getId(), o);
+        orderIds.add(o);
+        indexBooking(o);
+        revenue.add(o.getOrderDate(), cents(o.getTotalCost()));
+        stats.orderAdded(o);
+        columns.add(o);
+        loyalty.add(o);
+    }
+
+    /**
+     * Переводить суму в гривнях у копійки (одиниця індексу виручки).
+     */
+    private static long cents(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    /**
+     * Додає бронювання замовлення до індексу та бітового розкладу фотографа.
+     * @param o замовлення.
+     */
+    private void indexBooking(Order o) {
+        int minutes = durationOf(o.getSessionType());
+        bookings.put(o, minutes);
+        o.getPhotographer().getSchedule().reserve(o.getOrderDate(), minutes);
     }
 
     /**
-     * Допоміжний метод для збереження даних без необхідності обробки виключень
-     * у коді виклику. Використовується після кожної модифікації даних.
+     * Оновлює бронювання після зміни дати замовлення. Бітова маска не знає, яке
+     * замовлення зайняло слот, тому дні старого бронювання перебудовуються з індексу.
+     * @param o замовлення з уже зміненою датою.
+     * @param oldStart попередній початок сесії.
      */
-    private void saveAllQuietly() {
+    private void reindexBooking(Order o, LocalDateTime oldStart) {
+        int minutes = durationOf(o.getSessionType());
+        bookings.put(o, minutes);
+        Photographer p = o.getPhotographer();
+        LocalDate firstDay = oldStart.toLocalDate();
+        LocalDate lastDay = oldStart.plusMinutes(minutes).toLocalDate();
+        for (LocalDate d = firstDay; !d.isAfter(lastDay); d = d.plusDays(1)) p.getSchedule().clearDay(d);
+        for (BookingIndex.Booking b : bookings.between(p.getId(), firstDay.atStartOfDay(), lastDay.plusDays(1).atStartOfDay())) {
+            p.getSchedule().reserve(b.start(), b.minutes());
+        }
+        p.getSchedule().reserve(o.getOrderDate(), minutes);
+    }
+
+    /**
+     * Визначає тривалість сесії. Тривалість береться з довідника за назвою типу
+     * (замовлення, відновлені з файлів, мають власні копії SessionType з ціною замовлення),
+     * а для типів поза довідником — з самого об'єкта.
+     * @param type тип фотосесії (null — тривалість за замовчуванням).
+     * @return тривалість у хвилинах.
+     */
+    private int durationOf(SessionType type) {
+        if (type == null) return SessionType.DEFAULT_DURATION_MINUTES;
+        for (SessionType known : sessionTypes) {
+            if (known.getName().equals(type.getName())) return known.getDurationMinutes();
+        }
+        int minutes = type.getDurationMinutes();
+        return minutes > 0 ? minutes : SessionType.DEFAULT_DURATION_MINUTES;
+    }
+
+    /**
+     * Фіксує одну зміну: ставить запис журналу в чергу фонового записувача
+     * (або, поза режимом журналу, запитує повний знімок). Метод не блокує
+     * потік виклику — запис на диск відбувається пакетами у фоні.
+     * @param record запис журналу (див. {@link ChangeJournal}).
+     */
+    private void persist(String record) {
+        if (journalMode) {
+            writer.submit(record);
+        } else {
+            writer.requestSnapshot();
+        }
+    }
+
+    /**
+     * Негайно записує всі накопичені зміни та чекає завершення запису.
+     * Не можна викликати, утримуючи блокування DataManager.
+     * @throws IOException у разі помилки запису.
+     */
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    /**
+     * Чекає, доки всі подані зміни будуть надійно записані на диск.
+     * @param timeoutMillis максимальний час очікування (мс).
+     * @return true, якщо всі зміни збережено вчасно.
+     * @throws IOException у разі помилки запису.
+     */
+    public boolean awaitDurable(long timeoutMillis) throws IOException {
+        return writer.awaitDurable(timeoutMillis);
+    }
+
+    /**
+     * Повертає фоновий записувач (для перегляду метрик запису).
+     * @return об'єкт PersistenceWriter.
+     */
+    public PersistenceWriter getPersistenceWriter() {
+        return writer;
+    }
+
+    /**
+     * Записує всі зміни, зупиняє фоновий записувач і знімає хук завершення JVM.
+     * Повторні виклики нічого не роблять.
+     * @throws IOException у разі помилки запису.
+     */
+    public void close() throws IOException {
+        if (!closed.compareAndSet(false, true)) return;
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // JVM уже завершується (close() викликано з самого хука)
+        }
+        try {
+            writer.close();
+        } finally {
+            payments.close();
+        }
+    }
+
+    /**
+     * Варіант {@link #close()} для хука завершення JVM (помилки лише логуються).
+     */
+    private void closeQuietly() {
         try {
-            saveDataToFile(DIR);
+            close();
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
+    /**
+     * Вмикає або вимикає режим журналу змін.
+     * @param journalMode true — дописувати журнал, false — перезаписувати CSV після кожної зміни.
+     */
+    public void setJournalMode(boolean journalMode) {
+        this.journalMode = journalMode;
+    }
+
+    /**
+     * Ущільнює журнал: записує повний знімок даних та очищує журнал.
+     * @param path шлях до папки даних.
+     * @throws IOException у разі помилок запису.
+     */
+    @Override
+    public void compact(String path) throws IOException {
+        if (!path.equals(dataDir)) {
+            saveDataToFile(path);
+            return;
+        }
+        // Знімок пише фоновий потік, щоб він був узгоджений з чергою журналу
+        writer.requestSnapshot();
+        writer.flush();
+    }
+
+    /**
+     * Повертає формат, у якому зберігається знімок директорії даних.
+     * @return поточний формат сховища.
+     */
+    public StorageFormat getStorageFormat() {
+        return storage.format();
+    }
+
+    /**
+     * Повертає сховище вказаного формату як {@link Persistable}
+     * (наприклад, для експорту в CSV або імпорту з CSV в іншій директорії).
+     * @param format формат файлів.
+     * @return сховище, що працює з даними цього менеджера.
+     */
+    public Persistable getStorage(StorageFormat format) {
+        return storageOf(format);
+    }
+
+    /**
+     * Конвертує знімок директорії даних в інший формат: записує повний знімок
+     * у новому форматі та після успішного запису видаляє файли старого.
+     * Журнал змін при цьому ущільнюється. Не можна викликати, утримуючи блокування DataManager.
+     * @param format цільовий формат.
+     * @throws IOException у разі помилки запису (файли старого формату лишаються).
+     */
+    public void convertStorage(StorageFormat format) throws IOException {
+        SnapshotStorage previous = storage;
+        if (previous.format() == format) return;
+        synchronized (this) {
+            storage = storageOf(format);
+        }
+        try {
+            writer.requestSnapshot();
+            writer.flush();
+        } catch (IOException e) {
+            storage = previous;
+            throw e;
+        }
+        previous.delete(Paths.get(dataDir));
+        System.out.println("Сховище даних конвертовано у формат " + format);
+    }
+
+    /**
+     * Повертає сховище вказаного формату.
+     */
+    private SnapshotStorage storageOf(StorageFormat format) {
+        return format == StorageFormat.BINARY ? binaryStorage : csvStorage;
+    }
+
+    /**
+     * Визначає формат знімка за файлами в директорії: двійковий, якщо є {@code studio.bin}, інакше CSV.
+     */
+    private SnapshotStorage detectStorage(Path dir) {
+        return binaryStorage.exists(dir) ? binaryStorage : csvStorage;
+    }
+
     // --- Методи для генерації звітів (Аналітика) ---
 
     /**
@@ -127,77 +770,291 @@ public class DataManager implements Persistable, Serializable {
      * @return кількість активних замовлень.
      */
     public long getActiveOrdersCount() {
-        return orders.stream()
-                .filter(o -> o.getStatus() == OrderStatus.NEW || o.getStatus() == OrderStatus.IN_PROGRESS)
-                .count();
+        return stats.getActiveOrdersCount();
+    }
+
+    /**
+     * Повертає кількість замовлень із вказаним статусом.
+     * @param status статус замовлення.
+     * @return кількість замовлень.
+     */
+    public long getOrdersCount(OrderStatus status) {
+        return stats.getOrdersCount(status);
     }
 
     /**
      * Повертає кількість постійних клієнтів (isRegular = true).
      */
     public long getRegularClientsCount() {
-        return clients.stream().filter(Client::isRegular).count();
+        return stats.getRegularClientsCount();
     }
 
     /**
      * Повертає кількість нових клієнтів (isRegular = false).
      */
     public long getNewClientsCount() {
-        return clients.stream().filter(c -> !c.isRegular()).count();
+        return stats.getNewClientsCount();
     }
 
     /**
      * Повертає загальну кількість зареєстрованих фотографів.
      */
-    public int getPhotographersCount() {
+    public synchronized int getPhotographersCount() {
         return photographers.size();
     }
 
     /**
-     * Повертає список фотографів, які вільні на вказану дату та час.
-     * (Логіка перевірки перетину замовлень в межах +/- 2 годин).
+     * Повертає список фотографів, які вільні на вказану дату та час
+     * протягом сесії тривалістю за замовчуванням ({@link SessionType#DEFAULT_DURATION_MINUTES}).
      * @param date бажана дата та час сесії.
      * @return список доступних фотографів.
      */
     public List<Photographer> getAvailablePhotographers(LocalDateTime date) {
+        return getAvailablePhotographers(date, null);
+    }
+
+    /**
+     * Повертає список фотографів, які вільні протягом усієї сесії вказаного типу.
+     * Для кожного фотографа виконується діапазонний запит до індексу бронювань (O(log n)).
+     * @param date бажана дата та час початку сесії.
+     * @param type тип фотосесії (визначає тривалість); null — тривалість за замовчуванням.
+     * @return список доступних фотографів.
+     */
+    public synchronized List<Photographer> getAvailablePhotographers(LocalDateTime date, SessionType type) {
+        int minutes = durationOf(type);
         List<Photographer> available = new ArrayList<>();
         for (Photographer p : photographers) {
-            boolean isBusy = orders.stream()
-                    .filter(o -> o.getPhotographer().getId().equals(p.getId()))
-                    .anyMatch(o -> {
-                        LocalDateTime oDate = o.getOrderDate();
-                        return oDate.toLocalDate().isEqual(date.toLocalDate()) &&
-                                Math.abs(oDate.getHour() - date.getHour()) < 2;
-                    });
-            if (!isBusy) available.add(p);
+            if (bookings.isFree(p.getId(), date, minutes)) available.add(p);
         }
         return available;
     }
 
+    /**
+     * Будує сітку вільних слотів ({@value Schedule#SLOT_MINUTES} хв) у робочі години
+     * для всіх фотографів або лише для однієї спеціалізації за період.
+     * Розклади об'єднуються побітово за один прохід (див. {@link FreeSlotGrid}).
+     * @param from перший день (включно).
+     * @param to останній день (включно).
+     * @param specialization спеціалізація фотографів; null — усі фотографи.
+     * @return сітка вільних слотів.
+     */
+    public FreeSlotGrid findFreeSlots(LocalDate from, LocalDate to, String specialization) {
+        return findFreeSlots(from, to, specialization, WORK_DAY_START, WORK_DAY_END);
+    }
+
+    /**
+     * Будує сітку вільних слотів у вказані години доби.
+     * @param from перший день (включно).
+     * @param to останній день (включно).
+     * @param specialization спеціалізація фотографів; null — усі фотографи.
+     * @param dayStart початок робочого часу.
+     * @param dayEnd кінець робочого часу.
+     * @return сітка вільних слотів.
+     */
+    public synchronized FreeSlotGrid findFreeSlots(LocalDate from, LocalDate to, String specialization,
+                                                   LocalTime dayStart, LocalTime dayEnd) {
+        List<Photographer> selected = new ArrayList<>();
+        for (Photographer p : photographers) {
+            if (specialization == null || specialization.equalsIgnoreCase(p.getSpecialization())) selected.add(p);
+        }
+        return new FreeSlotGrid(from, to, selected, Schedule.mask(dayStart, dayEnd));
+    }
+
+    /**
+     * Знаходить замовлення фотографа, з якими перетнулася б нова сесія.
+     * @param p фотограф.
+     * @param date початок нової сесії.
+     * @param type тип фотосесії (визначає тривалість).
+     * @return список замовлень, що перетинаються (порожній, якщо фотограф вільний).
+     */
+    public synchronized List<Order> findBookingConflicts(Photographer p, LocalDateTime date, SessionType type) {
+        return bookings.findOverlaps(p.getId(), date, durationOf(type), null);
+    }
+
+    /**
+     * Прив'язує пакет фотографій до замовлення одним оновленням: один прохід під блокуванням,
+     * записи журналу подаються разом (груповий коміт {@link PersistenceWriter}) і одна подія
+     * {@link DataChangeEvent.Type#PHOTOS_ADDED} замість події на кожне фото.
+     * @param o замовлення.
+     * @param photos фотографії в порядку додавання.
+     */
+    public synchronized void attachPhotos(Order o, List<Photo> photos) {
+        if (photos.isEmpty()) return;
+        o.getPhotos().addAll(photos);
+        for (Photo photo : photos) {
+            content.addRef(photo);
+            persist("F," + photoRow(photo, o));
+        }
+        fire(DataChangeEvent.Type.PHOTOS_ADDED, o, null, photos.size());
+    }
+
+    /**
+     * Переводить фото на новий файл (після перенесення у сховище за вмістом) і записує зміну в журнал.
+     * Назва файлу зі старого шляху зберігається як назва з фотоапарата, якщо її ще не задано.
+     * @param o замовлення, якому належить фото.
+     * @param photo фото.
+     * @param path новий шлях файлу.
+     * @param size розмір файлу.
+     * @param hash SHA-256 вмісту.
+     */
+    synchronized void relinkPhoto(Order o, Photo photo, String path, long size, String hash) {
+        boolean counted = photo.getContentHash() != null;
+        if (photo.getOriginalName() == null) photo.setOriginalName(photo.getDisplayName());
+        photo.setFilePath(path);
+        photo.setContent(size, hash);
+        if (!counted) content.addRef(photo);
+        persist("F," + photoRow(photo, o));
+    }
+
+    /**
+     * Знімок усіх фото з їхніми замовленнями (для фонових задач, що працюють без блокування).
+     * @return замовлення кожного фото, у порядку замовлень.
+     */
+    synchronized Map<Photo, Order> photoOwners() {
+        Map<Photo, Order> owners = new LinkedHashMap<>();
+        for (Order o : orders) if (o.hasPhotos()) for (Photo photo : o.getPhotos()) owners.put(photo, o);
+        return owners;
+    }
+
+    /** @return сховище файлів фото за вмістом. */
+    ContentStore getContentStore() {
+        return content;
+    }
+
+    /** @return директорія даних цього екземпляра. */
+    public String getDataDir() {
+        return dataDir;
+    }
+
     /**
      * Повертає список фотографій, прив'язаних до конкретного замовлення.
+     * Це сам список замовлення: з фонових потоків обходьте {@link #getPhotosSnapshot}.
      * @param id унікальний ідентифікатор замовлення.
      * @return список об'єктів Photo.
      */
-    public List<Photo> getPhotosForOrder(String id) {
-        return orders.stream()
-                .filter(o -> o.getId().equals(id))
-                .findFirst()
-                .map(Order::getPhotos)
-                .orElse(new ArrayList<>());
+    public synchronized List<Photo> getPhotosForOrder(String id) {
+        Order order = ordersById.get(id);
+        return order != null ? order.getPhotos() : new ArrayList<>();
+    }
+
+    /**
+     * Повертає копію списку фотографій замовлення, зняту під блокуванням
+     * (для інтерфейсу, поки фоновий імпорт може додавати фото).
+     * @param id унікальний ідентифікатор замовлення.
+     * @return копія списку фото (порожня, якщо замовлення немає).
+     */
+    public synchronized List<Photo> getPhotosSnapshot(String id) {
+        Order order = ordersById.get(id);
+        return order != null && order.hasPhotos() ? new ArrayList<>(order.getPhotos()) : new ArrayList<>();
     }
 
     /**
-     * Розраховує загальну суму виручки (totalCost) за вказаний період.
+     * Розраховує загальну суму виручки (totalCost) за вказаний період (межі включно).
+     * Повні дні підсумовуються деревом Фенвіка за O(log n), крайові неповні дні —
+     * за замовленнями лише цих днів.
      * @param start початок періоду.
      * @param end кінець періоду.
      * @return сума доходу.
      */
-    public double getTotalRevenueForPeriod(LocalDateTime start, LocalDateTime end) {
-        return orders.stream()
-                .filter(o -> !o.getOrderDate().isBefore(start) && !o.getOrderDate().isAfter(end))
-                .mapToDouble(Order::getTotalCost)
-                .sum();
+    public synchronized double getTotalRevenueForPeriod(LocalDateTime start, LocalDateTime end) {
+        return revenue.sum(start, end) / 100.0;
+    }
+
+    /**
+     * Повертає денну виручку за період одним запитом (без перебору замовлень),
+     * наприклад для графіків по днях, тижнях чи місяцях на головному екрані.
+     * @param from перший день (включно).
+     * @param to останній день (включно).
+     * @return масив сум (грн), елемент i — виручка за день {@code from + i}.
+     */
+    public synchronized double[] getDailyRevenue(LocalDate from, LocalDate to) {
+        long[] cents = revenue.daily(from, to);
+        double[] result = new double[cents.length];
+        for (int i = 0; i < cents.length; i++) result[i] = cents[i] / 100.0;
+        return result;
+    }
+
+    /**
+     * Повертає впорядковане та відфільтроване представлення замовлень для таблиці.
+     * Сортування використовує кешовані перестановки ({@link OrderViewIndex}), тому повторні
+     * запити та зміна фільтра не сортують список заново; замовлення не копіюються.
+     * @param key колонка сортування; null — порядок додавання.
+     * @param ascending true — за зростанням.
+     * @param statuses дозволені статуси; null або порожня множина — усі.
+     * @param nameFilter підрядок імені клієнта або фотографа; null або порожній — без фільтра.
+     * @return представлення (індекси у {@link #getOrders()}).
+     */
+    public synchronized OrderView getOrderView(OrderSortKey key, boolean ascending, Set<OrderStatus> statuses, String nameFilter) {
+        return orderViews.view(orders, key, ascending, statuses, nameFilter);
+    }
+
+    /**
+     * Повертає індекси (у {@link #getOrders()}) замовлень із вказаними статусами.
+     * Прохід іде по колонці статусів ({@link OrderColumns}), без звернення до об'єктів замовлень.
+     * @param statuses дозволені статуси.
+     * @return індекси замовлень у порядку списку.
+     */
+    public synchronized int[] findOrderIndexes(Set<OrderStatus> statuses) {
+        boolean[] allowed = new boolean[OrderStatus.values().length];
+        for (OrderStatus s : statuses) allowed[s.ordinal()] = true;
+        return columns.rowsWithStatus(allowed);
+    }
+
+    /**
+     * Повертає замовлення із вказаними статусами (відбір за колонкою статусів, як
+     * {@link #findOrderIndexes}). Список знімається під блокуванням, тому його можна
+     * обходити з фонового потоку, поки додаються нові замовлення.
+     * @param statuses дозволені статуси.
+     * @return копія списку замовлень у порядку додавання.
+     */
+    public synchronized List<Order> findOrdersByStatus(Set<OrderStatus> statuses) {
+        int[] rows = findOrderIndexes(statuses);
+        List<Order> result = new ArrayList<>(rows.length);
+        for (int row : rows) result.add(orders.get(row));
+        return result;
+    }
+
+    /**
+     * Рахує кількість замовлень і виручку кожного фотографа за період (з точністю до хвилини)
+     * одним проходом по колонках дати, вартості та фотографа.
+     * @param start початок періоду.
+     * @param end кінець періоду.
+     * @return підсумки в порядку списку фотографів (включно з фотографами без замовлень).
+     */
+    public synchronized List<PhotographerSummary> getPhotographerSummary(LocalDateTime start, LocalDateTime end) {
+        long[][] totals = columns.photographerTotals(epochMinute(start), epochMinute(end));
+        Map<Photographer, PhotographerSummary> byPhotographer = new IdentityHashMap<>();
+        for (int i = 0; i < totals[0].length; i++) {
+            Photographer p = columns.photographerAt(i);
+            byPhotographer.put(p, new PhotographerSummary(p, totals[0][i], totals[1][i] / 100.0));
+        }
+        List<PhotographerSummary> result = new ArrayList<>(photographers.size());
+        for (Photographer p : photographers) {
+            result.add(byPhotographer.getOrDefault(p, new PhotographerSummary(p, 0, 0)));
+        }
+        return result;
+    }
+
+    /**
+     * Рахує замовлення кожного типу сесії за період (з точністю до хвилини)
+     * одним проходом по колонках дати та типу сесії.
+     * @param start початок періоду.
+     * @param end кінець періоду.
+     * @return кількість замовлень за назвою типу, від найпопулярнішого.
+     */
+    public synchronized Map<String, Long> getSessionTypeCounts(LocalDateTime start, LocalDateTime end) {
+        long[] counts = columns.sessionTypeCounts(epochMinute(start), epochMinute(end));
+        List<Integer> ordinals = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) if (counts[i] > 0) ordinals.add(i);
+        ordinals.sort((a, b) -> Long.compare(counts[b], counts[a]));
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int i : ordinals) result.put(columns.sessionTypeAt(i), counts[i]);
+        return result;
+    }
+
+    /** Хвилина епохи для дати-часу (як у колонці дат {@link OrderColumns}). */
+    private static long epochMinute(LocalDateTime t) {
+        return Math.floorDiv(t.toEpochSecond(ZoneOffset.UTC), 60);
     }
 
     /**
@@ -205,185 +1062,545 @@ public class DataManager implements Persistable, Serializable {
      * @return Optional з назвою найпопулярнішого типу.
      */
     public Optional<String> getMostPopularSessionType() {
-        return orders.stream()
-                .collect(Collectors.groupingBy(o -> o.getSessionType().getName(), Collectors.counting()))
-                .entrySet().stream()
-                .max(Map.Entry.comparingByValue())
-                .map(Map.Entry::getKey);
+        return stats.getMostPopularSessionType();
     }
 
     // --- Реалізація інтерфейсу Persistable (Робота з файлами) ---
 
     /**
-     * Зберігає всі колекції даних у відповідні CSV-файли.
+     * Зберігає всі колекції даних у поточному форматі сховища (CSV або двійковому).
      * @param path шлях до папки для збереження.
      * @throws IOException у разі помилок запису.
      */
     @Override
     public void saveDataToFile(String path) throws IOException {
-        // Збереження клієнтів
-        try (PrintWriter w = new PrintWriter(new FileWriter(path + "/clients.csv"))) {
-            for (Client c : clients)
-                w.println(c.getId() + "," + c.getName() + "," + c.getPhoneNumber() + "," + c.getEmail() + "," + c.isRegular());
-        }
-        // Збереження фотографів
-        try (PrintWriter w = new PrintWriter(new FileWriter(path + "/photographers.csv"))) {
-            for (Photographer p : photographers)
-                w.println(p.getId() + "," + p.getName() + "," + p.getPhoneNumber() + "," + p.getSpecialization());
-        }
-        // Збереження замовлень (з ID замість вкладених об'єктів)
-        try (PrintWriter w = new PrintWriter(new FileWriter(path + "/orders.csv"))) {
-            for (Order o : orders)
-                w.println(o.getId() + "," + o.getOrderDate().toString() + "," + o.getStatus() + "," +
-                        o.getClient().getId() + "," + o.getPhotographer().getId() + "," + o.getSessionType().getName() + "," + o.getTotalCost());
-        }
-        // Збереження фотографій (зв'язок "один до багатьох")
-        try (PrintWriter w = new PrintWriter(new FileWriter(path + "/photos.csv"))) {
-            for (Order o : orders) {
-                for (Photo photo : o.getPhotos()) {
-                    w.println(photo.getId() + "," + o.getId() + "," + photo.getFilePath());
-                }
-            }
+        saveSnapshot(Paths.get(path), storage);
+    }
+
+    /**
+     * Записує повний знімок у вказаному сховищі.
+     * Файли пишуться через тимчасові файли з атомарною заміною.
+     * Під блокуванням лише знімається копія даних, тому запис не зупиняє інші потоки.
+     * @param dir директорія для збереження.
+     * @param target сховище (формат) знімка.
+     * @throws IOException у разі помилок запису.
+     */
+    void saveSnapshot(Path dir, SnapshotStorage target) throws IOException {
+        captureSnapshot(dir, target).write();
+    }
+
+    /**
+     * Копіює дані для знімка (замовлення з фото, клієнтів і фотографів), щоб файли можна було
+     * писати без блокування, поки інтерфейс та імпорт змінюють оригінали.
+     * Копії замовлень посилаються на копії своїх клієнтів і фотографів.
+     * @param dir директорія для збереження.
+     * @param target сховище (формат) знімка.
+     * @return запис копії у файли.
+     */
+    private synchronized PersistenceWriter.SnapshotWrite captureSnapshot(Path dir, SnapshotStorage target) {
+        Map<Client, Client> clientCopies = new IdentityHashMap<>(clients.size() * 2);
+        List<Client> clientList = new ArrayList<>(clients.size());
+        for (Client c : clients) {
+            Client copy = new Client(c);
+            clientCopies.put(c, copy);
+            clientList.add(copy);
+        }
+        Map<Photographer, Photographer> photographerCopies = new IdentityHashMap<>();
+        List<Photographer> photographerList = new ArrayList<>(photographers.size());
+        for (Photographer p : photographers) {
+            Photographer copy = new Photographer(p);
+            photographerCopies.put(p, copy);
+            photographerList.add(copy);
+        }
+        List<Order> orderList = new ArrayList<>(orders.size());
+        for (Order o : orders) {
+            Client client = clientCopies.get(o.getClient());
+            Photographer photographer = photographerCopies.get(o.getPhotographer());
+            orderList.add(new Order(o, client != null ? client : new Client(o.getClient()),
+                    photographer != null ? photographer : new Photographer(o.getPhotographer())));
         }
+        return () -> target.write(dir, clientList, photographerList, orderList);
+    }
+
+    // --- Формат рядків CSV (спільний для знімка та журналу) ---
+
+    /** Рядок clients.csv: ID, ім'я, телефон, email, статус. */
+    private static String clientRow(Client c) {
+        return c.getId() + "," + c.getName() + "," + c.getPhoneNumber() + "," + c.getEmail() + "," + c.isRegular();
+    }
+
+    /** Рядок photographers.csv: ID, ім'я, телефон, спеціалізація. */
+    private static String photographerRow(Photographer p) {
+        return p.getId() + "," + p.getName() + "," + p.getPhoneNumber() + "," + p.getSpecialization();
+    }
+
+    /** Рядок orders.csv: ID, дата, статус, ID клієнта, ID фотографа, тип сесії, вартість. */
+    private static String orderRow(Order o) {
+        return o.getId() + "," + o.getOrderDate().toString() + "," + o.getStatus() + "," +
+                o.getClient().getId() + "," + o.getPhotographer().getId() + "," + o.getSessionType().getName() + "," + o.getTotalCost();
+    }
+
+    /** Рядок photos.csv: ID фото, ID замовлення, шлях до файлу. */
+    private static String photoRow(Photo photo, Order o) {
+        String row = photo.getId() + "," + o.getId() + "," + photo.getFilePath();
+        if (photo.getContentHash() == null) return row;
+        row += "," + photo.getSize() + "," + photo.getContentHash();
+        return photo.getOriginalName() == null ? row : row + "," + photo.getOriginalName();
     }
 
     /**
-     * Завантажує дані з CSV-файлів та відновлює об'єктні зв'язки.
+     * Завантажує дані зі знімка та відновлює об'єктні зв'язки.
+     * Для директорії даних використовується поточне сховище, для іншої
+     * директорії формат визначається за наявними файлами (імпорт).
+     * Не можна викликати, утримуючи блокування DataManager.
      * @param path шлях до папки з файлами.
-     * @throws IOException у разі помилок читання.
+     * @throws IOException у разі помилок читання або запису імпортованих даних.
      */
     @Override
     public void loadDataFromFile(String path) throws IOException {
+        Path dir = Paths.get(path);
+        importSnapshot(dir, isDataDir(dir) ? storage : detectStorage(dir));
+    }
+
+    /**
+     * Замінює дані знімком зі сховища. Знімок з іншої директорії (імпорт) одразу записується
+     * як знімок директорії даних з очищенням журналу: інакше наступний запуск відновив би
+     * старі дані, а нові записи журналу програвалися б поверх старого знімка.
+     * Не можна викликати, утримуючи блокування DataManager.
+     * @param dir директорія з файлами знімка.
+     * @param source сховище (формат) знімка.
+     * @throws IOException у разі помилок читання або запису.
+     */
+    void importSnapshot(Path dir, SnapshotStorage source) throws IOException {
+        loadSnapshot(dir, source);
+        if (!isDataDir(dir)) compact(dataDir);
+    }
+
+    /** @return true, якщо директорія — директорія даних цього екземпляра. */
+    private boolean isDataDir(Path dir) {
+        return dir.toAbsolutePath().normalize().equals(Paths.get(dataDir).toAbsolutePath().normalize());
+    }
+
+    /**
+     * Замінює дані в пам'яті знімком із вказаного сховища. Для директорії даних
+     * поверх знімка програється журнал змін.
+     * @param dir директорія з файлами знімка.
+     * @param source сховище (формат) знімка.
+     * @throws IOException у разі помилок читання.
+     */
+    synchronized void loadSnapshot(Path dir, SnapshotStorage source) throws IOException {
         clients.clear();
         photographers.clear();
         orders.clear();
+        clientsById.clear();
+        photographersById.clear();
+        ordersById.clear();
+        clientsByPhone.clear();
+        clientsByEmail.clear();
+        bookings.clear();
+        revenue.clear();
+        stats.clear();
+        columns.clear();
+        loyalty.clear();
+        orderViews.clear();
+        clientSearch.clear();
+        orderIds.clear();
 
-        // 1. Завантаження клієнтів
-        File f1 = new File(path + "/clients.csv");
-        if (f1.exists()) {
-            try (BufferedReader br = new BufferedReader(new FileReader(f1))) {
-                String line;
-                while ((line = br.readLine()) != null) {
-                    String[] p = line.split(",");
-                    if (p.length >= 5) {
-                        Client c = new Client(p[1], p[2], p[3], Boolean.parseBoolean(p[4]));
-                        c.setId(p[0]); // Відновлення ID
-                        clients.add(c);
-                    }
-                }
-            }
+        // 1-4. Завантаження знімка (CSV — паралельний розбір фрагментами, двійковий — послідовне читання)
+        Snapshot snap = source.read(dir);
+        phaseFinished(LoadPhase.SNAPSHOT, snap.clients.size() + snap.photographers.size() + snap.orders.size());
+        for (Client c : snap.clients) {
+            clients.add(c);
+            indexContacts(c);
+            stats.clientAdded(c);
+        }
+        clientsById = snap.clientsById;
+        phaseFinished(LoadPhase.CLIENTS, clients.size());
+        photographers.addAll(snap.photographers);
+        photographersById = snap.photographersById;
+        phaseFinished(LoadPhase.PHOTOGRAPHERS, photographers.size());
+        orders.addAll(snap.orders);
+        ordersById = snap.ordersById;
+        sessionTypePool = snap.sessionTypes; // Замовлення з журналу отримують ті самі типи
+        columns.ensureCapacity(snap.orders.size());
+        for (Order o : snap.orders) {
+            columns.add(o);
+            indexBooking(o);
+            revenue.add(o.getOrderDate(), cents(o.getTotalCost()));
+            stats.orderAdded(o);
         }
+        loyalty.rebuild(columns);
+        phaseFinished(LoadPhase.ORDERS, orders.size());
 
-        // 2. Завантаження фотографів
-        File f2 = new File(path + "/photographers.csv");
-        if (f2.exists()) {
-            try (BufferedReader br = new BufferedReader(new FileReader(f2))) {
-                String line;
-                while ((line = br.readLine()) != null) {
-                    String[] p = line.split(",");
-                    if (p.length >= 4) {
-                        Photographer ph = new Photographer(p[1], p[2], p[3]);
-                        ph.setId(p[0]);
-                        photographers.add(ph);
-                    }
-                }
+        // 5. Програвання журналу змін поверх знімка
+        if (isDataDir(dir)) {
+            replayPhotos = new IdTable<>();
+            replayIndexedOrders = new IdentityHashMap<>();
+            try {
+                journal.replay(this::applyJournalRecord);
+            } finally {
+                replayPhotos = null;
+                replayIndexedOrders = null;
             }
+            phaseFinished(LoadPhase.JOURNAL, journal.getRecordCount());
         }
+
         // Якщо база фотографів порожня (перший запуск або видалення), додаємо базових
         if (photographers.isEmpty()) initBaseData();
+        if (clients.size() >= SEARCH_WARMUP_THRESHOLD) warmUpClientSearch();
+        if (orders.size() >= SEARCH_WARMUP_THRESHOLD) warmUpOrderIds();
+        content.clear();
+        for (Order o : orders) if (o.hasPhotos()) for (Photo photo : o.getPhotos()) content.addRef(photo);
+        fire(DataChangeEvent.Type.RELOADED, null, null, null);
+    }
 
-        // 3. Завантаження замовлень та відновлення зв'язків
-        File f3 = new File(path + "/orders.csv");
-        if (f3.exists()) {
-            try (BufferedReader br = new BufferedReader(new FileReader(f3))) {
-                String line;
-                while ((line = br.readLine()) != null) {
-                    String[] p = line.split(",");
-                    if (p.length >= 7) {
-                        // Пошук об'єктів за ID
-                        Client c = clients.stream().filter(i -> i.getId().equals(p[3])).findFirst().orElse(null);
-                        Photographer ph = photographers.stream().filter(i -> i.getId().equals(p[4])).findFirst().orElse(null);
-
-                        if (c != null && ph != null) {
-                            SessionType st = new SessionType(p[5], Double.parseDouble(p[6]));
-                            Order o = new Order(c, ph, st);
-                            o.setId(p[0]);
-                            o.setOrderDate(LocalDateTime.parse(p[1]));
-                            o.setStatus(OrderStatus.valueOf(p[2]));
-                            o.setTotalCost(Double.parseDouble(p[6]));
-                            orders.add(o);
-                        }
-                    }
-                }
+    /** Сповіщає слухачів про завершення етапу завантаження. */
+    private void phaseFinished(LoadPhase phase, int count) {
+        fire(DataChangeEvent.Type.LOAD_PHASE_FINISHED, phase, null, count);
+    }
+
+    /**
+     * Будує індекс пошуку клієнтів у фоновому потоці, щоб перше натискання клавіші
+     * у пошуку не чекало на сортування всієї бази. Сортування йде над копією списку
+     * без блокування; встановлення (з урахуванням змін за цей час) — під блокуванням.
+     */
+    private void warmUpClientSearch() {
+        List<Client> copy = new ArrayList<>(clients);
+        int generation = clientSearch.generation();
+        Thread t = new Thread(() -> {
+            ClientSearchIndex.Prepared prepared = ClientSearchIndex.prepare(copy);
+            synchronized (this) {
+                clientSearch.install(prepared, generation, clients);
             }
-        }
+        }, "client-search-index");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /**
+     * Будує індекс скорочених ID замовлень у фоновому потоці (аналогічно {@link #warmUpClientSearch}),
+     * щоб перше відображення таблиці замовлень не чекало на сортування всіх ID.
+     */
+    private void warmUpOrderIds() {
+        List<Order> copy = new ArrayList<>(orders);
+        int generation = orderIds.generation();
+        Thread t = new Thread(() -> {
+            OrderIdIndex.Prepared prepared = OrderIdIndex.prepare(copy);
+            synchronized (this) {
+                orderIds.install(prepared, generation, orders);
+            }
+        }, "order-id-index");
+        t.setDaemon(true);
+        t.start();
+    }
 
-        // 4. Завантаження фотографій для замовлень
-        File f4 = new File(path + "/photos.csv");
-        if (f4.exists()) {
-            try (BufferedReader br = new BufferedReader(new FileReader(f4))) {
-                String line;
-                while ((line = br.readLine()) != null) {
-                    String[] p = line.split(",");
-                    if (p.length >= 3) {
-                        String photoId = p[0];
-                        String orderId = p[1];
-                        String filePath = p[2];
-
-                        // Знаходимо замовлення за ID
-                        Optional<Order> orderOpt = orders.stream()
-                                .filter(o -> o.getId().equals(orderId))
-                                .findFirst();
-
-                        if (orderOpt.isPresent()) {
-                            Photo photo = new Photo(filePath);
-                            photo.setId(photoId);
-                            orderOpt.get().getPhotos().add(photo);
-                        }
+    /**
+     * Застосовує один запис журналу змін (див. {@link ChangeJournal}).
+     * Записи ідемпотентні (upsert), тому повторне програвання після знімка безпечне.
+     * Пошкоджені записи (наприклад, обірваний останній рядок) пропускаються.
+     * @param record рядок журналу.
+     */
+    private void applyJournalRecord(String record) {
+        String[] p = record.substring(2).split(",");
+        try {
+            switch (record.charAt(0)) {
+                case 'C' -> { if (p.length >= 5) applyClientRow(p); }
+                case 'P' -> { if (p.length >= 4) applyPhotographerRow(p); }
+                case 'O' -> { if (p.length >= 7) applyOrderRow(p); }
+                case 'F' -> { if (p.length >= 3) applyPhotoRow(p); }
+                case 'S' -> {
+                    Order o = p.length >= 2 ? ordersById.get(p[0]) : null;
+                    if (o != null) {
+                        OrderStatus status = OrderStatus.valueOf(p[1]);
+                        stats.orderStatusChanged(o.getStatus(), status);
+                        orderViews.invalidate(OrderSortKey.STATUS);
+                        loyalty.remove(o);
+                        o.setStatus(status);
+                        loyalty.add(o);
+                        columns.update(o);
                     }
                 }
+                default -> System.out.println("Невідомий запис журналу: " + record);
             }
+        } catch (RuntimeException e) {
+            System.out.println("Пошкоджений запис журналу пропущено: " + record);
+        }
+    }
+
+    /**
+     * Створює або оновлює клієнта з рядка CSV (ID, ім'я, телефон, email, статус).
+     * @param p поля рядка.
+     */
+    private void applyClientRow(String[] p) {
+        Client existing = clientsById.get(p[0]);
+        if (existing != null) {
+            unindexContacts(existing);
+            clientSearch.remove(existing);
+            existing.setName(p[1]);
+            existing.setPhoneNumber(p[2]);
+            existing.setEmail(p[3]);
+            boolean regular = Boolean.parseBoolean(p[4]);
+            stats.clientRegularChanged(existing.isRegular(), regular);
+            existing.setRegular(regular);
+            orderViews.invalidate(OrderSortKey.CLIENT);
+            clientSearch.add(existing);
+            indexContacts(existing);
+            return;
+        }
+        Client c = new Client(p[1], p[2], p[3], Boolean.parseBoolean(p[4]));
+        c.setId(p[0]); // Відновлення ID
+        registerClient(c);
+    }
+
+    /**
+     * Створює або оновлює фотографа з рядка CSV (ID, ім'я, телефон, спеціалізація).
+     * @param p поля рядка.
+     */
+    private void applyPhotographerRow(String[] p) {
+        Photographer existing = photographersById.get(p[0]);
+        if (existing != null) {
+            existing.setName(p[1]);
+            existing.setPhoneNumber(p[2]);
+            orderViews.invalidate(OrderSortKey.PHOTOGRAPHER);
+            return;
+        }
+        Photographer ph = new Photographer(p[1], p[2], p[3]);
+        ph.setId(p[0]);
+        registerPhotographer(ph);
+    }
+
+    /**
+     * Створює або оновлює замовлення з рядка CSV
+     * (ID, дата, статус, ID клієнта, ID фотографа, тип сесії, вартість).
+     * Рядки з невідомим клієнтом або фотографом пропускаються.
+     * @param p поля рядка.
+     */
+    private void applyOrderRow(String[] p) {
+        Order existing = ordersById.get(p[0]);
+        if (existing != null) {
+            LocalDateTime oldStart = existing.getOrderDate();
+            revenue.remove(oldStart, cents(existing.getTotalCost()));
+            loyalty.remove(existing);
+            existing.setOrderDate(LocalDateTime.parse(p[1]));
+            OrderStatus status = OrderStatus.valueOf(p[2]);
+            stats.orderStatusChanged(existing.getStatus(), status);
+            existing.setStatus(status);
+            existing.setTotalCost(Double.parseDouble(p[6]));
+            loyalty.add(existing);
+            columns.update(existing);
+            revenue.add(existing.getOrderDate(), cents(existing.getTotalCost()));
+            if (!oldStart.equals(existing.getOrderDate())) reindexBooking(existing, oldStart);
+            orderViews.clear();
+            return;
+        }
+        // Пошук об'єктів за ID (через хеш-індекси)
+        Client c = clientsById.get(p[3]);
+        Photographer ph = photographersById.get(p[4]);
+
+        if (c != null && ph != null) {
+            Order o = new Order(c, ph, sessionTypePool.get(p[5], Double.parseDouble(p[6])));
+            o.setId(p[0]);
+            o.setOrderDate(LocalDateTime.parse(p[1]));
+            o.setStatus(OrderStatus.valueOf(p[2]));
+            o.setTotalCost(Double.parseDouble(p[6]));
+            registerOrder(o);
+        }
+    }
+
+    /**
+     * Прив'язує фотографію з рядка CSV (ID фото, ID замовлення, шлях) до замовлення.
+     * Якщо фото вже є, оновлює його шлях і вміст (запис після перенесення файлу у сховище за вмістом).
+     * Викликається лише під час програвання журналу: фото шукається в індексі програвання за O(1).
+     * @param p поля рядка.
+     */
+    private void applyPhotoRow(String[] p) {
+        // Знаходимо замовлення за ID
+        Order order = ordersById.get(p[1]);
+        if (order == null) return;
+        if (replayIndexedOrders.put(order, Boolean.TRUE) == null && order.hasPhotos()) {
+            for (Photo existing : order.getPhotos()) replayPhotos.put(existing.getId(), existing);
+        }
+        Photo photo = replayPhotos.get(p[0]);
+        if (photo == null) {
+            photo = new Photo(p[2]);
+            photo.setId(p[0]);
+            order.getPhotos().add(photo);
+            replayPhotos.put(p[0], photo);
+        } else {
+            photo.setFilePath(p[2]);
         }
+        if (p.length >= 5) photo.setContent(Long.parseLong(p[3]), p[4]);
+        if (p.length >= 6) photo.setOriginalName(p[5]);
     }
 
     /**
      * Перевіряє, чи існує вже клієнт з таким номером телефону або email.
      * Використовується для запобігання дублювання записів.
+     * Обидві перевірки виконуються за O(1) через індекси нормалізованих ключів.
      * @param phone номер телефону.
      * @param email електронна пошта.
      * @return true, якщо клієнт знайдений.
      */
-    public boolean clientExists(String phone, String email) {
-        return clients.stream().anyMatch(c ->
-                c.getPhoneNumber().equals(phone) ||
-                        (email != null && !email.isEmpty() && c.getEmail().equalsIgnoreCase(email))
-        );
+    public synchronized boolean clientExists(String phone, String email) {
+        return findClientByPhone(phone) != null || findClientByEmail(email) != null;
     }
 
     /**
      * Перевіряє історію замовлень клієнта.
-     * Якщо клієнт має 3 або більше оплачених замовлень, йому автоматично
-     * присвоюється статус "Постійний клієнт" (знижка 10%).
+     * Якщо клієнт має не менше оплачених замовлень, ніж вимагає чинне правило лояльності
+     * ({@link #getLoyaltyPolicy()}, за замовчуванням 3), йому присвоюється статус
+     * "Постійний клієнт". Кількість береться з лічильника, тому перевірка — O(1).
+     * Викликається автоматично при оплаті замовлення.
      * @param client об'єкт клієнта для перевірки.
      */
-    public void checkAndUpgradeClient(Client client) {
+    public synchronized void checkAndUpgradeClient(Client client) {
         if (client.isRegular()) return;
+        if (loyaltyPolicy.qualifies(loyalty.paidOrders(client))) upgradeClient(client);
+    }
 
-        long paidOrdersCount = orders.stream()
-                .filter(o -> o.getClient().getId().equals(client.getId()))
-                .filter(o -> o.getStatus() == OrderStatus.PAID)
-                .count();
-
-        if (paidOrdersCount >= 3) {
-            client.setRegular(true);
-            System.out.println("Клієнт " + client.getName() + " отримав статус постійного!");
-            saveAllQuietly();
+    /**
+     * Перераховує лояльність усіх клієнтів одним паралельним проходом по замовленнях
+     * (наприклад, після імпорту даних або зміни правила) і підвищує статус тих,
+     * хто досяг порогу. Статус постійного клієнта не знімається.
+     * @return кількість клієнтів, які отримали статус постійного.
+     */
+    public synchronized int reevaluateLoyalty() {
+        loyalty.rebuild(columns);
+        LoyaltyPolicy policy = loyaltyPolicy;
+        List<Client> upgraded = new ArrayList<>();
+        for (Client c : loyalty.payingClients()) {
+            if (!c.isRegular() && policy.qualifies(loyalty.paidOrders(c))) upgraded.add(c);
         }
+        for (Client c : upgraded) upgradeClient(c);
+        return upgraded.size();
+    }
+
+    /**
+     * Встановлює нове правило лояльності та перевіряє за ним усіх клієнтів.
+     * Вартість уже створених замовлень не змінюється.
+     * @param policy нове правило.
+     * @return кількість клієнтів, які отримали статус постійного.
+     */
+    public synchronized int setLoyaltyPolicy(LoyaltyPolicy policy) {
+        if (policy == null) throw new IllegalArgumentException("Правило лояльності не задано");
+        loyaltyPolicy = policy;
+        return reevaluateLoyalty();
+    }
+
+    /** @return чинне правило лояльності студії. */
+    public synchronized LoyaltyPolicy getLoyaltyPolicy() {
+        return loyaltyPolicy;
+    }
+
+    /**
+     * @param client клієнт.
+     * @return кількість оплачених замовлень клієнта.
+     */
+    public synchronized long getPaidOrdersCount(Client client) {
+        return loyalty.paidOrders(client);
     }
 
-    // Геттери для доступу до колекцій (для UI)
-    public List<Client> getClients() { return clients; }
-    public List<Photographer> getPhotographers() { return photographers; }
-    public List<Order> getOrders() { return orders; }
-    public List<SessionType> getSessionTypes() { return sessionTypes; }
+    /**
+     * @param client клієнт.
+     * @return сума всіх оплачених замовлень клієнта (грн).
+     */
+    public synchronized double getLifetimeSpend(Client client) {
+        return loyalty.spentCents(client) / 100.0;
+    }
+
+    /**
+     * Присвоює клієнту статус постійного: лічильники, журнал та подія для слухачів.
+     */
+    private void upgradeClient(Client client) {
+        stats.clientRegularChanged(false, true);
+        client.setRegular(true);
+        System.out.println("Клієнт " + client.getName() + " отримав статус постійного!");
+        persist("C," + clientRow(client));
+        fire(DataChangeEvent.Type.CLIENT_REGULAR_CHANGED, client, false, true);
+    }
+
+    // --- Платежі ---
+
+    /**
+     * Фіксує платіж у журналі платежів (одне послідовне дописування з fsync).
+     * Не утримує блокування DataManager: журнал має власне.
+     * @param payment платіж.
+     * @throws IOException у разі помилки запису.
+     */
+    public void recordPayment(Payment payment) throws IOException {
+        payments.append(payment);
+    }
+
+    /**
+     * Повертає всі платежі за замовленням (за індексом ID замовлення, без перегляду журналу).
+     * @param orderId ID замовлення.
+     * @return платежі в порядку проведення.
+     * @throws IOException у разі помилки читання.
+     */
+    public List<Payment> getPayments(String orderId) throws IOException {
+        return payments.findByOrder(orderId);
+    }
+
+    /**
+     * Рахує суму надходжень у касу за період (за денними наростаючими підсумками журналу платежів).
+     * @param from перший день (включно).
+     * @param to останній день (включно).
+     * @return сума платежів (грн).
+     * @throws IOException у разі помилки читання журналу.
+     */
+    public double getPaymentsTotal(LocalDate from, LocalDate to) throws IOException {
+        return payments.totalCents(from, to) / 100.0;
+    }
+
+    /**
+     * Рахує кількість платежів за період.
+     * @param from перший день (включно).
+     * @param to останній день (включно).
+     * @return кількість платежів.
+     * @throws IOException у разі помилки читання журналу.
+     */
+    public long getPaymentsCount(LocalDate from, LocalDate to) throws IOException {
+        return payments.count(from, to);
+    }
+
+    // Геттери для доступу до колекцій (для UI): незмінні копії, зняті під блокуванням,
+    // бо фонове завантаження та імпорт змінюють самі списки
+    public synchronized List<Client> getClients() { return List.copyOf(clients); }
+    public synchronized List<Photographer> getPhotographers() { return List.copyOf(photographers); }
+    public synchronized List<Order> getOrders() { return List.copyOf(orders); }
+    public synchronized List<SessionType> getSessionTypes() { return List.copyOf(sessionTypes); }
+
+    /** @return кількість замовлень. */
+    public synchronized int getOrderCount() { return orders.size(); }
+
+    /**
+     * @param index індекс замовлення у порядку додавання (як у {@link OrderView}).
+     * @return замовлення.
+     */
+    public synchronized Order getOrderAt(int index) { return orders.get(index); }
+
+    /**
+     * @param from індекс першого замовлення.
+     * @return незмінна копія замовлень, доданих починаючи з індексу (для дозавантаження таблиці).
+     */
+    public synchronized List<Order> getOrdersFrom(int from) {
+        return List.copyOf(orders.subList(Math.min(from, orders.size()), orders.size()));
+    }
+
+    /** @return кількість клієнтів. */
+    public synchronized int getClientCount() { return clients.size(); }
+
+    /**
+     * @param index індекс клієнта у порядку додавання.
+     * @return клієнт.
+     */
+    public synchronized Client getClientAt(int index) { return clients.get(index); }
+
+    /**
+     * @param from індекс першого клієнта.
+     * @return незмінна копія клієнтів, доданих починаючи з індексу.
+     */
+    public synchronized List<Client> getClientsFrom(int from) {
+        return List.copyOf(clients.subList(Math.min(from, clients.size()), clients.size()));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,170 @@
+package com.example.control;
+
+import com.example.util.CompactId;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Хеш-індекс сутностей за ID без зберігання рядків ID.
+ * <p>
+ * Канонічні UUID ({@link CompactId}) зберігаються як два {@code long} у відкритій адресації
+ * з лінійним пробуванням: на запис припадає 30–60 байт масивів замість вузла {@link HashMap}
+ * та рядка ключа. Рядок, переданий у {@link #get}, розбирається на льоту, тому сутності
+ * можуть форматувати свій ID лише на вимогу. Неканонічні ID (рідкісні, наприклад з
+ * відредагованого вручну CSV) зберігаються у звичайній {@link HashMap}.
+ * <p>
+ * Таблиця не синхронізована: її змінює лише {@link DataManager} під своїм блокуванням
+ * (або завантажувач знімка в одному потоці). Видалення не підтримується — сутності
+ * лише додаються до повного перезавантаження ({@link #clear}).
+ *
+ * @param <T> тип сутності.
+ */
+class IdTable<T> implements Serializable {
+
+    /** Максимальне заповнення таблиці перед подвоєнням. */
+    private static final double LOAD_FACTOR = 0.7;
+
+    /** Ключі: старші та молодші 64 біти ID для кожної комірки (пара на комірку). */
+    private long[] keys;
+
+    /** Значення комірок (null — комірка порожня). */
+    private Object[] values;
+
+    /** Кількість записів з канонічним ID. */
+    private int size;
+
+    /** Записи з неканонічним ID. */
+    private final Map<String, T> other = new HashMap<>();
+
+    /** Створює порожню таблицю. */
+    IdTable() {
+        this(16);
+    }
+
+    /**
+     * Створює таблицю, розраховану на вказану кількість записів (без перебудови під час завантаження).
+     * @param expected очікувана кількість записів.
+     */
+    IdTable(int expected) {
+        allocate(capacityFor(expected));
+    }
+
+    /**
+     * Знаходить сутність за ID.
+     * @param id рядок ID (може бути null).
+     * @return сутність або null, якщо не знайдено.
+     */
+    @SuppressWarnings("unchecked")
+    T get(String id) {
+        if (!CompactId.isCanonical(id)) return id == null ? null : other.get(id);
+        long high = CompactId.high(id), low = CompactId.low(id);
+        int mask = values.length - 1;
+        for (int slot = hash(high, low) & mask; values[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[2 * slot] == high && keys[2 * slot + 1] == low) return (T) values[slot];
+        }
+        return null;
+    }
+
+    /**
+     * Додає або замінює сутність за ID.
+     * @param id рядок ID.
+     * @param value сутність.
+     * @return попереднє значення або null.
+     */
+    T put(String id, T value) {
+        if (!CompactId.isCanonical(id)) return other.put(id, value);
+        return put(CompactId.high(id), CompactId.low(id), value);
+    }
+
+    /**
+     * Додає або замінює сутність за канонічним ID, уже розібраним на два long
+     * (наприклад, прочитаним з двійкового файлу), без форматування рядка.
+     * @param high старші 64 біти ID.
+     * @param low молодші 64 біти ID.
+     * @param value сутність.
+     * @return попереднє значення або null.
+     */
+    @SuppressWarnings("unchecked")
+    T put(long high, long low, T value) {
+        if (size + 1 > values.length * LOAD_FACTOR) rehash(values.length * 2);
+        return (T) insert(high, low, value);
+    }
+
+    /**
+     * Додає всі записи іншої таблиці.
+     * @param from таблиця-джерело.
+     */
+    void putAll(IdTable<T> from) {
+        int needed = capacityFor(size + from.size);
+        if (needed > values.length) rehash(needed);
+        for (int slot = 0; slot < from.values.length; slot++) {
+            if (from.values[slot] != null) insert(from.keys[2 * slot], from.keys[2 * slot + 1], from.values[slot]);
+        }
+        other.putAll(from.other);
+    }
+
+    /** @return кількість записів. */
+    int size() {
+        return size + other.size();
+    }
+
+    /** Видаляє всі записи та звільняє масиви. */
+    void clear() {
+        allocate(capacityFor(16));
+        size = 0;
+        other.clear();
+    }
+
+    /** Вставляє запис з канонічним ID (місткість уже достатня); повертає попереднє значення. */
+    private Object insert(long high, long low, Object value) {
+        int mask = values.length - 1;
+        int slot = hash(high, low) & mask;
+        while (values[slot] != null) {
+            if (keys[2 * slot] == high && keys[2 * slot + 1] == low) {
+                Object old = values[slot];
+                values[slot] = value;
+                return old;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[2 * slot] = high;
+        keys[2 * slot + 1] = low;
+        values[slot] = value;
+        size++;
+        return null;
+    }
+
+    /** Перерозміщує записи в таблицю більшої місткості. */
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        size = 0;
+        for (int slot = 0; slot < oldValues.length; slot++) {
+            if (oldValues[slot] != null) insert(oldKeys[2 * slot], oldKeys[2 * slot + 1], oldValues[slot]);
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[2 * capacity];
+        values = new Object[capacity];
+    }
+
+    /** Місткість (степінь двійки) для кількості записів з урахуванням заповнення. */
+    private static int capacityFor(int expected) {
+        int capacity = 16;
+        while (capacity * LOAD_FACTOR < expected) capacity <<= 1;
+        return capacity;
+    }
+
+    /** Перемішує біти ID (UUID з файлу не обов'язково випадкові). */
+    private static int hash(long high, long low) {
+        long h = high * 0x9E3779B97F4A7C15L ^ low;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
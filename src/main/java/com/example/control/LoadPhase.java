@@ -0,0 +1,30 @@
+package com.example.control;
+
+/**
+ * Етапи завантаження даних (для індикатора прогресу та журналу часу запуску).
+ * Про завершення кожного етапу {@link DataManager} сповіщає подією
+ * {@link DataChangeEvent.Type#LOAD_PHASE_FINISHED}.
+ */
+public enum LoadPhase {
+    /** Читання та розбір файлів знімка. */
+    SNAPSHOT("Читання знімка"),
+    /** Клієнти та індекси контактів. */
+    CLIENTS("Клієнти"),
+    /** Фотографи. */
+    PHOTOGRAPHERS("Фотографи"),
+    /** Замовлення, бронювання та індекс виручки. */
+    ORDERS("Замовлення"),
+    /** Програвання журналу змін поверх знімка. */
+    JOURNAL("Журнал змін");
+
+    private final String title;
+
+    LoadPhase(String title) {
+        this.title = title;
+    }
+
+    /** @return назва етапу для інтерфейсу. */
+    public String getTitle() {
+        return title;
+    }
+}
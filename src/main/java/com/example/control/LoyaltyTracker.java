@@ -0,0 +1,98 @@
+package com.example.control;
+
+import com.example.entity.Client;
+import com.example.model.Order;
+import com.example.util.OrderStatus;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Лічильники лояльності клієнтів: кількість оплачених замовлень і сума, сплачена за весь час.
+ * <p>
+ * Оновлюються інкрементно за тим самим правилом, що й індекс виручки: перед зміною статусу
+ * або вартості замовлення його внесок вилучається ({@link #remove}), після — додається знову
+ * ({@link #add}). Тому перевірка порогу постійного клієнта — O(1) замість проходу по всіх
+ * замовленнях. Після завантаження даних лічильники будуються одним паралельним проходом
+ * по колонках замовлень ({@link #rebuild}).
+ * Клас не синхронізований: його змінює й читає лише {@link DataManager} під своїм блокуванням.
+ */
+class LoyaltyTracker {
+
+    /** Лічильники одного клієнта. */
+    private static final class Totals {
+        long paidOrders;
+        long spentCents;
+    }
+
+    /** Лічильники за клієнтом (клієнти без оплачених замовлень відсутні). */
+    private final Map<Client, Totals> totals = new IdentityHashMap<>();
+
+    /** Очищує лічильники (перед повторним завантаженням даних). */
+    void clear() {
+        totals.clear();
+    }
+
+    /**
+     * Враховує замовлення, якщо воно оплачене.
+     * @param o замовлення.
+     */
+    void add(Order o) {
+        if (o.getStatus() != OrderStatus.PAID) return;
+        Totals t = totals.computeIfAbsent(o.getClient(), c -> new Totals());
+        t.paidOrders++;
+        t.spentCents += Math.round(o.getTotalCost() * 100);
+    }
+
+    /**
+     * Вилучає внесок замовлення (викликається перед зміною його статусу чи вартості).
+     * @param o замовлення з ще не зміненими полями.
+     */
+    void remove(Order o) {
+        if (o.getStatus() != OrderStatus.PAID) return;
+        Totals t = totals.get(o.getClient());
+        if (t == null) return;
+        t.paidOrders--;
+        t.spentCents -= Math.round(o.getTotalCost() * 100);
+        if (t.paidOrders <= 0) totals.remove(o.getClient());
+    }
+
+    /**
+     * Перебудовує всі лічильники одним паралельним проходом по колонках замовлень.
+     * @param columns колонки замовлень.
+     */
+    void rebuild(OrderColumns columns) {
+        totals.clear();
+        long[][] paid = columns.totalsByClient(OrderStatus.PAID);
+        for (int i = 0; i < paid[0].length; i++) {
+            if (paid[0][i] == 0) continue;
+            Totals t = new Totals();
+            t.paidOrders = paid[0][i];
+            t.spentCents = paid[1][i];
+            totals.put(columns.clientAt(i), t);
+        }
+    }
+
+    /**
+     * @param c клієнт.
+     * @return кількість оплачених замовлень клієнта.
+     */
+    long paidOrders(Client c) {
+        Totals t = totals.get(c);
+        return t == null ? 0 : t.paidOrders;
+    }
+
+    /**
+     * @param c клієнт.
+     * @return сума оплачених замовлень клієнта (копійки).
+     */
+    long spentCents(Client c) {
+        Totals t = totals.get(c);
+        return t == null ? 0 : t.spentCents;
+    }
+
+    /** @return клієнти, що мають хоча б одне оплачене замовлення. */
+    Iterable<Client> payingClients() {
+        return totals.keySet();
+    }
+}
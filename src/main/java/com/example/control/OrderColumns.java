@@ -0,0 +1,286 @@
+package com.example.control;
+
+import com.example.entity.Client;
+import com.example.entity.Photographer;
+import com.example.model.Order;
+import com.example.util.OrderStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Колонкове (struct-of-arrays) дзеркало списку замовлень для аналітичних проходів.
+ * <p>
+ * Рядок {@code i} відповідає замовленню {@code i} у списку {@link DataManager#getOrders()}.
+ * Значення, потрібні звітам, зберігаються у примітивних масивах: хвилина епохи
+ * ({@code long}), вартість у копійках ({@code long}), статус ({@code byte}) та порядкові
+ * номери клієнта, фотографа й типу сесії ({@code int}). Прохід звіту читає лише потрібні
+ * колонки послідовно — без переходів за посиланнями {@code Order → Client/SessionType},
+ * тому цикли прості, передбачувані для процесора й векторизуються JIT-компілятором.
+ * <p>
+ * Колонки оновлюються разом з об'єктною моделлю ({@link #add}, {@link #update});
+ * рядок змінюваного замовлення знаходиться за посиланням у власній хеш-таблиці.
+ * Клас не синхронізований: його змінює й читає лише {@link DataManager} під своїм блокуванням.
+ */
+class OrderColumns {
+
+    /** Мінімальний розмір фрагмента рядків для паралельного проходу. */
+    private static final int PARALLEL_CHUNK_ROWS = 65_536;
+
+    // Колонки (довжина — місткість, заповнено size рядків)
+    private long[] minute = new long[0];
+    private long[] cents = new long[0];
+    private byte[] status = new byte[0];
+    private int[] client = new int[0];
+    private int[] photographer = new int[0];
+    private int[] sessionType = new int[0];
+    private int size;
+
+    // Словники порядкових номерів (номер — позиція у списку)
+    private final List<Client> clients = new ArrayList<>();
+    private final Map<Client, Integer> clientOrdinals = new IdentityHashMap<>();
+    private final List<Photographer> photographers = new ArrayList<>();
+    private final Map<Photographer, Integer> photographerOrdinals = new IdentityHashMap<>();
+    private final List<String> sessionTypes = new ArrayList<>();
+    private final Map<String, Integer> sessionTypeOrdinals = new HashMap<>();
+
+    // Рядок замовлення за посиланням: відкрита адресація (ключ — замовлення, значення — рядок)
+    private Order[] rowKeys = new Order[16];
+    private int[] rowValues = new int[16];
+
+    /** Очищує колонки (перед повторним завантаженням даних). */
+    void clear() {
+        minute = new long[0];
+        cents = new long[0];
+        status = new byte[0];
+        client = new int[0];
+        photographer = new int[0];
+        sessionType = new int[0];
+        size = 0;
+        clients.clear();
+        clientOrdinals.clear();
+        photographers.clear();
+        photographerOrdinals.clear();
+        sessionTypes.clear();
+        sessionTypeOrdinals.clear();
+        rowKeys = new Order[16];
+        rowValues = new int[16];
+    }
+
+    /**
+     * Резервує місце для вказаної кількості рядків (перед масовим завантаженням).
+     * @param rows очікувана загальна кількість рядків.
+     */
+    void ensureCapacity(int rows) {
+        if (rows > minute.length) grow(rows);
+        int capacity = rowKeys.length;
+        while ((rows + 1) * 3L > capacity * 2L) capacity <<= 1;
+        if (capacity > rowKeys.length) rehashRows(capacity);
+    }
+
+    /**
+     * Додає рядок нового замовлення (в кінець, як і в списку замовлень).
+     * @param o замовлення.
+     */
+    void add(Order o) {
+        if (size == minute.length) grow(Math.max(16, size * 2));
+        int row = size++;
+        client[row] = clientOrdinals.computeIfAbsent(o.getClient(), c -> {
+            clients.add(c);
+            return clients.size() - 1;
+        });
+        photographer[row] = photographerOrdinals.computeIfAbsent(o.getPhotographer(), p -> {
+            photographers.add(p);
+            return photographers.size() - 1;
+        });
+        sessionType[row] = sessionTypeOrdinals.computeIfAbsent(o.getSessionType().getName(), name -> {
+            sessionTypes.add(name);
+            return sessionTypes.size() - 1;
+        });
+        write(row, o);
+        if ((size + 1) * 3L > rowKeys.length * 2L) rehashRows(rowKeys.length * 2);
+        putRow(o, row);
+    }
+
+    /**
+     * Перечитує змінні поля замовлення (дату, вартість, статус) після їх зміни.
+     * @param o замовлення.
+     */
+    void update(Order o) {
+        int row = rowOf(o);
+        if (row >= 0) write(row, o);
+    }
+
+    /** @return кількість рядків. */
+    int size() {
+        return size;
+    }
+
+    // --- Аналітичні проходи ---
+
+    /**
+     * Рахує замовлення клієнта з вказаним статусом.
+     * @param c клієнт.
+     * @param s статус.
+     * @return кількість замовлень.
+     */
+    long countByClient(Client c, OrderStatus s) {
+        Integer ordinal = clientOrdinals.get(c);
+        if (ordinal == null) return 0;
+        int target = ordinal;
+        byte st = (byte) s.ordinal();
+        long count = 0;
+        for (int i = 0; i < size; i++) count += (client[i] == target & status[i] == st) ? 1 : 0;
+        return count;
+    }
+
+    /**
+     * Повертає номери рядків (індекси у списку замовлень) з дозволеними статусами.
+     * @param allowed прапорці за {@link OrderStatus#ordinal()}.
+     * @return індекси замовлень у порядку списку.
+     */
+    int[] rowsWithStatus(boolean[] allowed) {
+        int[] rows = new int[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            rows[count] = i;
+            count += allowed[status[i]] ? 1 : 0; // Без розгалуження: рядок перезаписується, якщо не підходить
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    /**
+     * Рахує кількість замовлень та виручку кожного фотографа за період.
+     * @param fromMinute перша хвилина епохи (включно).
+     * @param toMinute остання хвилина епохи (включно).
+     * @return два масиви за порядковим номером фотографа: {кількість, копійки}.
+     */
+    long[][] photographerTotals(long fromMinute, long toMinute) {
+        long[] counts = new long[photographers.size()];
+        long[] sums = new long[photographers.size()];
+        for (int i = 0; i < size; i++) {
+            long m = minute[i];
+            if (m < fromMinute || m > toMinute) continue;
+            counts[photographer[i]]++;
+            sums[photographer[i]] += cents[i];
+        }
+        return new long[][]{counts, sums};
+    }
+
+    /**
+     * Рахує замовлення кожного типу сесії за період.
+     * @param fromMinute перша хвилина епохи (включно).
+     * @param toMinute остання хвилина епохи (включно).
+     * @return кількість за порядковим номером типу сесії.
+     */
+    long[] sessionTypeCounts(long fromMinute, long toMinute) {
+        long[] counts = new long[sessionTypes.size()];
+        for (int i = 0; i < size; i++) {
+            long m = minute[i];
+            if (m >= fromMinute && m <= toMinute) counts[sessionType[i]]++;
+        }
+        return counts;
+    }
+
+    /**
+     * Рахує кількість і суму замовлень з вказаним статусом для кожного клієнта одним проходом.
+     * Рядки діляться на фрагменти, які обробляються паралельно у спільному пулі з власними
+     * лічильниками, а потім підсумовуються — без синхронізації під час проходу.
+     * @param s статус.
+     * @return два масиви за порядковим номером клієнта: {кількість, копійки}.
+     */
+    long[][] totalsByClient(OrderStatus s) {
+        int clientCount = clients.size();
+        byte st = (byte) s.ordinal();
+        int chunks = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), size / PARALLEL_CHUNK_ROWS));
+        long[][][] partial = new long[chunks][][];
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            long[] counts = new long[clientCount];
+            long[] sums = new long[clientCount];
+            int from = (int) ((long) size * chunk / chunks);
+            int to = (int) ((long) size * (chunk + 1) / chunks);
+            for (int i = from; i < to; i++) {
+                if (status[i] != st) continue;
+                counts[client[i]]++;
+                sums[client[i]] += cents[i];
+            }
+            partial[chunk] = new long[][]{counts, sums};
+        });
+        long[][] totals = partial[0];
+        for (int chunk = 1; chunk < chunks; chunk++) {
+            for (int c = 0; c < clientCount; c++) {
+                totals[0][c] += partial[chunk][0][c];
+                totals[1][c] += partial[chunk][1][c];
+            }
+        }
+        return totals;
+    }
+
+    /** @return клієнт за порядковим номером колонки. */
+    Client clientAt(int ordinal) {
+        return clients.get(ordinal);
+    }
+
+    /** @return фотограф за порядковим номером колонки. */
+    Photographer photographerAt(int ordinal) {
+        return photographers.get(ordinal);
+    }
+
+    /** @return назва типу сесії за порядковим номером колонки. */
+    String sessionTypeAt(int ordinal) {
+        return sessionTypes.get(ordinal);
+    }
+
+    // --- Внутрішні операції ---
+
+    private void write(int row, Order o) {
+        minute[row] = Math.floorDiv(o.getOrderEpochSecond(), 60);
+        cents[row] = Math.round(o.getTotalCost() * 100);
+        status[row] = (byte) o.getStatus().ordinal();
+    }
+
+    private void grow(int capacity) {
+        minute = Arrays.copyOf(minute, capacity);
+        cents = Arrays.copyOf(cents, capacity);
+        status = Arrays.copyOf(status, capacity);
+        client = Arrays.copyOf(client, capacity);
+        photographer = Arrays.copyOf(photographer, capacity);
+        sessionType = Arrays.copyOf(sessionType, capacity);
+    }
+
+    private int rowOf(Order o) {
+        int mask = rowKeys.length - 1;
+        for (int slot = slotOf(o, mask); rowKeys[slot] != null; slot = (slot + 1) & mask) {
+            if (rowKeys[slot] == o) return rowValues[slot];
+        }
+        return -1;
+    }
+
+    private void putRow(Order o, int row) {
+        int mask = rowKeys.length - 1;
+        int slot = slotOf(o, mask);
+        while (rowKeys[slot] != null && rowKeys[slot] != o) slot = (slot + 1) & mask;
+        rowKeys[slot] = o;
+        rowValues[slot] = row;
+    }
+
+    private void rehashRows(int capacity) {
+        Order[] oldKeys = rowKeys;
+        int[] oldValues = rowValues;
+        rowKeys = new Order[capacity];
+        rowValues = new int[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) putRow(oldKeys[i], oldValues[i]);
+        }
+    }
+
+    private static int slotOf(Order o, int mask) {
+        int h = System.identityHashCode(o) * 0x9E3779B9;
+        return (h ^ h >>> 16) & mask;
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.control;
+
+import com.example.model.Order;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Префіксний індекс ідентифікаторів замовлень для пошуку за скороченим ID.
+ * <p>
+ * Основна частина — масив замовлень, відсортований за ID: усі ID з
+ * введеним префіксом лежать поспіль, тому пошук — бінарний пошук початку діапазону та
+ * прохід до першого ID без префікса, O(log n + k). Найкоротший однозначний префікс ID
+ * визначається за сусідами у порядку сортування: він на один символ довший за найдовший
+ * спільний початок з попереднім або наступним ID.
+ * <p>
+ * Масив будується одним сортуванням ({@link #prepare}, для великої бази — у фоні після
+ * завантаження) або під час першого запиту. Нові замовлення потрапляють у невелике
+ * {@link TreeMap}-доповнення, яке зливається з масивом, щойно виросте до {@link #MERGE_THRESHOLD}.
+ * Замовлення не видаляються, а ID не змінюються, тому інших оновлень індекс не потребує.
+ * Рядки ID не зберігаються (замовлення тримає ID двома long) — їх форматують на вимогу
+ * лише для порівнянь бінарного пошуку та переглянутого діапазону.
+ * Індекс не синхронізований: його змінює лише {@link DataManager} під своїм блокуванням.
+ */
+class OrderIdIndex {
+
+    /** Розмір доповнення, після якого воно зливається з основним масивом. */
+    private static final int MERGE_THRESHOLD = 4096;
+
+    /** Відсортовані масиви, підготовлені для встановлення в індекс. */
+    record Prepared(Order[] owners, int orderCount) { }
+
+    /** Ключ сортування при побудові: ID форматується один раз на замовлення. */
+    private record Entry(String id, Order order) { }
+
+    /** Замовлення основної частини індексу в порядку ID. */
+    private Order[] owners = new Order[0];
+
+    /** Замовлення, додані після побудови масиву. */
+    private final TreeMap<String, Order> delta = new TreeMap<>();
+
+    /** Чи встановлено масиви (до цього додавання не відстежуються — їх врахує встановлення). */
+    private boolean built;
+
+    /** Номер покоління даних: змінюється при очищенні, щоб не встановити застарілу фонову побудову. */
+    private int generation;
+
+    /** Скидає індекс (перед повторним завантаженням даних); він перебудується при наступному запиті. */
+    void clear() {
+        owners = new Order[0];
+        delta.clear();
+        built = false;
+        generation++;
+    }
+
+    /** @return поточне покоління даних (для {@link #install}). */
+    int generation() {
+        return generation;
+    }
+
+    /**
+     * Додає замовлення до індексу.
+     * @param o замовлення.
+     */
+    void add(Order o) {
+        if (!built) return;
+        delta.put(o.getId(), o);
+        if (delta.size() >= MERGE_THRESHOLD) merge();
+    }
+
+    /**
+     * Будує відсортований масив ID. Не змінює індекс, тому може виконуватися
+     * у фоновому потоці над копією списку замовлень.
+     * @param orders замовлення (копія списку).
+     * @return масиви для {@link #install}.
+     */
+    static Prepared prepare(List<Order> orders) {
+        Entry[] entries = new Entry[orders.size()];
+        for (int i = 0; i < entries.length; i++) entries[i] = new Entry(orders.get(i).getId(), orders.get(i));
+        Arrays.parallelSort(entries, Comparator.comparing(Entry::id));
+        Order[] sorted = new Order[entries.length];
+        for (int i = 0; i < entries.length; i++) sorted[i] = entries[i].order();
+        return new Prepared(sorted, orders.size());
+    }
+
+    /**
+     * Встановлює підготовлені масиви. Замовлення, додані після копіювання списку, додаються до доповнення.
+     * @param prepared результат {@link #prepare}.
+     * @param preparedGeneration покоління даних на момент копіювання списку.
+     * @param orders поточний список замовлень.
+     * @return false, якщо дані встигли перезавантажитися або індекс уже встановлено.
+     */
+    boolean install(Prepared prepared, int preparedGeneration, List<Order> orders) {
+        if (built || preparedGeneration != generation) return false;
+        owners = prepared.owners();
+        built = true;
+        for (int i = prepared.orderCount(); i < orders.size(); i++) add(orders.get(i));
+        return true;
+    }
+
+    /**
+     * Знаходить замовлення, ID яких починається з префікса (без урахування регістру).
+     * @param orders усі замовлення (для побудови індексу при першому запиті).
+     * @param prefix початок ID.
+     * @param limit максимальна кількість результатів.
+     * @return знайдені замовлення в порядку ID (порожній префікс — порожній список).
+     */
+    List<Order> find(List<Order> orders, String prefix, int limit) {
+        String p = prefix == null ? "" : prefix.trim().toLowerCase(Locale.ROOT);
+        if (p.isEmpty() || limit <= 0) return List.of();
+        ensureBuilt(orders);
+
+        List<Order> result = new ArrayList<>();
+        int from = position(p);
+        if (from < 0) from = -from - 1;
+        for (int i = from; i < owners.length && owners[i].getId().startsWith(p) && result.size() < limit; i++) result.add(owners[i]);
+        for (Order o : delta.subMap(p, true, p + Character.MAX_VALUE, false).values()) {
+            if (result.size() >= limit) break;
+            result.add(o);
+        }
+        if (!delta.isEmpty()) result.sort(Comparator.comparing(Order::getId));
+        return result;
+    }
+
+    /**
+     * Обчислює довжину найкоротшого префікса ID, що не є початком жодного іншого ID.
+     * @param orders усі замовлення (для побудови індексу при першому запиті).
+     * @param id повний ID замовлення.
+     * @return довжина префікса (не більша за довжину ID).
+     */
+    int uniquePrefixLength(List<Order> orders, String id) {
+        ensureBuilt(orders);
+        int common = 0;
+        int pos = position(id);
+        int before = pos >= 0 ? pos - 1 : -pos - 2;
+        int after = pos >= 0 ? pos + 1 : -pos - 1;
+        if (before >= 0) common = Math.max(common, commonPrefix(id, owners[before].getId()));
+        if (after < owners.length) common = Math.max(common, commonPrefix(id, owners[after].getId()));
+        Map.Entry<String, Order> lower = delta.lowerEntry(id);
+        Map.Entry<String, Order> higher = delta.higherEntry(id);
+        if (lower != null) common = Math.max(common, commonPrefix(id, lower.getKey()));
+        if (higher != null) common = Math.max(common, commonPrefix(id, higher.getKey()));
+        return Math.min(id.length(), common + 1);
+    }
+
+    /**
+     * Бінарний пошук ID в основному масиві (як {@link Arrays#binarySearch}).
+     * @return позиція ID або {@code -(точка вставки) - 1}.
+     */
+    private int position(String id) {
+        int lo = 0, hi = owners.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = owners[mid].getId().compareTo(id);
+            if (cmp < 0) lo = mid + 1;
+            else if (cmp > 0) hi = mid - 1;
+            else return mid;
+        }
+        return -(lo + 1);
+    }
+
+    /** Будує масив при першому запиті, якщо фонова побудова ще не завершилася. */
+    private void ensureBuilt(List<Order> orders) {
+        if (!built) install(prepare(orders), generation, orders);
+    }
+
+    /** Зливає доповнення з основним масивом (обидві частини вже відсортовані). */
+    private void merge() {
+        Order[] merged = new Order[owners.length + delta.size()];
+        int i = 0, k = 0;
+        for (Map.Entry<String, Order> e : delta.entrySet()) {
+            // Позиція вставки — бінарним пошуком, масив між вставками копіюється блоком
+            int at = position(e.getKey());
+            at = at < 0 ? -at - 1 : at;
+            System.arraycopy(owners, i, merged, k, at - i);
+            k += at - i;
+            i = at;
+            merged[k++] = e.getValue();
+        }
+        System.arraycopy(owners, i, merged, k, owners.length - i);
+        owners = merged;
+        delta.clear();
+    }
+
+    /** Довжина спільного початку двох рядків. */
+    private static int commonPrefix(String a, String b) {
+        int n = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < n && a.charAt(i) == b.charAt(i)) i++;
+        return i;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.control;
+
+/**
+ * Колонка, за якою впорядковується представлення замовлень ({@link OrderView}).
+ */
+public enum OrderSortKey {
+    /** Дата та час сесії. */
+    DATE,
+    /** Статус за життєвим циклом (NEW → PAID). */
+    STATUS,
+    /** Ім'я клієнта (за абеткою). */
+    CLIENT,
+    /** Ім'я фотографа (за абеткою). */
+    PHOTOGRAPHER,
+    /** Вартість замовлення. */
+    PRICE
+}
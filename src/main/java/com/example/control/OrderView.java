@@ -0,0 +1,53 @@
+package com.example.control;
+
+import java.util.Arrays;
+
+/**
+ * Впорядковане та відфільтроване представлення списку замовлень.
+ * <p>
+ * Зберігає лише перестановку індексів у {@link DataManager#getOrders()} ({@code int[]}),
+ * тому не копіює самі замовлення і займає 4 байти на рядок.
+ * Представлення незмінне: після зміни даних слід запросити нове.
+ */
+public final class OrderView {
+
+    /** Індекси замовлень у порядку рядків представлення. */
+    private final int[] rows;
+
+    /** Кількість замовлень у списку на момент побудови. */
+    private final int orderCount;
+
+    /** Зворотна перестановка: індекс замовлення → рядок (-1 — відфільтроване); будується за потреби. */
+    private int[] viewRows;
+
+    OrderView(int[] rows, int orderCount) {
+        this.rows = rows;
+        this.orderCount = orderCount;
+    }
+
+    /** @return кількість рядків представлення. */
+    public int size() {
+        return rows.length;
+    }
+
+    /**
+     * @param viewRow рядок представлення.
+     * @return індекс замовлення у {@link DataManager#getOrders()}.
+     */
+    public int getOrderIndex(int viewRow) {
+        return rows[viewRow];
+    }
+
+    /**
+     * @param orderIndex індекс замовлення у {@link DataManager#getOrders()}.
+     * @return рядок представлення або -1, якщо замовлення не потрапило у фільтр.
+     */
+    public synchronized int getViewRow(int orderIndex) {
+        if (viewRows == null) {
+            viewRows = new int[orderCount];
+            Arrays.fill(viewRows, -1);
+            for (int i = 0; i < rows.length; i++) viewRows[rows[i]] = i;
+        }
+        return orderIndex >= 0 && orderIndex < viewRows.length ? viewRows[orderIndex] : -1;
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.control;
+
+import com.example.entity.Person;
+import com.example.model.Order;
+import com.example.util.OrderStatus;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Кеш впорядкованих перестановок списку замовлень для представлень таблиці ({@link OrderView}).
+ * <p>
+ * Для кожної колонки сортування ключі замовлень обчислюються у примітивний масив {@code long}
+ * (секунди епохи, копійки, номер статусу, ранг імені за абеткою), пакуються разом з індексом
+ * рядка в одне {@code long} і сортуються {@link Arrays#sort(long[])} — без компаратора та
+ * упаковки в об'єкти. Перестановка кешується до зміни відповідної колонки, тому перемикання
+ * сортування чи фільтра для мільйона замовлень — лише прохід по готовому {@code int[]}.
+ * <p>
+ * Індекс не синхронізований: його змінює лише {@link DataManager} під своїм блокуванням.
+ */
+class OrderViewIndex {
+
+    /** Порядок імен за абеткою (з урахуванням українських літер). */
+    private static final Collator NAME_ORDER = Collator.getInstance(Locale.of("uk", "UA"));
+
+    /** Впорядковані перестановки за колонками (відсутня — ще не будувалася або застаріла). */
+    private final Map<OrderSortKey, int[]> sorted = new EnumMap<>(OrderSortKey.class);
+
+    /**
+     * Позначає перестановку колонки застарілою (значення колонки змінилося).
+     * Додавання замовлень виявляється за довжиною списку.
+     * @param key колонка.
+     */
+    void invalidate(OrderSortKey key) {
+        sorted.remove(key);
+    }
+
+    /** Позначає застарілими всі перестановки. */
+    void clear() {
+        sorted.clear();
+    }
+
+    /**
+     * Будує представлення списку замовлень.
+     * @param orders список замовлень.
+     * @param key колонка сортування; null — порядок додавання.
+     * @param ascending true — за зростанням.
+     * @param statuses дозволені статуси; null або порожня множина — усі.
+     * @param nameFilter підрядок імені клієнта або фотографа (без урахування регістру); null або порожній — без фільтра.
+     * @return представлення.
+     */
+    OrderView view(List<Order> orders, OrderSortKey key, boolean ascending, Set<OrderStatus> statuses, String nameFilter) {
+        int n = orders.size();
+        int[] base = key == null ? null : sorted(orders, key);
+        boolean byStatus = statuses != null && !statuses.isEmpty() && statuses.size() < OrderStatus.values().length;
+        String needle = nameFilter == null ? "" : nameFilter.trim().toLowerCase(Locale.ROOT);
+
+        if (!byStatus && needle.isEmpty() && ascending && base != null) return new OrderView(base, n);
+
+        boolean[] allowed = new boolean[OrderStatus.values().length];
+        if (byStatus) for (OrderStatus s : statuses) allowed[s.ordinal()] = true;
+        // Збіг підрядка перевіряється один раз на клієнта/фотографа, а не на кожне замовлення
+        Map<Object, Boolean> matches = new IdentityHashMap<>();
+
+        int[] rows = new int[n];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            int pos = ascending ? i : n - 1 - i;
+            int row = base == null ? pos : base[pos];
+            Order o = orders.get(row);
+            if (byStatus && !allowed[o.getStatus().ordinal()]) continue;
+            if (!needle.isEmpty()
+                    && !matches.computeIfAbsent(o.getClient(), c -> o.getClient().getName().toLowerCase(Locale.ROOT).contains(needle))
+                    && !matches.computeIfAbsent(o.getPhotographer(), p -> o.getPhotographer().getName().toLowerCase(Locale.ROOT).contains(needle))) {
+                continue;
+            }
+            rows[count++] = row;
+        }
+        return new OrderView(count == n ? rows : Arrays.copyOf(rows, count), n);
+    }
+
+    /** Повертає кешовану перестановку колонки, перебудовуючи її, якщо вона застаріла. */
+    private int[] sorted(List<Order> orders, OrderSortKey key) {
+        int[] perm = sorted.get(key);
+        if (perm == null || perm.length != orders.size()) {
+            perm = sort(keys(orders, key));
+            sorted.put(key, perm);
+        }
+        return perm;
+    }
+
+    /** Обчислює ключі сортування всіх замовлень. */
+    private static long[] keys(List<Order> orders, OrderSortKey key) {
+        int n = orders.size();
+        long[] keys = new long[n];
+        switch (key) {
+            case DATE -> { for (int i = 0; i < n; i++) keys[i] = orders.get(i).getOrderEpochSecond(); }
+            case STATUS -> { for (int i = 0; i < n; i++) keys[i] = orders.get(i).getStatus().ordinal(); }
+            case PRICE -> { for (int i = 0; i < n; i++) keys[i] = Math.round(orders.get(i).getTotalCost() * 100); }
+            case CLIENT -> nameRanks(orders, Order::getClient, keys);
+            case PHOTOGRAPHER -> nameRanks(orders, Order::getPhotographer, keys);
+        }
+        return keys;
+    }
+
+    /**
+     * Заповнює ключі рангом імені за абеткою. Імена сортуються лише для різних
+     * клієнтів/фотографів (їх набагато менше, ніж замовлень), а ранг для замовлення
+     * береться за посиланням на сутність без хешування рядків.
+     */
+    private static void nameRanks(List<Order> orders, Function<Order, Person> owner, long[] keys) {
+        Map<Person, int[]> rankOf = new IdentityHashMap<>();
+        for (Order o : orders) rankOf.computeIfAbsent(owner.apply(o), k -> new int[1]);
+        // Ключі порівняння обчислюються один раз на ім'я, а не на кожне порівняння
+        Map<String, CollationKey> collationKeys = new HashMap<>();
+        for (Person p : rankOf.keySet()) collationKeys.computeIfAbsent(p.getName(), NAME_ORDER::getCollationKey);
+        List<CollationKey> names = new ArrayList<>(collationKeys.values());
+        Collections.sort(names);
+        Map<String, Integer> rank = new HashMap<>();
+        for (int r = 0; r < names.size(); r++) rank.put(names.get(r).getSourceString(), r);
+        for (Map.Entry<Person, int[]> e : rankOf.entrySet()) e.getValue()[0] = rank.get(e.getKey().getName());
+        for (int i = 0; i < keys.length; i++) keys[i] = rankOf.get(owner.apply(orders.get(i)))[0];
+    }
+
+    /**
+     * Повертає індекси в порядку зростання ключів (рівні ключі — в порядку додавання).
+     * Ключ і індекс пакуються в одне {@code long}; якщо діапазон ключів завеликий,
+     * ключі спершу замінюються їх рангом.
+     */
+    static int[] sort(long[] keys) {
+        int n = keys.length;
+        int[] perm = new int[n];
+        if (n == 0) return perm;
+        int indexBits = Math.max(1, 32 - Integer.numberOfLeadingZeros(n - 1));
+        long min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+        for (long k : keys) {
+            min = Math.min(min, k);
+            max = Math.max(max, k);
+        }
+        long range = max - min;
+        long[] packed = new long[n];
+        if (range >= 0 && range < 1L << (63 - indexBits)) {
+            for (int i = 0; i < n; i++) packed[i] = (keys[i] - min) << indexBits | i;
+        } else {
+            long[] distinct = keys.clone();
+            Arrays.sort(distinct);
+            int unique = 0;
+            for (int i = 0; i < n; i++) {
+                if (unique == 0 || distinct[i] != distinct[unique - 1]) distinct[unique++] = distinct[i];
+            }
+            for (int i = 0; i < n; i++) packed[i] = (long) Arrays.binarySearch(distinct, 0, unique, keys[i]) << indexBits | i;
+        }
+        Arrays.sort(packed);
+        long mask = (1L << indexBits) - 1;
+        for (int i = 0; i < n; i++) perm[i] = (int) (packed[i] & mask);
+        return perm;
+    }
+}
@@ -0,0 +1,621 @@
+package com.example.control;
+
+import com.example.entity.Payment;
+import com.example.util.CompactId;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Журнал платежів (append-only ledger) — джерело даних для звірки каси.
+ * <p>
+ * Платежі дописуються в кінець поточного сегмента ({@code payments-000001.seg}, ...) у директорії
+ * {@link #DIR_NAME}: запис платежу — одне послідовне дописування з fsync, як у {@link ChangeJournal}.
+ * Коли сегмент досягає {@link #DEFAULT_SEGMENT_BYTES}, він закривається і поруч записується його
+ * індекс ({@code .idx}): останній платіж кожного замовлення в сегменті та підсумки за днями.
+ * При відкритті журналу читаються лише ці невеликі індекси та поточний (незакритий) сегмент.
+ * <p>
+ * Формат запису: {@code [довжина:int][дані][CRC32 даних:int]}, дані — секунда епохи та наносекунди
+ * платежу, сума в копійках, позиція попереднього платежу того ж замовлення та рядки ID платежу й
+ * замовлення. Обірваний або пошкоджений хвіст поточного сегмента (збій під час запису) відкидається.
+ * <p>
+ * У пам'яті тримаються:
+ * <ul>
+ * <li>індекс ID замовлення → позиція останнього платежу; попередні платежі знаходяться за
+ * ланцюжком позицій у самих записах;</li>
+ * <li>наростаючі підсумки за днями (сума та кількість від першого дня журналу) — сума за будь-який
+ * період є різницею двох значень, без перегляду платежів.</li>
+ * </ul>
+ * Методи синхронізовані власним блокуванням, тому запис платежу не утримує блокування {@link DataManager}.
+ */
+class PaymentLedger {
+
+    /** Назва директорії журналу платежів у директорії даних. */
+    static final String DIR_NAME = "payments";
+
+    /** Розмір сегмента, після якого починається новий. */
+    static final long DEFAULT_SEGMENT_BYTES = 64L << 20;
+
+    /** Позиція запису: номер сегмента у старших бітах, зміщення в сегменті — у молодших. */
+    private static final int OFFSET_BITS = 40;
+
+    /** Сигнатура файлу індексу сегмента ("PIDX"). */
+    private static final int INDEX_MAGIC = 0x50494458;
+
+    /** Розмір полів даних запису до рядків ID та позиція посилання на попередній платіж замовлення. */
+    private static final int DATA_HEADER_BYTES = 28;
+    private static final int PREVIOUS_AT = 20;
+
+    /** Максимальна довжина даних запису (захист від читання сміття як довжини). */
+    private static final int MAX_RECORD_BYTES = 64 * 1024;
+
+    /** Записаний, але ще не скинутий на диск платіж: потрапляє в індекс лише після fsync. */
+    private record Pending(String orderId, long offset, LocalDateTime at, long cents) { }
+
+    private final Path dir;
+    private final long segmentBytes;
+
+    /** Чи прочитано наявні сегменти (журнал відкривається при першому зверненні). */
+    private boolean opened;
+
+    /** Номер поточного сегмента (0 — сегментів ще немає). */
+    private int activeSegment;
+
+    /** Канал поточного сегмента (створюється при першому записі в нього). */
+    private FileChannel active;
+
+    /** Розмір поточного сегмента (байт). */
+    private long activeSize;
+
+    /** Канали читання закритих сегментів (відкриваються на вимогу). */
+    private final Map<Integer, FileChannel> readers = new HashMap<>();
+
+    /** ID замовлення → позиція його останнього платежу. */
+    private final IdTable<Long> lastByOrder = new IdTable<>();
+
+    /** Платежі поточного сегмента в порядку запису: ID замовлення та позиція (для індексу при закритті). */
+    private final List<String> activeOrders = new ArrayList<>();
+    private long[] activeOffsets = new long[1024];
+
+    /** Підсумки поточного сегмента за днями: день епохи → {копійки, кількість}. */
+    private final TreeMap<Long, long[]> activeDays = new TreeMap<>();
+
+    /** Останній використаний день підсумків сегмента (платежі йдуть підряд за днями). */
+    private long lastDay = Long.MIN_VALUE;
+    private long[] lastDayCell;
+
+    /** Номер дня, що відповідає елементу 0 наростаючих підсумків. */
+    private long baseDay;
+
+    /** Наростаючі підсумки: сума (копійки) та кількість платежів від baseDay до дня включно. */
+    private long[] runningCents = new long[0];
+    private long[] runningCount = new long[0];
+
+    /** Кількість заповнених днів наростаючих підсумків (до останнього дня з платежем). */
+    private int days;
+
+    /**
+     * Створює журнал у директорії даних (файли створюються при першому записі).
+     * @param dataDir директорія даних.
+     */
+    PaymentLedger(String dataDir) {
+        this(Paths.get(dataDir, DIR_NAME), DEFAULT_SEGMENT_BYTES);
+    }
+
+    /**
+     * Створює журнал з вказаним розміром сегмента.
+     * @param dir директорія сегментів.
+     * @param segmentBytes розмір сегмента (байт).
+     */
+    PaymentLedger(Path dir, long segmentBytes) {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+    }
+
+    /**
+     * Дописує платіж у журнал і скидає його на диск.
+     * @param payment платіж.
+     * @throws IOException у разі помилки запису.
+     */
+    synchronized void append(Payment payment) throws IOException {
+        appendAll(List.of(payment));
+    }
+
+    /**
+     * Дописує пакет платежів (наприклад, імпорт) і скидає їх на диск одним fsync на сегмент.
+     * Індекс замовлень і підсумки оновлюються лише після fsync: при збої запису незбережений
+     * хвіст сегмента відкидається, а індекс лишається таким, як до виклику. Якщо пакет
+     * розтягнувся на кілька сегментів, платежі вже закритих сегментів лишаються записаними.
+     * @param payments платежі в порядку запису.
+     * @throws IOException у разі помилки запису.
+     */
+    synchronized void appendAll(Collection<Payment> payments) throws IOException {
+        ensureOpen();
+        if (payments.isEmpty()) return;
+        Files.createDirectories(dir);
+        ByteBuffer buf = ByteBuffer.allocate(64 * 1024);
+        List<Pending> pending = new ArrayList<>();
+        Map<String, Long> pendingLast = new HashMap<>(); // Останні платежі замовлень у цьому пакеті
+        long durable = activeSize;
+        try {
+            for (Payment p : payments) {
+                byte[] id = p.getId().getBytes(StandardCharsets.UTF_8);
+                byte[] orderId = p.getOrderId().getBytes(StandardCharsets.UTF_8);
+                int length = 4 + DATA_HEADER_BYTES + 2 + id.length + 2 + orderId.length + 4;
+                if (activeSegment == 0 || activeSize + buf.position() > 0 && activeSize + buf.position() + length > segmentBytes) {
+                    write(buf);
+                    commit(pending);
+                    durable = activeSize;
+                    roll();
+                    durable = 0;
+                }
+                if (buf.remaining() < length) {
+                    write(buf);
+                    if (buf.capacity() < length) buf = ByteBuffer.allocate(length);
+                }
+                long offset = position(activeSegment, activeSize + buf.position());
+                Long previous = pendingLast.put(p.getOrderId(), offset);
+                if (previous == null) previous = lastByOrder.get(p.getOrderId());
+                pending.add(new Pending(p.getOrderId(), offset, p.getPaymentDate(), cents(p.getAmount())));
+                encode(buf, p, id, orderId, previous == null ? -1 : previous);
+            }
+            write(buf);
+            commit(pending);
+        } catch (IOException e) {
+            // Відкидаємо записане після останнього fsync, щоб при наступному відкритті
+            // сканування не підхопило платежі, яких немає в індексі
+            activeSize = durable;
+            try {
+                if (active != null) active.truncate(durable);
+            } catch (IOException ex) {
+                e.addSuppressed(ex);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Знаходить усі платежі замовлення.
+     * @param orderId ID замовлення.
+     * @return платежі в порядку запису (порожній список, якщо платежів немає).
+     * @throws IOException у разі помилки читання.
+     */
+    synchronized List<Payment> findByOrder(String orderId) throws IOException {
+        ensureOpen();
+        List<Payment> result = new ArrayList<>();
+        Long offset = lastByOrder.get(orderId);
+        long next = offset == null ? -1 : offset;
+        while (next >= 0) {
+            ByteBuffer data = readAt(next);
+            result.add(0, decode(data));
+            next = data.getLong(PREVIOUS_AT);
+        }
+        return result;
+    }
+
+    /**
+     * Сума платежів за період (за наростаючими підсумками, без перегляду записів).
+     * @param from перший день (включно).
+     * @param to останній день (включно).
+     * @return сума в копійках.
+     * @throws IOException у разі помилки читання журналу при першому зверненні.
+     */
+    synchronized long totalCents(LocalDate from, LocalDate to) throws IOException {
+        ensureOpen();
+        return running(runningCents, to.toEpochDay()) - running(runningCents, from.toEpochDay() - 1);
+    }
+
+    /**
+     * Кількість платежів за період.
+     * @param from перший день (включно).
+     * @param to останній день (включно).
+     * @return кількість платежів.
+     * @throws IOException у разі помилки читання журналу при першому зверненні.
+     */
+    synchronized long count(LocalDate from, LocalDate to) throws IOException {
+        ensureOpen();
+        return running(runningCount, to.toEpochDay()) - running(runningCount, from.toEpochDay() - 1);
+    }
+
+    /**
+     * Закриває канали (журнал можна продовжити після повторного відкриття).
+     * @throws IOException у разі помилки закриття.
+     */
+    synchronized void close() throws IOException {
+        if (active != null) {
+            active.close();
+            active = null;
+        }
+        for (FileChannel ch : readers.values()) ch.close();
+        readers.clear();
+    }
+
+    // --- Відкриття та сегменти ---
+
+    /**
+     * Читає індекси закритих сегментів і поточний сегмент (один раз). Якщо читання не вдалося,
+     * прочитане частково відкидається, і наступне звернення пробує відкрити журнал знову.
+     */
+    private void ensureOpen() throws IOException {
+        if (opened) return;
+        try {
+            load();
+        } catch (IOException | RuntimeException e) {
+            reset();
+            throw e;
+        }
+        opened = true;
+    }
+
+    /** Завантажує індекси та сканує сегменти без індексу. */
+    private void load() throws IOException {
+        if (!Files.isDirectory(dir)) return;
+        List<Integer> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.map(f -> f.getFileName().toString())
+                    .filter(n -> n.matches("payments-\\d{6}\\.seg"))
+                    .forEach(n -> segments.add(Integer.parseInt(n.substring(9, 15))));
+        }
+        segments.sort(null);
+        for (int i = 0; i < segments.size(); i++) {
+            int segment = segments.get(i);
+            boolean last = i == segments.size() - 1;
+            if (last || !loadIndex(segment)) {
+                activeSegment = segment;
+                activeSize = scan(segment);
+                if (!last) seal();
+            }
+        }
+    }
+
+    /** Очищує стан у пам'яті (після невдалого відкриття). */
+    private void reset() throws IOException {
+        close();
+        lastByOrder.clear();
+        activeSegment = 0;
+        activeSize = 0;
+        activeOrders.clear();
+        activeDays.clear();
+        lastDay = Long.MIN_VALUE;
+        lastDayCell = null;
+        runningCents = new long[0];
+        runningCount = new long[0];
+        days = 0;
+    }
+
+    /**
+     * Закриває поточний сегмент (із записом його індексу) і починає наступний.
+     * Якщо наступний сегмент не вдалося створити, поточний лишається відкритим.
+     */
+    private void roll() throws IOException {
+        FileChannel next = FileChannel.open(segmentFile(activeSegment + 1), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (activeSegment > 0) {
+            try {
+                if (active != null) active.force(false);
+                seal();
+            } catch (IOException e) {
+                next.close();
+                throw e;
+            }
+            if (active != null) readers.put(activeSegment, active);
+        }
+        activeSegment++;
+        activeSize = 0;
+        active = next;
+    }
+
+    /**
+     * Скидає записані платежі на диск і лише після цього враховує їх в індексі та підсумках.
+     * @param pending платежі, записані після попереднього fsync (список очищується).
+     */
+    private void commit(List<Pending> pending) throws IOException {
+        if (pending.isEmpty()) return;
+        active.force(false);
+        for (Pending p : pending) index(p.orderId(), p.offset(), p.at(), p.cents());
+        pending.clear();
+    }
+
+    /** Записує індекс поточного сегмента (через тимчасовий файл) і очищує його накопичувачі. */
+    private void seal() throws IOException {
+        Path tmp = indexFile(activeSegment).resolveSibling(indexFile(activeSegment).getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(INDEX_MAGIC);
+            out.writeLong(activeSize);
+            out.writeInt(activeOrders.size());
+            for (int i = 0; i < activeOrders.size(); i++) {
+                String orderId = activeOrders.get(i);
+                if (CompactId.isCanonical(orderId)) {
+                    out.writeBoolean(true);
+                    out.writeLong(CompactId.high(orderId));
+                    out.writeLong(CompactId.low(orderId));
+                } else {
+                    out.writeBoolean(false);
+                    out.writeUTF(orderId);
+                }
+                out.writeLong(activeOffsets[i]);
+            }
+            out.writeInt(activeDays.size());
+            for (Map.Entry<Long, long[]> e : activeDays.entrySet()) {
+                out.writeLong(e.getKey());
+                out.writeLong(e.getValue()[0]);
+                out.writeLong(e.getValue()[1]);
+            }
+        }
+        Files.move(tmp, indexFile(activeSegment), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        activeOrders.clear();
+        activeDays.clear();
+        lastDay = Long.MIN_VALUE;
+    }
+
+    /**
+     * Завантажує індекс закритого сегмента.
+     * @return false, якщо індексу немає або він не відповідає сегменту (тоді сегмент сканується).
+     */
+    private boolean loadIndex(int segment) throws IOException {
+        Path file = indexFile(segment);
+        if (!Files.exists(file)) return false;
+        // Спершу читається весь файл, щоб пошкоджений індекс не залишив часткових змін
+        long[] keys;
+        String[] other;
+        long[] offsets;
+        List<long[]> dayTotals = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != INDEX_MAGIC || in.readLong() != Files.size(segmentFile(segment))) return false;
+            int n = in.readInt();
+            keys = new long[2 * n];
+            other = new String[n];
+            offsets = new long[n];
+            for (int i = 0; i < n; i++) {
+                if (in.readBoolean()) {
+                    keys[2 * i] = in.readLong();
+                    keys[2 * i + 1] = in.readLong();
+                } else {
+                    other[i] = in.readUTF();
+                }
+                offsets[i] = in.readLong();
+            }
+            for (int d = in.readInt(); d > 0; d--) dayTotals.add(new long[]{in.readLong(), in.readLong(), in.readLong()});
+        } catch (EOFException | NegativeArraySizeException e) {
+            return false;
+        }
+        for (int i = 0; i < offsets.length; i++) {
+            if (other[i] != null) lastByOrder.put(other[i], offsets[i]);
+            else lastByOrder.put(keys[2 * i], keys[2 * i + 1], offsets[i]);
+        }
+        for (long[] d : dayTotals) addDay(d[0], d[1], d[2]);
+        return true;
+    }
+
+    /**
+     * Читає сегмент послідовно, відновлюючи індекс і підсумки; відкидає пошкоджений хвіст.
+     * @return розмір коректної частини сегмента.
+     */
+    private long scan(int segment) throws IOException {
+        Path file = segmentFile(segment);
+        long valid = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            while (true) {
+                byte[] data = readRecord(in);
+                if (data == null) break;
+                ByteBuffer b = ByteBuffer.wrap(data);
+                long epochSecond = b.getLong(0);
+                long amount = b.getLong(12);
+                b.position(DATA_HEADER_BYTES);
+                readString(b); // ID платежу
+                String orderId = readString(b);
+                index(orderId, position(segment, valid), LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC), amount);
+                valid += 8 + data.length;
+            }
+        }
+        if (valid < Files.size(file)) {
+            System.out.println("Журнал платежів: відкинуто пошкоджений хвіст сегмента " + file.getFileName());
+            try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                ch.truncate(valid);
+            }
+        }
+        return valid;
+    }
+
+    // --- Запис і читання записів ---
+
+    /** Дописує вміст буфера в поточний сегмент (скидання на диск — у кінці пакета). */
+    private void write(ByteBuffer buf) throws IOException {
+        if (buf.position() == 0) return;
+        if (active == null) {
+            active = FileChannel.open(segmentFile(activeSegment), StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        buf.flip();
+        long at = activeSize;
+        while (buf.hasRemaining()) at += active.write(buf, at);
+        activeSize = at;
+        buf.clear();
+    }
+
+    /** Дописує в буфер запис платежу з довжиною та контрольною сумою (місце в буфері вже є). */
+    private static void encode(ByteBuffer buf, Payment p, byte[] id, byte[] orderId, long previous) {
+        LocalDateTime at = p.getPaymentDate();
+        int start = buf.position();
+        int length = DATA_HEADER_BYTES + 2 + id.length + 2 + orderId.length;
+        buf.putInt(length);
+        buf.putLong(at.toEpochSecond(ZoneOffset.UTC));
+        buf.putInt(at.getNano());
+        buf.putLong(cents(p.getAmount()));
+        buf.putLong(previous);
+        buf.putShort((short) id.length).put(id);
+        buf.putShort((short) orderId.length).put(orderId);
+        buf.putInt(crc(buf.array(), start + 4, length));
+    }
+
+    /** Відновлює платіж з даних запису. */
+    private static Payment decode(ByteBuffer b) {
+        LocalDateTime at = LocalDateTime.ofEpochSecond(b.getLong(0), b.getInt(8), ZoneOffset.UTC);
+        double amount = b.getLong(12) / 100.0;
+        b.position(DATA_HEADER_BYTES);
+        String id = readString(b);
+        return new Payment(id, readString(b), amount, at);
+    }
+
+    /**
+     * Читає дані наступного запису потоку.
+     * @return дані або null, якщо записів більше немає чи запис обірваний/пошкоджений.
+     */
+    private static byte[] readRecord(DataInputStream in) throws IOException {
+        try {
+            int length = in.readInt();
+            if (length < DATA_HEADER_BYTES || length > MAX_RECORD_BYTES) return null;
+            byte[] data = new byte[length];
+            in.readFully(data);
+            return in.readInt() == crc(data, 0, length) ? data : null;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    /** Читає дані запису за позицією (позиційне читання без зміни стану каналу). */
+    private ByteBuffer readAt(long offset) throws IOException {
+        int segment = (int) (offset >>> OFFSET_BITS);
+        long pos = offset & ((1L << OFFSET_BITS) - 1);
+        FileChannel ch = segment == activeSegment && active != null ? active : readers.get(segment);
+        if (ch == null) {
+            ch = FileChannel.open(segmentFile(segment), StandardOpenOption.READ);
+            readers.put(segment, ch);
+        }
+        ByteBuffer len = ByteBuffer.allocate(4);
+        readFully(ch, len, pos);
+        ByteBuffer data = ByteBuffer.allocate(len.getInt(0));
+        readFully(ch, data, pos + 4);
+        return data;
+    }
+
+    private static void readFully(FileChannel ch, ByteBuffer buf, long pos) throws IOException {
+        while (buf.hasRemaining()) {
+            int n = ch.read(buf, pos + buf.position());
+            if (n < 0) throw new EOFException("Запис платежу за межами сегмента");
+        }
+    }
+
+    private static String readString(ByteBuffer b) {
+        byte[] s = new byte[b.getShort() & 0xFFFF];
+        b.get(s);
+        return new String(s, StandardCharsets.UTF_8);
+    }
+
+    private static int crc(byte[] data, int from, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(data, from, length);
+        return (int) crc.getValue();
+    }
+
+    // --- Індекс і підсумки ---
+
+    /**
+     * Враховує платіж в індексі замовлень і підсумках (поточного сегмента та наростаючих).
+     * @return позиція попереднього платежу замовлення або -1.
+     */
+    private long index(String orderId, long offset, LocalDateTime at, long cents) {
+        Long previous = lastByOrder.put(orderId, offset);
+        int n = activeOrders.size();
+        if (n == activeOffsets.length) activeOffsets = Arrays.copyOf(activeOffsets, n * 2);
+        activeOrders.add(orderId);
+        activeOffsets[n] = offset;
+
+        long day = at.toLocalDate().toEpochDay();
+        if (day != lastDay) {
+            lastDayCell = activeDays.computeIfAbsent(day, d -> new long[2]);
+            lastDay = day;
+        }
+        lastDayCell[0] += cents;
+        lastDayCell[1]++;
+        addDay(day, cents, 1);
+        return previous == null ? -1 : previous;
+    }
+
+    /**
+     * Додає суму до наростаючих підсумків. Платежі надходять у порядку часу, тому зазвичай
+     * оновлюється лише останній день (O(1)); платіж заднім числом оновлює наступні дні.
+     */
+    private void addDay(long day, long cents, long count) {
+        if (days == 0) baseDay = day;
+        if (day < baseDay) {
+            int shift = (int) (baseDay - day);
+            runningCents = shifted(runningCents, shift, days);
+            runningCount = shifted(runningCount, shift, days);
+            days += shift;
+            baseDay = day;
+        }
+        int i = (int) (day - baseDay);
+        if (i >= days) {
+            if (i >= runningCents.length) {
+                int capacity = Math.max(i + 1, Math.max(64, runningCents.length * 2));
+                runningCents = Arrays.copyOf(runningCents, capacity);
+                runningCount = Arrays.copyOf(runningCount, capacity);
+            }
+            long cents0 = days == 0 ? 0 : runningCents[days - 1];
+            long count0 = days == 0 ? 0 : runningCount[days - 1];
+            for (int j = days; j <= i; j++) {
+                runningCents[j] = cents0;
+                runningCount[j] = count0;
+            }
+            days = i + 1;
+        }
+        for (int j = i; j < days; j++) {
+            runningCents[j] += cents;
+            runningCount[j] += count;
+        }
+    }
+
+    /** Копія підсумків, зсунута на shift днів вправо (нові перші дні — нульові). */
+    private static long[] shifted(long[] running, int shift, int used) {
+        long[] result = new long[Math.max(running.length, used + shift)];
+        System.arraycopy(running, 0, result, shift, used);
+        return result;
+    }
+
+    /** Наростаючий підсумок на кінець дня (до першого дня журналу — 0). */
+    private long running(long[] values, long day) {
+        if (days == 0 || day < baseDay) return 0;
+        return values[(int) Math.min(day - baseDay, days - 1)];
+    }
+
+    private static long position(int segment, long pos) {
+        return (long) segment << OFFSET_BITS | pos;
+    }
+
+    private static long cents(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    private Path segmentFile(int segment) {
+        return dir.resolve(String.format("payments-%06d.seg", segment));
+    }
+
+    private Path indexFile(int segment) {
+        return dir.resolve(String.format("payments-%06d.idx", segment));
+    }
+}
@@ -0,0 +1,371 @@
+package com.example.control;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Фоновий записувач змін із груповим комітом (group commit).
+ * <p>
+ * {@link DataManager} більше не пише на диск у потоці обробки подій Swing:
+ * кожна зміна лише ставиться в чергу цього класу. Окремий потік збирає
+ * "сплеск" змін протягом короткої затримки (debounce), наприклад клієнта та
+ * його замовлення, і записує їх у журнал одним пакетом з одним fsync.
+ * Зміни, що надходять під час запису, потрапляють у наступний пакет.
+ * <p>
+ * Повний знімок (ущільнення журналу) виконується тим самим потоком: під
+ * блокуванням {@code DataManager} лише знімається копія даних разом із чергою
+ * (тому знімок завжди узгоджений з чергою), а файли пишуться вже без блокування.
+ * <p>
+ * Клас також збирає метрики: кількість записів на диск, розміри пакетів
+ * та тривалість запису.
+ */
+public class PersistenceWriter {
+
+    /**
+     * Завдання запису повного знімка даних.
+     */
+    @FunctionalInterface
+    public interface SnapshotTask {
+        /**
+         * Знімає копію даних для знімка. Викликається під блокуванням даних, тому лише копіює.
+         * @return запис копії на диск (виконується без блокування).
+         */
+        SnapshotWrite capture();
+    }
+
+    /**
+     * Запис знятої копії даних у файли знімка.
+     */
+    @FunctionalInterface
+    public interface SnapshotWrite {
+        /**
+         * Записує повний знімок.
+         * @throws IOException у разі помилки запису.
+         */
+        void write() throws IOException;
+    }
+
+    /** Журнал, у який дописуються пакети записів. */
+    private final ChangeJournal journal;
+
+    /** Завдання запису повного знімка (копія знімається під блокуванням {@link #snapshotLock}). */
+    private final SnapshotTask snapshotTask;
+
+    /** Монітор, під яким змінюються дані (DataManager); утримується під час знімка. */
+    private final Object snapshotLock;
+
+    /** Затримка для накопичення сплеску змін перед записом (мс). */
+    private final long debounceMillis;
+
+    /** Пауза перед повторною спробою після помилки запису (мс). */
+    private static final long RETRY_DELAY_MILLIS = 500;
+
+    /** Фоновий потік запису. */
+    private final Thread thread;
+
+    // --- Стан черги (захищено монітором this) ---
+    private List<String> pending = new ArrayList<>();
+    private boolean snapshotRequested;
+    private boolean flushRequested;
+    private boolean closed;
+    private long submittedSeq;
+    private long durableSeq;
+    private IOException lastError;
+
+    // --- Метрики (захищено монітором this) ---
+    private long flushCount;
+    private long recordsWritten;
+    private int lastBatchSize;
+    private int maxBatchSize;
+    private long lastFlushNanos;
+    private long maxFlushNanos;
+    private long totalFlushNanos;
+
+    /**
+     * Створює записувач та запускає фоновий потік.
+     *
+     * @param journal        журнал змін.
+     * @param snapshotTask   завдання запису повного знімка.
+     * @param snapshotLock   монітор, під яким змінюються дані.
+     * @param debounceMillis затримка накопичення змін (мс).
+     */
+    public PersistenceWriter(ChangeJournal journal, SnapshotTask snapshotTask, Object snapshotLock, long debounceMillis) {
+        this.journal = journal;
+        this.snapshotTask = snapshotTask;
+        this.snapshotLock = snapshotLock;
+        this.debounceMillis = debounceMillis;
+        this.thread = new Thread(this::run, "persistence-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Ставить запис журналу в чергу на запис (повертається одразу).
+     * @param record запис журналу.
+     */
+    public synchronized void submit(String record) {
+        pending.add(record);
+        submittedSeq++;
+        notifyAll();
+    }
+
+    /**
+     * Запитує повний знімок даних. Кілька запитів поспіль зливаються в один.
+     * Записи, що стоять у черзі, вже містяться у знімку й окремо не пишуться.
+     */
+    public synchronized void requestSnapshot() {
+        snapshotRequested = true;
+        submittedSeq++;
+        notifyAll();
+    }
+
+    /**
+     * Негайно записує всі накопичені зміни (без очікування debounce)
+     * і чекає, доки вони стануть надійно збереженими.
+     * @throws IOException якщо запис завершився помилкою.
+     */
+    public void flush() throws IOException {
+        long target;
+        synchronized (this) {
+            target = submittedSeq;
+            if (durableSeq >= target) return;
+            flushRequested = true;
+            notifyAll();
+        }
+        awaitSequence(target);
+    }
+
+    /**
+     * Чекає, доки всі зміни, подані до моменту виклику, будуть записані на диск.
+     * На відміну від {@link #flush()}, не скорочує затримку накопичення.
+     * @param timeoutMillis максимальний час очікування (мс).
+     * @return true, якщо зміни записано; false, якщо вийшов час очікування.
+     * @throws IOException якщо запис завершився помилкою.
+     */
+    public synchronized boolean awaitDurable(long timeoutMillis) throws IOException {
+        long target = submittedSeq;
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (durableSeq < target) {
+            if (lastError != null) throw lastError;
+            long left = deadline - System.currentTimeMillis();
+            if (left <= 0) return false;
+            waitQuietly(left);
+        }
+        return true;
+    }
+
+    /**
+     * Чекає, доки буде записано зміни до вказаного порядкового номера.
+     * @param target порядковий номер останньої потрібної зміни.
+     * @throws IOException якщо запис завершився помилкою.
+     */
+    private synchronized void awaitSequence(long target) throws IOException {
+        while (durableSeq < target) {
+            if (lastError != null) throw lastError;
+            if (closed && !thread.isAlive()) throw new IOException("Записувач зупинено");
+            waitQuietly(0);
+        }
+    }
+
+    /**
+     * Записує всі зміни та зупиняє фоновий потік.
+     * @throws IOException якщо останній запис завершився помилкою.
+     */
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            synchronized (this) {
+                closed = true;
+                notifyAll();
+            }
+            try {
+                thread.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            journal.close();
+        }
+    }
+
+    /**
+     * Головний цикл фонового потоку: очікування змін, накопичення сплеску, запис пакета.
+     */
+    private void run() {
+        while (true) {
+            synchronized (this) {
+                while (!closed && !hasWork()) waitQuietly(0);
+                if (closed && !hasWork()) return;
+                // Debounce: даємо сплеску змін злитися в один пакет
+                long deadline = System.currentTimeMillis() + debounceMillis;
+                while (!closed && !flushRequested) {
+                    long left = deadline - System.currentTimeMillis();
+                    if (left <= 0) break;
+                    waitQuietly(left);
+                }
+            }
+            if (!writeBatch()) {
+                synchronized (this) {
+                    waitQuietly(RETRY_DELAY_MILLIS); // Пауза перед повторною спробою
+                }
+            }
+        }
+    }
+
+    /**
+     * Перевіряє, чи є незаписані зміни.
+     * @return true, якщо черга не порожня або запитано знімок.
+     */
+    private boolean hasWork() {
+        return !pending.isEmpty() || snapshotRequested || (flushRequested && durableSeq < submittedSeq);
+    }
+
+    /**
+     * Записує один пакет: або повний знімок (з очищенням журналу), або пакет записів журналу.
+     * Під час запису нові зміни накопичуються для наступного пакета.
+     * @return true, якщо запис успішний.
+     */
+    private boolean writeBatch() {
+        long start = System.nanoTime();
+        List<String> batch;
+        long target;
+        boolean snapshot;
+        try {
+            synchronized (this) {
+                snapshot = snapshotRequested;
+            }
+            if (snapshot) {
+                // Копія фіксує стан разом з усіма записами, що вже стоять у черзі; зміни,
+                // подані під час запису файлів, потрапляють у журнал уже після його очищення
+                SnapshotWrite write;
+                synchronized (snapshotLock) {
+                    synchronized (this) {
+                        batch = drain();
+                        snapshotRequested = false;
+                        target = submittedSeq;
+                    }
+                    write = snapshotTask.capture();
+                }
+                try {
+                    write.write();
+                    journal.truncate();
+                } catch (IOException e) {
+                    fail(batch, true, e);
+                    return false;
+                }
+            } else {
+                synchronized (this) {
+                    batch = drain();
+                    target = submittedSeq;
+                }
+                try {
+                    journal.appendAll(batch);
+                } catch (IOException e) {
+                    fail(batch, false, e);
+                    return false;
+                }
+            }
+        } catch (RuntimeException e) {
+            fail(new ArrayList<>(), true, new IOException(e));
+            return false;
+        }
+        long elapsed = System.nanoTime() - start;
+        synchronized (this) {
+            durableSeq = Math.max(durableSeq, target);
+            lastError = null;
+            if (durableSeq >= submittedSeq) flushRequested = false;
+            flushCount++;
+            recordsWritten += batch.size();
+            lastBatchSize = batch.size();
+            maxBatchSize = Math.max(maxBatchSize, batch.size());
+            lastFlushNanos = elapsed;
+            maxFlushNanos = Math.max(maxFlushNanos, elapsed);
+            totalFlushNanos += elapsed;
+            notifyAll();
+        }
+        return true;
+    }
+
+    /**
+     * Забирає поточну чергу записів, залишаючи порожню для наступного пакета.
+     * @return записи, що стояли в черзі.
+     */
+    private List<String> drain() {
+        List<String> batch = pending;
+        pending = new ArrayList<>();
+        return batch;
+    }
+
+    /**
+     * Обробляє помилку запису: повертає пакет у голову черги для повторної спроби
+     * та повідомляє потоки, що очікують на збереження.
+     * @param batch пакет, який не вдалося записати.
+     * @param snapshot true, якщо помилка сталася під час знімка.
+     * @param e причина помилки.
+     */
+    private synchronized void fail(List<String> batch, boolean snapshot, IOException e) {
+        e.printStackTrace();
+        batch.addAll(pending);
+        pending = batch;
+        if (snapshot) snapshotRequested = true;
+        flushRequested = false;
+        lastError = e;
+        notifyAll();
+    }
+
+    /**
+     * Очікує на моніторі this, ігноруючи переривання (стан перевіряється у циклі виклику).
+     * @param millis час очікування (0 — без обмеження).
+     */
+    private void waitQuietly(long millis) {
+        try {
+            wait(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // --- Метрики ---
+
+    /** @return кількість виконаних записів на диск (пакетів або знімків). */
+    public synchronized long getFlushCount() { return flushCount; }
+
+    /** @return загальна кількість записів журналу, збережених у пакетах. */
+    public synchronized long getRecordsWritten() { return recordsWritten; }
+
+    /** @return розмір останнього пакета (кількість записів). */
+    public synchronized int getLastBatchSize() { return lastBatchSize; }
+
+    /** @return найбільший розмір пакета. */
+    public synchronized int getMaxBatchSize() { return maxBatchSize; }
+
+    /** @return середній розмір пакета. */
+    public synchronized double getAverageBatchSize() {
+        return flushCount == 0 ? 0 : (double) recordsWritten / flushCount;
+    }
+
+    /** @return тривалість останнього запису (мс). */
+    public synchronized double getLastFlushMillis() { return lastFlushNanos / 1_000_000.0; }
+
+    /** @return найбільша тривалість запису (мс). */
+    public synchronized double getMaxFlushMillis() { return maxFlushNanos / 1_000_000.0; }
+
+    /** @return середня тривалість запису (мс). */
+    public synchronized double getAverageFlushMillis() {
+        return flushCount == 0 ? 0 : totalFlushNanos / 1_000_000.0 / flushCount;
+    }
+
+    /** @return кількість змін, що ще не записані на диск. */
+    public synchronized long getPendingCount() { return submittedSeq - durableSeq; }
+
+    /**
+     * Повертає короткий текстовий звіт з метриками для логування.
+     * @return рядок з метриками.
+     */
+    @Override
+    public synchronized String toString() {
+        return String.format("PersistenceWriter[flushes=%d, records=%d, avgBatch=%.1f, maxBatch=%d, avgMs=%.2f, maxMs=%.2f]",
+                flushCount, recordsWritten, getAverageBatchSize(), maxBatchSize, getAverageFlushMillis(), getMaxFlushMillis());
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.control;
+
+import com.example.entity.Photo;
+import com.example.model.Order;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Фонова задача, що переносить уже збережені файли фотографій у сховище за вмістом ({@link ContentStore}).
+ * <p>
+ * Проходить записи фото (photos.csv і журнал), файли яких лежать поза сховищем об'єктів (імпорт до
+ * появи сховища або шляхи, задані вручну). Для кожного файлу обчислюється SHA-256 (якщо його ще немає);
+ * перший файл з таким вмістом стає об'єктом сховища (жорстким посиланням, без копіювання даних),
+ * решта — дублікати. Фото переводяться на об'єкт записом у журнал, і лише після того, як пакет
+ * записів надійно збережено ({@link DataManager#flush()}), старі файли видаляються — тому збій
+ * посеред роботи не залишає фото без файлу. Видаляються лише файли всередині сховища фотографій;
+ * файли поза ним залишаються на місці.
+ * Задача однопотокова (обмежена диском) і може повторюватися: перенесені фото пропускаються.
+ */
+public class PhotoDeduplicationJob {
+
+    /** Кількість фото між збереженням журналу та видаленням старих файлів. */
+    private static final int BATCH = 256;
+
+    /** Розмір буфера для обчислення хешу (байт). */
+    private static final int BUFFER_BYTES = 256 * 1024;
+
+    /**
+     * Результат задачі.
+     * @param scanned кількість фото поза сховищем об'єктів.
+     * @param stored кількість файлів, що стали новими об'єктами сховища.
+     * @param duplicates кількість фото, вміст яких уже був у сховищі.
+     * @param missing кількість фото без файлу на диску (пропущено).
+     * @param bytesFreed звільнено місця видаленням дублікатів (байт).
+     * @param failures описи фото, які не вдалося обробити.
+     * @param millis тривалість (мс).
+     */
+    public record Result(int scanned, int stored, int duplicates, int missing, long bytesFreed,
+                         List<String> failures, long millis) { }
+
+    /** Перенесений файл: його можна буде видалити, коли записи про фото збережено. */
+    private record Moved(Path file, String path, long size, String hash, boolean duplicate) { }
+
+    private final DataManager data;
+    private final ContentStore store;
+
+    /**
+     * @param data менеджер даних.
+     */
+    public PhotoDeduplicationJob(DataManager data) {
+        this.data = data;
+        this.store = data.getContentStore();
+    }
+
+    /**
+     * Виконує перенесення. При перериванні потоку поточний пакет завершується коректно.
+     * @param progress сповіщення про хід (може бути null).
+     * @return результат.
+     * @throws IOException якщо не вдалося зберегти журнал змін.
+     * @throws InterruptedException якщо задачу перервано.
+     */
+    public Result run(PhotoIngestService.Progress progress) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        List<Map.Entry<Photo, Order>> pending = new ArrayList<>();
+        for (Map.Entry<Photo, Order> e : data.photoOwners().entrySet()) {
+            if (!store.contains(e.getKey().getFilePath())) pending.add(e);
+        }
+
+        ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        Map<Path, Moved> byFile = new HashMap<>(); // Кілька фото можуть посилатися на один файл
+        List<Moved> batch = new ArrayList<>();
+        List<String> failures = new ArrayList<>();
+        int stored = 0, duplicates = 0, missing = 0, done = 0;
+        long freed = 0;
+        boolean interrupted = false;
+
+        for (Map.Entry<Photo, Order> e : pending) {
+            if (Thread.currentThread().isInterrupted()) {
+                interrupted = true;
+                break;
+            }
+            Photo photo = e.getKey();
+            Path file = store.resolve(photo.getFilePath());
+            Moved moved = byFile.get(file);
+            if (moved == null) {
+                if (!Files.isRegularFile(file)) {
+                    missing++;
+                    continue;
+                }
+                try {
+                    long size = Files.size(file);
+                    String hash = photo.getContentHash() != null && photo.getSize() == size
+                            ? photo.getContentHash()
+                            : PhotoIngestService.hash(file, buf);
+                    boolean duplicate = store.find(hash) != null;
+                    String path = store.put(file, hash, size, PhotoIngestService.extension(file), true);
+                    moved = new Moved(file, path, size, hash, duplicate);
+                } catch (IOException ex) {
+                    failures.add(photo.getFilePath() + ": " + ex.getMessage());
+                    continue;
+                }
+                byFile.put(file, moved);
+                batch.add(moved);
+                if (moved.duplicate()) duplicates++; else stored++;
+            }
+            data.relinkPhoto(e.getValue(), photo, moved.path(), moved.size(), moved.hash());
+            if (progress != null) progress.update(++done, pending.size());
+            if (batch.size() >= BATCH) freed += release(batch);
+        }
+        freed += release(batch);
+        if (interrupted) throw new InterruptedException("Дедуплікацію фото перервано");
+        return new Result(pending.size(), stored, duplicates, missing, freed, failures,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Зберігає журнал і видаляє старі файли пакета (лише ті, що всередині сховища фотографій).
+     * @return звільнено байт (дублікати; для нових об'єктів дані лишаються у сховищі).
+     */
+    private long release(List<Moved> batch) throws IOException {
+        if (batch.isEmpty()) return 0;
+        data.flush();
+        long freed = 0;
+        for (Moved m : batch) {
+            if (!store.isManaged(m.file())) continue;
+            try {
+                if (Files.deleteIfExists(m.file()) && m.duplicate()) freed += m.size();
+                Path dir = m.file().getParent();
+                if (store.isManaged(dir)) Files.deleteIfExists(dir); // Директорія замовлення з попереднього імпорту
+            } catch (DirectoryNotEmptyException ignored) {
+                // У директорії ще є файли
+            } catch (IOException ex) {
+                System.out.println("Не вдалося видалити " + m.file() + ": " + ex.getMessage());
+            }
+        }
+        batch.clear();
+        return freed;
+    }
+}
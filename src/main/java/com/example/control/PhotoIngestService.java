@@ -0,0 +1,265 @@
+package com.example.control;
+
+import com.example.entity.Photo;
+import com.example.model.Order;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Імпорт фотографій з директорії (наприклад, копії картки пам'яті фотоапарата) у сховище студії.
+ * <p>
+ * Кроки імпорту:
+ * <ol>
+ * <li>обхід директорії-джерела: файли зображень (за розширенням) у порядку відносних шляхів;</li>
+ * <li>перевірка дубліката до копіювання: якщо у сховищі ({@link ContentStore}) є об'єкт такого ж
+ * розміру, файл лише хешується, і за збігу SHA-256 фото посилається на наявний об'єкт без запису;</li>
+ * <li>копіювання: кожен файл читається один раз, і той самий буфер оновлює SHA-256 та пишеться
+ * в тимчасовий файл, який після fsync атомарно переміщується у сховище під своїм хешем;</li>
+ * <li>прив'язка всіх фото до замовлення одним викликом {@link DataManager#attachPhotos}.</li>
+ * </ol>
+ * Кожен файл обробляється у власному віртуальному потоці, а кількість одночасних операцій
+ * введення-виведення обмежена пулом буферів ({@link #DEFAULT_IO_CONCURRENCY}): потік чекає вільний
+ * буфер перед відкриттям файлів. Помилка окремого файлу не зупиняє імпорт — вона потрапляє у звіт
+ * ({@link Result#failures()}).
+ */
+public class PhotoIngestService {
+
+    /** Назва директорії сховища фотографій у директорії даних. */
+    public static final String DIR_NAME = "photos";
+
+    /** Кількість одночасних копіювань за замовчуванням. */
+    public static final int DEFAULT_IO_CONCURRENCY = 4;
+
+    /** Розмір буфера копіювання (байт). */
+    private static final int BUFFER_BYTES = 256 * 1024;
+
+    /** Розширення файлів, що вважаються фотографіями (JPEG, HEIF, TIFF та RAW-формати камер). */
+    private static final Set<String> PHOTO_EXTENSIONS = Set.of(
+            "jpg", "jpeg", "png", "tif", "tiff", "heic", "heif",
+            "dng", "cr2", "cr3", "nef", "arw", "raf", "orf", "rw2", "pef", "srw");
+
+    /**
+     * Результат імпорту.
+     * @param photos прив'язані до замовлення фотографії в порядку джерела.
+     * @param failures описи файлів, які не вдалося скопіювати.
+     * @param bytes скопійовано байт (без дублікатів).
+     * @param duplicates кількість фото, для яких вміст уже був у сховищі.
+     * @param millis тривалість імпорту (мс).
+     */
+    public record Result(List<Photo> photos, List<String> failures, long bytes, int duplicates, long millis) { }
+
+    /** Сповіщення про хід імпорту (викликається з робочих потоків). */
+    @FunctionalInterface
+    public interface Progress {
+        void update(int done, int total);
+    }
+
+    private final DataManager data;
+    private final ContentStore store;
+    private final int ioConcurrency;
+
+    /**
+     * Створює службу імпорту зі сховищем у директорії даних.
+     * @param data менеджер даних.
+     */
+    public PhotoIngestService(DataManager data) {
+        this(data, DEFAULT_IO_CONCURRENCY);
+    }
+
+    /**
+     * Створює службу імпорту.
+     * @param data менеджер даних.
+     * @param ioConcurrency максимальна кількість одночасних копіювань.
+     */
+    public PhotoIngestService(DataManager data, int ioConcurrency) {
+        if (ioConcurrency < 1) throw new IllegalArgumentException("Кількість одночасних копіювань має бути не менше 1");
+        this.data = data;
+        this.store = data.getContentStore();
+        this.ioConcurrency = ioConcurrency;
+    }
+
+    /**
+     * Імпортує всі фотографії з директорії та прив'язує їх до замовлення.
+     * При перериванні потоку незавершені копіювання скасовуються, а вже скопійовані фото
+     * все одно прив'язуються до замовлення (щоб файли у сховищі не залишилися без запису).
+     * @param order замовлення.
+     * @param source директорія-джерело.
+     * @param progress сповіщення про хід (може бути null).
+     * @return результат імпорту.
+     * @throws IOException якщо джерело не вдалося прочитати.
+     * @throws InterruptedException якщо імпорт перервано.
+     */
+    public Result ingest(Order order, Path source, Progress progress) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        if (!Files.isDirectory(source)) throw new IOException("Директорію не знайдено: " + source);
+        List<Path> files = listPhotos(source);
+
+        BlockingQueue<ByteBuffer> buffers = new ArrayBlockingQueue<>(ioConcurrency);
+        for (int i = 0; i < ioConcurrency; i++) buffers.add(ByteBuffer.allocateDirect(BUFFER_BYTES));
+        AtomicInteger done = new AtomicInteger();
+        List<Future<Photo>> futures = new ArrayList<>(files.size());
+        List<Photo> photos = new ArrayList<>(files.size());
+        List<String> failures = new ArrayList<>();
+        AtomicLong bytes = new AtomicLong();
+        AtomicInteger duplicates = new AtomicInteger();
+        InterruptedException interrupted = null;
+
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Path from : files) {
+                futures.add(pool.submit(() -> {
+                    ByteBuffer buf = buffers.take(); // Обмеження одночасного введення-виведення
+                    try {
+                        return store(from, buf, bytes, duplicates);
+                    } finally {
+                        buffers.add(buf);
+                        if (progress != null) progress.update(done.incrementAndGet(), files.size());
+                    }
+                }));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    photos.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    failures.add(files.get(i) + ": " + e.getCause().getMessage());
+                } catch (InterruptedException e) {
+                    interrupted = e;
+                    for (Future<Photo> f : futures) f.cancel(true);
+                    break;
+                }
+            }
+        }
+        if (interrupted != null) {
+            // Після закриття пулу всі копіювання завершено: прив'язуємо ті, що встигли
+            photos.clear();
+            for (Future<Photo> f : futures) if (f.state() == Future.State.SUCCESS) photos.add(f.resultNow());
+        }
+
+        data.attachPhotos(order, photos);
+        if (interrupted != null) throw interrupted;
+        return new Result(photos, failures, bytes.get(), duplicates.get(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /** Знаходить файли фотографій у директорії (рекурсивно), упорядковані за відносним шляхом. */
+    private static List<Path> listPhotos(Path source) throws IOException {
+        try (Stream<Path> walk = Files.walk(source)) {
+            return walk.filter(Files::isRegularFile)
+                    .filter(PhotoIngestService::isPhoto)
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static boolean isPhoto(Path file) {
+        return !file.getFileName().toString().startsWith(".")
+                && PHOTO_EXTENSIONS.contains(extension(file).toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Переносить файл у сховище. Якщо об'єкт такого розміру вже є, файл спочатку лише хешується:
+     * за збігу хешу фото посилається на наявний об'єкт і запису немає.
+     * @return фотографія з шляхом об'єкта, розміром, хешем і назвою з фотоапарата.
+     */
+    private Photo store(Path from, ByteBuffer buf, AtomicLong bytes, AtomicInteger duplicates) throws IOException {
+        long size = Files.size(from);
+        if (store.mayContain(size)) {
+            String hash = hash(from, buf);
+            String existing = store.find(hash);
+            if (existing != null) {
+                duplicates.incrementAndGet();
+                return imported(existing, size, hash, from);
+            }
+        }
+        Path part = store.createPart();
+        String hash;
+        try {
+            hash = copy(from, part, buf);
+            size = Files.size(part);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(part);
+            throw e;
+        }
+        String path = store.put(part, hash, size, extension(from), false);
+        bytes.addAndGet(size);
+        return imported(path, size, hash, from);
+    }
+
+    /** Фото об'єкта сховища з назвою файлу з фотоапарата (шлях об'єкта містить лише хеш). */
+    private static Photo imported(String path, long size, String hash, Path source) {
+        Photo photo = new Photo(path, size, hash);
+        photo.setOriginalName(source.getFileName().toString());
+        return photo;
+    }
+
+    /**
+     * Копіює файл, обчислюючи SHA-256 з того самого буфера, що пишеться в ціль.
+     * @return SHA-256 вмісту.
+     */
+    private static String copy(Path from, Path to, ByteBuffer buf) throws IOException {
+        MessageDigest sha = sha256();
+        try (FileChannel in = FileChannel.open(from, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(to, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            buf.clear();
+            while (in.read(buf) >= 0) {
+                buf.flip();
+                sha.update(buf.duplicate());
+                while (buf.hasRemaining()) out.write(buf);
+                buf.clear();
+            }
+            out.force(false);
+        }
+        return HexFormat.of().formatHex(sha.digest());
+    }
+
+    /**
+     * Обчислює SHA-256 файлу без копіювання.
+     * @return SHA-256 вмісту.
+     */
+    static String hash(Path file, ByteBuffer buf) throws IOException {
+        MessageDigest sha = sha256();
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            buf.clear();
+            while (in.read(buf) >= 0) {
+                buf.flip();
+                sha.update(buf);
+                buf.clear();
+            }
+        }
+        return HexFormat.of().formatHex(sha.digest());
+    }
+
+    /** @return розширення файлу без крапки (порожнє, якщо його немає). */
+    static String extension(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(dot + 1) : "";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступний", e); // Гарантовано специфікацією Java
+        }
+    }
+}
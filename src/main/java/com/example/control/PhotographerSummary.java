@@ -0,0 +1,12 @@
+package com.example.control;
+
+import com.example.entity.Photographer;
+
+/**
+ * Підсумок роботи фотографа за період: кількість замовлень та їх сумарна вартість.
+ *
+ * @param photographer фотограф.
+ * @param orders кількість замовлень.
+ * @param revenue сумарна вартість замовлень (грн).
+ */
+public record PhotographerSummary(Photographer photographer, long orders, double revenue) { }
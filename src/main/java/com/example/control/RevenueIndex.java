@@ -0,0 +1,235 @@
+package com.example.control;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+
+/**
+ * Індекс виручки за датою замовлення.
+ * <p>
+ * Суми зберігаються в копійках ({@code long}, без похибок додавання {@code double})
+ * у двох структурах:
+ * <ul>
+ * <li>денні кошики з деревом Фенвіка над ними — сума за будь-який діапазон
+ * повних днів за O(log d);</li>
+ * <li>для кожного дня — впорядковані за часом примітивні масиви (наносекунда доби та вартість
+ * замовлення) для неповних крайових днів періоду: перебираються лише замовлення цих двох днів,
+ * без окремого об'єкта на кожне замовлення.</li>
+ * </ul>
+ * Діапазон днів розширюється автоматично (з подвоєнням), тому додавання замовлення — O(log d)
+ * амортизовано. Індекс не синхронізований: його змінює лише {@link DataManager} під своїм блокуванням.
+ */
+class RevenueIndex {
+
+    /** Початковий розмір діапазону днів. */
+    private static final int INITIAL_DAYS = 366;
+
+    /** Номер дня епохи, що відповідає елементу 0. */
+    private long baseDay;
+
+    /** Виручка за кожен день діапазону (копійки). */
+    private long[] daily = new long[0];
+
+    /** Дерево Фенвіка над {@link #daily} (індексація з 1). */
+    private long[] tree = new long[1];
+
+    /** Замовлення кожного дня діапазону за часом (null — у день замовлень немає); вирівняно з {@link #daily}. */
+    private DayOrders[] times = new DayOrders[0];
+
+    /** Час і вартість замовлень одного дня, впорядковані за часом (паралельні масиви). */
+    private static final class DayOrders {
+        long[] nanos = new long[4];
+        long[] cents = new long[4];
+        int size;
+
+        /** Вставляє замовлення після всіх з тим самим часом (замовлення зазвичай додаються за часом — O(log k)). */
+        void add(long nano, long value) {
+            int i = firstAfter(nano);
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+                cents = Arrays.copyOf(cents, size * 2);
+            }
+            System.arraycopy(nanos, i, nanos, i + 1, size - i);
+            System.arraycopy(cents, i, cents, i + 1, size - i);
+            nanos[i] = nano;
+            cents[i] = value;
+            size++;
+        }
+
+        /** Видаляє одне замовлення з таким часом і вартістю (якщо воно є). */
+        void remove(long nano, long value) {
+            for (int i = firstAtOrAfter(nano); i < size && nanos[i] == nano; i++) {
+                if (cents[i] != value) continue;
+                System.arraycopy(nanos, i + 1, nanos, i, size - i - 1);
+                System.arraycopy(cents, i + 1, cents, i, size - i - 1);
+                size--;
+                return;
+            }
+        }
+
+        /** Сума замовлень з часом у [fromNano, toNano]. */
+        long sum(long fromNano, long toNano) {
+            long sum = 0;
+            for (int i = firstAtOrAfter(fromNano); i < size && nanos[i] <= toNano; i++) sum += cents[i];
+            return sum;
+        }
+
+        /** Перший індекс з часом не раніше nano. */
+        private int firstAtOrAfter(long nano) {
+            int lo = 0, hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (nanos[mid] < nano) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+
+        /** Перший індекс з часом пізніше nano. */
+        private int firstAfter(long nano) {
+            return nano == Long.MAX_VALUE ? size : firstAtOrAfter(nano + 1);
+        }
+    }
+
+    /**
+     * Додає виручку замовлення.
+     * @param at дата та час замовлення.
+     * @param cents вартість у копійках.
+     */
+    void add(LocalDateTime at, long cents) {
+        int i = apply(at, cents);
+        if (times[i] == null) times[i] = new DayOrders();
+        times[i].add(at.toLocalTime().toNanoOfDay(), cents);
+    }
+
+    /**
+     * Віднімає виручку замовлення (перед зміною дати чи вартості).
+     * @param at дата та час замовлення, з якими воно було додане.
+     * @param cents вартість, з якою воно було додане.
+     */
+    void remove(LocalDateTime at, long cents) {
+        int i = apply(at, -cents);
+        if (times[i] != null) times[i].remove(at.toLocalTime().toNanoOfDay(), cents);
+    }
+
+    /** Очищує індекс (перед повторним завантаженням даних). */
+    void clear() {
+        daily = new long[0];
+        tree = new long[1];
+        times = new DayOrders[0];
+    }
+
+    /**
+     * Змінює суму дня в денному кошику та дереві.
+     * @return індекс дня в діапазоні.
+     */
+    private int apply(LocalDateTime at, long cents) {
+        long day = at.toLocalDate().toEpochDay();
+        ensureDay(day);
+        int i = (int) (day - baseDay);
+        daily[i] += cents;
+        for (int j = i + 1; j < tree.length; j += j & -j) tree[j] += cents;
+        return i;
+    }
+
+    /**
+     * Розширює діапазон днів, щоб він містив вказаний день (з запасом), і перебудовує дерево за O(d).
+     */
+    private void ensureDay(long day) {
+        if (daily.length == 0) {
+            baseDay = day - INITIAL_DAYS / 2;
+            daily = new long[INITIAL_DAYS];
+            times = new DayOrders[INITIAL_DAYS];
+        } else if (day < baseDay || day >= baseDay + daily.length) {
+            long newBase = Math.min(baseDay, day - daily.length / 2);
+            long newEnd = Math.max(baseDay + daily.length, day + 1 + daily.length / 2);
+            long[] grown = new long[Math.toIntExact(newEnd - newBase)];
+            DayOrders[] grownTimes = new DayOrders[grown.length];
+            System.arraycopy(daily, 0, grown, (int) (baseDay - newBase), daily.length);
+            System.arraycopy(times, 0, grownTimes, (int) (baseDay - newBase), times.length);
+            baseDay = newBase;
+            daily = grown;
+            times = grownTimes;
+        } else {
+            return;
+        }
+        tree = new long[daily.length + 1];
+        for (int i = 1; i < tree.length; i++) {
+            tree[i] += daily[i - 1];
+            int parent = i + (i & -i);
+            if (parent < tree.length) tree[parent] += tree[i];
+        }
+    }
+
+    /** Префіксна сума днів [0, count) діапазону. */
+    private long prefix(int count) {
+        long sum = 0;
+        for (int j = count; j > 0; j -= j & -j) sum += tree[j];
+        return sum;
+    }
+
+    /**
+     * Сума за повні дні [fromDay, toDay] (номери днів епохи) за O(log d).
+     */
+    private long sumDays(long fromDay, long toDay) {
+        long from = Math.max(fromDay, baseDay);
+        long to = Math.min(toDay, baseDay + daily.length - 1);
+        if (from > to) return 0;
+        return prefix((int) (to - baseDay + 1)) - prefix((int) (from - baseDay));
+    }
+
+    /** Сума замовлень з часом у [start, end] (лише для проміжків у межах одного дня). */
+    private long sumExact(LocalDateTime start, LocalDateTime end) {
+        long day = start.toLocalDate().toEpochDay();
+        if (day < baseDay || day >= baseDay + times.length) return 0;
+        DayOrders orders = times[(int) (day - baseDay)];
+        return orders == null ? 0 : orders.sum(start.toLocalTime().toNanoOfDay(), end.toLocalTime().toNanoOfDay());
+    }
+
+    /**
+     * Сума виручки замовлень з датою в [start, end] (обидві межі включно).
+     * @param start початок періоду.
+     * @param end кінець періоду.
+     * @return сума в копійках.
+     */
+    long sum(LocalDateTime start, LocalDateTime end) {
+        if (end.isBefore(start) || daily.length == 0) return 0;
+        LocalDate startDay = start.toLocalDate();
+        LocalDate endDay = end.toLocalDate();
+        boolean startFull = start.toLocalTime().equals(LocalTime.MIDNIGHT);
+        boolean endFull = end.toLocalTime().equals(LocalTime.MAX);
+        if (startDay.equals(endDay) && !(startFull && endFull)) return sumExact(start, end);
+
+        long sum = 0;
+        long fromDay = startDay.toEpochDay();
+        long toDay = endDay.toEpochDay();
+        if (!startFull) {
+            sum += sumExact(start, startDay.atTime(LocalTime.MAX));
+            fromDay++;
+        }
+        if (!endFull) {
+            sum += sumExact(endDay.atStartOfDay(), end);
+            toDay--;
+        }
+        return sum + sumDays(fromDay, toDay);
+    }
+
+    /**
+     * Повертає денну виручку за період без перебору замовлень.
+     * @param from перший день (включно).
+     * @param to останній день (включно).
+     * @return масив сум у копійках, по одному елементу на день.
+     */
+    long[] daily(LocalDate from, LocalDate to) {
+        long first = from.toEpochDay();
+        int days = Math.toIntExact(Math.max(0, to.toEpochDay() - first + 1));
+        long[] result = new long[days];
+        if (daily.length == 0) return result;
+        long copyFrom = Math.max(first, baseDay);
+        long copyTo = Math.min(first + days, baseDay + daily.length);
+        if (copyFrom < copyTo) {
+            System.arraycopy(daily, (int) (copyFrom - baseDay), result, (int) (copyFrom - first), (int) (copyTo - copyFrom));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.control;
+
+import com.example.service.SessionType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Спільні екземпляри типів сесій для замовлень, відновлених зі знімка або журналу.
+ * <p>
+ * У файлах замовлення зберігає лише назву типу сесії та свою вартість, тому тип
+ * відновлюється як {@code new SessionType(назва, вартість)}. Без пулу кожне з мільйона
+ * замовлень мало б власний об'єкт; з пулом замовлення з однаковою назвою та вартістю
+ * посилаються на один. Типи сесій незмінні, тож спільне використання безпечне.
+ * <p>
+ * Пул потокобезпечний: замовлення CSV розбираються паралельно.
+ */
+class SessionTypePool {
+
+    /** Ключ типу: назва та базова ціна. */
+    private record Key(String name, double basePrice) { }
+
+    private final Map<Key, SessionType> types = new ConcurrentHashMap<>();
+
+    /**
+     * Повертає спільний тип сесії з вказаною назвою та ціною, створюючи його за потреби.
+     * @param name назва типу.
+     * @param basePrice базова ціна.
+     * @return тип сесії.
+     */
+    SessionType get(String name, double basePrice) {
+        return types.computeIfAbsent(new Key(name, basePrice), k -> new SessionType(name, basePrice));
+    }
+
+    /** @return кількість різних типів у пулі. */
+    int size() {
+        return types.size();
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.control;
+
+import com.example.entity.Client;
+import com.example.entity.Photographer;
+import com.example.model.Order;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Завантажений знімок даних: списки сутностей у порядку файлів та індекси за ID.
+ * Спільний результат для всіх форматів сховища (CSV та двійкового).
+ */
+class Snapshot {
+    final List<Client> clients;
+    final IdTable<Client> clientsById;
+    final List<Photographer> photographers;
+    final IdTable<Photographer> photographersById;
+    final List<Order> orders;
+    final IdTable<Order> ordersById;
+    /** Спільні типи сесій відновлених замовлень. */
+    final SessionTypePool sessionTypes = new SessionTypePool();
+    /** Кількість фотографій, прив'язаних до замовлень. */
+    int photoCount;
+
+    /**
+     * Створює порожній знімок (розмір колекцій невідомий заздалегідь).
+     */
+    Snapshot() {
+        this(16, 16, 16);
+    }
+
+    /**
+     * Створює знімок з колекціями, розрахованими на вказану кількість елементів
+     * (без перебудови хеш-таблиць та масивів під час завантаження).
+     * @param clients очікувана кількість клієнтів.
+     * @param photographers очікувана кількість фотографів.
+     * @param orders очікувана кількість замовлень.
+     */
+    Snapshot(int clients, int photographers, int orders) {
+        this.clients = new ArrayList<>(clients);
+        this.clientsById = new IdTable<>(clients);
+        this.photographers = new ArrayList<>(photographers);
+        this.photographersById = new IdTable<>(photographers);
+        this.orders = new ArrayList<>(orders);
+        this.ordersById = new IdTable<>(orders);
+    }
+}
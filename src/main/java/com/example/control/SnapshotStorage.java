@@ -0,0 +1,87 @@
+package com.example.control;
+
+import com.example.entity.Client;
+import com.example.entity.Photographer;
+import com.example.model.Order;
+import com.example.service.Persistable;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Сховище повного знімка у певному форматі (реалізація {@link Persistable}).
+ * <p>
+ * {@link DataManager} тримає по одному сховищу на кожен {@link StorageFormat}
+ * і делегує вибраному з них запис та читання знімка. Журнал змін не залежить
+ * від формату й програється поверх будь-якого знімка.
+ */
+abstract class SnapshotStorage implements Persistable {
+
+    /** Дані, які зберігає та відновлює це сховище. */
+    private final DataManager data;
+
+    /**
+     * @param data менеджер даних, стан якого зберігається.
+     */
+    SnapshotStorage(DataManager data) {
+        this.data = data;
+    }
+
+    /** @return формат файлів цього сховища. */
+    abstract StorageFormat format();
+
+    /**
+     * Записує повний знімок у директорію.
+     * @param dir директорія даних.
+     * @param clients список клієнтів.
+     * @param photographers список фотографів.
+     * @param orders список замовлень (разом із фотографіями).
+     * @throws IOException у разі помилки запису.
+     */
+    abstract void write(Path dir, List<Client> clients, List<Photographer> photographers, List<Order> orders)
+            throws IOException;
+
+    /**
+     * Читає знімок з директорії. Відсутні файли вважаються порожніми.
+     * @param dir директорія даних.
+     * @return завантажений знімок.
+     * @throws IOException у разі помилки читання або пошкодженого формату.
+     */
+    abstract Snapshot read(Path dir) throws IOException;
+
+    /**
+     * @param dir директорія даних.
+     * @return true, якщо в директорії є файли знімка цього формату.
+     */
+    abstract boolean exists(Path dir);
+
+    /**
+     * Видаляє файли знімка цього формату (після конвертації в інший формат).
+     * @param dir директорія даних.
+     * @throws IOException у разі помилки видалення.
+     */
+    abstract void delete(Path dir) throws IOException;
+
+    /**
+     * Зберігає поточні дані {@link DataManager} у цьому форматі (наприклад, експорт у CSV).
+     * @param path шлях до директорії.
+     * @throws IOException у разі помилки запису.
+     */
+    @Override
+    public void saveDataToFile(String path) throws IOException {
+        data.saveSnapshot(Paths.get(path), this);
+    }
+
+    /**
+     * Замінює дані {@link DataManager} знімком цього формату (наприклад, імпорт з CSV).
+     * Імпортовані дані одразу зберігаються в директорії даних ({@link DataManager#importSnapshot}).
+     * @param path шлях до директорії.
+     * @throws IOException у разі помилки читання або запису.
+     */
+    @Override
+    public void loadDataFromFile(String path) throws IOException {
+        data.importSnapshot(Paths.get(path), this);
+    }
+}
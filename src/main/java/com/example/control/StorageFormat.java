@@ -0,0 +1,11 @@
+package com.example.control;
+
+/**
+ * Формат файлів повного знімка даних.
+ */
+public enum StorageFormat {
+    /** Текстові файли clients/photographers/orders/photos.csv (імпорт, експорт, ручне редагування). */
+    CSV,
+    /** Один двійковий файл {@code studio.bin} (швидкий запуск та збереження). */
+    BINARY
+}
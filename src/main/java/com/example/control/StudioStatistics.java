@@ -0,0 +1,123 @@
+package com.example.control;
+
+import com.example.entity.Client;
+import com.example.model.Order;
+import com.example.util.OrderStatus;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Лічильники для дашборду та звітів, що оновлюються разом зі зміною даних.
+ * <p>
+ * Замість перерахунку потоками по всіх замовленнях і клієнтах при кожному запиті
+ * зберігаються кількість замовлень за статусом, кількість постійних/нових клієнтів
+ * та кількість замовлень за типом сесії з поточним лідером. Усі запити — O(1).
+ * <p>
+ * Методи синхронізовані на власному об'єкті: читання з потоку Swing не чекає на
+ * блокування {@link DataManager}, яке утримується під час запису знімка.
+ */
+class StudioStatistics {
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    /** Кількість замовлень за статусом (індекс — ordinal). */
+    private final long[] ordersByStatus = new long[STATUSES.length];
+
+    private long regularClients;
+    private long newClients;
+
+    /** Кількість замовлень за назвою типу сесії. */
+    private final Map<String, long[]> sessionTypeCounts = new HashMap<>();
+
+    /** Найпопулярніший тип сесії та кількість його замовлень. */
+    private String popularSessionType;
+    private long popularCount;
+
+    /** Скидає всі лічильники (перед повторним завантаженням даних). */
+    synchronized void clear() {
+        Arrays.fill(ordersByStatus, 0);
+        regularClients = 0;
+        newClients = 0;
+        sessionTypeCounts.clear();
+        popularSessionType = null;
+        popularCount = 0;
+    }
+
+    /**
+     * Враховує нового клієнта.
+     * @param c клієнт.
+     */
+    synchronized void clientAdded(Client c) {
+        if (c.isRegular()) regularClients++;
+        else newClients++;
+    }
+
+    /**
+     * Враховує зміну статусу клієнта "постійний".
+     * @param wasRegular статус до зміни.
+     * @param regular статус після зміни.
+     */
+    synchronized void clientRegularChanged(boolean wasRegular, boolean regular) {
+        if (wasRegular == regular) return;
+        long delta = regular ? 1 : -1;
+        regularClients += delta;
+        newClients -= delta;
+    }
+
+    /**
+     * Враховує нове замовлення: його статус та тип сесії.
+     * @param o замовлення.
+     */
+    synchronized void orderAdded(Order o) {
+        ordersByStatus[o.getStatus().ordinal()]++;
+        String name = o.getSessionType().getName();
+        long count = ++sessionTypeCounts.computeIfAbsent(name, k -> new long[1])[0];
+        // Лідер змінюється лише тоді, коли інший тип його перевищив
+        if (count > popularCount) {
+            popularCount = count;
+            popularSessionType = name;
+        }
+    }
+
+    /**
+     * Враховує зміну статусу замовлення.
+     * @param from статус до зміни.
+     * @param to статус після зміни.
+     */
+    synchronized void orderStatusChanged(OrderStatus from, OrderStatus to) {
+        if (from == to) return;
+        ordersByStatus[from.ordinal()]--;
+        ordersByStatus[to.ordinal()]++;
+    }
+
+    /**
+     * @param status статус замовлення.
+     * @return кількість замовлень із цим статусом.
+     */
+    synchronized long getOrdersCount(OrderStatus status) {
+        return ordersByStatus[status.ordinal()];
+    }
+
+    /** @return кількість активних замовлень (NEW або IN_PROGRESS). */
+    synchronized long getActiveOrdersCount() {
+        return ordersByStatus[OrderStatus.NEW.ordinal()] + ordersByStatus[OrderStatus.IN_PROGRESS.ordinal()];
+    }
+
+    /** @return кількість постійних клієнтів. */
+    synchronized long getRegularClientsCount() {
+        return regularClients;
+    }
+
+    /** @return кількість нових клієнтів. */
+    synchronized long getNewClientsCount() {
+        return newClients;
+    }
+
+    /** @return назва найпопулярнішого типу сесії (порожньо, якщо замовлень немає). */
+    synchronized Optional<String> getMostPopularSessionType() {
+        return Optional.ofNullable(popularSessionType);
+    }
+}
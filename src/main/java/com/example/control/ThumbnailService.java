@@ -0,0 +1,377 @@
+package com.example.control;
+
+import com.example.entity.Photo;
+import com.example.model.Order;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Мініатюри фотографій для перегляду без декодування повнорозмірних файлів камери.
+ * <p>
+ * Два рівні кешу:
+ * <ul>
+ * <li>пам'ять — LRU декодованих зображень за ID фото ({@link Photo#getId()}), обмежений сумарним
+ * розміром пікселів ({@link #MEMORY_PROPERTY}, за замовчуванням {@link #DEFAULT_MEMORY_BYTES});
+ * звернення до нього — один пошук у хеш-таблиці під блокуванням;</li>
+ * <li>диск — зменшені JPEG у {@code thumbnails/<розмір>/ab/<ключ>.jpg}, що зберігаються між запусками.
+ * Ключ — хеш вмісту (однаковий вміст у різних замовленнях має одну мініатюру), для фото без
+ * хешу — ID фото; такі мініатюри перебудовуються, якщо файл фото новіший.</li>
+ * </ul>
+ * Мініатюри будуються у фонових потоках. Черга розбита за замовленнями, і першими обробляються
+ * фото замовлення, яке зараз переглядається ({@link #setFocus}). Повнорозмірний JPEG читається
+ * з проріджуванням ({@link ImageReadParam#setSourceSubsampling}), тому декодується лише частина пікселів.
+ */
+public class ThumbnailService {
+
+    /** Назва директорії дискового кешу мініатюр у директорії даних. */
+    public static final String DIR_NAME = "thumbnails";
+
+    /** Системна властивість: обсяг кешу мініатюр у пам'яті (МБ). */
+    public static final String MEMORY_PROPERTY = "photostudio.thumbnails.memoryMb";
+
+    /** Обсяг кешу в пам'яті за замовчуванням (байт). */
+    public static final long DEFAULT_MEMORY_BYTES = 64L << 20;
+
+    /** Найбільша сторона мініатюри за замовчуванням (пікселі). */
+    public static final int DEFAULT_SIZE = 128;
+
+    /** Якість JPEG дискового кешу. */
+    private static final float JPEG_QUALITY = 0.85f;
+
+    /** Завдання побудови мініатюри одного фото. */
+    private record Task(Photo photo, String orderId, CompletableFuture<BufferedImage> result) { }
+
+    private final ContentStore store;
+    private final Path cacheDir;
+    private final int maxSide;
+    private final int workers;
+
+    // --- Кеш у пам'яті (доступ під блокуванням memory) ---
+    private final LinkedHashMap<String, BufferedImage> memory = new LinkedHashMap<>(256, 0.75f, true);
+    private long memoryBudget;
+    private long memoryUsed;
+
+    // --- Черга (доступ під блокуванням queues) ---
+    /** Черги завдань за ID замовлення, у порядку появи замовлень. */
+    private final Map<String, ArrayDeque<Task>> queues = new LinkedHashMap<>();
+    /** Завдання в черзі або в роботі за ID фото (повторний запит отримує той самий результат). */
+    private final Map<String, Task> pending = new HashMap<>();
+    private String focusOrderId;
+    private final List<Thread> threads = new ArrayList<>();
+    private boolean closed;
+
+    /**
+     * Створює службу з кешем у директорії даних, обсягом пам'яті з {@link #MEMORY_PROPERTY}
+     * та одним робочим потоком на ядро (крім одного, залишеного інтерфейсу).
+     * @param data менеджер даних.
+     */
+    public ThumbnailService(DataManager data) {
+        this(data, memoryBudgetFromSystemProperties(), DEFAULT_SIZE,
+                Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    /**
+     * Створює службу мініатюр.
+     * @param data менеджер даних.
+     * @param memoryBudget обсяг кешу в пам'яті (байт).
+     * @param maxSide найбільша сторона мініатюри (пікселі).
+     * @param workers кількість фонових потоків.
+     */
+    public ThumbnailService(DataManager data, long memoryBudget, int maxSide, int workers) {
+        if (memoryBudget < 0) throw new IllegalArgumentException("Обсяг кешу мініатюр не може бути від'ємним");
+        if (maxSide < 16) throw new IllegalArgumentException("Розмір мініатюри має бути не менше 16 пікселів");
+        if (workers < 1) throw new IllegalArgumentException("Потрібен хоча б один потік мініатюр");
+        this.store = data.getContentStore();
+        this.cacheDir = Paths.get(data.getDataDir(), DIR_NAME, String.valueOf(maxSide));
+        this.memoryBudget = memoryBudget;
+        this.maxSide = maxSide;
+        this.workers = workers;
+    }
+
+    /**
+     * Читає обсяг кешу з системної властивості; некоректне значення замінюється типовим.
+     * @return обсяг кешу (байт).
+     */
+    public static long memoryBudgetFromSystemProperties() {
+        String value = System.getProperty(MEMORY_PROPERTY);
+        if (value == null) return DEFAULT_MEMORY_BYTES;
+        try {
+            long mb = Long.parseLong(value.trim());
+            if (mb >= 0) return mb << 20;
+        } catch (NumberFormatException ignored) {
+            // Нижче — повідомлення і типове значення
+        }
+        System.out.println("Некоректний обсяг кешу мініатюр, використовується типовий: " + value);
+        return DEFAULT_MEMORY_BYTES;
+    }
+
+    /**
+     * Повертає мініатюру, лише якщо вона вже в пам'яті (без звернень до диска).
+     * Підходить для виклику під час малювання інтерфейсу.
+     * @param photo фотографія.
+     * @return мініатюра або null.
+     */
+    public BufferedImage getCached(Photo photo) {
+        synchronized (memory) {
+            return memory.get(photo.getId());
+        }
+    }
+
+    /**
+     * Запитує мініатюру. Якщо її немає в пам'яті, завдання стає в чергу замовлення.
+     * Результат — null, якщо файл фото відсутній або його формат не підтримується (наприклад, RAW).
+     * @param order замовлення фото (визначає пріоритет; може бути null).
+     * @param photo фотографія.
+     * @return майбутня мініатюра (виконується у фоновому потоці).
+     */
+    public CompletableFuture<BufferedImage> request(Order order, Photo photo) {
+        BufferedImage cached = getCached(photo);
+        if (cached != null) return CompletableFuture.completedFuture(cached);
+        synchronized (queues) {
+            if (closed) return CompletableFuture.completedFuture(null);
+            Task task = pending.get(photo.getId());
+            if (task != null) return task.result();
+            task = new Task(photo, order != null ? order.getId() : "", new CompletableFuture<>());
+            pending.put(photo.getId(), task);
+            queues.computeIfAbsent(task.orderId(), k -> new ArrayDeque<>()).add(task);
+            if (threads.size() < workers) startWorker();
+            queues.notify();
+            return task.result();
+        }
+    }
+
+    /**
+     * Задає замовлення, що зараз переглядається: його мініатюри будуються раніше за інші.
+     * @param order замовлення або null.
+     */
+    public void setFocus(Order order) {
+        synchronized (queues) {
+            focusOrderId = order != null ? order.getId() : null;
+        }
+    }
+
+    /**
+     * Змінює обсяг кешу в пам'яті; за потреби найдавніше використані мініатюри витісняються.
+     * @param bytes новий обсяг (байт).
+     */
+    public void setMemoryBudget(long bytes) {
+        if (bytes < 0) throw new IllegalArgumentException("Обсяг кешу мініатюр не може бути від'ємним");
+        synchronized (memory) {
+            memoryBudget = bytes;
+            evict();
+        }
+    }
+
+    /** @return обсяг кешу в пам'яті (байт). */
+    public long getMemoryBudget() {
+        synchronized (memory) {
+            return memoryBudget;
+        }
+    }
+
+    /** @return зайнято мініатюрами в пам'яті (байт). */
+    public long getMemoryUsed() {
+        synchronized (memory) {
+            return memoryUsed;
+        }
+    }
+
+    /** @return кількість мініатюр у пам'яті. */
+    public int getCachedCount() {
+        synchronized (memory) {
+            return memory.size();
+        }
+    }
+
+    /**
+     * Зупиняє фонові потоки; завдання в черзі завершуються з результатом null.
+     */
+    public void close() {
+        List<Task> dropped = new ArrayList<>();
+        synchronized (queues) {
+            closed = true;
+            for (ArrayDeque<Task> q : queues.values()) dropped.addAll(q);
+            queues.clear();
+            queues.notifyAll();
+        }
+        for (Task t : dropped) t.result().complete(null);
+    }
+
+    // --- Фонова обробка ---
+
+    private void startWorker() {
+        Thread t = new Thread(this::work, "thumbnail-" + threads.size());
+        t.setDaemon(true);
+        t.setPriority(Thread.NORM_PRIORITY - 1); // Інтерфейс має пріоритет над побудовою мініатюр
+        threads.add(t);
+        t.start();
+    }
+
+    private void work() {
+        while (true) {
+            Task task;
+            synchronized (queues) {
+                while ((task = next()) == null) {
+                    if (closed) return;
+                    try {
+                        queues.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }
+            BufferedImage image = null;
+            try {
+                image = load(task.photo());
+                if (image != null) remember(task.photo().getId(), image);
+            } catch (IOException | RuntimeException e) {
+                System.out.println("Не вдалося побудувати мініатюру " + task.photo().getFilePath() + ": " + e.getMessage());
+            } finally {
+                synchronized (queues) {
+                    pending.remove(task.photo().getId());
+                }
+                task.result().complete(image);
+            }
+        }
+    }
+
+    /** Наступне завдання: спершу з черги замовлення у фокусі, далі — з найдавнішої черги. */
+    private Task next() {
+        ArrayDeque<Task> focused = focusOrderId != null ? queues.get(focusOrderId) : null;
+        if (focused != null && !focused.isEmpty()) return focused.poll();
+        for (Iterator<ArrayDeque<Task>> it = queues.values().iterator(); it.hasNext(); ) {
+            ArrayDeque<Task> q = it.next();
+            Task t = q.poll();
+            if (q.isEmpty()) it.remove();
+            if (t != null) return t;
+        }
+        return null;
+    }
+
+    private void remember(String photoId, BufferedImage image) {
+        synchronized (memory) {
+            BufferedImage old = memory.put(photoId, image);
+            if (old != null) memoryUsed -= bytes(old);
+            memoryUsed += bytes(image);
+            evict();
+        }
+    }
+
+    /** Витісняє найдавніше використані мініатюри, доки кеш не вкладеться в обсяг (під блокуванням memory). */
+    private void evict() {
+        Iterator<BufferedImage> it = memory.values().iterator();
+        while (memoryUsed > memoryBudget && it.hasNext()) {
+            memoryUsed -= bytes(it.next());
+            it.remove();
+        }
+    }
+
+    private static long bytes(BufferedImage image) {
+        DataBuffer buf = image.getRaster().getDataBuffer();
+        return (long) buf.getSize() * buf.getNumBanks() * DataBuffer.getDataTypeSize(buf.getDataType()) / 8;
+    }
+
+    // --- Диск ---
+
+    /**
+     * Читає мініатюру з дискового кешу або будує її з файлу фото.
+     * @return мініатюра або null, якщо будувати немає з чого.
+     */
+    private BufferedImage load(Photo photo) throws IOException {
+        String key = photo.getContentHash() != null ? photo.getContentHash() : photo.getId();
+        Path thumb = cacheDir.resolve(key.substring(0, 2)).resolve(key + ".jpg");
+        Path source = store.resolve(photo.getFilePath());
+        boolean hasSource = Files.isRegularFile(source);
+        if (Files.isRegularFile(thumb) && (!hasSource || photo.getContentHash() != null
+                || Files.getLastModifiedTime(thumb).compareTo(Files.getLastModifiedTime(source)) >= 0)) {
+            BufferedImage cached = ImageIO.read(thumb.toFile());
+            if (cached != null) return cached;
+        }
+        if (!hasSource) return null;
+        BufferedImage image = decodeScaled(source);
+        if (image == null) return null;
+        Files.createDirectories(thumb.getParent());
+        Path part = Files.createTempFile(thumb.getParent(), key, ".part");
+        try {
+            writeJpeg(image, part);
+            Files.move(part, thumb, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(part);
+        }
+        return image;
+    }
+
+    /**
+     * Декодує зображення з проріджуванням (не менше ніж удвічі більше за мініатюру)
+     * і плавно зменшує до розміру мініатюри.
+     * @return мініатюра або null, якщо формат не підтримується.
+     */
+    private BufferedImage decodeScaled(Path source) throws IOException {
+        BufferedImage decoded;
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            if (in == null) return null;
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) return null;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int step = Math.max(1, Math.max(reader.getWidth(0), reader.getHeight(0)) / (2 * maxSide));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                decoded = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+        double scale = Math.min(1.0, (double) maxSide / Math.max(decoded.getWidth(), decoded.getHeight()));
+        int w = Math.max(1, (int) Math.round(decoded.getWidth() * scale));
+        int h = Math.max(1, (int) Math.round(decoded.getHeight() * scale));
+        BufferedImage thumb = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB); // JPEG без прозорості
+        Graphics2D g = thumb.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(decoded, 0, 0, w, h, null);
+        } finally {
+            g.dispose();
+        }
+        return thumb;
+    }
+
+    private static void writeJpeg(BufferedImage image, Path file) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(file.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
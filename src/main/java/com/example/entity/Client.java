@@ -10,9 +10,12 @@ import java.io.Serializable;
 public class Client extends Person implements Serializable {
 
     /**
-     * Електронна пошта клієнта для зв'язку та відправки фото.
+     * Електронна пошта клієнта для зв'язку та відправки фото: частина до останнього "@"
+     * (або вся адреса, якщо "@" немає) та домен. Домени повторюються в тисяч клієнтів,
+     * тому зберігаються одним спільним рядком ({@link String#intern()}).
      */
-    private String email;
+    private String emailLocal;
+    private String emailDomain;
 
     /**
      * Прапорець статусу клієнта.
@@ -30,21 +33,39 @@ public class Client extends Person implements Serializable {
      */
     public Client(String name, String phoneNumber, String email, boolean isRegular) {
         super(name, phoneNumber); // Ініціалізація полів базового класу Person
-        this.email = email;
+        setEmail(email);
         this.isRegular = isRegular;
     }
 
+    /**
+     * Конструктор копії (з тим самим ID).
+     *
+     * @param other клієнт, поля якого копіюються.
+     */
+    public Client(Client other) {
+        super(other);
+        this.emailLocal = other.emailLocal;
+        this.emailDomain = other.emailDomain;
+        this.isRegular = other.isRegular;
+    }
+
     /**
      * Отримує електронну пошту клієнта.
      * @return рядок з email адресою.
      */
-    public String getEmail() { return email; }
+    public String getEmail() {
+        return emailDomain == null ? emailLocal : emailLocal + "@" + emailDomain;
+    }
 
     /**
      * Встановлює або оновлює електронну пошту клієнта.
      * @param email нова адреса електронної пошти.
      */
-    public void setEmail(String email) { this.email = email; }
+    public void setEmail(String email) {
+        int at = email == null ? -1 : email.lastIndexOf('@');
+        emailLocal = at < 0 ? email : email.substring(0, at);
+        emailDomain = at < 0 ? null : email.substring(at + 1).intern();
+    }
 
     /**
      * Перевіряє, чи є клієнт постійним.
@@ -46,6 +46,21 @@ public class Payment implements Serializable {
         this.paymentDate = LocalDateTime.now(); // Фіксуємо час створення об'єкта як час оплати
     }
 
+    /**
+     * Конструктор для відновлення збереженого платежу (читання з журналу платежів).
+     *
+     * @param id          ID транзакції.
+     * @param orderId     ID пов'язаного замовлення.
+     * @param amount      Сума оплати.
+     * @param paymentDate Дата та час проведення платежу.
+     */
+    public Payment(String id, String orderId, double amount, LocalDateTime paymentDate) {
+        this.id = id;
+        this.orderId = orderId;
+        this.amount = amount;
+        this.paymentDate = paymentDate;
+    }
+
     // --- Геттери ---
 
     /**
@@ -1,5 +1,7 @@
 package com.example.entity;
 
+import com.example.util.CompactId;
+
 import java.io.Serializable;
 import java.util.UUID;
 
@@ -11,10 +13,13 @@ import java.util.UUID;
 public abstract class Person implements Serializable {
 
     /**
-     * Унікальний ідентифікатор особи (UUID).
+     * Унікальний ідентифікатор особи (UUID) у компактній формі (див. {@link CompactId}):
+     * два long для канонічного UUID, рядок — для будь-якого іншого ID.
      * Генерується автоматично при створенні нового об'єкта або відновлюється з файлу.
      */
-    protected String id;
+    private long idHigh;
+    private long idLow;
+    private String idText;
 
     /**
      * Повне ім'я (ПІБ) особи.
@@ -36,11 +41,26 @@ public abstract class Person implements Serializable {
      */
     public Person(String name, String phoneNumber) {
         // Автоматична генерація унікального ID за допомогою UUID
-        this.id = UUID.randomUUID().toString();
+        UUID uuid = UUID.randomUUID();
+        this.idHigh = uuid.getMostSignificantBits();
+        this.idLow = uuid.getLeastSignificantBits();
         this.name = name;
         this.phoneNumber = phoneNumber;
     }
 
+    /**
+     * Конструктор копії (з тим самим ID), наприклад для запису знімка поза блокуванням даних.
+     *
+     * @param other особа, поля якої копіюються.
+     */
+    protected Person(Person other) {
+        this.idHigh = other.idHigh;
+        this.idLow = other.idLow;
+        this.idText = other.idText;
+        this.name = other.name;
+        this.phoneNumber = other.phoneNumber;
+    }
+
     /**
      * Встановлює ідентифікатор вручну.
      * Цей метод критично важливий для відновлення цілісності даних
@@ -49,15 +69,21 @@ public abstract class Person implements Serializable {
      * @param id рядок з унікальним ідентифікатором.
      */
     public void setId(String id) {
-        this.id = id;
+        if (CompactId.isCanonical(id)) {
+            idHigh = CompactId.high(id);
+            idLow = CompactId.low(id);
+            idText = null;
+        } else {
+            idText = id;
+        }
     }
 
     /**
-     * Отримує унікальний ідентифікатор особи.
+     * Отримує унікальний ідентифікатор особи (рядок UUID форматується на вимогу).
      * @return рядок ID.
      */
     public String getId() {
-        return id;
+        return idText != null ? idText : CompactId.format(idHigh, idLow);
     }
 
     /**
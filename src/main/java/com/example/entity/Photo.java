@@ -1,5 +1,7 @@
 package com.example.entity;
 
+import com.example.util.CompactId;
+
 import java.io.Serializable;
 import java.util.UUID;
 
@@ -11,15 +13,34 @@ import java.util.UUID;
 public class Photo implements Serializable {
 
     /**
-     * Унікальний ідентифікатор фотографії.
+     * Унікальний ідентифікатор фотографії: два long для канонічного UUID,
+     * рядок — для будь-якого іншого ID (див. {@link CompactId}).
      */
-    private String id;
+    private long idHigh;
+    private long idLow;
+    private String idText;
 
     /**
      * Шлях до файлу зображення або його назва у файловій системі.
      */
     private String filePath;
 
+    /**
+     * Розмір файлу в байтах (-1 — невідомий, наприклад для фото, доданих до появи імпорту).
+     */
+    private long size = -1;
+
+    /**
+     * Контрольна сума вмісту файлу (SHA-256, 64 шістнадцяткові цифри) або null, якщо невідома.
+     */
+    private String contentHash;
+
+    /**
+     * Назва файлу з фотоапарата (наприклад, IMG_0001.JPG) або null, якщо файл не перейменовувався.
+     * Після перенесення у сховище за вмістом шлях містить лише хеш, тому назва зберігається окремо.
+     */
+    private String originalName;
+
     /**
      * Конструктор для створення нового об'єкта фотографії.
      * Автоматично генерує унікальний ідентифікатор (UUID).
@@ -27,16 +48,46 @@ public class Photo implements Serializable {
      * @param filePath шлях до файлу або назва файлу.
      */
     public Photo(String filePath) {
-        this.id = UUID.randomUUID().toString();
+        UUID uuid = UUID.randomUUID();
+        this.idHigh = uuid.getMostSignificantBits();
+        this.idLow = uuid.getLeastSignificantBits();
         this.filePath = filePath;
     }
 
+    /**
+     * Конструктор для фотографії, імпортованої у сховище студії (розмір і хеш уже обчислені).
+     *
+     * @param filePath    шлях до файлу у сховищі.
+     * @param size        розмір файлу в байтах.
+     * @param contentHash SHA-256 вмісту (шістнадцятковий рядок).
+     */
+    public Photo(String filePath, long size, String contentHash) {
+        this(filePath);
+        this.size = size;
+        this.contentHash = contentHash;
+    }
+
+    /**
+     * Конструктор копії (з тим самим ID).
+     *
+     * @param other фотографія, поля якої копіюються.
+     */
+    public Photo(Photo other) {
+        this.idHigh = other.idHigh;
+        this.idLow = other.idLow;
+        this.idText = other.idText;
+        this.filePath = other.filePath;
+        this.size = other.size;
+        this.contentHash = other.contentHash;
+        this.originalName = other.originalName;
+    }
+
     /**
      * Отримує унікальний ідентифікатор фотографії.
      * @return рядок з ID.
      */
     public String getId() {
-        return id;
+        return idText != null ? idText : CompactId.format(idHigh, idLow);
     }
 
     /**
@@ -57,6 +108,61 @@ public class Photo implements Serializable {
         this.filePath = filePath;
     }
 
+    /**
+     * Отримує розмір файлу.
+     * @return розмір у байтах або -1, якщо невідомий.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Отримує контрольну суму вмісту файлу.
+     * @return SHA-256 у шістнадцятковому вигляді або null, якщо невідома.
+     */
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    /**
+     * Встановлює розмір і контрольну суму вмісту (відновлення зі сховища або після перевірки файлу).
+     *
+     * @param size        розмір у байтах (-1 — невідомий).
+     * @param contentHash SHA-256 у шістнадцятковому вигляді або null.
+     */
+    public void setContent(long size, String contentHash) {
+        this.size = size;
+        this.contentHash = contentHash;
+    }
+
+    /**
+     * Отримує назву файлу з фотоапарата.
+     * @return назва або null, якщо вона збігається з назвою у шляху.
+     */
+    public String getOriginalName() {
+        return originalName;
+    }
+
+    /**
+     * Встановлює назву файлу з фотоапарата. Кома та переведення рядка замінюються на "_"
+     * (назва зберігається у CSV без екранування).
+     *
+     * @param originalName назва файлу або null.
+     */
+    public void setOriginalName(String originalName) {
+        this.originalName = originalName == null ? null : originalName.replaceAll("[,\\r\\n]", "_");
+    }
+
+    /**
+     * Назва для показу персоналу: назва з фотоапарата, а якщо її немає — остання частина шляху.
+     * @return назва файлу.
+     */
+    public String getDisplayName() {
+        if (originalName != null) return originalName;
+        int slash = Math.max(filePath.lastIndexOf('/'), filePath.lastIndexOf('\\'));
+        return filePath.substring(slash + 1);
+    }
+
     /**
      * Повертає строкове представлення об'єкта фотографії.
      * Зручно для логування та налагодження.
@@ -64,7 +170,7 @@ public class Photo implements Serializable {
      */
     @Override
     public String toString() {
-        return "Photo[ID=" + id + ", Path=" + filePath + "]";
+        return "Photo[ID=" + getId() + ", Path=" + filePath + "]";
     }
 
     /**
@@ -75,6 +181,12 @@ public class Photo implements Serializable {
      * @param id рядок з ідентифікатором.
      */
     public void setId(String id) {
-        this.id = id;
+        if (CompactId.isCanonical(id)) {
+            idHigh = CompactId.high(id);
+            idLow = CompactId.low(id);
+            idText = null;
+        } else {
+            idText = id;
+        }
     }
 }
\ No newline at end of file
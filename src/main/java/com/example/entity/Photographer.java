@@ -32,11 +32,23 @@ public class Photographer extends Person implements Serializable {
      */
     public Photographer(String name, String phoneNumber, String specialization) {
         super(name, phoneNumber); // Виклик конструктора базового класу Person
-        this.specialization = specialization;
+        // Спеціалізацій небагато, тож рядок спільний для всіх фотографів з нею
+        this.specialization = specialization == null ? null : specialization.intern();
         // Об'єкт розкладу створюється разом з фотографом (жорстка композиція)
         this.schedule = new Schedule();
     }
 
+    /**
+     * Конструктор копії (з тим самим ID). Розклад не копіюється — копія посилається на розклад оригіналу.
+     *
+     * @param other фотограф, поля якого копіюються.
+     */
+    public Photographer(Photographer other) {
+        super(other);
+        this.specialization = other.specialization;
+        this.schedule = other.schedule;
+    }
+
     /**
      * Отримує спеціалізацію фотографа.
      * @return рядок з назвою спеціалізації.
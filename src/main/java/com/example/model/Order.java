@@ -3,11 +3,14 @@ package com.example.model;
 import com.example.entity.Client;
 import com.example.entity.Photo;
 import com.example.entity.Photographer;
+import com.example.util.CompactId;
 import com.example.util.OrderStatus;
+import com.example.service.LoyaltyPolicy;
 import com.example.service.SessionType;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -21,14 +24,20 @@ import java.util.UUID;
  * <li><b>Асоціація:</b> посилання на {@link Client} та {@link Photographer} (існують незалежно від замовлення).</li>
  * <li><b>Композиція:</b> {@link SessionType} та список {@link Photo} (є частиною замовлення).</li>
  * </ul>
+ * Замовлень у базі найбільше, тому поля зберігаються компактно: ID — двома long
+ * (див. {@link CompactId}), дата — секундами та наносекундами, список фото створюється
+ * лише при першому зверненні. Публічні геттери повертають звичні рядок та {@link LocalDateTime}.
  */
 public class Order implements Serializable {
 
-    /** Унікальний ідентифікатор замовлення (UUID). */
-    private String id;
+    /** Унікальний ідентифікатор замовлення (UUID): два long або рядок для неканонічного ID. */
+    private long idHigh;
+    private long idLow;
+    private String idText;
 
-    /** Дата та час створення замовлення. */
-    private LocalDateTime orderDate;
+    /** Дата та час замовлення: секунди епохи (дата-час як UTC) та наносекунди. */
+    private long orderSecond;
+    private int orderNano;
 
     /** Поточний статус виконання (наприклад, NEW, PAID). */
     private OrderStatus status;
@@ -45,7 +54,7 @@ public class Order implements Serializable {
     /** Тип обраної фотосесії (містить назву та базову ціну). */
     private SessionType sessionType;
 
-    /** Список готових фотографій, прив'язаних до цього замовлення. */
+    /** Список готових фотографій, прив'язаних до цього замовлення (null — фото ще не було). */
     private List<Photo> photos;
 
     /**
@@ -57,27 +66,56 @@ public class Order implements Serializable {
      * @param sessionType  Тип послуги.
      */
     public Order(Client client, Photographer photographer, SessionType sessionType) {
-        this.id = UUID.randomUUID().toString();
+        UUID uuid = UUID.randomUUID();
+        this.idHigh = uuid.getMostSignificantBits();
+        this.idLow = uuid.getLeastSignificantBits();
         this.client = client;
         this.photographer = photographer;
         this.sessionType = sessionType;
-        this.orderDate = LocalDateTime.now();
+        setOrderDate(LocalDateTime.now());
         this.status = OrderStatus.NEW; // Початковий статус завжди "Новий"
-        this.photos = new ArrayList<>(); // Ініціалізація порожнього списку для майбутніх фото
-        this.totalCost = calculateTotalCost(); // Автоматичний розрахунок ціни при створенні
+        this.totalCost = calculateTotalCost(LoyaltyPolicy.DEFAULT); // Автоматичний розрахунок ціни при створенні
+    }
+
+    /**
+     * Конструктор копії (з тим самим ID та копіями фотографій), наприклад для запису знімка
+     * поза блокуванням даних. Клієнт і фотограф задаються окремо, щоб копія посилалася на їхні копії.
+     *
+     * @param other        замовлення, поля якого копіюються.
+     * @param client       клієнт копії.
+     * @param photographer фотограф копії.
+     */
+    public Order(Order other, Client client, Photographer photographer) {
+        this.idHigh = other.idHigh;
+        this.idLow = other.idLow;
+        this.idText = other.idText;
+        this.orderSecond = other.orderSecond;
+        this.orderNano = other.orderNano;
+        this.status = other.status;
+        this.totalCost = other.totalCost;
+        this.client = client;
+        this.photographer = photographer;
+        this.sessionType = other.sessionType;
+        if (other.hasPhotos()) {
+            this.photos = new ArrayList<>(other.photos.size());
+            for (Photo photo : other.photos) this.photos.add(new Photo(photo));
+        }
     }
 
     /**
      * Розраховує фінальну вартість замовлення.
      * Перевіряє статус лояльності клієнта: якщо клієнт є постійним (isRegular),
-     * застосовується знижка 10% від базової вартості типу сесії.
+     * застосовується знижка правила лояльності від базової вартості типу сесії.
+     * Конструктор рахує за типовим правилом ({@link LoyaltyPolicy#DEFAULT}, 10%);
+     * чинне правило студії дає {@code DataManager.getLoyaltyPolicy()}.
      *
+     * @param policy правило лояльності.
      * @return розрахована сума до сплати.
      */
-    public double calculateTotalCost() {
+    public double calculateTotalCost(LoyaltyPolicy policy) {
         double currentCost = sessionType.getBasePrice();
         if (client.isRegular()) {
-            currentCost *= 0.90; // Знижка 10%
+            currentCost = policy.applyDiscount(currentCost);
         }
         this.totalCost = currentCost;
         return totalCost;
@@ -90,10 +128,22 @@ public class Order implements Serializable {
      * @param id унікальний ідентифікатор.
      */
     public void setId(String id) {
-        this.id = id;
+        if (CompactId.isCanonical(id)) {
+            idHigh = CompactId.high(id);
+            idLow = CompactId.low(id);
+            idText = null;
+        } else {
+            idText = id;
+        }
     }
 
-    public String getId() { return id; }
+    /**
+     * Повертає ID замовлення (рядок UUID форматується на вимогу).
+     * @return рядок ID.
+     */
+    public String getId() {
+        return idText != null ? idText : CompactId.format(idHigh, idLow);
+    }
 
     public Client getClient() { return client; }
 
@@ -114,10 +164,17 @@ public class Order implements Serializable {
      * @param orderDate дата створення.
      */
     public void setOrderDate(LocalDateTime orderDate) {
-        this.orderDate = orderDate;
+        this.orderSecond = orderDate.toEpochSecond(ZoneOffset.UTC);
+        this.orderNano = orderDate.getNano();
     }
 
-    public LocalDateTime getOrderDate() { return orderDate; }
+    public LocalDateTime getOrderDate() { return LocalDateTime.ofEpochSecond(orderSecond, orderNano, ZoneOffset.UTC); }
+
+    /**
+     * Повертає дату замовлення як секунди епохи (дата-час трактується як UTC) без створення об'єктів.
+     * @return секунди епохи.
+     */
+    public long getOrderEpochSecond() { return orderSecond; }
 
     /**
      * Встановлює вартість вручну (використовується при відновленні з файлу).
@@ -131,18 +188,29 @@ public class Order implements Serializable {
 
     /**
      * Повертає список фотографій.
-     * Дозволяє додавати нові фото до замовлення.
+     * Дозволяє додавати нові фото до замовлення; список створюється при першому зверненні,
+     * тому для лише читання варто спершу перевірити {@link #hasPhotos()}.
      * @return список об'єктів Photo.
      */
-    public List<Photo> getPhotos() { return photos; }
+    public List<Photo> getPhotos() {
+        if (photos == null) photos = new ArrayList<>(1);
+        return photos;
+    }
+
+    /**
+     * Перевіряє наявність фото без створення порожнього списку.
+     * @return true, якщо до замовлення прив'язано хоча б одне фото.
+     */
+    public boolean hasPhotos() { return photos != null && !photos.isEmpty(); }
 
     /**
-     * Повертає коротке строкове представлення замовлення для списків UI.
+     * Повертає строкове представлення замовлення (для логів і налагодження).
+     * Містить повний ID: фіксований префікс може збігатися в різних замовлень, а скорочений
+     * ID для інтерфейсу дає {@link com.example.control.DataManager#getShortOrderId(Order)}.
      * @return рядок у форматі "Замовлення [ID] | [Ім'я клієнта] | [Статус]".
      */
     @Override
     public String toString() {
-        // substring(0, 8) використовується для скорочення довгого UUID
-        return "Замовлення " + id.substring(0, 8) + " | " + client.getName() + " | " + status;
+        return "Замовлення " + getId() + " | " + client.getName() + " | " + status;
     }
 }
\ No newline at end of file
@@ -0,0 +1,174 @@
+package com.example.service;
+
+import com.example.entity.Photographer;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Сітка вільних слотів фотографів за період (наприклад, тижнева сітка бронювання).
+ * <p>
+ * Будується за один прохід по розкладах ({@link Schedule}): для кожного фотографа
+ * та дня вільні слоти = {@code робочі години AND NOT зайняті}, а маска "вільний
+ * хоча б один фотограф" — OR вільних масок усіх фотографів. Дні без бронювань
+ * у розкладі не зберігаються, тому вартість побудови залежить від кількості
+ * фотографів, днів періоду та заброньованих днів, а не від історії замовлень.
+ */
+public class FreeSlotGrid {
+
+    private static final int W = Schedule.WORDS_PER_DAY;
+
+    /** Перший день періоду. */
+    private final LocalDate from;
+
+    /** Кількість днів періоду. */
+    private final int days;
+
+    /** Фотографи у порядку рядків сітки. */
+    private final List<Photographer> photographers;
+
+    /** Номер рядка сітки для кожного фотографа. */
+    private final Map<Photographer, Integer> rows;
+
+    /** Вільні слоти: [фотограф][день * WORDS_PER_DAY + слово]. */
+    private final long[][] free;
+
+    /** Слоти, у які вільний хоча б один фотограф: [день * WORDS_PER_DAY + слово]. */
+    private final long[] anyFree;
+
+    /**
+     * Будує сітку вільних слотів.
+     * @param from перший день періоду (включно).
+     * @param to останній день періоду (включно).
+     * @param photographers фотографи (рядки сітки).
+     * @param workMask маска робочих слотів доби (див. {@link Schedule#mask}).
+     */
+    public FreeSlotGrid(LocalDate from, LocalDate to, List<Photographer> photographers, long[] workMask) {
+        this.from = from;
+        this.days = (int) Math.max(0, ChronoUnit.DAYS.between(from, to) + 1);
+        this.photographers = List.copyOf(photographers);
+        this.rows = new IdentityHashMap<>(photographers.size());
+        this.free = new long[photographers.size()][];
+        this.anyFree = new long[days * W];
+
+        for (int p = 0; p < this.photographers.size(); p++) {
+            Photographer ph = this.photographers.get(p);
+            rows.put(ph, p);
+            long[] row = new long[days * W];
+            for (int d = 0; d < days; d++) System.arraycopy(workMask, 0, row, d * W, W);
+            // Лише заброньовані дні відрізняються від робочої маски
+            for (Map.Entry<LocalDate, long[]> e : ph.getSchedule().getBookedDays(from, to).entrySet()) {
+                int base = (int) ChronoUnit.DAYS.between(from, e.getKey()) * W;
+                long[] booked = e.getValue();
+                for (int w = 0; w < W; w++) row[base + w] &= ~booked[w];
+            }
+            for (int i = 0; i < row.length; i++) anyFree[i] |= row[i];
+            free[p] = row;
+        }
+    }
+
+    /** @return перший день періоду. */
+    public LocalDate getFrom() { return from; }
+
+    /** @return кількість днів періоду. */
+    public int getDays() { return days; }
+
+    /** @return фотографи у порядку рядків сітки. */
+    public List<Photographer> getPhotographers() { return photographers; }
+
+    /**
+     * Перевіряє, чи вільний фотограф у слоті.
+     * @param p фотограф із сітки.
+     * @param day день періоду.
+     * @param slot номер слота в добі (0 .. {@link Schedule#SLOTS_PER_DAY} - 1).
+     * @return true, якщо слот вільний.
+     */
+    public boolean isFree(Photographer p, LocalDate day, int slot) {
+        int base = dayBase(day);
+        Integer row = rows.get(p);
+        return base >= 0 && row != null && (free[row][base + (slot >>> 6)] >>> (slot & 63) & 1) != 0;
+    }
+
+    /**
+     * Повертає час початку вільних слотів фотографа за день.
+     * @param p фотограф із сітки.
+     * @param day день періоду.
+     * @return час початку кожного вільного слота.
+     */
+    public List<LocalTime> getFreeSlots(Photographer p, LocalDate day) {
+        return times(rowMask(p, day));
+    }
+
+    /**
+     * Повертає моменти, з яких фотограф вільний на всю сесію вказаної тривалості
+     * (послідовність вільних слотів у межах дня).
+     * @param p фотограф із сітки.
+     * @param day день періоду.
+     * @param minutes тривалість сесії (хв).
+     * @return час можливого початку сесії.
+     */
+    public List<LocalTime> getSessionStarts(Photographer p, LocalDate day, int minutes) {
+        long[] mask = rowMask(p, day);
+        int slots = (minutes + Schedule.SLOT_MINUTES - 1) / Schedule.SLOT_MINUTES;
+        // Слот i підходить, якщо вільні слоти i .. i + slots - 1: AND маски з її зсувами
+        long[] fits = mask.clone();
+        for (int shift = 1; shift < slots; shift++) {
+            for (int w = 0; w < W; w++) fits[w] &= shiftedWord(mask, w, shift);
+        }
+        return times(fits);
+    }
+
+    /**
+     * Повертає час початку слотів, у які вільний хоча б один фотограф.
+     * @param day день періоду.
+     * @return час початку слотів.
+     */
+    public List<LocalTime> getAnyFreeSlots(LocalDate day) {
+        int base = dayBase(day);
+        long[] mask = new long[W];
+        if (base >= 0) System.arraycopy(anyFree, base, mask, 0, W);
+        return times(mask);
+    }
+
+    /** Копія маски вільних слотів фотографа за день (порожня поза періодом). */
+    private long[] rowMask(Photographer p, LocalDate day) {
+        long[] mask = new long[W];
+        int base = dayBase(day);
+        Integer row = rows.get(p);
+        if (base >= 0 && row != null) System.arraycopy(free[row], base, mask, 0, W);
+        return mask;
+    }
+
+    /** Зміщення дня в масивах масок або -1, якщо день поза періодом. */
+    private int dayBase(LocalDate day) {
+        long d = ChronoUnit.DAYS.between(from, day);
+        return d >= 0 && d < days ? (int) d * W : -1;
+    }
+
+    /** Слово w маски, зсунутої на shift біт до молодших (біт i результату = біт i + shift маски). */
+    private static long shiftedWord(long[] mask, int w, int shift) {
+        int wordShift = shift >>> 6, bitShift = shift & 63;
+        int src = w + wordShift;
+        if (src >= W) return 0;
+        long lo = mask[src] >>> bitShift;
+        long hi = bitShift != 0 && src + 1 < W ? mask[src + 1] << (64 - bitShift) : 0;
+        return lo | hi;
+    }
+
+    /** Перетворює маску дня на час початку встановлених слотів. */
+    private static List<LocalTime> times(long[] mask) {
+        List<LocalTime> result = new ArrayList<>();
+        for (int w = 0; w < W; w++) {
+            for (long bits = mask[w]; bits != 0; bits &= bits - 1) {
+                int slot = w * 64 + Long.numberOfTrailingZeros(bits);
+                if (slot < Schedule.SLOTS_PER_DAY) result.add(Schedule.slotStart(slot));
+            }
+        }
+        return result;
+    }
+}
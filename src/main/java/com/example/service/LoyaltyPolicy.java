@@ -0,0 +1,89 @@
+package com.example.service;
+
+import java.io.Serializable;
+
+/**
+ * Правило програми лояльності: скільки оплачених замовлень потрібно для статусу
+ * "Постійний клієнт" і яку знижку цей статус дає.
+ * <p>
+ * Об'єкт незмінний. Чинне правило зберігає {@code DataManager} і передає його в розрахунок
+ * вартості замовлення ({@code Order.calculateTotalCost(LoyaltyPolicy)}) та в перевірку статусу клієнта.
+ * Початкове значення читається з системних властивостей {@link #THRESHOLD_PROPERTY} та
+ * {@link #DISCOUNT_PROPERTY}; без них діє колишнє правило — 3 замовлення та 10%.
+ */
+public final class LoyaltyPolicy implements Serializable {
+
+    /** Системна властивість: кількість оплачених замовлень для статусу постійного клієнта. */
+    public static final String THRESHOLD_PROPERTY = "photostudio.loyalty.threshold";
+
+    /** Системна властивість: знижка постійного клієнта у відсотках. */
+    public static final String DISCOUNT_PROPERTY = "photostudio.loyalty.discount";
+
+    /** Правило за замовчуванням: 3 оплачених замовлення, знижка 10%. */
+    public static final LoyaltyPolicy DEFAULT = new LoyaltyPolicy(3, 10);
+
+    /** Кількість оплачених замовлень, з якої клієнт стає постійним. */
+    private final int threshold;
+
+    /** Знижка постійного клієнта (%). */
+    private final double discountPercent;
+
+    /**
+     * Створює правило лояльності.
+     * @param threshold кількість оплачених замовлень для статусу постійного клієнта (не менше 1).
+     * @param discountPercent знижка у відсотках (від 0 до 100).
+     * @throws IllegalArgumentException якщо параметри поза допустимими межами.
+     */
+    public LoyaltyPolicy(int threshold, double discountPercent) {
+        if (threshold < 1) throw new IllegalArgumentException("Поріг лояльності має бути не менше 1: " + threshold);
+        if (!(discountPercent >= 0 && discountPercent <= 100)) {
+            throw new IllegalArgumentException("Знижка має бути від 0 до 100%: " + discountPercent);
+        }
+        this.threshold = threshold;
+        this.discountPercent = discountPercent;
+    }
+
+    /**
+     * Читає правило з системних властивостей; некоректні значення замінюються типовими.
+     * @return правило лояльності.
+     */
+    public static LoyaltyPolicy fromSystemProperties() {
+        try {
+            return new LoyaltyPolicy(
+                    Integer.parseInt(System.getProperty(THRESHOLD_PROPERTY, String.valueOf(DEFAULT.threshold))),
+                    Double.parseDouble(System.getProperty(DISCOUNT_PROPERTY, String.valueOf(DEFAULT.discountPercent))));
+        } catch (IllegalArgumentException e) {
+            System.out.println("Некоректне правило лояльності, використовується типове: " + e.getMessage());
+            return DEFAULT;
+        }
+    }
+
+    /** @return кількість оплачених замовлень для статусу постійного клієнта. */
+    public int getThreshold() { return threshold; }
+
+    /** @return знижка постійного клієнта (%). */
+    public double getDiscountPercent() { return discountPercent; }
+
+    /**
+     * Перевіряє, чи достатньо оплачених замовлень для статусу постійного клієнта.
+     * @param paidOrders кількість оплачених замовлень.
+     * @return true, якщо поріг досягнуто.
+     */
+    public boolean qualifies(long paidOrders) {
+        return paidOrders >= threshold;
+    }
+
+    /**
+     * Застосовує знижку постійного клієнта.
+     * @param basePrice базова вартість (грн).
+     * @return вартість зі знижкою.
+     */
+    public double applyDiscount(double basePrice) {
+        return basePrice * (100 - discountPercent) / 100;
+    }
+
+    @Override
+    public String toString() {
+        return "від " + threshold + " оплачених замовлень — знижка " + discountPercent + "%";
+    }
+}
@@ -31,4 +31,19 @@ public interface Persistable {
      * @throws IOException Виникає у разі помилок читання файлу або некоректного формату даних.
      */
     void loadDataFromFile(String path) throws IOException;
+
+    /**
+     * Ущільнює сховище: переносить накопичені інкрементальні зміни (журнал)
+     * у новий повний знімок даних.
+     * <p>
+     * Реалізації, що працюють у режимі журналу, дописують зміни в кінець файлу
+     * замість повного перезапису, а цей метод періодично "згортає" журнал.
+     * Реалізація за замовчуванням просто зберігає повний знімок.
+     *
+     * @param path Шлях до директорії з файлами даних.
+     * @throws IOException Виникає у разі помилок запису знімка.
+     */
+    default void compact(String path) throws IOException {
+        saveDataToFile(path);
+    }
 }
\ No newline at end of file
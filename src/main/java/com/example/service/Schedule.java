@@ -2,9 +2,12 @@ package com.example.service;
 
 import java.io.Serializable;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.NavigableMap;
+import java.util.TreeMap;
 
 /**
  * Клас для управління робочим графіком та перевірки зайнятості.
@@ -12,29 +15,146 @@ import java.util.Map;
  * <p>
  * Цей клас відповідає за зберігання інформації про заброньовані часові слоти
  * та дозволяє уникнути накладання замовлень на один і той самий час.
+ * <p>
+ * Доба поділена на слоти по {@value #SLOT_MINUTES} хвилин ({@value #SLOTS_PER_DAY} слоти).
+ * Зайнятість одного дня зберігається як бітова маска у {@value #WORDS_PER_DAY} словах {@code long}
+ * (біт i — слот, що починається о {@code i * 15} хвилині доби), тому перевірка й об'єднання
+ * розкладів кількох фотографів зводяться до побітових операцій AND/OR.
  */
 public class Schedule implements Serializable {
 
+    /** Тривалість одного слота (хв). */
+    public static final int SLOT_MINUTES = 15;
+
+    /** Кількість слотів у добі. */
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+
+    /** Кількість слів long у масці одного дня. */
+    public static final int WORDS_PER_DAY = (SLOTS_PER_DAY + 63) / 64;
+
     /**
      * Основна структура даних для зберігання розкладу.
-     * Використовується вкладена мапа (Nested Map):
      * <ul>
-     * <li><b>Зовнішній ключ (LocalDate):</b> Дата зйомки.</li>
-     * <li><b>Внутрішній ключ (LocalTime):</b> Час початку зйомки.</li>
-     * <li><b>Значення (String):</b> ID замовлення, яке зарезервувало цей слот.</li>
+     * <li><b>Ключ (LocalDate):</b> Дата зйомки (лише дні, що мають бронювання).</li>
+     * <li><b>Значення (long[]):</b> Бітова маска зайнятих слотів цього дня.</li>
      * </ul>
      */
-    private Map<LocalDate, Map<LocalTime, String>> bookedSlots;
+    private NavigableMap<LocalDate, long[]> bookedSlots;
 
     /**
      * Конструктор за замовчуванням.
-     * Ініціалізує порожній графік (HashMap) при створенні нового фотографа.
+     * Ініціалізує порожній графік (TreeMap) при створенні нового фотографа.
      */
     public Schedule() {
-        this.bookedSlots = new HashMap<>();
+        this.bookedSlots = new TreeMap<>();
     }
 
-    // Методи для перевірки доступності та бронювання (закоментовані згідно з планом розробки)
-    // public boolean checkAvailability(LocalDate date, LocalTime time) { ... }
-    // public void reserveSlot(LocalDate date, LocalTime time, String orderId) { ... }
-}
\ No newline at end of file
+    /**
+     * Позначає зайнятими слоти, які перетинає сесія {@code [start, start + minutes)}.
+     * Сесія, що переходить через північ, займає слоти обох днів.
+     * @param start початок сесії.
+     * @param minutes тривалість сесії (хв).
+     */
+    public void reserve(LocalDateTime start, int minutes) {
+        LocalDateTime end = start.plusMinutes(minutes);
+        LocalDate day = start.toLocalDate();
+        int from = floorSlot(start.toLocalTime());
+        while (true) {
+            boolean lastDay = day.equals(end.toLocalDate());
+            int to = lastDay ? ceilSlot(end.toLocalTime()) : SLOTS_PER_DAY;
+            if (to > from) setRange(bookedSlots.computeIfAbsent(day, d -> new long[WORDS_PER_DAY]), from, to);
+            if (lastDay) break;
+            day = day.plusDays(1);
+            from = 0;
+        }
+    }
+
+    /**
+     * Звільняє всі слоти дня (для перебудови дня після зміни чи видалення бронювання).
+     * @param day дата.
+     */
+    public void clearDay(LocalDate day) {
+        bookedSlots.remove(day);
+    }
+
+    /**
+     * Перевіряє, чи вільні всі слоти, які перетинає сесія {@code [start, start + minutes)}.
+     * @param start початок сесії.
+     * @param minutes тривалість сесії (хв).
+     * @return true, якщо жоден слот не зайнятий.
+     */
+    public boolean isFree(LocalDateTime start, int minutes) {
+        LocalDateTime end = start.plusMinutes(minutes);
+        LocalDate day = start.toLocalDate();
+        int from = floorSlot(start.toLocalTime());
+        long[] range = new long[WORDS_PER_DAY];
+        while (true) {
+            boolean lastDay = day.equals(end.toLocalDate());
+            int to = lastDay ? ceilSlot(end.toLocalTime()) : SLOTS_PER_DAY;
+            long[] booked = bookedSlots.get(day);
+            if (booked != null && to > from) {
+                Arrays.fill(range, 0);
+                setRange(range, from, to);
+                for (int w = 0; w < WORDS_PER_DAY; w++) {
+                    if ((booked[w] & range[w]) != 0) return false;
+                }
+            }
+            if (lastDay) return true;
+            day = day.plusDays(1);
+            from = 0;
+        }
+    }
+
+    /**
+     * Повертає маски зайнятості днів у діапазоні (лише дні з бронюваннями).
+     * Масиви не можна змінювати.
+     * @param from перший день (включно).
+     * @param to останній день (включно).
+     * @return впорядковане за датою представлення розкладу.
+     */
+    public NavigableMap<LocalDate, long[]> getBookedDays(LocalDate from, LocalDate to) {
+        return Collections.unmodifiableNavigableMap(bookedSlots.subMap(from, true, to, true));
+    }
+
+    /**
+     * Будує маску слотів проміжку часу доби {@code [from, to)}, наприклад робочих годин.
+     * @param from початок проміжку.
+     * @param to кінець проміжку ({@link LocalTime#MIDNIGHT} або {@link LocalTime#MAX} — кінець доби).
+     * @return маска з {@link #WORDS_PER_DAY} слів.
+     */
+    public static long[] mask(LocalTime from, LocalTime to) {
+        long[] words = new long[WORDS_PER_DAY];
+        int end = to.equals(LocalTime.MIDNIGHT) || to.equals(LocalTime.MAX) ? SLOTS_PER_DAY : ceilSlot(to);
+        setRange(words, floorSlot(from), end);
+        return words;
+    }
+
+    /**
+     * Повертає час початку слота.
+     * @param slot номер слота в добі.
+     * @return час початку.
+     */
+    public static LocalTime slotStart(int slot) {
+        return LocalTime.ofSecondOfDay((long) slot * SLOT_MINUTES * 60);
+    }
+
+    /** Номер слота, що містить вказаний час. */
+    private static int floorSlot(LocalTime t) {
+        return t.toSecondOfDay() / (SLOT_MINUTES * 60);
+    }
+
+    /** Номер першого слота, що починається не раніше вказаного часу. */
+    private static int ceilSlot(LocalTime t) {
+        return (t.toSecondOfDay() + SLOT_MINUTES * 60 - 1) / (SLOT_MINUTES * 60);
+    }
+
+    /** Встановлює біти слотів {@code [from, to)} у масці (цілими словами, де можливо). */
+    private static void setRange(long[] words, int from, int to) {
+        while (from < to) {
+            int bit = from & 63;
+            int n = Math.min(64 - bit, to - from);
+            words[from >>> 6] |= (n == 64 ? -1L : (1L << n) - 1) << bit;
+            from += n;
+        }
+    }
+}
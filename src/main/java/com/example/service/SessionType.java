@@ -22,16 +22,42 @@ public class SessionType implements Serializable {
      */
     private double basePrice;
 
+    /**
+     * Тривалість за замовчуванням (хв), якщо вона не вказана для послуги.
+     * Відповідає старому правилу "різниця менше 2 годин".
+     */
+    public static final int DEFAULT_DURATION_MINUTES = 120;
+
+    /**
+     * Тривалість фотосесії у хвилинах.
+     * Визначає, на який проміжок часу замовлення займає фотографа.
+     */
+    private int durationMinutes;
+
     /**
      * Конструктор для створення нового типу послуги.
      * Зазвичай викликається при ініціалізації системи (заповнення довідників).
+     * Тривалість встановлюється за замовчуванням ({@link #DEFAULT_DURATION_MINUTES}).
      *
      * @param name      Назва послуги.
      * @param basePrice Вартість послуги (грн).
      */
     public SessionType(String name, double basePrice) {
-        this.name = name;
+        this(name, basePrice, DEFAULT_DURATION_MINUTES);
+    }
+
+    /**
+     * Конструктор для створення типу послуги з вказаною тривалістю.
+     *
+     * @param name            Назва послуги.
+     * @param basePrice       Вартість послуги (грн).
+     * @param durationMinutes Тривалість фотосесії (хв), більше нуля.
+     */
+    public SessionType(String name, double basePrice, int durationMinutes) {
+        if (durationMinutes <= 0) throw new IllegalArgumentException("Тривалість має бути більшою за нуль");
+        this.name = name == null ? null : name.intern(); // Назва спільна для всіх замовлень з цим типом
         this.basePrice = basePrice;
+        this.durationMinutes = durationMinutes;
     }
 
     /**
@@ -51,6 +77,15 @@ public class SessionType implements Serializable {
         return basePrice;
     }
 
+    /**
+     * Отримує тривалість фотосесії.
+     * Використовується для перевірки перетину замовлень одного фотографа.
+     * @return тривалість у хвилинах.
+     */
+    public int getDurationMinutes() {
+        return durationMinutes;
+    }
+
     /**
      * Повертає форматований рядок для відображення в компонентах GUI (наприклад, JComboBox).
      * Формат дозволяє користувачеві одразу бачити назву та ціну.
@@ -1,6 +1,10 @@
 package com.example.ui;
 
+import com.example.control.DataChangeEvent;
+import com.example.control.DataChangeListener;
 import com.example.control.DataManager;
+import com.example.control.LoadPhase;
+import com.example.control.PhotoDeduplicationJob;
 import com.example.ui.panels.ClientsPanel;
 import com.example.ui.panels.DashboardPanel;
 import com.example.ui.panels.OrdersPanel;
@@ -10,6 +14,11 @@ import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Головне вікно програми (Main Window).
@@ -21,6 +30,9 @@ import java.io.IOException;
  * <li><b>Центральна частина (CENTER):</b> Динамічна область, що змінюється залежно від обраного пункту.</li>
  * </ul>
  * Для перемикання між екранами використовується менеджер компонування {@link CardLayout}.
+ * <p>
+ * Вікно показується одразу: дані завантажуються у фоновому потоці ({@link SwingWorker})
+ * з індикатором прогресу за етапами, а панелі, крім головної, створюються при першому відкритті.
  */
 public class MainFrame extends JFrame {
 
@@ -36,14 +48,28 @@ public class MainFrame extends JFrame {
     /** Менеджер компонування для перемикання екранів. */
     private CardLayout cardLayout;
 
-    // Зберігаємо прямі посилання на панелі, щоб мати змогу викликати їх методи (наприклад, оновлення таблиць)
+    // Зберігаємо прямі посилання на панелі, щоб мати змогу викликати їх методи (наприклад, оновлення таблиць).
+    // Панелі даних створюються при першому відкритті (до цього — null)
+    private DashboardPanel dashboardPanel;
     private OrdersPanel ordersPanel;
     private ClientsPanel clientsPanel;
 
+    /** Картки, які вже додано до CardLayout. */
+    private final Map<String, JComponent> cards = new HashMap<>();
+
+    /** Кнопки розділів з даними та збереження (доступні після завантаження). */
+    private final List<JButton> dataButtons = new ArrayList<>();
+
+    /** Кнопка "Зберегти та Вийти" (лишається вимкненою, якщо дані не завантажилися). */
+    private JButton exitButton;
+
+    /** Рядок стану завантаження (нижня частина вікна). */
+    private JProgressBar loadProgress;
+
     /**
      * Конструктор головного вікна.
-     * Налаштовує розмір, заголовок, ініціалізує контролер даних,
-     * створює бічне меню та додає всі функціональні панелі.
+     * Налаштовує розмір, заголовок, створює контролер даних (без завантаження),
+     * бічне меню та головну панель, після чого запускає фонове завантаження даних.
      */
     public MainFrame() {
         setTitle("Фотоательє");
@@ -52,8 +78,8 @@ public class MainFrame extends JFrame {
         setLocationRelativeTo(null); // Центрування вікна на екрані
         setLayout(new BorderLayout());
 
-        // Ініціалізація логіки (завантаження даних відбувається всередині конструктора DataManager)
-        dataManager = new DataManager();
+        // Ініціалізація логіки; дані завантажуються у фоні після показу вікна
+        dataManager = new DataManager(DATA_DIR_PATH, false);
 
         // Додавання бічного меню (ліва частина)
         add(createSidebar(), BorderLayout.WEST);
@@ -64,18 +90,115 @@ public class MainFrame extends JFrame {
         contentPanel.setBorder(new EmptyBorder(20, 20, 20, 20)); // Відступи від країв
         contentPanel.setBackground(new Color(245, 245, 250)); // Світлий фон робочої області
 
-        // Ініціалізація та додавання панелей
-        // Ми створюємо їх тут, щоб передати DataManager
-        ordersPanel = new OrdersPanel(dataManager);
-        clientsPanel = new ClientsPanel(dataManager);
+        // Головна панель створюється одразу, решта — при першому відкритті (див. showCard)
+        showCard("DASHBOARD");
+        add(contentPanel, BorderLayout.CENTER);
 
-        // Додавання "карток" в CardLayout з унікальними іменами (ключами)
-        contentPanel.add(new DashboardPanel(this, dataManager), "DASHBOARD");
-        contentPanel.add(ordersPanel, "ORDERS");
-        contentPanel.add(clientsPanel, "CLIENTS");
-        contentPanel.add(new ReportsPanel(dataManager), "REPORTS");
+        // Рядок стану завантаження
+        loadProgress = new JProgressBar(0, LoadPhase.values().length);
+        loadProgress.setStringPainted(true);
+        loadProgress.setString("Завантаження даних...");
+        add(loadProgress, BorderLayout.SOUTH);
 
-        add(contentPanel, BorderLayout.CENTER);
+        dashboardPanel.setLoading(true);
+        for (JButton btn : dataButtons) btn.setEnabled(false);
+        new DataLoader().execute();
+    }
+
+    /**
+     * Фонове завантаження даних: етапи публікуються в потік Swing для індикатора прогресу,
+     * після завершення відкриваються розділи з даними.
+     */
+    private class DataLoader extends SwingWorker<Void, LoadPhase> {
+
+        @Override
+        protected Void doInBackground() throws IOException {
+            // Слухач викликається в цьому ж фоновому потоці — лише передаємо етап у потік Swing
+            DataChangeListener progress = event -> {
+                if (event.getType() == DataChangeEvent.Type.LOAD_PHASE_FINISHED) publish((LoadPhase) event.getEntity());
+            };
+            dataManager.addDataChangeListener(progress);
+            try {
+                dataManager.load();
+            } finally {
+                dataManager.removeDataChangeListener(progress);
+            }
+            return null;
+        }
+
+        @Override
+        protected void process(List<LoadPhase> phases) {
+            LoadPhase last = phases.get(phases.size() - 1);
+            loadProgress.setValue(last.ordinal() + 1);
+            loadProgress.setString("Завантажено: " + last.getTitle());
+        }
+
+        /**
+         * Відкриває розділи з даними. Якщо завантаження не вдалося, дані в пам'яті неповні:
+         * збереження (повний знімок поверх файлів) і дедуплікація фото лишаються вимкненими.
+         */
+        @Override
+        protected void done() {
+            boolean loaded = true;
+            try {
+                get();
+            } catch (InterruptedException | ExecutionException e) {
+                loaded = false;
+                e.printStackTrace();
+                JOptionPane.showMessageDialog(MainFrame.this, "Помилка завантаження даних: " + e.getMessage()
+                        + "\nЗбереження вимкнено, щоб не перезаписати файли даних.");
+            }
+            remove(loadProgress);
+            revalidate();
+            for (JButton btn : dataButtons) btn.setEnabled(loaded || btn != exitButton);
+            dashboardPanel.setLoading(false);
+            if (!loaded) return;
+            startPhotoDeduplication();
+        }
+    }
+
+    /**
+     * Запускає у фоновому потоці перенесення збережених файлів фото у сховище за вмістом
+     * ({@link PhotoDeduplicationJob}). Результат пишеться в консоль; повторні запуски
+     * пропускають уже перенесені фото.
+     */
+    private void startPhotoDeduplication() {
+        Thread t = new Thread(() -> {
+            try {
+                PhotoDeduplicationJob.Result r = new PhotoDeduplicationJob(dataManager).run(null);
+                if (r.stored() + r.duplicates() > 0 || !r.failures().isEmpty()) {
+                    System.out.printf("Дедуплікація фото: %d мс, у сховище %d, дублікатів %d, звільнено %.1f МБ, помилок %d%n",
+                            r.millis(), r.stored(), r.duplicates(), r.bytesFreed() / 1048576.0, r.failures().size());
+                }
+            } catch (IOException | InterruptedException e) {
+                e.printStackTrace();
+            }
+        }, "photo-dedup");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        t.start();
+    }
+
+    /**
+     * Показує картку, створюючи панель при першому відкритті.
+     * @param cardName ключ картки в CardLayout.
+     */
+    private void showCard(String cardName) {
+        if (!cards.containsKey(cardName)) {
+            JComponent card = switch (cardName) {
+                case "ORDERS" -> ordersPanel = new OrdersPanel(dataManager);
+                case "CLIENTS" -> clientsPanel = new ClientsPanel(dataManager);
+                case "REPORTS" -> new ReportsPanel(dataManager);
+                default -> dashboardPanel = new DashboardPanel(this, dataManager);
+            };
+            cards.put(cardName, card);
+            contentPanel.add(card, cardName);
+        } else {
+            // Оновлення даних перед показом відповідної панелі
+            if (cardName.equals("ORDERS")) ordersPanel.refreshTable();
+            if (cardName.equals("CLIENTS")) clientsPanel.refreshTable();
+        }
+        cardLayout.show(contentPanel, cardName);
     }
 
     /**
@@ -115,15 +238,33 @@ public class MainFrame extends JFrame {
         styleButton(exitBtn);
         exitBtn.setBackground(new Color(200, 80, 80)); // Червоний відтінок
         exitBtn.addActionListener(e -> {
-            try {
-                dataManager.saveDataToFile(DATA_DIR_PATH);
-                JOptionPane.showMessageDialog(this, "Дані збережено!");
-                System.exit(0);
-            } catch (IOException ex) {
-                JOptionPane.showMessageDialog(this, "Помилка збереження: " + ex.getMessage());
-            }
+            exitBtn.setEnabled(false);
+            new SwingWorker<Void, Void>() {
+                @Override
+                protected Void doInBackground() throws IOException {
+                    // Повний знімок даних з очищенням журналу; метод чекає, доки фоновий
+                    // записувач скине на диск усі зміни (flush)
+                    dataManager.compact(DATA_DIR_PATH);
+                    return null;
+                }
+
+                @Override
+                protected void done() {
+                    try {
+                        get();
+                        JOptionPane.showMessageDialog(MainFrame.this, "Дані збережено!");
+                        System.exit(0);
+                    } catch (InterruptedException | ExecutionException ex) {
+                        JOptionPane.showMessageDialog(MainFrame.this, "Помилка збереження: "
+                                + (ex.getCause() != null ? ex.getCause().getMessage() : ex.getMessage()));
+                        exitBtn.setEnabled(true);
+                    }
+                }
+            }.execute();
         });
         sidebar.add(exitBtn);
+        dataButtons.add(exitBtn); // Збереження до завершення завантаження записало б неповний знімок
+        exitButton = exitBtn;
 
         return sidebar;
     }
@@ -131,9 +272,10 @@ public class MainFrame extends JFrame {
     /**
      * Створює кнопку меню та додає логіку перемикання екранів.
      * <p>
-     * <b>Важливо:</b> При натисканні на кнопки "Замовлення" або "Клієнти"
+     * <b>Важливо:</b> При повторному відкритті "Замовлень" або "Клієнтів"
      * викликається метод {@code refreshTable()}. Це гарантує, що користувач
      * завжди бачить актуальні дані, навіть якщо вони були змінені в інших вікнах.
+     * Кнопки розділів з даними недоступні, доки триває завантаження.
      *
      * @param text     Текст на кнопці.
      * @param cardName Ключ (ім'я) картки в CardLayout, яку треба показати.
@@ -142,14 +284,9 @@ public class MainFrame extends JFrame {
     private JButton createMenuButton(String text, String cardName) {
         JButton btn = new JButton(text);
         styleButton(btn);
-        btn.addActionListener(e -> {
-            // Оновлення даних перед показом відповідної панелі
-            if (cardName.equals("ORDERS")) ordersPanel.refreshTable();
-            if (cardName.equals("CLIENTS")) clientsPanel.refreshTable();
-
-            // Перемикання видимого екрану
-            cardLayout.show(contentPanel, cardName);
-        });
+        // Перемикання видимого екрану (панель створюється при першому відкритті)
+        btn.addActionListener(e -> showCard(cardName));
+        if (!cardName.equals("DASHBOARD")) dataButtons.add(btn);
         return btn;
     }
 
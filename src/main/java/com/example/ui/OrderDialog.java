@@ -1,6 +1,7 @@
 package com.example.ui;
 
 import com.example.control.DataManager;
+import com.example.control.PhotoIngestService;
 import com.example.entity.Client;
 import com.example.entity.Photographer;
 import com.example.model.Order;
@@ -9,7 +10,13 @@ import com.example.service.SessionType;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Модальне діалогове вікно для створення нового замовлення (Реалізація Сценарію ВВ1).
@@ -19,9 +26,11 @@ import java.util.List;
  * <li>Введення даних клієнта (ПІБ, телефон, email).</li>
  * <li>Вибору типу фотосесії (з автоматичним розрахунком ціни).</li>
  * <li>Вибору фотографа зі списку доступних.</li>
+ * <li>Вибору дати та часу зйомки (з перевіркою зайнятості фотографа).</li>
  * </ul>
- * При підтвердженні створює об'єкт {@link Order}, генерує тестові фотографії
- * та зберігає дані через {@link DataManager}.
+ * При підтвердженні створює об'єкт {@link Order} та зберігає дані через {@link DataManager}.
+ * Якщо обрано директорію з фотографіями (копію картки пам'яті), вони імпортуються
+ * у фоновому потоці через {@link PhotoIngestService}.
  */
 public class OrderDialog extends JDialog {
 
@@ -48,9 +57,21 @@ public class OrderDialog extends JDialog {
     /** Випадаючий список фотографів (заповнюється об'єктами {@link Photographer}). */
     private JComboBox<Photographer> photographerBox;
 
+    /** Формат дати та часу зйомки у полі введення. */
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    /** Поле введення дати та часу початку зйомки. */
+    private JTextField sessionDateField;
+
     /** Мітка для динамічного відображення розрахованої вартості. */
     private JLabel priceLabel;
 
+    /** Мітка з обраною директорією фотографій. */
+    private JLabel photoSourceLabel;
+
+    /** Директорія з фотографіями для імпорту (null — без імпорту). */
+    private Path photoSourceDir;
+
     /**
      * Конструктор діалогового вікна.
      * Ініціалізує розмітку, створює поля введення та заповнює списки даними.
@@ -62,7 +83,7 @@ public class OrderDialog extends JDialog {
         super(parent, "Створення нового замовлення", true); // true = модальне вікно
         this.dataManager = dataManager;
 
-        setSize(450, 550);
+        setSize(450, 590);
         setLocationRelativeTo(parent); // Центрування відносно батьківського вікна
         setLayout(new BorderLayout());
 
@@ -104,6 +125,22 @@ public class OrderDialog extends JDialog {
         fillPhotographers(); // Завантаження з DataManager
         mainPanel.add(photographerBox);
 
+        mainPanel.add(Box.createVerticalStrut(10));
+
+        // Дата та час зйомки (за замовчуванням — найближча повна година)
+        sessionDateField = addField(mainPanel, "Дата та час зйомки (рррр-мм-дд гг:хх):");
+        sessionDateField.setText(LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).plusHours(1).format(DATE_FORMAT));
+
+        // Необов'язкова директорія з фотографіями (копія картки пам'яті)
+        JPanel photoPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
+        photoPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
+        JButton photoBtn = new JButton("Фото з картки...");
+        photoBtn.addActionListener(e -> choosePhotoSource());
+        photoSourceLabel = new JLabel("  не обрано");
+        photoPanel.add(photoBtn);
+        photoPanel.add(photoSourceLabel);
+        mainPanel.add(photoPanel);
+
         mainPanel.add(Box.createVerticalStrut(20));
 
         // Відображення ціни
@@ -202,6 +239,20 @@ public class OrderDialog extends JDialog {
         }
     }
 
+    /**
+     * Відкриває вибір директорії з фотографіями для імпорту.
+     */
+    private void choosePhotoSource() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+        chooser.setDialogTitle("Директорія з фотографіями");
+        if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+            photoSourceDir = chooser.getSelectedFile().toPath();
+            photoSourceLabel.setText("  " + photoSourceDir.getFileName());
+            photoSourceLabel.setToolTipText(photoSourceDir.toString());
+        }
+    }
+
     // --- ЛОГІКА ОБРОБКИ ПОДІЙ ---
 
     /**
@@ -209,11 +260,12 @@ public class OrderDialog extends JDialog {
      * <p>
      * Алгоритм:
      * <ol>
-     * <li>Валідація вхідних даних (існування імені, телефону, фотографа).</li>
+     * <li>Валідація вхідних даних (існування імені, телефону, фотографа, дати).</li>
+     * <li>Перевірка, чи фотограф вільний на весь час сесії (подвійне бронювання відхиляється).</li>
      * <li>Пошук клієнта в базі або створення нового.</li>
      * <li>Створення об'єкта Order.</li>
-     * <li>Генерація тестових фотографій (імітація роботи фотографа).</li>
      * <li>Збереження замовлення через DataManager.</li>
+     * <li>Запуск фонового імпорту фотографій, якщо обрано директорію.</li>
      * </ol>
      */
     private void onConfirm() {
@@ -227,6 +279,27 @@ public class OrderDialog extends JDialog {
             return;
         }
 
+        LocalDateTime sessionDate;
+        try {
+            sessionDate = LocalDateTime.parse(sessionDateField.getText().trim(), DATE_FORMAT);
+        } catch (DateTimeParseException ex) {
+            JOptionPane.showMessageDialog(this, "Введіть дату у форматі рррр-мм-дд гг:хх!", "Помилка", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        // Перевірка зайнятості фотографа протягом усієї сесії
+        SessionType selectedSession = (SessionType) sessionTypeBox.getSelectedItem();
+        Photographer selectedPhotographer = (Photographer) photographerBox.getSelectedItem();
+        List<Order> conflicts = dataManager.findBookingConflicts(selectedPhotographer, sessionDate, selectedSession);
+        if (!conflicts.isEmpty()) {
+            Order first = conflicts.get(0);
+            JOptionPane.showMessageDialog(this,
+                    "Фотограф " + selectedPhotographer.getName() + " зайнятий у цей час.\n" +
+                    "Перетин із замовленням " + dataManager.getShortOrderId(first) + " на " + first.getOrderDate().format(DATE_FORMAT),
+                    "Час зайнятий", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
         // 2. Пошук або створення клієнта (через DataManager!)
         String phone = clientPhoneField.getText().trim();
         Client client = dataManager.findClientByPhone(phone);
@@ -242,25 +315,65 @@ public class OrderDialog extends JDialog {
 
         // 4. Створення замовлення
         Order order = new Order(client, photographer, session);
-
-        // Імітація процесу зйомки: генеруємо випадкову кількість фото від 3 до 10
-        int photoCount = 3 + (int)(Math.random() * 8);
-
-        for (int i = 1; i <= photoCount; i++) {
-            // Генеруємо випадкову назву файлу
-            String fileName = "IMG_" + (1000 + (int)(Math.random() * 9000)) + ".JPG";
-            // Додаємо об'єкт Photo у список замовлення
-            order.getPhotos().add(new com.example.entity.Photo(fileName));
-        }
+        order.calculateTotalCost(dataManager.getLoyaltyPolicy());
+        order.setOrderDate(sessionDate);
 
         // Збереження в систему
         dataManager.addOrder(order);
 
         succeeded = true;
-        JOptionPane.showMessageDialog(this, "Замовлення успішно створено!\nНомер: " + order.getId().substring(0,8));
+        JOptionPane.showMessageDialog(this, "Замовлення успішно створено!\nНомер: " + dataManager.getShortOrderId(order)
+                + (photoSourceDir != null ? "\nФотографії імпортуються у фоновому режимі." : ""));
+        if (photoSourceDir != null) {
+            new PhotoImportWorker(getOwner(), order, photoSourceDir).execute();
+        }
         dispose(); // Закриття вікна
     }
 
+    /**
+     * Фоновий імпорт фотографій замовлення. Діалог на цей час уже закритий,
+     * тому результат показується відносно головного вікна.
+     */
+    private class PhotoImportWorker extends SwingWorker<PhotoIngestService.Result, Void> {
+        private final Window owner;
+        private final Order order;
+        private final Path source;
+
+        PhotoImportWorker(Window owner, Order order, Path source) {
+            this.owner = owner;
+            this.order = order;
+            this.source = source;
+        }
+
+        @Override
+        protected PhotoIngestService.Result doInBackground() throws Exception {
+            return new PhotoIngestService(dataManager).ingest(order, source, null);
+        }
+
+        @Override
+        protected void done() {
+            String number = dataManager.getShortOrderId(order);
+            try {
+                PhotoIngestService.Result r = get();
+                StringBuilder msg = new StringBuilder("Замовлення " + number + ": імпортовано фото — " + r.photos().size()
+                        + String.format(" (%.1f МБ за %.1f с)", r.bytes() / 1048576.0, r.millis() / 1000.0));
+                if (r.duplicates() > 0) msg.append("\nВже були у сховищі (не копіювалися): ").append(r.duplicates());
+                if (!r.failures().isEmpty()) {
+                    msg.append("\nНе вдалося скопіювати: ").append(r.failures().size());
+                    r.failures().stream().limit(10).forEach(f -> msg.append("\n").append(f));
+                }
+                JOptionPane.showMessageDialog(owner, msg.toString(), "Імпорт фотографій",
+                        r.failures().isEmpty() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.WARNING_MESSAGE);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                e.getCause().printStackTrace();
+                JOptionPane.showMessageDialog(owner, "Замовлення " + number + ": помилка імпорту фотографій:\n"
+                        + e.getCause().getMessage(), "Помилка", JOptionPane.ERROR_MESSAGE);
+            }
+        }
+    }
+
     /**
      * Перевіряє, чи було успішно створено замовлення.
      * @return true, якщо користувач натиснув "Підтвердити" і дані коректні.
@@ -4,7 +4,8 @@ import com.example.control.DataManager;
 import com.example.entity.Client;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
 
 /**
@@ -18,8 +19,11 @@ public class ClientsPanel extends JPanel {
     /** Посилання на центральний контролер даних. */
     private DataManager dataManager;
 
-    /** Модель даних для таблиці, що дозволяє динамічно оновлювати рядки. */
-    private DefaultTableModel clientTableModel;
+    /** Модель таблиці: усі клієнти або результати пошуку, оновлюється за подіями змін. */
+    private ClientsTableModel clientTableModel;
+
+    /** Поле пошуку за іменем, телефоном або email. */
+    private JTextField searchField;
 
     /**
      * Конструктор панелі клієнтів.
@@ -46,38 +50,47 @@ public class ClientsPanel extends JPanel {
         topPanel.add(title);
         topPanel.add(Box.createHorizontalStrut(20));
         topPanel.add(addBtn);
+
+        // Пошук за мірою введення (префіксний індекс у DataManager)
+        searchField = new JTextField(20);
+        searchField.setToolTipText("Початок імені, номера телефону або email");
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) { applySearch(); }
+            @Override
+            public void removeUpdate(DocumentEvent e) { applySearch(); }
+            @Override
+            public void changedUpdate(DocumentEvent e) { applySearch(); }
+        });
+        topPanel.add(Box.createHorizontalStrut(20));
+        topPanel.add(new JLabel("Пошук:"));
+        topPanel.add(searchField);
         add(topPanel, BorderLayout.NORTH);
 
-        // Налаштування таблиці
-        String[] columns = {"ID", "Ім'я", "Телефон", "Email", "Статус"};
-        clientTableModel = new DefaultTableModel(columns, 0);
+        // Налаштування таблиці (модель читає клієнтів з DataManager без копіювання)
+        clientTableModel = new ClientsTableModel(dataManager);
         JTable table = new JTable(clientTableModel);
         table.setRowHeight(25);
         table.setFont(new Font("Arial", Font.PLAIN, 14));
 
         add(new JScrollPane(table), BorderLayout.CENTER);
+    }
 
-        // Первинне заповнення таблиці
-        refreshTable();
+    /**
+     * Показує в таблиці лише клієнтів, що відповідають тексту пошуку
+     * (не більше {@link ClientsTableModel#SEARCH_LIMIT}).
+     */
+    private void applySearch() {
+        clientTableModel.setQuery(searchField.getText());
     }
 
     /**
      * Оновлює вміст таблиці актуальними даними з DataManager.
-     * Метод очищує поточні рядки таблиці та заново заповнює її,
-     * ітеруючи по списку клієнтів.
+     * Нові та змінені клієнти надходять у модель подіями змін; тут лише
+     * додаються рядки клієнтів, яких у таблиці ще немає.
      */
     public void refreshTable() {
-        clientTableModel.setRowCount(0); // Очищення таблиці
-        for (Client c : dataManager.getClients()) {
-            Object[] row = {
-                    c.getId().substring(0, 8) + "...", // Скорочений ID для зручності
-                    c.getName(),
-                    c.getPhoneNumber(),
-                    c.getEmail(),
-                    c.isRegular() ? "Постійний" : "Новий" // Текстове представлення статусу
-            };
-            clientTableModel.addRow(row);
-        }
+        clientTableModel.sync();
     }
 
     /**
@@ -120,8 +133,7 @@ public class ClientsPanel extends JPanel {
 
             // 3. Якщо все ок — створюємо об'єкт та зберігаємо
             Client newClient = new Client(name, phone, email, false);
-            dataManager.addClient(newClient);
-            refreshTable(); // Оновлюємо таблицю, щоб показати нового клієнта
+            dataManager.addClient(newClient); // Таблиця оновиться подією додавання клієнта
             JOptionPane.showMessageDialog(this, "Клієнт успішно доданий!");
         }
     }
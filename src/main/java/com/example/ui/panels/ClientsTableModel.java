@@ -0,0 +1,160 @@
+package com.example.ui.panels;
+
+import com.example.control.DataChangeEvent;
+import com.example.control.DataChangeListener;
+import com.example.control.DataManager;
+import com.example.entity.Client;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Модель таблиці клієнтів з пошуком за мірою введення.
+ * <p>
+ * Без запиту модель показує список клієнтів {@link DataManager} напряму (без копіювання рядків);
+ * з запитом — лише результати префіксного пошуку ({@link DataManager#searchClients}),
+ * обмежені {@link #SEARCH_LIMIT} рядками, тому кожне натискання клавіші коштує
+ * O(log n + результати), а не перебудову всієї таблиці.
+ */
+public class ClientsTableModel extends AbstractTableModel implements DataChangeListener {
+
+    /** Максимальна кількість рядків результату пошуку. */
+    public static final int SEARCH_LIMIT = 1000;
+
+    /** Назви колонок таблиці. */
+    private static final String[] COLUMNS = {"ID", "Ім'я", "Телефон", "Email", "Статус"};
+
+    /** Посилання на центральний контролер даних. */
+    private final DataManager dataManager;
+
+    /** Поточний запит (порожній — усі клієнти). */
+    private String query = "";
+
+    /** Результати пошуку; null — показуються всі клієнти. */
+    private List<Client> results;
+
+    /** Кількість клієнтів, про які вже сповіщено таблицю в режимі без запиту. */
+    private int rowCount;
+
+    /** Номер рядка клієнта в режимі без запиту (для подій зміни окремого клієнта). */
+    private final Map<Client, Integer> rowOf = new IdentityHashMap<>();
+
+    /**
+     * Створює модель та підписує її на зміни даних.
+     * @param dataManager екземпляр менеджера даних.
+     */
+    public ClientsTableModel(DataManager dataManager) {
+        this.dataManager = dataManager;
+        dataManager.addDataChangeListener(this);
+        sync();
+    }
+
+    @Override
+    public int getRowCount() { return results == null ? rowCount : results.size(); }
+
+    @Override
+    public int getColumnCount() { return COLUMNS.length; }
+
+    @Override
+    public String getColumnName(int column) { return COLUMNS[column]; }
+
+    @Override
+    public boolean isCellEditable(int row, int column) { return false; }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Client c = getClientAt(row);
+        return switch (column) {
+            case 0 -> c.getId().substring(0, 8) + "..."; // Скорочений ID для зручності
+            case 1 -> c.getName();
+            case 2 -> c.getPhoneNumber();
+            case 3 -> c.getEmail();
+            default -> c.isRegular() ? "Постійний" : "Новий"; // Текстове представлення статусу
+        };
+    }
+
+    /**
+     * Повертає клієнта рядка моделі.
+     * @param row номер рядка моделі.
+     * @return клієнт.
+     */
+    public Client getClientAt(int row) {
+        return results == null ? dataManager.getClientAt(row) : results.get(row);
+    }
+
+    /**
+     * Встановлює запит пошуку та показує лише знайдених клієнтів.
+     * @param text текст пошуку (порожній — усі клієнти).
+     */
+    public void setQuery(String text) {
+        query = text == null ? "" : text.trim();
+        results = query.isEmpty() ? null : dataManager.searchClients(query, SEARCH_LIMIT);
+        sync();
+        fireTableDataChanged();
+    }
+
+    /**
+     * Додає до моделі клієнтів, яких у ній ще немає, і сповіщає таблицю лише про нові рядки.
+     */
+    public void sync() {
+        if (dataManager.getClientCount() < rowCount) {
+            rowOf.clear();
+            rowCount = 0;
+        }
+        List<Client> added = dataManager.getClientsFrom(rowCount);
+        if (added.isEmpty()) return;
+        int first = rowCount;
+        for (Client c : added) rowOf.put(c, rowCount++);
+        int size = rowCount;
+        if (results == null) fireTableRowsInserted(first, size - 1);
+    }
+
+    /**
+     * Обробляє зміну даних: події передаються в потік Swing, де оновлюється модель.
+     * @param event опис зміни.
+     */
+    @Override
+    public void dataChanged(DataChangeEvent event) {
+        if (SwingUtilities.isEventDispatchThread()) apply(event);
+        else SwingUtilities.invokeLater(() -> apply(event));
+    }
+
+    private void apply(DataChangeEvent event) {
+        switch (event.getType()) {
+            case CLIENT_ADDED -> {
+                if (results == null) sync();
+                else setQuery(query); // Новий клієнт може підходити під запит
+            }
+            case CLIENT_CONTACTS_CHANGED -> {
+                if (results != null) {
+                    setQuery(query); // Після зміни контактів клієнт може вийти з результатів або потрапити в них
+                    return;
+                }
+                int row = rowOf.getOrDefault((Client) event.getEntity(), -1);
+                if (row >= 0) fireTableRowsUpdated(row, row);
+            }
+            case CLIENT_REGULAR_CHANGED -> {
+                Client c = (Client) event.getEntity();
+                int row = results == null ? rowOf.getOrDefault(c, -1) : indexOf(c);
+                if (row >= 0) fireTableRowsUpdated(row, row);
+            }
+            case RELOADED -> {
+                rowOf.clear();
+                rowCount = 0;
+                setQuery(query);
+            }
+            default -> { } // Зміни замовлень і фотографів не впливають на таблицю клієнтів
+        }
+    }
+
+    /** Номер рядка клієнта серед результатів пошуку або -1. */
+    private int indexOf(Client c) {
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == c) return i;
+        }
+        return -1;
+    }
+}
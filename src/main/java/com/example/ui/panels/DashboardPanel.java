@@ -5,6 +5,8 @@ import com.example.ui.OrderDialog;
 
 import javax.swing.*;
 import java.awt.*;
+import java.time.LocalDate;
+import java.time.LocalTime;
 
 /**
  * Панель головного екрану (Dashboard) програми.
@@ -28,6 +30,12 @@ public class DashboardPanel extends JPanel {
      */
     private DataManager dataManager;
 
+    /** Мітка з короткою зведеною виручкою (сьогодні, 7 днів, місяць). */
+    private JLabel revenueLabel;
+
+    /** Кнопка створення нового замовлення (недоступна під час завантаження даних). */
+    private JButton newOrderBtn;
+
     /**
      * Конструктор панелі Dashboard.
      * Налаштовує візуальний стиль, шрифти та розміщує велику кнопку "Нове замовлення"
@@ -55,7 +63,7 @@ public class DashboardPanel extends JPanel {
         JPanel centerPanel = new JPanel(new GridBagLayout());
         centerPanel.setOpaque(false);
 
-        JButton newOrderBtn = new JButton("+ НОВЕ ЗАМОВЛЕННЯ");
+        newOrderBtn = new JButton("+ НОВЕ ЗАМОВЛЕННЯ");
         newOrderBtn.setPreferredSize(new Dimension(300, 80)); // Велика зручна кнопка
         newOrderBtn.setFont(new Font("Arial", Font.BOLD, 20));
         newOrderBtn.setBackground(new Color(40, 167, 69)); // Зелений колір (успіх/дія)
@@ -67,6 +75,37 @@ public class DashboardPanel extends JPanel {
 
         centerPanel.add(newOrderBtn);
         add(centerPanel, BorderLayout.CENTER);
+
+        // --- Нижня частина: зведена виручка ---
+        revenueLabel = new JLabel("", JLabel.CENTER);
+        revenueLabel.setFont(new Font("Arial", Font.PLAIN, 16));
+        add(revenueLabel, BorderLayout.SOUTH);
+        refreshRevenue();
+    }
+
+    /**
+     * Перемикає панель у режим очікування завантаження даних і назад.
+     * Після завантаження оновлює зведену виручку.
+     * @param loading true — дані ще завантажуються.
+     */
+    public void setLoading(boolean loading) {
+        newOrderBtn.setEnabled(!loading);
+        if (loading) revenueLabel.setText("Завантаження даних...");
+        else refreshRevenue();
+    }
+
+    /**
+     * Оновлює зведену виручку. Суми беруться з індексу виручки DataManager
+     * (денний ряд та запит за період), тому оновлення не перебирає замовлення.
+     */
+    public void refreshRevenue() {
+        LocalDate today = LocalDate.now();
+        double[] week = dataManager.getDailyRevenue(today.minusDays(6), today);
+        double weekTotal = 0;
+        for (double day : week) weekTotal += day;
+        double month = dataManager.getTotalRevenueForPeriod(today.withDayOfMonth(1).atStartOfDay(), today.atTime(LocalTime.MAX));
+        revenueLabel.setText(String.format("Дохід сьогодні: %.2f грн   |   за 7 днів: %.2f грн   |   за місяць: %.2f грн",
+                week[week.length - 1], weekTotal, month));
     }
 
     /**
@@ -89,5 +128,6 @@ public class DashboardPanel extends JPanel {
         // Створення та відображення діалогу
         OrderDialog dialog = new OrderDialog(parentFrame, dataManager);
         dialog.setVisible(true);
+        if (dialog.isSucceeded()) refreshRevenue();
     }
 }
\ No newline at end of file
@@ -1,14 +1,16 @@
 package com.example.ui.panels;
 
 import com.example.control.DataManager;
+import com.example.control.OrderSortKey;
+import com.example.control.ThumbnailService;
 import com.example.entity.Payment;
 import com.example.model.Order;
 import com.example.util.OrderStatus;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.time.format.DateTimeFormatter;
+import java.io.IOException;
+import java.util.Set;
 
 /**
  * Панель графічного інтерфейсу для управління списком замовлень.
@@ -21,8 +23,17 @@ public class OrdersPanel extends JPanel {
     /** Посилання на центральний контролер даних. */
     private DataManager dataManager;
 
-    /** Модель таблиці, що зберігає дані про замовлення для відображення. */
-    private DefaultTableModel orderTableModel;
+    /** Модель таблиці, що читає замовлення з DataManager та оновлюється за подіями змін. */
+    private OrdersTableModel orderTableModel;
+
+    /** Підписи варіантів сортування (перший — порядок додавання, далі — {@link OrderSortKey}). */
+    private static final String[] SORT_LABELS = {"Без сортування", "Дата", "Статус", "Клієнт", "Фотограф", "Ціна"};
+
+    // Елементи керування сортуванням та фільтром
+    private JComboBox<String> sortBox;
+    private JCheckBox descendingBox;
+    private JComboBox<Object> statusBox;
+    private JTextField nameField;
 
     /**
      * Конструктор панелі замовлень.
@@ -41,21 +52,42 @@ public class OrdersPanel extends JPanel {
         title.setFont(new Font("Arial", Font.BOLD, 18));
 
         JButton refreshBtn = new JButton("Оновити список");
-        refreshBtn.addActionListener(e -> refreshTable());
+        refreshBtn.addActionListener(e -> orderTableModel.reload());
 
         topPanel.add(title);
         topPanel.add(Box.createHorizontalStrut(20));
         topPanel.add(refreshBtn);
-        add(topPanel, BorderLayout.NORTH);
-
-        // Налаштування таблиці
-        String[] columns = {"ID", "Дата", "Клієнт", "Послуга", "Фотограф", "Статус", "Ціна"};
 
-        // Перевизначення моделі для заборони редагування клітинок вручну
-        orderTableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) { return false; }
-        };
+        // Панель сортування та фільтрації (представлення будує DataManager, замовлення не копіюються)
+        JPanel viewPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        sortBox = new JComboBox<>(SORT_LABELS);
+        descendingBox = new JCheckBox("За спаданням");
+        statusBox = new JComboBox<>();
+        statusBox.addItem("Усі статуси");
+        for (OrderStatus status : OrderStatus.values()) statusBox.addItem(status);
+        nameField = new JTextField(12);
+        nameField.setToolTipText("Частина імені клієнта або фотографа (Enter — застосувати)");
+
+        sortBox.addActionListener(e -> applyView());
+        descendingBox.addActionListener(e -> applyView());
+        statusBox.addActionListener(e -> applyView());
+        nameField.addActionListener(e -> applyView());
+
+        viewPanel.add(new JLabel("Сортування:"));
+        viewPanel.add(sortBox);
+        viewPanel.add(descendingBox);
+        viewPanel.add(new JLabel("Статус:"));
+        viewPanel.add(statusBox);
+        viewPanel.add(new JLabel("Клієнт / фотограф:"));
+        viewPanel.add(nameField);
+
+        JPanel northPanel = new JPanel(new GridLayout(2, 1));
+        northPanel.add(topPanel);
+        northPanel.add(viewPanel);
+        add(northPanel, BorderLayout.NORTH);
+
+        // Налаштування таблиці (модель сама забороняє редагування клітинок)
+        orderTableModel = new OrdersTableModel(dataManager);
 
         JTable table = new JTable(orderTableModel);
         table.setRowHeight(25);
@@ -76,33 +108,39 @@ public class OrdersPanel extends JPanel {
         payBtn.addActionListener(e -> processPayment(table));
 
         actionPanel.add(payBtn);
-        add(actionPanel, BorderLayout.SOUTH);
 
-        // Завантаження даних при ініціалізації
-        refreshTable();
+        // Мініатюри фото обраного замовлення (будуються у фоні, обране замовлення — першим)
+        PhotoStripPanel photoStrip = new PhotoStripPanel(dataManager, new ThumbnailService(dataManager));
+        table.getSelectionModel().addListSelectionListener(e -> {
+            if (e.getValueIsAdjusting()) return;
+            int row = table.getSelectedRow();
+            photoStrip.showOrder(row < 0 ? null : orderTableModel.getOrderAt(table.convertRowIndexToModel(row)));
+        });
+
+        JPanel southPanel = new JPanel(new BorderLayout());
+        southPanel.add(photoStrip, BorderLayout.CENTER);
+        southPanel.add(actionPanel, BorderLayout.SOUTH);
+        add(southPanel, BorderLayout.SOUTH);
     }
 
     /**
      * Оновлює дані в таблиці замовлень.
-     * Очищує поточний вміст моделі та заново наповнює її даними з DataManager.
-     * Використовує {@link DateTimeFormatter} для зручного відображення дати створення.
+     * Зміни, що пройшли через DataManager, модель отримує подіями; тут лише
+     * додаються рядки замовлень, яких у таблиці ще немає (O(нових рядків)).
      */
     public void refreshTable() {
-        orderTableModel.setRowCount(0); // Очищення таблиці
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-
-        for (Order o : dataManager.getOrders()) {
-            Object[] row = {
-                    o.getId().substring(0, 6), // Скорочений ID
-                    o.getOrderDate().format(formatter),
-                    o.getClient().getName(),
-                    o.getSessionType().getName(),
-                    o.getPhotographer().getName(),
-                    o.getStatus(),
-                    o.getTotalCost() + " грн"
-            };
-            orderTableModel.addRow(row);
-        }
+        orderTableModel.sync();
+    }
+
+    /**
+     * Застосовує обрані сортування та фільтр до таблиці.
+     */
+    private void applyView() {
+        int sort = sortBox.getSelectedIndex();
+        OrderSortKey key = sort <= 0 ? null : OrderSortKey.values()[sort - 1];
+        Object status = statusBox.getSelectedItem();
+        Set<OrderStatus> statuses = status instanceof OrderStatus s ? Set.of(s) : null;
+        orderTableModel.setView(key, !descendingBox.isSelected(), statuses, nameField.getText());
     }
 
     /**
@@ -131,7 +169,7 @@ public class OrdersPanel extends JPanel {
         }
 
         // Отримання об'єкта замовлення зі списку (за індексом рядка)
-        Order selectedOrder = dataManager.getOrders().get(selectedRow);
+        Order selectedOrder = orderTableModel.getOrderAt(table.convertRowIndexToModel(selectedRow));
 
         // Перевірка бізнес-правила: не можна платити двічі
         if (selectedOrder.getStatus() == OrderStatus.PAID) {
@@ -143,22 +181,33 @@ public class OrdersPanel extends JPanel {
                 "Прийняти оплату " + selectedOrder.getTotalCost() + " грн?", "Оплата", JOptionPane.YES_NO_OPTION);
 
         if (confirm == JOptionPane.YES_OPTION) {
-            // 1. Ставимо статус ОПЛАЧЕНО
-            selectedOrder.setStatus(OrderStatus.PAID);
-
-            // 2. Фіксуємо факт платежу (створення об'єкта)
-            new Payment(selectedOrder.getId(), selectedOrder.getTotalCost());
+            boolean wasRegular = selectedOrder.getClient().isRegular();
+
+            // 1. Ставимо статус ОПЛАЧЕНО (через DataManager: перевірка життєвого циклу, журнал, події).
+            // === БІЗНЕС-ЛОГІКА: оплата одразу перевіряє поріг постійного клієнта (лічильник, O(1)) ===
+            try {
+                dataManager.transition(selectedOrder.getId(), OrderStatus.PAID);
+            } catch (IllegalStateException ex) {
+                JOptionPane.showMessageDialog(this, ex.getMessage(), "Помилка", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
 
-            // 3. === БІЗНЕС-ЛОГІКА: Перевірка на підвищення статусу клієнта ===
-            dataManager.checkAndUpgradeClient(selectedOrder.getClient());
+            // 2. Фіксуємо факт платежу в журналі платежів
+            try {
+                dataManager.recordPayment(new Payment(selectedOrder.getId(), selectedOrder.getTotalCost()));
+            } catch (IOException ex) {
+                ex.printStackTrace();
+                JOptionPane.showMessageDialog(this, "Статус змінено, але платіж не збережено: " + ex.getMessage(),
+                        "Помилка", JOptionPane.ERROR_MESSAGE);
+            }
 
-            // 4. Оновлюємо інтерфейс
-            refreshTable();
+            // 3. Рядок таблиці оновлюється подією зміни статусу (без перебудови таблиці)
 
             // Інформування користувача про результат
-            if (selectedOrder.getClient().isRegular()) {
+            if (!wasRegular && selectedOrder.getClient().isRegular()) {
                 JOptionPane.showMessageDialog(this,
-                        "Оплата успішна!\nУВАГА: Цей клієнт досяг 3-х замовлень і отримав статус 'Постійний'!");
+                        "Оплата успішна!\nУВАГА: Цей клієнт досяг " + dataManager.getLoyaltyPolicy().getThreshold()
+                                + " оплачених замовлень і отримав статус 'Постійний'!");
             } else {
                 JOptionPane.showMessageDialog(this, "Оплата успішна!");
             }
@@ -0,0 +1,229 @@
+package com.example.ui.panels;
+
+import com.example.control.DataChangeEvent;
+import com.example.control.DataChangeListener;
+import com.example.control.DataManager;
+import com.example.control.OrderSortKey;
+import com.example.control.OrderView;
+import com.example.model.Order;
+import com.example.util.OrderStatus;
+
+import javax.swing.*;
+import javax.swing.event.TableModelEvent;
+import javax.swing.table.AbstractTableModel;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Модель таблиці замовлень, що читає клітинки безпосередньо зі списку замовлень {@link DataManager}.
+ * <p>
+ * На відміну від {@code DefaultTableModel}, рядки не копіюються: відформатовані значення
+ * рядка (дата, ціна) обчислюються при першому відображенні та кешуються. Скорочений ID
+ * не кешується: він подовжується, коли з'являється замовлення зі схожим ID.
+ * Модель підписана на зміни даних ({@link DataChangeListener}) і сповіщає таблицю лише
+ * про вставлені або змінені рядки, тому оплата замовлення чи перемикання на вкладку
+ * коштують O(змінених рядків), а не O(усіх замовлень).
+ * <p>
+ * Сортування та фільтр задаються через {@link #setView}: таблиця показує представлення
+ * {@link OrderView} (перестановку індексів від DataManager), тому кеш клітинок
+ * і самі замовлення при цьому не копіюються.
+ */
+public class OrdersTableModel extends AbstractTableModel implements DataChangeListener {
+
+    /** Назви колонок таблиці. */
+    private static final String[] COLUMNS = {"ID", "Дата", "Клієнт", "Послуга", "Фотограф", "Статус", "Ціна"};
+
+    /** Формат дати сесії (один екземпляр на всю таблицю). */
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    /** Посилання на центральний контролер даних. */
+    private final DataManager dataManager;
+
+    /**
+     * Кеш відформатованих рядків за індексом замовлення (null — рядок ще не відображався або змінився).
+     * Його розмір — кількість замовлень, про які вже сповіщено таблицю (змінюється лише в потоці Swing).
+     */
+    private final List<Object[]> cache = new ArrayList<>();
+
+    /** Індекс кожного замовлення у списку (для подій зміни окремого замовлення). */
+    private final Map<Order, Integer> rowOf = new IdentityHashMap<>();
+
+    /** Поточне представлення; null — усі замовлення в порядку додавання. */
+    private OrderView view;
+
+    // Параметри представлення (для повторного запиту після змін)
+    private OrderSortKey sortKey;
+    private boolean ascending = true;
+    private Set<OrderStatus> statuses;
+    private String nameFilter;
+
+    /**
+     * Створює модель та підписує її на зміни даних.
+     * @param dataManager екземпляр менеджера даних.
+     */
+    public OrdersTableModel(DataManager dataManager) {
+        this.dataManager = dataManager;
+        dataManager.addDataChangeListener(this);
+        sync();
+    }
+
+    @Override
+    public int getRowCount() { return view == null ? cache.size() : view.size(); }
+
+    @Override
+    public int getColumnCount() { return COLUMNS.length; }
+
+    @Override
+    public String getColumnName(int column) { return COLUMNS[column]; }
+
+    @Override
+    public boolean isCellEditable(int row, int column) { return false; }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int index = orderIndex(row);
+        if (column == 0) return dataManager.getShortOrderId(dataManager.getOrderAt(index));
+        Object[] cells = cache.get(index);
+        if (cells == null) {
+            cells = format(dataManager.getOrderAt(index));
+            cache.set(index, cells);
+        }
+        return cells[column];
+    }
+
+    /**
+     * Повертає замовлення рядка моделі (з урахуванням сортування та фільтра).
+     * @param row номер рядка моделі.
+     * @return замовлення.
+     */
+    public Order getOrderAt(int row) {
+        return dataManager.getOrderAt(orderIndex(row));
+    }
+
+    /** Індекс замовлення у списку для рядка моделі. */
+    private int orderIndex(int row) {
+        return view == null ? row : view.getOrderIndex(row);
+    }
+
+    /**
+     * Встановлює сортування та фільтр таблиці.
+     * @param key колонка сортування; null — порядок додавання.
+     * @param ascending true — за зростанням.
+     * @param statuses дозволені статуси; null або порожня множина — усі.
+     * @param nameFilter підрядок імені клієнта або фотографа; null або порожній — без фільтра.
+     */
+    public void setView(OrderSortKey key, boolean ascending, Set<OrderStatus> statuses, String nameFilter) {
+        this.sortKey = key;
+        this.ascending = ascending;
+        this.statuses = statuses;
+        this.nameFilter = nameFilter;
+        requeryView();
+    }
+
+    /** Чи показуються всі замовлення в порядку додавання (без представлення). */
+    private boolean isNatural() {
+        return sortKey == null && ascending && (statuses == null || statuses.isEmpty())
+                && (nameFilter == null || nameFilter.isBlank());
+    }
+
+    /** Запитує представлення заново та перемальовує таблицю. */
+    private void requeryView() {
+        view = isNatural() ? null : dataManager.getOrderView(sortKey, ascending, statuses, nameFilter);
+        if (view != null) extendCache(); // Представлення може містити замовлення, про які подія ще не дійшла
+        fireTableDataChanged();
+    }
+
+    /** Форматує значення клітинок рядка. */
+    private Object[] format(Order o) {
+        return new Object[]{
+                null, // Скорочений ID обчислюється при відображенні (див. getValueAt)
+                o.getOrderDate().format(DATE_FORMAT),
+                o.getClient().getName(),
+                o.getSessionType().getName(),
+                o.getPhotographer().getName(),
+                o.getStatus(),
+                o.getTotalCost() + " грн"
+        };
+    }
+
+    /**
+     * Додає до моделі замовлення, яких у ній ще немає (наприклад, додані до підписки),
+     * і сповіщає таблицю лише про нові рядки.
+     */
+    public void sync() {
+        int first = cache.size();
+        if (dataManager.getOrderCount() < first) {
+            reload();
+            return;
+        }
+        int size = extendCache();
+        if (size == first) return;
+        if (view == null) fireTableRowsInserted(first, size - 1);
+        else requeryView(); // Нові рядки займають місце відповідно до сортування
+    }
+
+    /** Додає до кешу порожні рядки нових замовлень і повертає новий розмір. */
+    private int extendCache() {
+        for (Order o : dataManager.getOrdersFrom(cache.size())) {
+            rowOf.put(o, cache.size());
+            cache.add(null);
+        }
+        return cache.size();
+    }
+
+    /** Повністю перечитує список замовлень (після заміни всіх даних). */
+    public void reload() {
+        cache.clear();
+        rowOf.clear();
+        view = null;
+        fireTableDataChanged();
+        sync();
+        if (!isNatural()) requeryView();
+    }
+
+    /**
+     * Обробляє зміну даних: події передаються в потік Swing, де оновлюється модель.
+     * @param event опис зміни.
+     */
+    @Override
+    public void dataChanged(DataChangeEvent event) {
+        if (SwingUtilities.isEventDispatchThread()) apply(event);
+        else SwingUtilities.invokeLater(() -> apply(event));
+    }
+
+    private void apply(DataChangeEvent event) {
+        switch (event.getType()) {
+            case ORDER_ADDED -> {
+                sync();
+                // Довший за мінімальний ID нового замовлення означає спільний префікс з наявним:
+                // скорочені ID таких замовлень подовжилися, тому колонка ID перемальовується
+                Order added = (Order) event.getEntity();
+                if (added != null && getRowCount() > 0
+                        && dataManager.getShortOrderId(added).length() > DataManager.SHORT_ID_MIN_LENGTH) {
+                    fireTableChanged(new TableModelEvent(this, 0, getRowCount() - 1, 0));
+                }
+            }
+            case ORDER_STATUS_CHANGED, ORDER_COST_CHANGED -> {
+                Integer index = rowOf.get((Order) event.getEntity());
+                if (index == null) return;
+                cache.set(index, null);
+                boolean byStatus = event.getType() == DataChangeEvent.Type.ORDER_STATUS_CHANGED;
+                if (view == null) {
+                    fireTableRowsUpdated(index, index);
+                } else if (sortKey == (byStatus ? OrderSortKey.STATUS : OrderSortKey.PRICE)
+                        || byStatus && statuses != null && !statuses.isEmpty()) {
+                    requeryView(); // Рядок змінює позицію або виходить з фільтра
+                } else {
+                    int row = view.getViewRow(index);
+                    if (row >= 0) fireTableRowsUpdated(row, row);
+                }
+            }
+            case RELOADED -> reload();
+            default -> { } // Зміни клієнтів і фотографів не впливають на наявні рядки
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.ui.panels;
+
+import com.example.control.DataChangeEvent;
+import com.example.control.DataChangeListener;
+import com.example.control.DataManager;
+import com.example.control.ThumbnailService;
+import com.example.entity.Photo;
+import com.example.model.Order;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+/**
+ * Стрічка мініатюр фотографій обраного замовлення (під таблицею замовлень).
+ * <p>
+ * Мініатюри з пам'яті показуються одразу, решта — замінюють заглушки в міру побудови
+ * у фонових потоках {@link ThumbnailService}; обране замовлення стає пріоритетним у черзі.
+ * Після імпорту фото до показаного замовлення (подія {@link DataChangeEvent.Type#PHOTOS_ADDED})
+ * стрічка оновлюється.
+ */
+public class PhotoStripPanel extends JPanel implements DataChangeListener {
+
+    /** Найбільша кількість мініатюр у стрічці (решта — у підписі). */
+    private static final int MAX_SHOWN = 200;
+
+    private final DataManager dataManager;
+    private final ThumbnailService thumbnails;
+
+    /** Ряд мініатюр. */
+    private final JPanel strip = new JPanel(new FlowLayout(FlowLayout.LEFT, 6, 4));
+
+    /** Підпис з кількістю фото. */
+    private final JLabel caption = new JLabel(" ");
+
+    /** Показане замовлення (null — нічого не обрано). */
+    private Order shown;
+
+    /** Лічильник показів: відповіді для попереднього замовлення ігноруються. */
+    private int generation;
+
+    /**
+     * @param dataManager менеджер даних.
+     * @param thumbnails служба мініатюр.
+     */
+    public PhotoStripPanel(DataManager dataManager, ThumbnailService thumbnails) {
+        super(new BorderLayout());
+        this.dataManager = dataManager;
+        this.thumbnails = thumbnails;
+        add(caption, BorderLayout.NORTH);
+        JScrollPane scroll = new JScrollPane(strip, ScrollPaneConstants.VERTICAL_SCROLLBAR_NEVER,
+                ScrollPaneConstants.HORIZONTAL_SCROLLBAR_AS_NEEDED);
+        scroll.setPreferredSize(new Dimension(100, ThumbnailService.DEFAULT_SIZE + 40));
+        add(scroll, BorderLayout.CENTER);
+        dataManager.addDataChangeListener(this);
+    }
+
+    /**
+     * Показує мініатюри замовлення.
+     * @param order замовлення або null.
+     */
+    public void showOrder(Order order) {
+        shown = order;
+        int gen = ++generation;
+        thumbnails.setFocus(order);
+        strip.removeAll();
+        List<Photo> photos = order != null ? dataManager.getPhotosSnapshot(order.getId()) : List.of();
+        caption.setText(order == null ? " " : photos.isEmpty() ? "Фото немає"
+                : "Фото: " + photos.size() + (photos.size() > MAX_SHOWN ? " (показано " + MAX_SHOWN + ")" : ""));
+        int side = ThumbnailService.DEFAULT_SIZE;
+        for (Photo photo : photos.subList(0, Math.min(photos.size(), MAX_SHOWN))) {
+            JLabel label = new JLabel(photo.getDisplayName(), SwingConstants.CENTER);
+            label.setPreferredSize(new Dimension(side, side));
+            label.setToolTipText(photo.getDisplayName());
+            label.setBorder(BorderFactory.createLineBorder(Color.LIGHT_GRAY));
+            BufferedImage cached = thumbnails.getCached(photo);
+            if (cached != null) {
+                setImage(label, cached);
+            } else {
+                thumbnails.request(order, photo).thenAccept(image -> SwingUtilities.invokeLater(() -> {
+                    if (gen != generation) return;
+                    if (image != null) setImage(label, image); else label.setText("—");
+                }));
+            }
+            strip.add(label);
+        }
+        strip.revalidate();
+        strip.repaint();
+    }
+
+    /** Показує мініатюру замість назви файлу. */
+    private static void setImage(JLabel label, BufferedImage image) {
+        label.setText(null);
+        label.setIcon(new ImageIcon(image));
+    }
+
+    /**
+     * Оновлює стрічку після імпорту фото до показаного замовлення.
+     * Подія приходить з потоку імпорту, тому оновлення передається в потік Swing.
+     */
+    @Override
+    public void dataChanged(DataChangeEvent event) {
+        if (event.getType() != DataChangeEvent.Type.PHOTOS_ADDED) return;
+        SwingUtilities.invokeLater(() -> {
+            if (shown != null && shown == event.getEntity()) showOrder(shown);
+        });
+    }
+}
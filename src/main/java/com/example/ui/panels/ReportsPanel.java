@@ -1,6 +1,8 @@
 package com.example.ui.panels;
 
 import com.example.control.DataManager;
+import com.example.control.PhotographerSummary;
+import com.example.entity.Photo;
 import com.example.entity.Photographer;
 import com.example.model.Order;
 import com.example.util.OrderStatus;
@@ -8,7 +10,15 @@ import com.example.util.OrderStatus;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Панель графічного інтерфейсу для модуля аналітики та звітності.
@@ -16,15 +26,54 @@ import java.time.LocalDateTime;
  * Цей клас відповідає за реалізацію <b>IV Етапу</b> курсової роботи (виконання 6-ти запитів).
  * Інтерфейс побудовано за принципом "Master-Detail": зліва знаходиться меню вибору звіту,
  * справа — текстова область для виведення результатів.
+ * <p>
+ * Звіти виконуються у фоновому пулі потоків ({@link ReportWorker}), а не в потоці Swing:
+ * результат виводиться частинами в міру обчислення, хід показує індикатор прогресу,
+ * а запущений звіт можна скасувати. Повторне натискання кнопки звіту, що вже виконується,
+ * ігнорується; запуск іншого звіту скасовує поточний (область виводу одна).
  */
 public class ReportsPanel extends JPanel {
 
+    /** Кількість рядків, після якої накопичений вивід передається в область звіту. */
+    private static final int BATCH_LINES = 500;
+
+    /** Максимальний інтервал між передачами виводу (мс), щоб повільний звіт не виглядав завислим. */
+    private static final long BATCH_MILLIS = 100;
+
+    /** Максимальна кількість кандидатів, що виводяться для неоднозначного скороченого ID. */
+    private static final int CANDIDATES_LIMIT = 20;
+
+    /** Пул фонових потоків для звітів (спільний для всіх панелей; потоки-демони не заважають виходу). */
+    private static final ExecutorService REPORT_POOL = Executors.newFixedThreadPool(2, r -> {
+        Thread t = new Thread(r, "report-worker");
+        t.setDaemon(true);
+        return t;
+    });
+
     /** Посилання на контролер даних для отримання статистики. */
     private DataManager dataManager;
 
     /** Текстова область для відображення згенерованих звітів. */
     private JTextArea reportArea;
 
+    /** Індикатор прогресу поточного звіту. */
+    private JProgressBar progressBar;
+
+    /** Кнопка скасування поточного звіту. */
+    private JButton cancelBtn;
+
+    /** Звіт, що виконується зараз (null — жоден). Змінюється лише в потоці Swing. */
+    private ReportWorker current;
+
+    /**
+     * Тіло звіту, що виконується у фоновому потоці.
+     * Виводить рядки через {@link ReportWorker#line} і має періодично перевіряти {@link ReportWorker#isCancelled()}.
+     */
+    @FunctionalInterface
+    private interface Report {
+        void run(ReportWorker out);
+    }
+
     /**
      * Конструктор панелі звітів.
      * Налаштовує розділений екран (JSplitPane), створює кнопки для кожного типу звіту
@@ -67,6 +116,21 @@ public class ReportsPanel extends JPanel {
         splitPane.setLeftComponent(buttonPanel);
         splitPane.setRightComponent(new JScrollPane(reportArea));
         add(splitPane, BorderLayout.CENTER);
+
+        // --- Нижня панель: прогрес та скасування ---
+        JPanel statusPanel = new JPanel(new BorderLayout(10, 0));
+        statusPanel.setBorder(new EmptyBorder(5, 10, 5, 10));
+        progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
+        progressBar.setString("");
+        cancelBtn = new JButton("Скасувати");
+        cancelBtn.setEnabled(false);
+        cancelBtn.addActionListener(e -> {
+            if (current != null) current.cancel(true);
+        });
+        statusPanel.add(progressBar, BorderLayout.CENTER);
+        statusPanel.add(cancelBtn, BorderLayout.EAST);
+        add(statusPanel, BorderLayout.SOUTH);
     }
 
     /**
@@ -85,22 +149,125 @@ public class ReportsPanel extends JPanel {
         panel.add(btn);
     }
 
+    /**
+     * Запускає звіт у фоновому пулі. Якщо цей самий звіт уже виконується, повторний
+     * запуск ігнорується; інший звіт, що виконується, скасовується.
+     * @param name назва звіту (ключ для усунення дублювання).
+     * @param report тіло звіту.
+     */
+    private void runReport(String name, Report report) {
+        if (current != null && !current.isDone()) {
+            if (current.name.equals(name)) return; // Той самий звіт уже обчислюється
+            current.cancel(true);
+        }
+        reportArea.setText("");
+        progressBar.setValue(0);
+        progressBar.setString(name);
+        cancelBtn.setEnabled(true);
+        current = new ReportWorker(name, report);
+        REPORT_POOL.execute(current);
+    }
+
+    /**
+     * Фонове виконання одного звіту: рядки накопичуються і передаються в область звіту
+     * пакетами ({@value #BATCH_LINES} рядків або кожні {@value #BATCH_MILLIS} мс).
+     */
+    private class ReportWorker extends SwingWorker<Void, String> {
+
+        private final String name;
+        private final Report report;
+        private final StringBuilder pending = new StringBuilder();
+        private int pendingLines;
+        private long lastFlush = System.currentTimeMillis();
+
+        ReportWorker(String name, Report report) {
+            this.name = name;
+            this.report = report;
+            addPropertyChangeListener(e -> {
+                if ("progress".equals(e.getPropertyName()) && current == this) progressBar.setValue((Integer) e.getNewValue());
+            });
+        }
+
+        /**
+         * Додає рядок виводу (викликається з фонового потоку).
+         * @param text текст рядка.
+         */
+        void line(String text) {
+            pending.append(text).append('\n');
+            if (++pendingLines >= BATCH_LINES || System.currentTimeMillis() - lastFlush >= BATCH_MILLIS) flush();
+        }
+
+        /**
+         * Оновлює прогрес звіту.
+         * @param done оброблено елементів.
+         * @param total усього елементів.
+         */
+        void progress(long done, long total) {
+            setProgress(total <= 0 ? 100 : (int) Math.min(100, done * 100 / total));
+        }
+
+        private void flush() {
+            if (pending.length() > 0) publish(pending.toString());
+            pending.setLength(0);
+            pendingLines = 0;
+            lastFlush = System.currentTimeMillis();
+        }
+
+        @Override
+        protected Void doInBackground() {
+            report.run(this);
+            if (!isCancelled()) flush();
+            return null;
+        }
+
+        @Override
+        protected void process(List<String> chunks) {
+            if (current != this || isCancelled()) return; // Вивід скасованого або заміненого звіту
+            for (String chunk : chunks) reportArea.append(chunk);
+        }
+
+        @Override
+        protected void done() {
+            if (current != this) return;
+            cancelBtn.setEnabled(false);
+            if (isCancelled()) {
+                reportArea.append("\n[Звіт скасовано]\n");
+                progressBar.setString(name + " — скасовано");
+                return;
+            }
+            try {
+                get();
+                progressBar.setValue(100);
+                progressBar.setString(name + " — готово");
+            } catch (Exception e) {
+                e.printStackTrace();
+                reportArea.append("\nПомилка: " + e.getCause() + "\n");
+                progressBar.setString(name + " — помилка");
+            }
+        }
+    }
+
     // --- Логіка генерації звітів ---
+    // Звіти виконуються у фоновому потоці, а імпорт і форми тим часом змінюють дані, тому звіти
+    // читають лише синхронізовані методи DataManager: списки беруться копіями, знятими під блокуванням.
 
     /**
      * Реалізація Запиту №1: Кількість активних замовлень.
      * Виводить загальну кількість та список замовлень зі статусами NEW або IN_PROGRESS.
      */
     private void reportActiveOrders() {
-        StringBuilder sb = new StringBuilder("=== АКТИВНІ ЗАМОВЛЕННЯ ===\n\n");
-        sb.append("Кількість: ").append(dataManager.getActiveOrdersCount()).append("\n");
-
-        // Використання Stream API для фільтрації та форматування
-        dataManager.getOrders().stream()
-                .filter(o -> o.getStatus() == OrderStatus.NEW || o.getStatus() == OrderStatus.IN_PROGRESS)
-                .forEach(o -> sb.append(o.getId().substring(0,8)).append(" - ").append(o.getStatus()).append("\n"));
+        runReport("Активні замовлення", out -> {
+            out.line("=== АКТИВНІ ЗАМОВЛЕННЯ ===\n");
+            out.line("Кількість: " + dataManager.getActiveOrdersCount());
 
-        reportArea.setText(sb.toString());
+            // Відбір за колонкою статусів; об'єкти читаються лише для знайдених замовлень
+            List<Order> active = dataManager.findOrdersByStatus(EnumSet.of(OrderStatus.NEW, OrderStatus.IN_PROGRESS));
+            for (int i = 0; i < active.size() && !out.isCancelled(); i++) {
+                Order o = active.get(i);
+                out.line(dataManager.getShortOrderId(o) + " - " + o.getStatus());
+                if ((i & 0xFFF) == 0) out.progress(i, active.size());
+            }
+        });
     }
 
     /**
@@ -108,20 +275,27 @@ public class ReportsPanel extends JPanel {
      * Порівнює кількість нових та постійних клієнтів.
      */
     private void reportClients() {
-        reportArea.setText("Постійних: " + dataManager.getRegularClientsCount() +
-                "\nНових: " + dataManager.getNewClientsCount());
+        runReport("Статистика клієнтів", out -> {
+            out.line("Постійних: " + dataManager.getRegularClientsCount());
+            out.line("Нових: " + dataManager.getNewClientsCount());
+        });
     }
 
     /**
      * Реалізація Запиту №3: Кількість фотографів.
-     * Виводить список персоналу та їх спеціалізацію.
+     * Виводить список персоналу, їх спеціалізацію, кількість замовлень та виручку.
      */
     private void reportPhotographers() {
-        StringBuilder sb = new StringBuilder("=== ФОТОГРАФИ ===\n");
-        for (Photographer p : dataManager.getPhotographers()) {
-            sb.append(p.getName()).append(" (").append(p.getSpecialization()).append(")\n");
-        }
-        reportArea.setText(sb.toString());
+        runReport("Фотографи", out -> {
+            out.line("=== ФОТОГРАФИ ===");
+            List<PhotographerSummary> summary = dataManager.getPhotographerSummary(LocalDateTime.MIN, LocalDateTime.MAX);
+            for (int i = 0; i < summary.size() && !out.isCancelled(); i++) {
+                PhotographerSummary s = summary.get(i);
+                Photographer p = s.photographer();
+                out.line(p.getName() + " (" + p.getSpecialization() + "): замовлень " + s.orders() + ", " + s.revenue() + " грн");
+                out.progress(i + 1, summary.size());
+            }
+        });
     }
 
     /**
@@ -133,27 +307,51 @@ public class ReportsPanel extends JPanel {
         String id = JOptionPane.showInputDialog(this, "ID замовлення:");
         if (id == null) return; // Користувач натиснув Cancel
 
-        // Пошук замовлення (підтримується введення неповного ID)
-        Order order = dataManager.getOrders().stream()
-                .filter(o -> o.getId().startsWith(id))
-                .findFirst().orElse(null);
-
-        if (order != null) {
-            StringBuilder sb = new StringBuilder("Фото для ").append(order.getId()).append("\n");
-            dataManager.getPhotosForOrder(order.getId()).forEach(p -> sb.append(p.getFilePath()).append("\n"));
-            reportArea.setText(sb.toString());
-        } else {
-            reportArea.setText("Замовлення не знайдено.");
-        }
+        runReport("Фото замовлення " + id, out -> {
+            // Пошук замовлення за префіксним індексом (підтримується введення скороченого ID)
+            List<Order> found = dataManager.findOrdersByIdPrefix(id, CANDIDATES_LIMIT + 1);
+            if (found.isEmpty()) {
+                out.line("Замовлення не знайдено.");
+            } else if (found.size() > 1) {
+                out.line("ID \"" + id.trim() + "\" неоднозначний, уточніть одне з замовлень:");
+                for (Order o : found.subList(0, Math.min(found.size(), CANDIDATES_LIMIT))) {
+                    out.line(dataManager.getShortOrderId(o) + " - " + o.getClient().getName() + " - " + o.getStatus());
+                }
+                if (found.size() > CANDIDATES_LIMIT) out.line("...");
+            } else {
+                Order order = found.get(0);
+                out.line("Фото для " + order.getId());
+                for (Photo p : dataManager.getPhotosSnapshot(order.getId())) {
+                    if (out.isCancelled()) return;
+                    out.line(p.getDisplayName() + (p.getOriginalName() != null ? "  (" + p.getFilePath() + ")" : ""));
+                }
+            }
+        });
     }
 
     /**
      * Реалізація Запиту №5: Загальна вартість усіх замовлень.
-     * Розраховує сумарний дохід за весь період існування системи.
+     * Розраховує сумарний дохід за весь період існування системи, а також фактичні
+     * надходження в касу (за денними підсумками журналу платежів) для звірки.
      */
     private void reportRevenue() {
-        reportArea.setText("Загальний дохід: " +
-                dataManager.getTotalRevenueForPeriod(LocalDateTime.MIN, LocalDateTime.MAX) + " грн");
+        runReport("Дохід", out -> {
+            out.line("Загальний дохід: " +
+                    dataManager.getTotalRevenueForPeriod(LocalDateTime.MIN, LocalDateTime.MAX) + " грн");
+            LocalDate today = LocalDate.now();
+            try {
+                out.line("");
+                out.line("Каса (журнал платежів):");
+                out.line(String.format("  сьогодні:       %.2f грн (%d платежів)",
+                        dataManager.getPaymentsTotal(today, today), dataManager.getPaymentsCount(today, today)));
+                out.line(String.format("  поточний місяць: %.2f грн (%d платежів)",
+                        dataManager.getPaymentsTotal(today.withDayOfMonth(1), today), dataManager.getPaymentsCount(today.withDayOfMonth(1), today)));
+                out.line(String.format("  за весь час:    %.2f грн (%d платежів)",
+                        dataManager.getPaymentsTotal(LocalDate.MIN, LocalDate.MAX), dataManager.getPaymentsCount(LocalDate.MIN, LocalDate.MAX)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
     }
 
     /**
@@ -161,6 +359,12 @@ public class ReportsPanel extends JPanel {
      * Аналізує історію замовлень та визначає найпопулярнішу послугу.
      */
     private void reportPopularType() {
-        reportArea.setText("Популярна: " + dataManager.getMostPopularSessionType().orElse("-"));
+        runReport("Популярна послуга", out -> {
+            out.line("Популярна: " + dataManager.getMostPopularSessionType().orElse("-"));
+            out.line("");
+            for (Map.Entry<String, Long> e : dataManager.getSessionTypeCounts(LocalDateTime.MIN, LocalDateTime.MAX).entrySet()) {
+                out.line(e.getKey() + ": " + e.getValue());
+            }
+        });
     }
-}
\ No newline at end of file
+}
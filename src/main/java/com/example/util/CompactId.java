@@ -0,0 +1,72 @@
+package com.example.util;
+
+import java.util.UUID;
+
+/**
+ * Утилітний клас для компактного зберігання ідентифікаторів сутностей.
+ * <p>
+ * ID у формі {@link UUID#toString()} (36 символів, малі шістнадцяткові цифри) зберігаються
+ * як два {@code long} і форматуються в рядок лише на вимогу: 16 байт у полях сутності
+ * замість рядка з масивом на ~80 байт. Будь-який інший ID зберігається як є,
+ * тому {@code getId()} завжди повертає той самий рядок, що був встановлений.
+ */
+public final class CompactId {
+
+    private CompactId() {
+    }
+
+    /**
+     * Перевіряє, чи рядок є UUID у канонічній формі. Лише такі ID
+     * відновлюються з двох long без змін.
+     * @param s рядок ID (може бути null).
+     * @return true, якщо ID можна зберігати як два long.
+     */
+    public static boolean isCanonical(String s) {
+        if (s == null || s.length() != 36) return false;
+        for (int i = 0; i < 36; i++) {
+            char ch = s.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (ch != '-') return false;
+            } else if (!(ch >= '0' && ch <= '9' || ch >= 'a' && ch <= 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param id канонічний UUID (див. {@link #isCanonical}).
+     * @return старші 64 біти.
+     */
+    public static long high(String id) {
+        return hex(id, 0, 8) << 32 | hex(id, 9, 13) << 16 | hex(id, 14, 18);
+    }
+
+    /**
+     * @param id канонічний UUID (див. {@link #isCanonical}).
+     * @return молодші 64 біти.
+     */
+    public static long low(String id) {
+        return hex(id, 19, 23) << 48 | hex(id, 24, 36);
+    }
+
+    /**
+     * Форматує ID з двох long у канонічну форму UUID.
+     * @param high старші 64 біти.
+     * @param low молодші 64 біти.
+     * @return рядок ID.
+     */
+    public static String format(long high, long low) {
+        return new UUID(high, low).toString();
+    }
+
+    /** Розбирає малі шістнадцяткові цифри [from, to) (до 16 цифр, формат уже перевірено). */
+    private static long hex(String s, int from, int to) {
+        long v = 0;
+        for (int i = from; i < to; i++) {
+            char ch = s.charAt(i);
+            v = v << 4 | (ch <= '9' ? ch - '0' : ch - 'a' + 10);
+        }
+        return v;
+    }
+}
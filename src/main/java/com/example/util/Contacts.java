@@ -0,0 +1,57 @@
+package com.example.util;
+
+import java.util.Locale;
+
+/**
+ * Утилітний клас для нормалізації контактних даних (телефон, email).
+ * <p>
+ * Нормалізовані значення використовуються як ключі індексів у {@code DataManager},
+ * тому різні форми запису одного номера ("099 111-22-33", "+380991112233")
+ * зводяться до одного ключа і розпізнаються як дублікати.
+ */
+public final class Contacts {
+
+    /** Код країни (Україна), який відкидається при нормалізації номера. */
+    private static final String COUNTRY_CODE = "38";
+
+    private Contacts() {
+    }
+
+    /**
+     * Нормалізує номер телефону до національного формату (лише цифри, з провідним 0).
+     * <ul>
+     * <li>Видаляє всі нецифрові символи (пробіли, дужки, дефіси, "+").</li>
+     * <li>"380991112233" та "80991112233" перетворюються на "0991112233".</li>
+     * </ul>
+     *
+     * @param phone номер у довільному форматі (може бути null).
+     * @return рядок з цифр або порожній рядок, якщо цифр немає.
+     */
+    public static String normalizePhone(String phone) {
+        if (phone == null) return "";
+        StringBuilder digits = new StringBuilder(phone.length());
+        for (int i = 0; i < phone.length(); i++) {
+            char ch = phone.charAt(i);
+            if (ch >= '0' && ch <= '9') digits.append(ch);
+        }
+        // Відкидаємо код країни: 38 0XX... -> 0XX...
+        if (digits.length() > COUNTRY_CODE.length() + 1
+                && digits.indexOf(COUNTRY_CODE + "0") == 0) {
+            digits.delete(0, COUNTRY_CODE.length());
+        } else if (digits.length() == 11 && digits.charAt(0) == '8' && digits.charAt(1) == '0') {
+            digits.deleteCharAt(0); // Застарілий формат 8 0XX...
+        }
+        return digits.toString();
+    }
+
+    /**
+     * Нормалізує email: обрізає пробіли та переводить у нижній регістр.
+     *
+     * @param email адреса електронної пошти (може бути null).
+     * @return нормалізована адреса або порожній рядок.
+     */
+    public static String normalizeEmail(String email) {
+        if (email == null) return "";
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -2,10 +2,22 @@ package com.example.util;
 
 /**
  * Перелічування (enum) для фіксації можливих станів замовлення.
+ * Порядок констант задає життєвий цикл: NEW → IN_PROGRESS → COMPLETED → PAID.
  */
 public enum OrderStatus {
     NEW, // Нове, щойно створене
     IN_PROGRESS, // В роботі у фотографа
     COMPLETED, // Завершено, очікує оплати
-    PAID // Оплачено та видано
+    PAID; // Оплачено та видано
+
+    /**
+     * Перевіряє, чи допустимий перехід у вказаний статус.
+     * Замовлення рухається лише вперед за життєвим циклом; проміжні етапи можна
+     * пропустити (наприклад, передоплата переводить нове замовлення одразу в PAID).
+     * @param next новий статус.
+     * @return true, якщо перехід дозволено.
+     */
+    public boolean canTransitionTo(OrderStatus next) {
+        return next != null && next.ordinal() > ordinal();
+    }
 }
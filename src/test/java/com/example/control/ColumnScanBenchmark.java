@@ -0,0 +1,74 @@
+package com.example.control;
+
+import com.example.entity.Client;
+import com.example.entity.Photographer;
+import com.example.model.Order;
+import com.example.service.SessionType;
+import com.example.util.OrderStatus;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Порівняння аналітичного проходу по колонках {@link OrderColumns} з проходом по об'єктах
+ * замовлень (підсумки фотографів за період та підрахунок оплачених замовлень клієнта).
+ * Запуск: {@code java -Xmx4g -cp target/classes:target/test-classes com.example.control.ColumnScanBenchmark [кількість замовлень]}
+ */
+public class ColumnScanBenchmark {
+
+    private static final int ROUNDS = 10;
+
+    public static void main(String[] args) {
+        int orderCount = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        Random rnd = new Random(42);
+        List<Client> clients = new ArrayList<>();
+        for (int i = 0; i < orderCount / 5; i++) clients.add(new Client("Клієнт " + i, "050" + i, "c" + i + "@mail.com", false));
+        List<Photographer> photographers = new ArrayList<>();
+        for (int i = 0; i < 50; i++) photographers.add(new Photographer("Фотограф " + i, "099" + i, "Портрет"));
+        SessionType[] types = {new SessionType("Портрет", 1000), new SessionType("Весілля", 5000), new SessionType("Сімейна", 1500)};
+
+        List<Order> orders = new ArrayList<>(orderCount);
+        OrderColumns columns = new OrderColumns();
+        columns.ensureCapacity(orderCount);
+        for (int i = 0; i < orderCount; i++) {
+            Order o = new Order(clients.get(rnd.nextInt(clients.size())),
+                    photographers.get(rnd.nextInt(photographers.size())), types[rnd.nextInt(types.length)]);
+            o.setOrderDate(LocalDateTime.of(2020, 1, 1, 9, 0).plusMinutes(rnd.nextInt(2_000_000)));
+            o.setStatus(OrderStatus.values()[rnd.nextInt(4)]);
+            orders.add(o);
+            columns.add(o);
+        }
+        LocalDateTime from = LocalDateTime.of(2021, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2022, 1, 1, 0, 0);
+        long fromMinute = from.toEpochSecond(ZoneOffset.UTC) / 60;
+        long toMinute = to.toEpochSecond(ZoneOffset.UTC) / 60;
+        Client target = clients.get(0);
+        Map<Photographer, Integer> ordinals = new IdentityHashMap<>();
+        for (Photographer p : photographers) ordinals.put(p, ordinals.size());
+
+        long checksum = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long t0 = System.nanoTime();
+            long[][] totals = columns.photographerTotals(fromMinute, toMinute);
+            long paid = columns.countByClient(target, OrderStatus.PAID);
+            long t1 = System.nanoTime();
+
+            long[] sums = new long[photographers.size()];
+            long objectPaid = 0;
+            for (Order o : orders) {
+                LocalDateTime d = o.getOrderDate();
+                if (!d.isBefore(from) && !d.isAfter(to)) sums[ordinals.get(o.getPhotographer())] += Math.round(o.getTotalCost() * 100);
+                if (o.getClient() == target && o.getStatus() == OrderStatus.PAID) objectPaid++;
+            }
+            long t2 = System.nanoTime();
+            checksum += totals[1][0] + paid + sums[0] + objectPaid;
+            System.out.printf("Прохід %d: колонки %d мс, об'єкти %d мс%n", round, (t1 - t0) / 1_000_000, (t2 - t1) / 1_000_000);
+        }
+        System.out.println("(" + checksum + ")");
+    }
+}
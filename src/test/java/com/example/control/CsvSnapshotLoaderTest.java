@@ -0,0 +1,54 @@
+package com.example.control;
+
+import com.example.model.Order;
+import com.example.util.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvSnapshotLoaderTest {
+
+    @Test
+    public void testChunkedLoadMatchesFileContents(@TempDir Path dir) throws Exception {
+        // Дрібні фрагменти (64 байти), щоб рядки гарантовано перетинали межі фрагментів
+        StringBuilder clients = new StringBuilder();
+        StringBuilder orders = new StringBuilder();
+        StringBuilder photos = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            clients.append("c").append(i).append(",Клієнт ").append(i).append(",050").append(i)
+                    .append(",m").append(i).append("@mail,").append(i % 2 == 0).append("\r\n");
+            orders.append("o").append(i).append(",2024-03-0").append(1 + i % 9).append("T10:15:30.").append(i % 10)
+                    .append(",").append(OrderStatus.values()[i % 4]).append(",c").append(i).append(",p1,Портрет,")
+                    .append(i).append(".25\n");
+            photos.append("f").append(i).append(",o").append(i).append(",IMG_").append(i).append(".JPG\n");
+        }
+        Files.writeString(dir.resolve("clients.csv"), clients, StandardCharsets.UTF_8);
+        Files.writeString(dir.resolve("photographers.csv"), "p1,Фотограф,0991112233,Весілля\n", StandardCharsets.UTF_8);
+        Files.writeString(dir.resolve("orders.csv"), orders, StandardCharsets.UTF_8);
+        Files.writeString(dir.resolve("photos.csv"), photos, StandardCharsets.UTF_8);
+
+        Snapshot snap = new CsvSnapshotLoader(ForkJoinPool.commonPool(), 64).load(dir);
+
+        assertEquals(500, snap.clients.size());
+        assertEquals(500, snap.orders.size());
+        assertEquals(500, snap.photoCount);
+        assertEquals("Клієнт 42", snap.clients.get(42).getName());
+        assertEquals("m499@mail", snap.clients.get(499).getEmail());
+        assertTrue(snap.clients.get(0).isRegular());
+
+        Order o = snap.orders.get(123);
+        assertEquals("o123", o.getId());
+        assertSame(snap.clientsById.get("c123"), o.getClient());
+        assertEquals(LocalDateTime.parse("2024-03-07T10:15:30.3"), o.getOrderDate());
+        assertEquals(OrderStatus.values()[123 % 4], o.getStatus());
+        assertEquals(123.25, o.getTotalCost());
+        assertEquals("IMG_123.JPG", o.getPhotos().get(0).getFilePath());
+    }
+}
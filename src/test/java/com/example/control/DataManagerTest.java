@@ -1,14 +1,29 @@
 package com.example.control;
 
 import com.example.entity.Client;
+import com.example.entity.Photo;
 import com.example.entity.Photographer;
 import com.example.model.Order;
+import com.example.service.FreeSlotGrid;
+import com.example.service.LoyaltyPolicy;
 import com.example.service.SessionType;
 import com.example.util.OrderStatus;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -16,15 +31,22 @@ public class DataManagerTest {
 
     private DataManager dataManager;
 
+    // Кожен тест працює з власною тимчасовою папкою: робоча папка проєкту не змінюється
+    @TempDir
+    Path dataDir;
+
     // Виконується перед кожним тестом (обнуляє дані)
     @BeforeEach
     public void setUp() {
-        dataManager = new DataManager();
-        // Очистимо дані, якщо вони завантажились з файлу (треба додати метод clear() в DataManager для тестів,
-        // або просто не звертати увагу, бо ми додаємо нові)
-        // Для чистоти експерименту краще працювати з чистим об'єктом,
-        // але DataManager у нас вантажить з файлу в конструкторі.
-        // Припустимо, ми тестуємо логіку на нових доданих об'єктах.
+        dataManager = new DataManager(dataDir.toString());
+        // Папка порожня, тож DataManager стартує з базових даних,
+        // а ми тестуємо логіку на нових доданих об'єктах.
+    }
+
+    // Закриває журнал і потік запису після кожного тесту
+    @AfterEach
+    public void tearDown() throws IOException {
+        dataManager.close();
     }
 
     @Test
@@ -95,4 +117,643 @@ public class DataManagerTest {
         // Клієнт мав стати постійним
         assertTrue(c.isRegular(), "Клієнт повинен стати постійним після 3 оплачених замовлень");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testFindByIdIndexes() {
+        Client c = new Client("Indexed", "123", "idx@mail", false);
+        dataManager.addClient(c);
+        Order o = new Order(c, new Photographer("P", "1", "S"), new SessionType("S", 100));
+        dataManager.addOrder(o);
+
+        // Пошук за ID має повертати той самий об'єкт
+        assertSame(c, dataManager.findClientById(c.getId()));
+        assertSame(o, dataManager.findOrderById(o.getId()));
+        assertSame(o.getPhotos(), dataManager.getPhotosForOrder(o.getId()));
+        assertNull(dataManager.findOrderById("unknown"));
+    }
+
+    @Test
+    public void testClientExistsWithNormalizedPhone() {
+        String local = "09" + (System.nanoTime() % 100_000_000L + 100_000_000L);
+        Client c = new Client("Dup", local, "Dup." + local + "@Mail.com", false);
+        dataManager.addClient(c);
+
+        // Той самий номер у міжнародному форматі та email в іншому регістрі
+        assertSame(c, dataManager.findClientByPhone("+38" + local));
+        assertTrue(dataManager.clientExists("+38 " + local, ""));
+        assertTrue(dataManager.clientExists("", "dup." + local + "@mail.com"));
+        assertFalse(dataManager.clientExists("", ""));
+    }
+
+    @Test
+    public void testJournalReplayAndCompaction(@TempDir Path dir) throws Exception {
+        DataManager dm = new DataManager(dir.toString());
+        Client c = new Client("Journal", "0501234567", "j@mail", false);
+        Photographer p = new Photographer("P", "0671234567", "S");
+        dm.addClient(c);
+        dm.addPhotographer(p);
+        Order o = new Order(c, p, new SessionType("S", 100));
+        dm.addOrder(o);
+        dm.setOrderStatus(o, OrderStatus.PAID);
+        dm.flush();
+
+        // Знімка ще немає: стан відновлюється лише з журналу
+        assertFalse(Files.exists(dir.resolve("orders.csv")));
+        DataManager reloaded = new DataManager(dir.toString());
+        assertEquals(OrderStatus.PAID, reloaded.findOrderById(o.getId()).getStatus());
+        assertNotNull(reloaded.findClientByPhone("0501234567"));
+
+        // Після ущільнення журнал порожній, а дані — у знімку
+        reloaded.compact(dir.toString());
+        reloaded.close();
+        assertFalse(Files.exists(dir.resolve(ChangeJournal.FILE_NAME)));
+        DataManager fromSnapshot = new DataManager(dir.toString());
+        assertEquals(OrderStatus.PAID, fromSnapshot.findOrderById(o.getId()).getStatus());
+        fromSnapshot.close();
+        dm.close();
+    }
+
+    @Test
+    public void testPersistenceWriterGroupsBurstIntoOneBatch(@TempDir Path dir) throws Exception {
+        DataManager dm = new DataManager(dir.toString());
+        dm.flush(); // Базові фотографи першого запуску
+        long flushesBefore = dm.getPersistenceWriter().getFlushCount();
+
+        Client c = new Client("Burst", "0631112233", "b@mail", false);
+        dm.addClient(c);
+        dm.addOrder(new Order(c, dm.getPhotographers().get(0), new SessionType("S", 100)));
+        dm.flush();
+
+        // Клієнт і замовлення записані одним пакетом
+        assertEquals(flushesBefore + 1, dm.getPersistenceWriter().getFlushCount());
+        assertEquals(2, dm.getPersistenceWriter().getLastBatchSize());
+        dm.close();
+    }
+
+    @Test
+    public void testBinaryStorageConversionRoundTrip(@TempDir Path dir) throws Exception {
+        DataManager dm = new DataManager(dir.toString());
+        Client c = new Client("Бінарний", "0509998877", "bin@mail", true);
+        dm.addClient(c);
+        Order o = new Order(c, dm.getPhotographers().get(0), new SessionType("Весілля", 5000));
+        o.getPhotos().add(new Photo("IMG_1.JPG"));
+        Photo stored = new Photo("photos/objects/ab/cd/abcd.jpg", 10, "abcd");
+        stored.setOriginalName("IMG_2.JPG");
+        o.getPhotos().add(stored);
+        dm.addOrder(o);
+        dm.setOrderStatus(o, OrderStatus.COMPLETED);
+
+        dm.convertStorage(StorageFormat.BINARY);
+        assertTrue(Files.exists(dir.resolve(BinaryStorage.FILE_NAME)));
+        assertFalse(Files.exists(dir.resolve("orders.csv")));
+        dm.close();
+
+        // Формат визначається за файлом, усі поля відновлюються без втрат
+        DataManager reloaded = new DataManager(dir.toString());
+        assertEquals(StorageFormat.BINARY, reloaded.getStorageFormat());
+        Order r = reloaded.findOrderById(o.getId());
+        assertEquals(o.getOrderDate(), r.getOrderDate());
+        assertEquals(OrderStatus.COMPLETED, r.getStatus());
+        assertEquals(4500.0, r.getTotalCost());
+        assertEquals("IMG_1.JPG", r.getPhotos().get(0).getFilePath());
+        assertEquals(o.getPhotos().get(0).getId(), r.getPhotos().get(0).getId());
+        assertEquals("IMG_2.JPG", r.getPhotos().get(1).getDisplayName());
+        assertEquals(10, r.getPhotos().get(1).getSize());
+        assertTrue(reloaded.findClientById(c.getId()).isRegular());
+
+        // Експорт у CSV та імпорт назад у двійковий менеджер
+        Path export = dir.resolve("export");
+        Files.createDirectories(export);
+        reloaded.getStorage(StorageFormat.CSV).saveDataToFile(export.toString());
+        assertTrue(Files.exists(export.resolve("orders.csv")));
+        reloaded.loadDataFromFile(export.toString());
+        assertEquals("Бінарний", reloaded.findOrderById(o.getId()).getClient().getName());
+        assertEquals("IMG_2.JPG", reloaded.findOrderById(o.getId()).getPhotos().get(1).getOriginalName());
+        reloaded.close();
+    }
+
+    @Test
+    public void testImportedSnapshotReplacesStoredData(@TempDir Path dir, @TempDir Path other) throws Exception {
+        DataManager source = new DataManager(other.toString());
+        Client imported = new Client("Імпорт", "0501234567", "import@mail", false);
+        source.addClient(imported);
+        Path export = other.resolve("export");
+        Files.createDirectories(export);
+        source.getStorage(StorageFormat.CSV).saveDataToFile(export.toString());
+        source.close();
+
+        DataManager dm = new DataManager(dir.toString());
+        Client local = new Client("Локальний", "0507654321", "local@mail", false);
+        dm.addClient(local);
+        dm.flush();
+        dm.loadDataFromFile(export.toString());
+        assertNotNull(dm.findClientById(imported.getId()));
+        assertNull(dm.findClientById(local.getId()));
+        dm.addClient(new Client("Після імпорту", "0509998877", "after@mail", false));
+        dm.close();
+
+        // Імпорт збережено в директорії даних, журнал до імпорту не програється
+        DataManager reloaded = new DataManager(dir.toString());
+        assertNotNull(reloaded.findClientById(imported.getId()));
+        assertNull(reloaded.findClientById(local.getId()));
+        assertEquals(List.of("Імпорт", "Після імпорту"), reloaded.getClients().stream().map(Client::getName).toList());
+        reloaded.close();
+        reloaded.close(); // Повторне закриття нічого не робить
+    }
+
+    @Test
+    public void testUnreadableSnapshotIsNotReplacedWithBaseData(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve(BinaryStorage.FILE_NAME);
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        assertThrows(UncheckedIOException.class, () -> new DataManager(dir.toString()));
+
+        // Фонове завантаження повідомляє про помилку, а файл лишається як був
+        DataManager deferred = new DataManager(dir.toString(), false);
+        assertThrows(IOException.class, deferred::load);
+        deferred.close();
+        assertArrayEquals(new byte[]{1, 2, 3, 4, 5, 6, 7, 8}, Files.readAllBytes(file));
+    }
+
+    @Test
+    public void testBookingConflictsUseSessionDuration(@TempDir Path dir) throws Exception {
+        DataManager dm = new DataManager(dir.toString());
+        Client c = new Client("Booking", "0681112233", "book@mail", false);
+        Photographer p = new Photographer("Зайнятий", "0661112233", "Весілля");
+        dm.addClient(c);
+        dm.addPhotographer(p);
+        SessionType wedding = new SessionType("Весілля-тест", 5000, 480);
+        SessionType portrait = new SessionType("Портрет-тест", 1000, 60);
+
+        Order first = new Order(c, p, wedding);
+        first.setOrderDate(LocalDateTime.of(2030, 6, 1, 10, 0));
+        assertTrue(dm.addOrder(first).isEmpty());
+
+        // Весілля триває до 18:00: о 17:30 фотограф зайнятий, о 18:00 — вільний
+        assertFalse(dm.getAvailablePhotographers(LocalDateTime.of(2030, 6, 1, 17, 30), portrait).contains(p));
+        assertTrue(dm.getAvailablePhotographers(LocalDateTime.of(2030, 6, 1, 18, 0), portrait).contains(p));
+        // Сесія, що закінчується рівно о 10:00, не перетинається
+        assertTrue(dm.findBookingConflicts(p, LocalDateTime.of(2030, 6, 1, 9, 0), portrait).isEmpty());
+
+        Order second = new Order(c, p, portrait);
+        second.setOrderDate(LocalDateTime.of(2030, 6, 1, 12, 0));
+        assertEquals(List.of(first), dm.addOrder(second));
+        dm.close();
+    }
+
+    @Test
+    public void testFreeSlotGridBySpecialization(@TempDir Path dir) throws Exception {
+        DataManager dm = new DataManager(dir.toString());
+        Client c = new Client("Grid", "0731112233", "grid@mail", false);
+        Photographer busy = new Photographer("Сітка 1", "0731110001", "Репортаж");
+        Photographer idle = new Photographer("Сітка 2", "0731110002", "Репортаж");
+        dm.addClient(c);
+        dm.addPhotographer(busy);
+        dm.addPhotographer(idle);
+
+        // Сесія 90 хв з 10:10 займає слоти 10:00 .. 11:30
+        Order o = new Order(c, busy, new SessionType("Репортаж-тест", 2000, 90));
+        o.setOrderDate(LocalDateTime.of(2030, 3, 4, 10, 10));
+        dm.addOrder(o);
+
+        LocalDate day = LocalDate.of(2030, 3, 4);
+        FreeSlotGrid grid = dm.findFreeSlots(day, day.plusDays(6), "репортаж");
+        assertEquals(List.of(busy, idle), grid.getPhotographers());
+        assertEquals(7, grid.getDays());
+        List<LocalTime> free = grid.getFreeSlots(busy, day);
+        assertFalse(free.contains(LocalTime.of(10, 0)));
+        assertFalse(free.contains(LocalTime.of(11, 30)));
+        assertTrue(free.contains(LocalTime.of(11, 45)));
+        assertEquals(48, grid.getFreeSlots(idle, day).size()); // 09:00 - 21:00
+        assertTrue(grid.getAnyFreeSlots(day).contains(LocalTime.of(10, 0)));
+
+        // Годинна сесія до зайнятого проміжку може початися не пізніше 09:00
+        List<LocalTime> starts = grid.getSessionStarts(busy, day, 60);
+        assertTrue(starts.contains(LocalTime.of(9, 0)));
+        assertFalse(starts.contains(LocalTime.of(9, 15)));
+        assertTrue(starts.contains(LocalTime.of(20, 0)));
+        assertFalse(starts.contains(LocalTime.of(20, 15)));
+        dm.close();
+    }
+
+    @Test
+    public void testRevenueIndexPeriodsAndDailySeries(@TempDir Path dir) throws Exception {
+        DataManager dm = new DataManager(dir.toString());
+        Client c = new Client("Revenue", "0931112233", "rev@mail", false);
+        dm.addClient(c);
+        Photographer p = dm.getPhotographers().get(0);
+        LocalDateTime[] dates = {
+                LocalDateTime.of(2029, 1, 1, 10, 0), LocalDateTime.of(2029, 1, 1, 18, 0),
+                LocalDateTime.of(2029, 1, 3, 12, 0), LocalDateTime.of(2031, 7, 1, 9, 0)};
+        Order[] orders = new Order[dates.length];
+        for (int i = 0; i < dates.length; i++) {
+            orders[i] = new Order(c, p, new SessionType("Дохід", 100 * (i + 1)));
+            orders[i].setOrderDate(dates[i]);
+            dm.addOrder(orders[i]);
+        }
+
+        // Неповні крайові дні, повні дні та весь період
+        assertEquals(300.0, dm.getTotalRevenueForPeriod(LocalDateTime.of(2029, 1, 1, 10, 0), LocalDateTime.of(2029, 1, 1, 18, 0)));
+        assertEquals(500.0, dm.getTotalRevenueForPeriod(LocalDateTime.of(2029, 1, 1, 11, 0), LocalDateTime.of(2029, 1, 3, 12, 0)));
+        assertEquals(600.0, dm.getTotalRevenueForPeriod(LocalDate.of(2029, 1, 1).atStartOfDay(), LocalDate.of(2029, 1, 3).atTime(LocalTime.MAX)));
+        assertEquals(1000.0, dm.getTotalRevenueForPeriod(LocalDateTime.MIN, LocalDateTime.MAX), 1e-9);
+
+        dm.repriceOrder(orders[2], 50);
+        assertArrayEquals(new double[]{300.0, 0.0, 50.0, 0.0}, dm.getDailyRevenue(LocalDate.of(2029, 1, 1), LocalDate.of(2029, 1, 4)));
+        dm.close();
+    }
+
+    @Test
+    public void testStatisticsFollowChangesAndReload(@TempDir Path dir) throws Exception {
+        DataManager dm = new DataManager(dir.toString());
+        Client c = new Client("Stats", "0934445566", "stats@mail", false);
+        dm.addClient(c);
+        Photographer p = dm.getPhotographers().get(0);
+        List<Order> added = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Order o = new Order(c, p, new SessionType(i < 2 ? "Портрет" : "Весілля", 100));
+            o.setOrderDate(LocalDateTime.of(2030, 2, 1 + i, 10, 0));
+            dm.addOrder(o);
+            added.add(o);
+        }
+        assertEquals(3, dm.getActiveOrdersCount());
+        assertEquals(Optional.of("Портрет"), dm.getMostPopularSessionType());
+
+        for (Order o : added) dm.setOrderStatus(o, OrderStatus.PAID);
+        dm.checkAndUpgradeClient(c);
+        assertEquals(0, dm.getActiveOrdersCount());
+        assertEquals(3, dm.getOrdersCount(OrderStatus.PAID));
+        assertEquals(1, dm.getRegularClientsCount());
+        assertEquals(0, dm.getNewClientsCount());
+        dm.close();
+
+        // Після перезапуску (знімок + журнал) лічильники збігаються з повним перерахунком
+        DataManager reloaded = new DataManager(dir.toString());
+        assertEquals(reloaded.getOrders().stream().filter(o -> o.getStatus() == OrderStatus.PAID).count(),
+                reloaded.getOrdersCount(OrderStatus.PAID));
+        assertEquals(reloaded.getClients().stream().filter(Client::isRegular).count(), reloaded.getRegularClientsCount());
+        assertEquals(0, reloaded.getActiveOrdersCount());
+        assertEquals(Optional.of("Портрет"), reloaded.getMostPopularSessionType());
+        reloaded.close();
+    }
+
+    @Test
+    public void testTransitionFollowsLifecycleAndPublishesEvents(@TempDir Path dir) throws Exception {
+        DataManager dm = new DataManager(dir.toString());
+        List<DataChangeEvent> events = new ArrayList<>();
+        dm.addDataChangeListener(events::add);
+        Client c = new Client("Events", "0937778899", "events@mail", false);
+        dm.addClient(c);
+        Order o = new Order(c, dm.getPhotographers().get(0), new SessionType("Портрет", 1000));
+        dm.addOrder(o);
+
+        dm.transition(o.getId(), OrderStatus.IN_PROGRESS);
+        dm.transition(o.getId(), OrderStatus.PAID); // Пропуск етапу вперед дозволено
+        assertThrows(IllegalStateException.class, () -> dm.transition(o.getId(), OrderStatus.COMPLETED));
+        assertThrows(IllegalStateException.class, () -> dm.transition(o.getId(), OrderStatus.PAID));
+        assertThrows(IllegalArgumentException.class, () -> dm.transition("missing", OrderStatus.PAID));
+        assertEquals(OrderStatus.PAID, o.getStatus());
+
+        assertEquals(List.of(DataChangeEvent.Type.CLIENT_ADDED, DataChangeEvent.Type.ORDER_ADDED,
+                        DataChangeEvent.Type.ORDER_STATUS_CHANGED, DataChangeEvent.Type.ORDER_STATUS_CHANGED),
+                events.stream().map(DataChangeEvent::getType).toList());
+        DataChangeEvent last = events.get(3);
+        assertSame(o, last.getEntity());
+        assertEquals(OrderStatus.IN_PROGRESS, last.getOldValue());
+        assertEquals(OrderStatus.PAID, last.getNewValue());
+        assertEquals(1, dm.getOrdersCount(OrderStatus.PAID));
+        dm.close();
+
+        // Перехід потрапляє в журнал
+        DataManager reloaded = new DataManager(dir.toString());
+        assertEquals(OrderStatus.PAID, reloaded.findOrderById(o.getId()).getStatus());
+        reloaded.close();
+    }
+
+    @Test
+    public void testOrderViewsSortAndFilterWithoutCopying(@TempDir Path dir) throws Exception {
+        DataManager dm = new DataManager(dir.toString());
+        Client anna = new Client("Анна", "0931110001", "anna@mail", false);
+        Client boris = new Client("Борис", "0931110002", "boris@mail", false);
+        dm.addClient(anna);
+        dm.addClient(boris);
+        Photographer p = dm.getPhotographers().get(0);
+        double[] prices = {300, 100, 200, 100};
+        Client[] owners = {boris, anna, boris, anna};
+        for (int i = 0; i < prices.length; i++) {
+            Order o = new Order(owners[i], p, new SessionType("Вигляд", prices[i]));
+            o.setOrderDate(LocalDateTime.of(2030, 3, 4 - i, 10, 0));
+            dm.addOrder(o);
+        }
+        List<Order> orders = dm.getOrders();
+
+        OrderView byPrice = dm.getOrderView(OrderSortKey.PRICE, true, null, null);
+        assertArrayEquals(new int[]{1, 3, 2, 0}, rowsOf(byPrice)); // Рівні ціни — у порядку додавання
+        assertArrayEquals(new int[]{3, 2, 1, 0}, rowsOf(dm.getOrderView(OrderSortKey.DATE, true, null, null)));
+        assertArrayEquals(new int[]{1, 3, 0, 2}, rowsOf(dm.getOrderView(OrderSortKey.CLIENT, true, null, null)));
+
+        // Зміна статусу впливає на фільтр, пошук за іменем — без урахування регістру
+        dm.transition(orders.get(2).getId(), OrderStatus.PAID);
+        OrderView paid = dm.getOrderView(OrderSortKey.PRICE, false, Set.of(OrderStatus.PAID), null);
+        assertArrayEquals(new int[]{2}, rowsOf(paid));
+        assertEquals(0, paid.getViewRow(2));
+        assertEquals(-1, paid.getViewRow(0));
+        assertArrayEquals(new int[]{0, 2}, rowsOf(dm.getOrderView(OrderSortKey.PRICE, false, null, "бор")));
+
+        // Зміна вартості перебудовує лише перестановку за ціною
+        dm.repriceOrder(orders.get(0), 50);
+        assertEquals(0, dm.getOrderView(OrderSortKey.PRICE, true, null, null).getOrderIndex(0));
+
+        // Сортування ключів з великим діапазоном (через ранги)
+        assertArrayEquals(new int[]{1, 2, 0}, OrderViewIndex.sort(new long[]{Long.MAX_VALUE, Long.MIN_VALUE, 0}));
+        dm.close();
+    }
+
+    private static int[] rowsOf(OrderView view) {
+        int[] rows = new int[view.size()];
+        for (int i = 0; i < rows.length; i++) rows[i] = view.getOrderIndex(i);
+        return rows;
+    }
+
+    @Test
+    public void testClientPrefixSearch(@TempDir Path dir) throws Exception {
+        DataManager dm = new DataManager(dir.toString());
+        Client ivan = new Client("Іван Петренко", "+38 (050) 123-45-67", "ivan@studio.ua", false);
+        Client iryna = new Client("Ірина Іваненко", "0671112233", "iryna@mail.com", false);
+        dm.addClient(ivan);
+        dm.addClient(iryna);
+
+        assertEquals(List.of(ivan), dm.searchClients("пет", 10));
+        assertEquals(2, dm.searchClients("і", 10).size());
+        assertEquals(1, dm.searchClients("і", 1).size());
+        assertEquals(List.of(iryna), dm.searchClients("іва ір", 10)); // Кожне слово — початок слова клієнта
+        assertEquals(List.of(ivan), dm.searchClients("050 12", 10)); // Номер у довільному форматі
+        assertEquals(List.of(ivan), dm.searchClients("IVAN@", 10));
+        assertTrue(dm.searchClients("  ", 10).isEmpty());
+
+        // Індекс оновлюється при додаванні та зміні контактів
+        Client olena = new Client("Олена", "0990000000", "olena@mail.com", false);
+        dm.addClient(olena);
+        assertEquals(List.of(olena), dm.searchClients("оле", 10));
+        dm.updateClientContacts(ivan, "0631234567", "petrenko@studio.ua");
+        assertTrue(dm.searchClients("050", 10).isEmpty());
+        assertEquals(List.of(ivan), dm.searchClients("063", 10));
+        assertEquals(List.of(ivan), dm.searchClients("petr", 10));
+        dm.close();
+    }
+
+    @Test
+    public void testOrderIdPrefixLookup(@TempDir Path dir) throws Exception {
+        DataManager dm = new DataManager(dir.toString());
+        Client c = new Client("Префікс", "0501110000", "prefix@mail", false);
+        Photographer p = new Photographer("P", "1", "S");
+        SessionType s = new SessionType("S", 100);
+        Order a = new Order(c, p, s);
+        a.setId("abc12345-0000-0000-0000-000000000001");
+        Order b = new Order(c, p, s);
+        b.setId("abc12399-0000-0000-0000-000000000002");
+        dm.addOrder(a);
+        dm.addOrder(b);
+
+        assertEquals(List.of(a, b), dm.findOrdersByIdPrefix("ABC123", 10)); // Неоднозначний префікс
+        assertEquals(List.of(a), dm.findOrdersByIdPrefix("abc1234", 10));
+        assertTrue(dm.findOrdersByIdPrefix("fff", 10).isEmpty());
+        assertEquals("abc1234", dm.getShortOrderId(a));
+
+        // Нове замовлення враховується, а короткий ID не буває коротшим за мінімальний
+        Order d = new Order(c, p, s);
+        d.setId("f0000000-0000-0000-0000-000000000003");
+        dm.addOrder(d);
+        assertEquals(List.of(d), dm.findOrdersByIdPrefix("f", 10));
+        assertEquals("f00000", dm.getShortOrderId(d));
+        dm.close();
+    }
+
+    @Test
+    public void testColumnarAnalyticsFollowChangesAndReload(@TempDir Path dir) throws Exception {
+        DataManager dm = new DataManager(dir.toString());
+        Client c = new Client("Колонки", "0502223344", "columns@mail", false);
+        dm.addClient(c);
+        Photographer ann = dm.getPhotographers().get(0);
+        Photographer bob = dm.getPhotographers().get(1);
+        SessionType portrait = new SessionType("Портрет", 1000);
+        SessionType wedding = new SessionType("Весілля", 5000);
+        LocalDateTime day = LocalDateTime.of(2024, 5, 6, 10, 0);
+        Order a = new Order(c, ann, portrait);
+        a.setOrderDate(day);
+        Order b = new Order(c, ann, wedding);
+        b.setOrderDate(day.plusDays(1));
+        Order d = new Order(c, bob, portrait);
+        d.setOrderDate(day.plusDays(2));
+        dm.addOrder(a);
+        dm.addOrder(b);
+        dm.addOrder(d);
+
+        dm.transition(b.getId(), OrderStatus.IN_PROGRESS);
+        dm.transition(d.getId(), OrderStatus.PAID);
+        dm.repriceOrder(a, 800);
+        assertArrayEquals(new int[]{0, 1}, dm.findOrderIndexes(Set.of(OrderStatus.NEW, OrderStatus.IN_PROGRESS)));
+        assertArrayEquals(new int[]{2}, dm.findOrderIndexes(Set.of(OrderStatus.PAID)));
+        assertEquals(List.of(d), dm.findOrdersByStatus(Set.of(OrderStatus.PAID)));
+
+        List<PhotographerSummary> all = dm.getPhotographerSummary(LocalDateTime.MIN, LocalDateTime.MAX);
+        assertEquals(dm.getPhotographers().size(), all.size());
+        assertEquals(new PhotographerSummary(ann, 2, 5800), all.get(0));
+        assertEquals(new PhotographerSummary(bob, 1, 1000), all.get(1));
+        assertEquals(0, all.get(2).orders());
+        // Межі періоду включні з точністю до хвилини
+        assertEquals(1, dm.getPhotographerSummary(day, day).get(0).orders());
+        assertEquals(List.of("Портрет", "Весілля"), List.copyOf(dm.getSessionTypeCounts(LocalDateTime.MIN, LocalDateTime.MAX).keySet()));
+        assertEquals(2L, dm.getSessionTypeCounts(LocalDateTime.MIN, LocalDateTime.MAX).get("Портрет"));
+        assertEquals(1L, dm.getSessionTypeCounts(day.plusDays(1), day.plusDays(1)).get("Весілля"));
+        dm.close();
+
+        // Після перезавантаження колонки будуються зі знімка та журналу
+        DataManager reloaded = new DataManager(dir.toString());
+        assertArrayEquals(new int[]{2}, reloaded.findOrderIndexes(Set.of(OrderStatus.PAID)));
+        assertEquals(5800, reloaded.getPhotographerSummary(LocalDateTime.MIN, LocalDateTime.MAX).get(0).revenue());
+        reloaded.close();
+    }
+
+    @Test
+    public void testLoyaltyCountersAndConfigurablePolicy(@TempDir Path dir) throws Exception {
+        DataManager dm = new DataManager(dir.toString());
+        Client c = new Client("Лояльний", "0507778899", "loyal@mail", false);
+        Client other = new Client("Інший", "0507778800", "other@mail", false);
+        dm.addClient(c);
+        dm.addClient(other);
+        Photographer p = dm.getPhotographers().get(0);
+        List<Order> added = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Order o = new Order(i < 2 ? c : other, p, new SessionType("Портрет", 1000));
+            o.setOrderDate(LocalDateTime.of(2031, 3, 1 + i, 10, 0));
+            dm.addOrder(o);
+            added.add(o);
+        }
+
+        // Оплата оновлює лічильники; вартість оплаченого замовлення — суму витрат
+        dm.setOrderStatus(added.get(0), OrderStatus.PAID);
+        dm.setOrderStatus(added.get(1), OrderStatus.PAID);
+        dm.repriceOrder(added.get(1), 800);
+        assertEquals(2, dm.getPaidOrdersCount(c));
+        assertEquals(1800, dm.getLifetimeSpend(c), 0.001);
+        assertFalse(c.isRegular(), "За типовим правилом потрібно 3 оплачених замовлення");
+
+        // Нижчий поріг: масова перевірка підвищує статус, знижка нових замовлень — з правила
+        assertEquals(1, dm.setLoyaltyPolicy(new LoyaltyPolicy(2, 20)));
+        assertTrue(c.isRegular());
+        assertEquals(900, new Order(c, p, new SessionType("Портрет", 1000)).getTotalCost(), 0.001);
+        assertEquals(800, new Order(c, p, new SessionType("Портрет", 1000)).calculateTotalCost(dm.getLoyaltyPolicy()), 0.001);
+
+        // Досягнення порогу при оплаті підвищує статус одразу
+        assertEquals(0, dm.setLoyaltyPolicy(new LoyaltyPolicy(1, 20)));
+        assertFalse(other.isRegular());
+        dm.setOrderStatus(added.get(2), OrderStatus.PAID);
+        assertTrue(other.isRegular(), "Оплата першого замовлення за порогом 1 не підвищила статус");
+        dm.setOrderStatus(added.get(0), OrderStatus.COMPLETED);
+        assertEquals(1, dm.getPaidOrdersCount(c));
+        assertEquals(800, dm.getLifetimeSpend(c), 0.001);
+        assertTrue(c.isRegular(), "Статус постійного клієнта не знімається");
+        dm.close();
+
+        // Після перезавантаження лічильники будуються одним проходом і збігаються з інкрементними
+        DataManager reloaded = new DataManager(dir.toString());
+        Client again = reloaded.findClientById(c.getId());
+        assertEquals(1, reloaded.getPaidOrdersCount(again));
+        assertEquals(800, reloaded.getLifetimeSpend(again), 0.001);
+        assertTrue(again.isRegular());
+        assertEquals(0, reloaded.reevaluateLoyalty());
+        assertEquals(3, reloaded.getLoyaltyPolicy().getThreshold(), "Правило одного DataManager не впливає на інші");
+        reloaded.close();
+    }
+
+    @Test
+    public void testPhotoIngestStoresEachContentOnce(@TempDir Path dir, @TempDir Path card) throws Exception {
+        DataManager dm = new DataManager(dir.toString());
+        Client c = new Client("Імпорт", "0631112233", "ingest@mail", false);
+        dm.addClient(c);
+        Order o = new Order(c, dm.getPhotographers().get(0), new SessionType("Портрет", 1000));
+        Order reorder = new Order(c, dm.getPhotographers().get(0), new SessionType("Портрет", 1000));
+        dm.addOrder(o);
+        dm.addOrder(reorder);
+
+        // Однакові назви у двох папках картки, копія вмісту під іншою назвою та службовий файл
+        Files.createDirectories(card.resolve("DCIM/100CANON"));
+        Files.createDirectories(card.resolve("DCIM/101CANON"));
+        byte[] big = new byte[700_000]; // Більше за буфер копіювання
+        for (int i = 0; i < big.length; i++) big[i] = (byte) (i * 31);
+        Files.write(card.resolve("DCIM/100CANON/IMG_0001.JPG"), big);
+        Files.write(card.resolve("DCIM/101CANON/IMG_0001.JPG"), new byte[]{1, 2, 3});
+        Files.write(card.resolve("DCIM/101CANON/IMG_0002.CR3"), big);
+        Files.writeString(card.resolve("DCIM/index.dat"), "service");
+
+        List<Integer> progress = new ArrayList<>();
+        PhotoIngestService.Result r = new PhotoIngestService(dm, 2)
+                .ingest(o, card, (done, total) -> { synchronized (progress) { progress.add(total); } });
+        assertEquals(List.of(), r.failures());
+        assertEquals(3, r.photos().size());
+        assertEquals(List.of(3, 3, 3), progress);
+        Photo first = r.photos().get(0);
+        String bigHash = java.util.HexFormat.of().formatHex(java.security.MessageDigest.getInstance("SHA-256").digest(big));
+        assertEquals(bigHash, first.getContentHash());
+        assertEquals(big.length, first.getSize());
+        assertTrue(first.getFilePath().contains(bigHash.substring(0, 2) + java.io.File.separator + bigHash.substring(2, 4)));
+        assertArrayEquals(big, Files.readAllBytes(dir.resolve(first.getFilePath())));
+        assertArrayEquals(new byte[]{1, 2, 3}, Files.readAllBytes(dir.resolve(r.photos().get(1).getFilePath())));
+        assertEquals(first.getFilePath(), r.photos().get(2).getFilePath(), "Однаковий вміст — один об'єкт");
+        assertEquals("IMG_0001.JPG", first.getDisplayName(), "Назва з фотоапарата зберігається окремо від шляху");
+        assertEquals("IMG_0002.CR3", r.photos().get(2).getDisplayName());
+        assertEquals(3, o.getPhotos().size());
+
+        // Повторний імпорт для іншого замовлення нічого не копіює
+        PhotoIngestService.Result again = new PhotoIngestService(dm, 2).ingest(reorder, card, null);
+        assertEquals(3, again.duplicates());
+        assertEquals(0, again.bytes());
+        ContentStore store = dm.getContentStore();
+        assertEquals(2, store.objectCount());
+        assertEquals(big.length + 3, store.storedBytes());
+        assertEquals(4, store.refCount(bigHash));
+        try (var objects = Files.walk(dir.resolve(PhotoIngestService.DIR_NAME).resolve(ContentStore.OBJECTS_DIR))) {
+            assertEquals(2, objects.filter(Files::isRegularFile).count());
+        }
+        dm.close();
+
+        // Шляхи, розмір і хеш відновлюються з журналу, лічильники посилань — з записів фото
+        DataManager reloaded = new DataManager(dir.toString());
+        List<Photo> photos = reloaded.findOrderById(reorder.getId()).getPhotos();
+        assertEquals(3, photos.size());
+        assertEquals(first.getFilePath(), photos.get(0).getFilePath());
+        assertEquals(bigHash, photos.get(2).getContentHash());
+        assertEquals("IMG_0002.CR3", photos.get(2).getDisplayName());
+        assertEquals(4, reloaded.getContentStore().refCount(bigHash));
+        assertTrue(reloaded.getContentStore().mayContain(3));
+        reloaded.close();
+    }
+
+    @Test
+    public void testDeduplicationJobMovesStoredPhotosIntoContentStore(@TempDir Path dir) throws Exception {
+        DataManager dm = new DataManager(dir.toString());
+        Client c = new Client("Дублікати", "0634445566", "dup@mail", false);
+        dm.addClient(c);
+        Order first = new Order(c, dm.getPhotographers().get(0), new SessionType("Портрет", 1000));
+        Order second = new Order(c, dm.getPhotographers().get(0), new SessionType("Портрет", 1000));
+        dm.addOrder(first);
+        dm.addOrder(second);
+
+        // Файли у директоріях замовлень (як до появи сховища за вмістом): два з однаковим вмістом
+        Path legacy = dir.resolve(PhotoIngestService.DIR_NAME);
+        Files.createDirectories(legacy.resolve("a"));
+        Files.createDirectories(legacy.resolve("b"));
+        Files.write(legacy.resolve("a/IMG_1.JPG"), new byte[5000]);
+        Files.write(legacy.resolve("b/IMG_1.JPG"), new byte[5000]);
+        Files.write(legacy.resolve("b/IMG_2.JPG"), new byte[]{7});
+        dm.attachPhotos(first, List.of(new Photo("photos/a/IMG_1.JPG"), new Photo("IMG_9999.JPG")));
+        dm.attachPhotos(second, List.of(new Photo("photos/b/IMG_1.JPG"), new Photo("photos/b/IMG_2.JPG")));
+
+        PhotoDeduplicationJob.Result r = new PhotoDeduplicationJob(dm).run(null);
+        assertEquals(4, r.scanned());
+        assertEquals(2, r.stored());
+        assertEquals(1, r.duplicates());
+        assertEquals(1, r.missing(), "Фото без файлу пропускається");
+        assertEquals(5000, r.bytesFreed());
+        assertFalse(Files.exists(legacy.resolve("a")), "Старі файли та порожні директорії видаляються");
+        assertFalse(Files.exists(legacy.resolve("b")));
+        Photo a = first.getPhotos().get(0), b = second.getPhotos().get(0);
+        assertEquals(a.getFilePath(), b.getFilePath());
+        assertEquals(2, dm.getContentStore().refCount(a.getContentHash()));
+        assertArrayEquals(new byte[]{7}, Files.readAllBytes(dir.resolve(second.getPhotos().get(1).getFilePath())));
+        assertEquals("IMG_9999.JPG", first.getPhotos().get(1).getFilePath());
+        assertEquals("IMG_1.JPG", b.getDisplayName(), "Назва файлу не втрачається при перенесенні");
+        assertEquals("IMG_2.JPG", second.getPhotos().get(1).getDisplayName());
+
+        // Повторний запуск нічого не переносить; перенесення відновлюється з журналу
+        assertEquals(0, new PhotoDeduplicationJob(dm).run(null).stored());
+        dm.close();
+        DataManager reloaded = new DataManager(dir.toString());
+        assertEquals(a.getFilePath(), reloaded.findOrderById(second.getId()).getPhotos().get(0).getFilePath());
+        assertEquals(2, reloaded.findOrderById(first.getId()).getPhotos().size());
+        assertEquals(5000, reloaded.findOrderById(first.getId()).getPhotos().get(0).getSize());
+        assertEquals("IMG_2.JPG", reloaded.findOrderById(second.getId()).getPhotos().get(1).getDisplayName());
+        reloaded.close();
+    }
+
+    @Test
+    public void testDeferredLoadReportsPhases(@TempDir Path dir) throws Exception {
+        DataManager first = new DataManager(dir.toString());
+        first.addClient(new Client("Фаза", "0932223344", "phase@mail", false));
+        first.close();
+
+        DataManager dm = new DataManager(dir.toString(), false);
+        assertTrue(dm.getClients().isEmpty()); // Нічого не завантажено до виклику load()
+        List<LoadPhase> phases = new ArrayList<>();
+        dm.addDataChangeListener(e -> {
+            if (e.getType() == DataChangeEvent.Type.LOAD_PHASE_FINISHED) phases.add((LoadPhase) e.getEntity());
+        });
+        dm.load();
+        assertEquals(List.of(LoadPhase.values()), phases);
+        assertEquals(1, dm.getClients().size());
+        assertEquals(3, dm.getPhotographers().size());
+        assertSame(dm.getClients().get(0), dm.getClientAt(0));
+        assertThrows(UnsupportedOperationException.class, () -> dm.getClients().clear(), "Списки даних змінюються лише через DataManager");
+        dm.close();
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.control;
+
+import com.example.entity.Client;
+import com.example.entity.Photo;
+import com.example.entity.Photographer;
+import com.example.model.Order;
+import com.example.service.SessionType;
+import com.example.util.OrderStatus;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Порівняння обсягу купи для завантаженого знімка: поточне компактне представлення сутностей
+ * (ID як два long, дата як секунди епохи, ледачий список фото, спільні типи сесій та рядки)
+ * проти колишнього (рядок UUID, {@link LocalDateTime}, порожній {@link ArrayList} і власний
+ * {@link SessionType} у кожному замовленні, хеш-індекси за рядковими ID).
+ * Запуск: {@code java -Xmx4g -cp target/classes:target/test-classes com.example.control.EntityHeapBenchmark [кількість замовлень]}
+ */
+public class EntityHeapBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int orderCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Path dir = Files.createTempDirectory("heap-bench");
+        writeDataset(dir, orderCount);
+
+        long base = usedHeap();
+        Snapshot snap = new CsvSnapshotLoader().load(dir);
+        long compact = usedHeap() - base;
+        System.out.printf("Компактне представлення: %.1f МБ (%d байт на замовлення)%n",
+                compact / (1024.0 * 1024.0), compact / orderCount);
+
+        base = usedHeap();
+        LegacySnapshot legacy = new LegacySnapshot(snap);
+        long old = usedHeap() - base;
+        System.out.printf("Колишнє представлення:   %.1f МБ (%d байт на замовлення)%n",
+                old / (1024.0 * 1024.0), old / orderCount);
+        System.out.printf("Економія: %.0f%%%n", 100.0 * (old - compact) / old);
+
+        // Утримуємо обидва знімки до кінця вимірювань
+        System.out.println("(" + snap.orders.size() + " / " + legacy.orders.size() + ")");
+    }
+
+    /** Генерує знімок CSV: 1 клієнт на 5 замовлень, фото у кожного четвертого замовлення. */
+    private static void writeDataset(Path dir, int orderCount) throws IOException {
+        Random rnd = new Random(42);
+        String[] domains = {"gmail.com", "ukr.net", "i.ua", "mail.com"};
+        List<Client> clients = new ArrayList<>();
+        for (int i = 0; i < orderCount / 5; i++) {
+            clients.add(new Client("Клієнт " + i, "050" + i, "client" + i + "@" + domains[i % domains.length], i % 3 == 0));
+        }
+        List<Photographer> photographers = new ArrayList<>();
+        for (int i = 0; i < 50; i++) photographers.add(new Photographer("Фотограф " + i, "099" + i, i % 2 == 0 ? "Портрет" : "Весілля"));
+        SessionType[] types = {new SessionType("Портрет", 1000), new SessionType("Весілля", 5000), new SessionType("Сімейна", 1500)};
+
+        List<Order> orders = new ArrayList<>(orderCount);
+        for (int i = 0; i < orderCount; i++) {
+            Order o = new Order(clients.get(rnd.nextInt(clients.size())),
+                    photographers.get(rnd.nextInt(photographers.size())), types[rnd.nextInt(types.length)]);
+            o.setOrderDate(LocalDateTime.of(2020, 1, 1, 9, 0).plusMinutes(rnd.nextInt(2_000_000)));
+            o.setStatus(OrderStatus.values()[rnd.nextInt(4)]);
+            if (i % 4 == 0) o.getPhotos().add(new Photo("IMG_" + i + ".JPG"));
+            orders.add(o);
+        }
+        new CsvSnapshotWriter().write(dir, clients, photographers, orders);
+    }
+
+    /** Зайнята купа після збирання сміття. */
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    /** Колишня форма особи: рядковий ID та поля без спільного використання рядків. */
+    private static class LegacyPerson implements Serializable {
+        String id, name, phoneNumber, email, specialization;
+        boolean regular;
+    }
+
+    /** Колишня форма фото. */
+    private static class LegacyPhoto implements Serializable {
+        String id, filePath;
+    }
+
+    /** Колишня форма замовлення. */
+    private static class LegacyOrder implements Serializable {
+        String id;
+        LocalDateTime orderDate;
+        OrderStatus status;
+        double totalCost;
+        LegacyPerson client, photographer;
+        SessionType sessionType;
+        List<LegacyPhoto> photos = new ArrayList<>();
+    }
+
+    /** Копія знімка в колишній формі (нові рядки та об'єкти, як після колишнього завантаження). */
+    private static class LegacySnapshot {
+        final List<LegacyOrder> orders = new ArrayList<>();
+        final Map<String, LegacyPerson> personsById = new HashMap<>();
+        final Map<String, LegacyOrder> ordersById = new HashMap<>();
+
+        LegacySnapshot(Snapshot snap) {
+            Map<Object, LegacyPerson> persons = new java.util.IdentityHashMap<>();
+            for (Client c : snap.clients) {
+                LegacyPerson p = new LegacyPerson();
+                p.id = c.getId();
+                p.name = new String(c.getName());
+                p.phoneNumber = new String(c.getPhoneNumber());
+                p.email = new String(c.getEmail());
+                p.regular = c.isRegular();
+                persons.put(c, p);
+                personsById.put(p.id, p);
+            }
+            for (Photographer ph : snap.photographers) {
+                LegacyPerson p = new LegacyPerson();
+                p.id = ph.getId();
+                p.name = new String(ph.getName());
+                p.phoneNumber = new String(ph.getPhoneNumber());
+                p.specialization = new String(ph.getSpecialization());
+                persons.put(ph, p);
+                personsById.put(p.id, p);
+            }
+            for (Order o : snap.orders) {
+                LegacyOrder l = new LegacyOrder();
+                l.id = o.getId();
+                l.orderDate = o.getOrderDate();
+                l.status = o.getStatus();
+                l.totalCost = o.getTotalCost();
+                l.client = persons.get(o.getClient());
+                l.photographer = persons.get(o.getPhotographer());
+                l.sessionType = new SessionType(new String(o.getSessionType().getName()), o.getTotalCost());
+                if (o.hasPhotos()) for (Photo photo : o.getPhotos()) {
+                    LegacyPhoto lp = new LegacyPhoto();
+                    lp.id = photo.getId();
+                    lp.filePath = new String(photo.getFilePath());
+                    l.photos.add(lp);
+                }
+                orders.add(l);
+                ordersById.put(l.id, l);
+            }
+        }
+    }
+}
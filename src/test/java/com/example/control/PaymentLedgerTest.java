@@ -0,0 +1,107 @@
+package com.example.control;
+
+import com.example.entity.Payment;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PaymentLedgerTest {
+
+    @Test
+    public void testSegmentsIndexAndTotalsSurviveReopen(@TempDir Path dir) throws Exception {
+        // Малий розмір сегмента, щоб платежі розійшлися по кількох сегментах
+        PaymentLedger ledger = new PaymentLedger(dir, 1024);
+        LocalDateTime day = LocalDateTime.of(2032, 4, 1, 12, 0);
+        List<Payment> batch = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            batch.add(new Payment("p" + i, "order-" + (i % 7), 100 + i, day.plusDays(i / 20)));
+        }
+        ledger.appendAll(batch);
+        ledger.append(new Payment("late", "order-0", 50, day.minusDays(1))); // Платіж заднім числом
+        ledger.close();
+        assertTrue(Files.exists(dir.resolve("payments-000002.idx")), "Закриті сегменти мають індекс");
+
+        PaymentLedger reopened = new PaymentLedger(dir, 1024);
+        List<Payment> order0 = reopened.findByOrder("order-0");
+        assertEquals(10, order0.size());
+        assertEquals("p0", order0.get(0).getId());
+        assertEquals("late", order0.get(9).getId());
+        assertEquals(day.plusDays(2), order0.get(8).getPaymentDate());
+        assertEquals(List.of(), reopened.findByOrder("missing"));
+
+        LocalDate first = day.toLocalDate();
+        long firstDay = 0;
+        for (int i = 0; i < 20; i++) firstDay += (100 + i) * 100L;
+        assertEquals(firstDay, reopened.totalCents(first, first));
+        assertEquals(20, reopened.count(first, first));
+        assertEquals(5000, reopened.totalCents(first.minusDays(1), first.minusDays(1)));
+        assertEquals(61, reopened.count(LocalDate.MIN, LocalDate.MAX));
+        assertEquals(0, reopened.count(first.plusDays(10), first.plusDays(20)));
+        reopened.close();
+    }
+
+    @Test
+    public void testTornTailIsDiscarded(@TempDir Path dir) throws Exception {
+        PaymentLedger ledger = new PaymentLedger(dir, PaymentLedger.DEFAULT_SEGMENT_BYTES);
+        LocalDateTime at = LocalDateTime.of(2032, 5, 1, 10, 0);
+        ledger.append(new Payment("a", "order-1", 300, at));
+        ledger.append(new Payment("b", "order-1", 200, at));
+        ledger.close();
+
+        // Обриваємо останній запис, як при збої під час запису
+        Path segment = dir.resolve("payments-000001.seg");
+        try (FileChannel ch = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            ch.truncate(ch.size() - 3);
+        }
+        PaymentLedger reopened = new PaymentLedger(dir, PaymentLedger.DEFAULT_SEGMENT_BYTES);
+        assertEquals(1, reopened.findByOrder("order-1").size());
+        assertEquals(30000, reopened.totalCents(at.toLocalDate(), at.toLocalDate()));
+
+        // Журнал продовжується після коректної частини
+        reopened.append(new Payment("c", "order-1", 100, at));
+        reopened.close();
+        PaymentLedger again = new PaymentLedger(dir, PaymentLedger.DEFAULT_SEGMENT_BYTES);
+        assertEquals(List.of("a", "c"), again.findByOrder("order-1").stream().map(Payment::getId).toList());
+        assertEquals(40000, again.totalCents(at.toLocalDate(), at.toLocalDate()));
+        again.close();
+    }
+
+    @Test
+    public void testFailedWriteAndOpenKeepIndexConsistent(@TempDir Path dir) throws Exception {
+        LocalDateTime at = LocalDateTime.of(2032, 6, 1, 10, 0);
+        LocalDate day = at.toLocalDate();
+        PaymentLedger ledger = new PaymentLedger(dir, 1024);
+        ledger.append(new Payment("a", "order-1", 100, at));
+
+        // Наступний сегмент не вдається створити: у індексі лише платежі, що вже лежать на диску
+        Files.createDirectory(dir.resolve("payments-000002.seg"));
+        List<Payment> batch = new ArrayList<>();
+        for (int i = 0; i < 30; i++) batch.add(new Payment("b" + i, "order-1", 10, at));
+        assertThrows(IOException.class, () -> ledger.appendAll(batch));
+        long written = ledger.count(day, day);
+        assertTrue(written > 1 && written < 31, "Записано лише перший сегмент: " + written);
+        assertEquals(written, ledger.findByOrder("order-1").size());
+        ledger.close();
+
+        // Журнал, який не вдалося прочитати, відкривається при наступному зверненні без подвійного обліку
+        PaymentLedger reopened = new PaymentLedger(dir, 1024);
+        assertThrows(IOException.class, () -> reopened.count(day, day));
+        Files.delete(dir.resolve("payments-000002.seg"));
+        assertEquals(written, reopened.count(day, day));
+        reopened.append(new Payment("c", "order-1", 100, at));
+        assertEquals(written + 1, reopened.findByOrder("order-1").size());
+        assertEquals(written + 1, reopened.count(day, day));
+        reopened.close();
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.control;
+
+import com.example.entity.Client;
+import com.example.entity.Photo;
+import com.example.entity.Photographer;
+import com.example.model.Order;
+import com.example.service.SessionType;
+import com.example.util.OrderStatus;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Порівняльний бенчмарк запису знімка CSV: старий спосіб (PrintWriter + конкатенація
+ * рядків, файли по черзі) проти {@link CsvSnapshotWriter}, а також запис і читання
+ * знімка CSV проти двійкового {@link BinaryStorage}.
+ * Запуск: {@code java -cp target/classes:target/test-classes com.example.control.SnapshotWriteBenchmark [кількість замовлень]}
+ */
+public class SnapshotWriteBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int orderCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Random rnd = new Random(42);
+
+        List<Client> clients = new ArrayList<>();
+        for (int i = 0; i < orderCount / 5; i++) {
+            clients.add(new Client("Клієнт " + i, "050" + i, "client" + i + "@mail.com", i % 3 == 0));
+        }
+        List<Photographer> photographers = new ArrayList<>();
+        for (int i = 0; i < 50; i++) photographers.add(new Photographer("Фотограф " + i, "099" + i, "Портрет"));
+        SessionType[] types = {new SessionType("Портрет", 1000), new SessionType("Весілля", 5000), new SessionType("Сімейна", 1500)};
+
+        List<Order> orders = new ArrayList<>(orderCount);
+        for (int i = 0; i < orderCount; i++) {
+            Order o = new Order(clients.get(rnd.nextInt(clients.size())),
+                    photographers.get(rnd.nextInt(photographers.size())), types[rnd.nextInt(types.length)]);
+            o.setOrderDate(LocalDateTime.of(2020, 1, 1, 9, 0).plusMinutes(rnd.nextInt(2_000_000)));
+            o.setStatus(OrderStatus.values()[rnd.nextInt(4)]);
+            if (i % 4 == 0) o.getPhotos().add(new Photo("IMG_" + i + ".JPG"));
+            orders.add(o);
+        }
+
+        Path dir = Files.createTempDirectory("snapshot-bench");
+        CsvSnapshotWriter writer = new CsvSnapshotWriter();
+        BinaryStorage binary = new BinaryStorage(null);
+        for (int round = 0; round < 3; round++) {
+            long t0 = System.nanoTime();
+            writeLegacy(dir, clients, photographers, orders);
+            long t1 = System.nanoTime();
+            writer.write(dir, clients, photographers, orders);
+            long t2 = System.nanoTime();
+
+            long bytes = Files.size(dir.resolve("orders.csv")) + Files.size(dir.resolve("clients.csv"))
+                    + Files.size(dir.resolve("photos.csv"));
+            double mb = bytes / (1024.0 * 1024.0);
+            System.out.printf("Раунд %d: PrintWriter %.0f мс (%.1f МБ/с), CsvSnapshotWriter %.0f мс (%.1f МБ/с)%n",
+                    round + 1, (t1 - t0) / 1e6, mb / ((t1 - t0) / 1e9), (t2 - t1) / 1e6, mb / ((t2 - t1) / 1e9));
+
+            long t3 = System.nanoTime();
+            new CsvSnapshotLoader().load(dir);
+            long t4 = System.nanoTime();
+            binary.write(dir, clients, photographers, orders);
+            long t5 = System.nanoTime();
+            binary.read(dir);
+            long t6 = System.nanoTime();
+            System.out.printf("         CSV: читання %.0f мс; двійковий (%.1f МБ): запис %.0f мс, читання %.0f мс%n",
+                    (t4 - t3) / 1e6, Files.size(dir.resolve(BinaryStorage.FILE_NAME)) / (1024.0 * 1024.0),
+                    (t5 - t4) / 1e6, (t6 - t5) / 1e6);
+        }
+    }
+
+    /** Старий алгоритм збереження з DataManager (до CsvSnapshotWriter). */
+    private static void writeLegacy(Path dir, List<Client> clients, List<Photographer> photographers, List<Order> orders)
+            throws IOException {
+        String path = dir.toString();
+        try (PrintWriter w = new PrintWriter(new FileWriter(path + "/clients.csv"))) {
+            for (Client c : clients)
+                w.println(c.getId() + "," + c.getName() + "," + c.getPhoneNumber() + "," + c.getEmail() + "," + c.isRegular());
+        }
+        try (PrintWriter w = new PrintWriter(new FileWriter(path + "/photographers.csv"))) {
+            for (Photographer p : photographers)
+                w.println(p.getId() + "," + p.getName() + "," + p.getPhoneNumber() + "," + p.getSpecialization());
+        }
+        try (PrintWriter w = new PrintWriter(new FileWriter(path + "/orders.csv"))) {
+            for (Order o : orders)
+                w.println(o.getId() + "," + o.getOrderDate().toString() + "," + o.getStatus() + "," +
+                        o.getClient().getId() + "," + o.getPhotographer().getId() + "," + o.getSessionType().getName() + "," + o.getTotalCost());
+        }
+        try (PrintWriter w = new PrintWriter(new FileWriter(path + "/photos.csv"))) {
+            for (Order o : orders) {
+                for (Photo photo : o.getPhotos()) {
+                    w.println(photo.getId() + "," + o.getId() + "," + photo.getFilePath());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.control;
+
+import com.example.entity.Client;
+import com.example.entity.Photo;
+import com.example.model.Order;
+import com.example.service.SessionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ThumbnailServiceTest {
+
+    @Test
+    public void testMemoryAndDiskCacheWithFocusPriority(@TempDir Path dir, @TempDir Path card) throws Exception {
+        DataManager dm = new DataManager(dir.toString());
+        Client c = new Client("Мініатюри", "0637778899", "thumb@mail", false);
+        dm.addClient(c);
+        Order o = new Order(c, dm.getPhotographers().get(0), new SessionType("Портрет", 1000));
+        Order other = new Order(c, dm.getPhotographers().get(0), new SessionType("Портрет", 1000));
+        dm.addOrder(o);
+        dm.addOrder(other);
+        writeJpeg(card.resolve("IMG_0001.JPG"), 1600, 1200, Color.RED);
+        writeJpeg(card.resolve("IMG_0002.JPG"), 1200, 1600, Color.BLUE);
+        List<Photo> photos = new PhotoIngestService(dm).ingest(o, card, null).photos();
+        Photo wide = photos.get(0), tall = photos.get(1);
+
+        ThumbnailService thumbs = new ThumbnailService(dm, 1 << 20, 64, 1);
+        BufferedImage first = thumbs.request(o, wide).get(30, TimeUnit.SECONDS);
+        assertEquals(64, first.getWidth());
+        assertEquals(48, first.getHeight());
+        assertTrue((first.getRGB(32, 24) >> 16 & 0xFF) > 200, "Мініатюра зберігає вміст");
+        assertEquals(48, thumbs.request(o, tall).get(30, TimeUnit.SECONDS).getWidth());
+        assertSame(first, thumbs.getCached(wide));
+
+        // Звернення до кешу в пам'яті — без диска та декодування
+        long start = System.nanoTime();
+        for (int i = 0; i < 10_000; i++) assertNotNull(thumbs.getCached(wide));
+        assertTrue((System.nanoTime() - start) / 10_000 < 1_000_000, "Попадання в кеш має бути коротшим за 1 мс");
+
+        // Обсяг пам'яті обмежує кеш: лишається найостанніше використана мініатюра
+        thumbs.setMemoryBudget(64 * 48 * 4);
+        assertEquals(1, thumbs.getCachedCount());
+        assertNotNull(thumbs.getCached(wide));
+        assertNull(thumbs.getCached(tall));
+        thumbs.close();
+
+        // Дисковий кеш переживає перезапуск і не потребує вихідного файлу
+        Files.delete(dir.resolve(wide.getFilePath()));
+        ThumbnailService restarted = new ThumbnailService(dm, 1 << 20, 64, 1);
+        assertEquals(48, restarted.request(o, wide).get(30, TimeUnit.SECONDS).getHeight());
+        assertNull(restarted.request(o, new Photo("IMG_9999.JPG")).get(30, TimeUnit.SECONDS), "Немає файлу — немає мініатюри");
+        restarted.close();
+
+        // Фото замовлення у фокусі обробляються раніше за чергу інших замовлень
+        ThumbnailService focused = new ThumbnailService(dm, 1 << 20, 64, 1);
+        focused.setFocus(other);
+        List<String> completed = new ArrayList<>();
+        List<java.util.concurrent.CompletableFuture<BufferedImage>> all = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Photo copy = new Photo(tall.getFilePath(), tall.getSize(), tall.getContentHash());
+            all.add(focused.request(o, copy).whenComplete((img, e) -> { synchronized (completed) { completed.add("o"); } }));
+        }
+        // Частина черги могла виконатися ще до запиту; після нього — не більше одного завдання, що вже виконується
+        int before;
+        synchronized (completed) { before = completed.size(); }
+        all.add(focused.request(other, tall).whenComplete((img, e) -> { synchronized (completed) { completed.add("other"); } }));
+        for (var f : all) f.get(30, TimeUnit.SECONDS);
+        assertTrue(completed.indexOf("other") <= before + 1, "Замовлення у фокусі чекало на чергу: " + completed);
+        focused.close();
+        dm.close();
+    }
+
+    private static void writeJpeg(Path file, int w, int h, Color color) throws Exception {
+        BufferedImage image = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(color);
+        g.fillRect(0, 0, w, h);
+        g.dispose();
+        ImageIO.write(image, "jpeg", file.toFile());
+    }
+}
@@ -1,9 +1,12 @@
 package com.example.model;
 
 import com.example.entity.Client;
+import com.example.entity.Photo;
 import com.example.entity.Photographer;
 import com.example.service.SessionType;
 import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class OrderTest {
@@ -37,4 +40,31 @@ public class OrderTest {
         // Очікуємо знижку 10%: 5000 - 500 = 4500
         assertEquals(4500.0, order.getTotalCost(), 0.01);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testCompactFieldsKeepGetters() {
+        Client client = new Client("Compact", "000", "Some.One@Mail.com", false);
+        Order order = new Order(client, new Photographer("Photo Man", "111", "General"), new SessionType("Portrait", 1000.0));
+
+        // ID: канонічний UUID зберігається двома long, будь-який інший рядок — як є
+        order.setId("0f8fad5b-d9cb-469f-a165-70867728950e");
+        assertEquals("0f8fad5b-d9cb-469f-a165-70867728950e", order.getId());
+        order.setId("O-42");
+        assertEquals("O-42", order.getId());
+        order.setId("0F8FAD5B-D9CB-469F-A165-70867728950E"); // Великі літери не канонічні — без змін
+        assertEquals("0F8FAD5B-D9CB-469F-A165-70867728950E", order.getId());
+
+        LocalDateTime date = LocalDateTime.parse("2024-03-07T10:15:30.123456789");
+        order.setOrderDate(date);
+        assertEquals(date, order.getOrderDate());
+
+        // Список фото створюється лише при першому зверненні
+        assertFalse(order.hasPhotos());
+        order.getPhotos().add(new Photo("IMG_1.JPG"));
+        assertTrue(order.hasPhotos());
+
+        assertEquals("Some.One@Mail.com", client.getEmail());
+        client.setEmail("no-domain");
+        assertEquals("no-domain", client.getEmail());
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.ui.panels;
+
+import com.example.control.DataManager;
+import com.example.entity.Client;
+import com.example.model.Order;
+import com.example.service.SessionType;
+import com.example.util.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.swing.*;
+import javax.swing.event.TableModelEvent;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrdersTableModelTest {
+
+    @Test
+    public void testRowLevelEventsForAddedAndPaidOrders(@TempDir Path dir) throws Exception {
+        DataManager dm = new DataManager(dir.toString());
+        Client c = new Client("Table", "0930001122", "table@mail", false);
+        dm.addClient(c);
+        OrdersTableModel[] model = new OrdersTableModel[1];
+        List<TableModelEvent> events = new ArrayList<>();
+        SwingUtilities.invokeAndWait(() -> {
+            model[0] = new OrdersTableModel(dm);
+            model[0].addTableModelListener(events::add);
+        });
+
+        // Зміни з іншого потоку доходять до моделі через потік Swing
+        Order o = new Order(c, dm.getPhotographers().get(0), new SessionType("Портрет", 1000));
+        dm.addOrder(o);
+        dm.transition(o.getId(), OrderStatus.PAID);
+        SwingUtilities.invokeAndWait(() -> { });
+
+        assertEquals(1, model[0].getRowCount());
+        assertEquals(2, events.size());
+        assertEquals(TableModelEvent.INSERT, events.get(0).getType());
+        assertEquals(TableModelEvent.UPDATE, events.get(1).getType());
+        assertEquals(0, events.get(1).getFirstRow());
+        assertEquals(0, events.get(1).getLastRow());
+        assertEquals(OrderStatus.PAID, model[0].getValueAt(0, 5));
+        assertEquals("1000.0 грн", model[0].getValueAt(0, 6));
+        assertSame(o, model[0].getOrderAt(0));
+        dm.close();
+    }
+
+    @Test
+    public void testShortIdGrowsWhenSimilarOrderIsAdded(@TempDir Path dir) throws Exception {
+        DataManager dm = new DataManager(dir.toString());
+        Client c = new Client("Prefix", "0930003344", "prefix@mail", false);
+        dm.addClient(c);
+        Order first = new Order(c, dm.getPhotographers().get(0), new SessionType("Портрет", 1000));
+        first.setId("abcdef12-0000-4000-8000-000000000001");
+        dm.addOrder(first);
+        OrdersTableModel[] model = new OrdersTableModel[1];
+        List<TableModelEvent> events = new ArrayList<>();
+        SwingUtilities.invokeAndWait(() -> {
+            model[0] = new OrdersTableModel(dm);
+            model[0].addTableModelListener(events::add);
+        });
+        assertEquals("abcdef", model[0].getValueAt(0, 0));
+
+        Order second = new Order(c, dm.getPhotographers().get(0), new SessionType("Портрет", 1000));
+        second.setId("abcdef34-0000-4000-8000-000000000002");
+        dm.addOrder(second);
+        SwingUtilities.invokeAndWait(() -> { });
+
+        assertEquals("abcdef1", model[0].getValueAt(0, 0));
+        assertEquals("abcdef3", model[0].getValueAt(1, 0));
+        assertTrue(events.stream().anyMatch(e -> e.getType() == TableModelEvent.UPDATE && e.getColumn() == 0
+                && e.getFirstRow() == 0), "Колонку ID наявних рядків перемальовано");
+        dm.close();
+    }
+}